@@ -12,9 +12,13 @@ import org.theta4j.ptp.type.UINT32;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
@@ -44,6 +48,13 @@ public class ObjectTest extends BaseThetaTest {
         assertThat(objectHandles, hasItems(objectHandle));
     }
 
+    @Test
+    public void getObjectHandleArray() throws IOException {
+        long[] objectHandles = theta.getObjectHandleArray();
+        assertThat(objectHandles.length, is(theta.getObjectHandles().size()));
+        assertTrue(Arrays.stream(objectHandles).anyMatch(h -> h == objectHandle.longValue()));
+    }
+
     @Test
     public void getNumObjects() throws IOException {
         // numObjects is always 1 or more because THETA always has directory,
@@ -72,4 +83,33 @@ public class ObjectTest extends BaseThetaTest {
             theta.getResizedImageObject(objectHandle, out);
         }
     }
+
+    @Test
+    public void getPartialObject() throws IOException {
+        ByteArrayOutputStream whole = new ByteArrayOutputStream();
+        theta.getObject(objectHandle, whole);
+
+        ByteArrayOutputStream part = new ByteArrayOutputStream();
+        UINT32 received = theta.getPartialObject(objectHandle, new UINT32(100), new UINT32(1000), part);
+
+        assertThat(received, is(new UINT32(1000)));
+        assertThat(part.toByteArray(), is(Arrays.copyOfRange(whole.toByteArray(), 100, 1100)));
+    }
+
+    @Test
+    public void resumableDownload() throws IOException {
+        ByteArrayOutputStream whole = new ByteArrayOutputStream();
+        theta.getObject(objectHandle, whole);
+
+        Path file = Files.createTempFile("theta4j", ".jpg");
+        try {
+            ResumableDownload download = new ResumableDownload(objectHandle, whole.size(), file, 64 * 1024, 0);
+            download.resume(theta);
+
+            assertTrue(download.isCompleted());
+            assertThat(Files.readAllBytes(file), is(whole.toByteArray()));
+        } finally {
+            Files.delete(file);
+        }
+    }
 }
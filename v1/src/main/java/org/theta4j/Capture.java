@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j;
+
+import org.theta4j.ptp.PtpException;
+import org.theta4j.ptp.code.EventCode;
+import org.theta4j.ptp.code.ResponseCode;
+import org.theta4j.ptp.data.Event;
+import org.theta4j.ptp.type.UINT32;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+
+/**
+ * The correlation of a capture with its events by the TransactionID of InitiateCapture operation.
+ * <p>
+ * CaptureComplete event completes the capture with the object of ObjectAdded event,
+ * and StoreFull event completes the capture exceptionally.
+ * The events are waited through the event waiter registry of the initiator,
+ * so capturing does not add a listener for each shot.
+ */
+final class Capture {
+    private Capture() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Returns the future of the capture. Completing the future stops waiting for the events.
+     *
+     * @param awaitEvent    The function which returns the future of the event of the code and the TransactionID.
+     * @param transactionID The TransactionID of InitiateCapture operation.
+     */
+    static CompletableFuture<UINT32> await(BiFunction<EventCode, UINT32, CompletableFuture<Event>> awaitEvent, UINT32 transactionID) {
+        CompletableFuture<Event> objectAdded = awaitEvent.apply(EventCode.OBJECT_ADDED, transactionID);
+        CompletableFuture<Event> captureComplete = awaitEvent.apply(EventCode.CAPTURE_COMPLETE, transactionID);
+        CompletableFuture<Event> storeFull = awaitEvent.apply(EventCode.STORE_FULL, transactionID);
+
+        CompletableFuture<UINT32> capture = new CompletableFuture<>();
+
+        // ObjectAdded event precedes CaptureComplete event on the event thread.
+        captureComplete.whenComplete((event, e) -> {
+            if (e != null) {
+                capture.completeExceptionally(e);
+            } else if (objectAdded.isDone() && !objectAdded.isCompletedExceptionally()) {
+                capture.complete(objectAdded.join().getP1());
+            } else {
+                capture.completeExceptionally(new IOException("CaptureComplete event is received without ObjectAdded event."));
+            }
+        });
+        storeFull.thenRun(() -> capture.completeExceptionally(new PtpException(ResponseCode.STORE_FULL.value())));
+
+        // Stop waiting for the other events, e.g. when the invoker gives up the capture.
+        capture.whenComplete((objectHandle, e) -> {
+            objectAdded.cancel(false);
+            captureComplete.cancel(false);
+            storeFull.cancel(false);
+        });
+
+        return capture;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j;
+
+import org.theta4j.util.Validators;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The queue of the commands to THETA, which are executed by a single worker thread in the order of submission.
+ */
+final class CommandQueue implements Closeable {
+    private final ThreadPoolExecutor executor;
+
+    // The number of the commands submitted by submit() and not started yet
+    private final AtomicInteger pendingCommands = new AtomicInteger();
+
+    // Constructor
+
+    /**
+     * Create the queue and start the worker thread.
+     *
+     * @param threadName The name of the worker thread.
+     */
+    CommandQueue(String threadName) {
+        Validators.notNull("threadName", threadName);
+
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Submit
+
+    /**
+     * Submit the command to the queue.
+     * If the returned future is cancelled before the command is started, the command is not executed.
+     *
+     * @param command The command to execute.
+     * @return The future which is completed with the result of the command,
+     * or completed exceptionally with the exception thrown by the command.
+     * @throws NullPointerException if command is null.
+     */
+    <T> CompletableFuture<T> submit(Callable<T> command) {
+        Validators.notNull("command", command);
+
+        Task<T> task = new Task<>(command, false);
+
+        pendingCommands.incrementAndGet();
+        if (!execute(task)) {
+            pendingCommands.decrementAndGet();
+        }
+
+        return task.future;
+    }
+
+    /**
+     * Submit the command which is executed when no command submitted by {@link #submit(Callable)} is waiting.
+     * The command yields to such commands, even if they are submitted after it.
+     * If the returned future is cancelled before the command is started, the command is not executed.
+     *
+     * @param command The command to execute.
+     * @return The future which is completed with the result of the command,
+     * or completed exceptionally with the exception thrown by the command.
+     * @throws NullPointerException if command is null.
+     */
+    <T> CompletableFuture<T> submitWhenIdle(Callable<T> command) {
+        Validators.notNull("command", command);
+
+        Task<T> task = new Task<>(command, true);
+        execute(task);
+
+        return task.future;
+    }
+
+    private boolean execute(Task<?> task) {
+        try {
+            executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            task.future.completeExceptionally(new IOException("The command queue is closed.", e));
+            return false;
+        }
+    }
+
+    // Closeable
+
+    /**
+     * Stop accepting commands and complete the pending commands exceptionally.
+     * The running command is not interrupted.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+
+        List<Runnable> pending = new ArrayList<>();
+        executor.getQueue().drainTo(pending);
+
+        for (Runnable task : pending) {
+            ((Task<?>) task).future.completeExceptionally(new IOException("The command queue is closed."));
+        }
+    }
+
+    // Task
+
+    private final class Task<T> implements Runnable {
+        private final Callable<T> command;
+        private final boolean whenIdle;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        private Task(Callable<T> command, boolean whenIdle) {
+            this.command = command;
+            this.whenIdle = whenIdle;
+        }
+
+        @Override
+        public void run() {
+            if (!whenIdle) {
+                pendingCommands.decrementAndGet();
+            } else if (0 < pendingCommands.get() && !future.isDone()) {
+                execute(this); // Yield to the pending commands
+                return;
+            }
+
+            if (future.isDone()) {
+                return;
+            }
+
+            try {
+                future.complete(command.call());
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j;
+
+import org.theta4j.util.Validators;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * The cache of the device property values of THETA.
+ * <p>
+ * The cached value is served by the getters of {@link Theta} without a round trip to THETA.
+ * The value is invalidated when THETA raises DevicePropChanged event for the property,
+ * or when the property is set through {@link Theta}.
+ * The properties which THETA does not notify the change of are expired after the time to live.
+ *
+ * @see Theta#setDevicePropCache(DevicePropCache)
+ */
+public final class DevicePropCache {
+    /**
+     * The time to live which means the value is kept until it is invalidated.
+     */
+    public static final long NO_EXPIRY = Long.MAX_VALUE;
+
+    /**
+     * The default time to live in milliseconds of the properties which THETA does not notify the change of.
+     */
+    public static final long DEFAULT_TIME_TO_LIVE_MILLIS = 1000;
+
+    private static final int SIZE = DevicePropCode.values().length;
+
+    private final LongSupplier nanoClock;
+
+    // Indexed by the ordinal of DevicePropCode
+
+    private final long[] timeToLives = new long[SIZE]; // in nanoseconds
+    private final byte[][] values = new byte[SIZE][];
+    private final long[] storedTimes = new long[SIZE];
+    private final long[] versions = new long[SIZE];
+
+    // Statistics
+
+    private final AtomicLong hitCount = new AtomicLong(0);
+    private final AtomicLong missCount = new AtomicLong(0);
+
+    // Constructor
+
+    /**
+     * Create the cache with the default time to live.
+     * The properties which THETA notifies the change of, such as CAPTURE_STATUS, are kept until invalidated.
+     * DATE_TIME is not cached.
+     * The other properties are expired after DEFAULT_TIME_TO_LIVE_MILLIS.
+     */
+    public DevicePropCache() {
+        this(System::nanoTime);
+    }
+
+    DevicePropCache(LongSupplier nanoClock) {
+        Validators.notNull("nanoClock", nanoClock);
+
+        this.nanoClock = nanoClock;
+
+        for (DevicePropCode code : DevicePropCode.values()) {
+            timeToLives[code.ordinal()] = TimeUnit.MILLISECONDS.toNanos(DEFAULT_TIME_TO_LIVE_MILLIS);
+        }
+
+        timeToLives[DevicePropCode.DATE_TIME.ordinal()] = 0;
+        timeToLives[DevicePropCode.CAPTURE_STATUS.ordinal()] = NO_EXPIRY;
+        timeToLives[DevicePropCode.RECORDING_TIME.ordinal()] = NO_EXPIRY;
+        timeToLives[DevicePropCode.REMAINING_RECORDING_TIME.ordinal()] = NO_EXPIRY;
+    }
+
+    // Getter
+
+    /**
+     * Returns the time to live of the property.
+     *
+     * @param devicePropCode The code of the property.
+     * @param unit           The unit of the returned value.
+     * @throws NullPointerException if an argument is null.
+     */
+    public synchronized long getTimeToLive(DevicePropCode devicePropCode, TimeUnit unit) {
+        Validators.notNull("devicePropCode", devicePropCode);
+        Validators.notNull("unit", unit);
+
+        long timeToLive = timeToLives[devicePropCode.ordinal()];
+        return timeToLive == NO_EXPIRY ? NO_EXPIRY : unit.convert(timeToLive, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the number of the values served from the cache.
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Returns the number of the values which were not in the cache.
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    // Setter
+
+    /**
+     * Sets the time to live of the property.
+     * The cached value of the property is invalidated.
+     *
+     * @param devicePropCode The code of the property.
+     * @param timeToLive     The time to live. 0 disables caching the property, and NO_EXPIRY keeps the value until invalidated.
+     * @param unit           The unit of timeToLive.
+     * @throws NullPointerException     if devicePropCode or unit is null.
+     * @throws IllegalArgumentException if timeToLive is negative.
+     */
+    public synchronized void setTimeToLive(DevicePropCode devicePropCode, long timeToLive, TimeUnit unit) {
+        Validators.notNull("devicePropCode", devicePropCode);
+        Validators.rangeEq("timeToLive", timeToLive, 0L, Long.MAX_VALUE);
+        Validators.notNull("unit", unit);
+
+        timeToLives[devicePropCode.ordinal()] = timeToLive == NO_EXPIRY ? NO_EXPIRY : unit.toNanos(timeToLive);
+        invalidate(devicePropCode);
+    }
+
+    // Invalidate
+
+    /**
+     * Invalidate the cached value of the property.
+     *
+     * @param devicePropCode The code of the property.
+     * @throws NullPointerException if devicePropCode is null.
+     */
+    public synchronized void invalidate(DevicePropCode devicePropCode) {
+        Validators.notNull("devicePropCode", devicePropCode);
+
+        int index = devicePropCode.ordinal();
+        values[index] = null;
+        versions[index]++;
+    }
+
+    /**
+     * Invalidate the cached values of all properties.
+     */
+    public synchronized void invalidateAll() {
+        for (int i = 0; i < SIZE; i++) {
+            values[i] = null;
+            versions[i]++;
+        }
+    }
+
+    // Access from Theta
+
+    /**
+     * Returns the cached value of the property, or null if it is not cached or expired.
+     * The returned array must not be modified.
+     */
+    synchronized byte[] get(DevicePropCode devicePropCode) {
+        int index = devicePropCode.ordinal();
+
+        byte[] value = values[index];
+        if (value != null && isExpired(index)) {
+            values[index] = null;
+            value = null;
+        }
+
+        if (value == null) {
+            missCount.incrementAndGet();
+        } else {
+            hitCount.incrementAndGet();
+        }
+
+        return value;
+    }
+
+    /**
+     * Returns the version of the property, which is changed every time the property is invalidated.
+     * It must be acquired before getting the value from THETA, and passed to put.
+     */
+    synchronized long version(DevicePropCode devicePropCode) {
+        return versions[devicePropCode.ordinal()];
+    }
+
+    /**
+     * Store the value of the property got from THETA.
+     * The value is discarded if the property is invalidated after the version was acquired,
+     * because the value may be older than the change.
+     */
+    synchronized void put(DevicePropCode devicePropCode, long version, byte[] value) {
+        int index = devicePropCode.ordinal();
+
+        if (versions[index] != version || timeToLives[index] == 0) {
+            return;
+        }
+
+        values[index] = value;
+        storedTimes[index] = nanoClock.getAsLong();
+    }
+
+    // Utility
+
+    private boolean isExpired(int index) {
+        long timeToLive = timeToLives[index];
+        return timeToLive != NO_EXPIRY && timeToLive <= nanoClock.getAsLong() - storedTimes[index];
+    }
+}
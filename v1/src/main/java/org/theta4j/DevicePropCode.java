@@ -5,6 +5,7 @@
 package org.theta4j;
 
 import org.theta4j.ptp.code.Code;
+import org.theta4j.ptp.code.CodeTable;
 import org.theta4j.ptp.type.UINT16;
 
 /**
@@ -30,6 +31,10 @@ enum DevicePropCode implements Code<UINT16> {
     RECORDING_TIME(0xD809),
     REMAINING_RECORDING_TIME(0xD80A);
 
+    // Table for valueOf method
+
+    private static final CodeTable<DevicePropCode> TABLE = CodeTable.of(values());
+
     // Property
 
     private final UINT16 value;
@@ -37,7 +42,7 @@ enum DevicePropCode implements Code<UINT16> {
     // Constructor
 
     DevicePropCode(int value) {
-        this.value = new UINT16(value);
+        this.value = UINT16.valueOf(value);
     }
 
     // Code
@@ -49,4 +54,31 @@ enum DevicePropCode implements Code<UINT16> {
     public UINT16 value() {
         return value;
     }
+
+    // valueOf
+
+    /**
+     * Returns the DevicePropCode of the value, or null if the value is not defined.
+     *
+     * @param value The primitive value of the code.
+     */
+    static DevicePropCode find(int value) {
+        return TABLE.get(value);
+    }
+
+    /**
+     * Returns the DevicePropCode of the value.
+     *
+     * @param value The primitive value of the code.
+     * @throws IllegalArgumentException if the value is not defined.
+     */
+    static DevicePropCode valueOf(int value) {
+        DevicePropCode code = find(value);
+
+        if (code == null) {
+            throw new IllegalArgumentException(String.format("Unknown Device Property Code: 0x%04x", value));
+        }
+
+        return code;
+    }
 }
@@ -0,0 +1,253 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.theta4j.ptp.type.UINT32;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A download of an object which is queued to {@link DownloadManager}.
+ * <p>
+ * The progress, the throughput and the estimated remaining time can be read while the job is running.
+ * The throughput is measured only while the job is running, so the time waiting in the queue is excluded.
+ *
+ * @see DownloadManager#submit(UINT32, OutputStream, Variant, int)
+ */
+public final class DownloadJob {
+    /**
+     * The variant of the object to download.
+     */
+    public enum Variant {
+        /**
+         * The original data of the object.
+         */
+        FULL,
+
+        /**
+         * The thumbnail of the object.
+         */
+        THUMB,
+
+        /**
+         * The resized image of the object.
+         */
+        RESIZED
+    }
+
+    /**
+     * The state of the job.
+     */
+    public enum State {
+        QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED
+    }
+
+    /**
+     * Higher priority first, and first submitted first in the same priority.
+     */
+    static final Comparator<DownloadJob> ORDER = Comparator
+            .comparingInt(DownloadJob::getPriority).reversed()
+            .thenComparingLong(job -> job.sequenceNumber);
+
+    private final UINT32 objectHandle;
+    private final Variant variant;
+    private final long sequenceNumber;
+    private final OutputStream dst;
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+    private volatile int priority;
+    private volatile State state = State.QUEUED;
+
+    private final AtomicLong transferredBytes = new AtomicLong();
+    private volatile long totalBytes = -1;
+    private long runningNanos = 0;
+    private long startedNanos = -1;
+
+    // Constructor
+
+    DownloadJob(UINT32 objectHandle, OutputStream dst, Variant variant, int priority, long sequenceNumber) {
+        this.objectHandle = objectHandle;
+        this.variant = variant;
+        this.priority = priority;
+        this.sequenceNumber = sequenceNumber;
+        this.dst = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                dst.write(b);
+                transferredBytes.incrementAndGet();
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                dst.write(b, off, len);
+                transferredBytes.addAndGet(len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                dst.flush();
+            }
+        };
+    }
+
+    // Getter
+
+    /**
+     * Returns the ObjectHandle of the object to download.
+     */
+    public UINT32 getObjectHandle() {
+        return objectHandle;
+    }
+
+    /**
+     * Returns the variant of the object to download.
+     */
+    public Variant getVariant() {
+        return variant;
+    }
+
+    /**
+     * Returns the priority of the job. The job of the higher priority is executed first.
+     *
+     * @see DownloadManager#setPriority(DownloadJob, int)
+     */
+    public int getPriority() {
+        return priority;
+    }
+
+    /**
+     * Returns the state of the job.
+     */
+    public State getState() {
+        State state = this.state;
+        return state == State.QUEUED && future.isCancelled() ? State.CANCELLED : state;
+    }
+
+    /**
+     * Returns the future which is completed when the object is downloaded,
+     * or completed exceptionally with IOException or PtpException.
+     * Cancelling the future cancels the job.
+     */
+    public CompletableFuture<Void> getFuture() {
+        return future;
+    }
+
+    /**
+     * Returns the number of bytes written to the destination.
+     */
+    public long getTransferredBytes() {
+        return transferredBytes.get();
+    }
+
+    /**
+     * Returns the size of the object in bytes, or -1 if it is not known yet.
+     */
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * Returns the progress from 0.0 to 1.0, or -1.0 if the size of the object is not known yet.
+     */
+    public double getProgress() {
+        long total = totalBytes;
+        if (total < 0) {
+            return -1.0;
+        }
+
+        return total == 0 ? 1.0 : Math.min((double) transferredBytes.get() / total, 1.0);
+    }
+
+    /**
+     * Returns the average throughput in bytes per second while the job is running, or 0.0 if it is not measured yet.
+     */
+    public double getThroughput() {
+        long nanos = getRunningNanos();
+        if (nanos <= 0) {
+            return 0.0;
+        }
+
+        return transferredBytes.get() * (double) TimeUnit.SECONDS.toNanos(1) / nanos;
+    }
+
+    /**
+     * Returns the estimated remaining time of the running job,
+     * or -1 if the size of the object or the throughput is not known yet.
+     *
+     * @param unit The unit of the returned time.
+     * @throws NullPointerException if unit is null.
+     */
+    public long getEstimatedRemainingTime(TimeUnit unit) {
+        long total = totalBytes;
+        double throughput = getThroughput();
+        if (total < 0 || throughput <= 0.0) {
+            return -1;
+        }
+
+        long remainingBytes = Math.max(total - transferredBytes.get(), 0);
+        return unit.convert((long) (remainingBytes / throughput * TimeUnit.SECONDS.toNanos(1)), TimeUnit.NANOSECONDS);
+    }
+
+    // Cancel
+
+    /**
+     * Cancel the job. If the job is running, it stops at the boundary of the chunk.
+     *
+     * @return true if the job is cancelled by this call.
+     */
+    public boolean cancel() {
+        return future.cancel(false);
+    }
+
+    // Update from DownloadManager
+
+    OutputStream getDestination() {
+        return dst;
+    }
+
+    void setPriority(int priority) {
+        this.priority = priority;
+    }
+
+    void setTotalBytes(long totalBytes) {
+        this.totalBytes = totalBytes;
+    }
+
+    synchronized void started() {
+        state = State.RUNNING;
+        startedNanos = System.nanoTime();
+    }
+
+    synchronized void stopped(State state) {
+        runningNanos = getRunningNanos();
+        startedNanos = -1;
+        this.state = state;
+    }
+
+    private synchronized long getRunningNanos() {
+        long started = startedNanos;
+        return started < 0 ? runningNanos : runningNanos + System.nanoTime() - started;
+    }
+
+    // Basic Method
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("objectHandle", objectHandle)
+                .append("variant", variant)
+                .append("priority", priority)
+                .append("state", state)
+                .append("transferredBytes", transferredBytes)
+                .append("totalBytes", totalBytes)
+                .toString();
+    }
+}
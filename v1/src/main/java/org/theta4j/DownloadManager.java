@@ -0,0 +1,332 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.theta4j.ptp.type.UINT32;
+import org.theta4j.util.Validators;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * The queue of the downloads from THETA, which are executed back to back by a single worker thread.
+ * <p>
+ * The job of the higher priority is executed first.
+ * The original data of the object is downloaded chunk by chunk with GetPartialObject operation,
+ * and the running job yields to the job of the higher priority at the boundary of the chunk,
+ * so an interactive request does not wait until a bulk download of large objects completes.
+ * The yielded job continues from the next chunk.
+ */
+public final class DownloadManager implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DownloadManager.class);
+
+    /**
+     * Default size of the chunk in bytes.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+
+    /**
+     * Default priority of the job.
+     */
+    public static final int DEFAULT_PRIORITY = 0;
+
+    private final Theta theta;
+    private final int chunkSize;
+    private final Thread worker;
+
+    private final PriorityQueue<DownloadJob> queue = new PriorityQueue<>(DownloadJob.ORDER);
+    private long nextSequenceNumber = 0;
+    private boolean closed = false;
+
+    // Constructor
+
+    /**
+     * Create the manager with the default chunk size and start the worker thread.
+     *
+     * @param theta THETA to download the objects from. It is not closed when this object is closed.
+     * @throws NullPointerException if theta is null.
+     */
+    public DownloadManager(Theta theta) {
+        this(theta, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Create the manager and start the worker thread.
+     *
+     * @param theta     THETA to download the objects from. It is not closed when this object is closed.
+     * @param chunkSize The size of the chunk in bytes.
+     * @throws NullPointerException     if theta is null.
+     * @throws IllegalArgumentException if chunkSize is not positive.
+     */
+    public DownloadManager(Theta theta, int chunkSize) {
+        Validators.notNull("theta", theta);
+        Validators.rangeEq("chunkSize", chunkSize, 1, Integer.MAX_VALUE);
+
+        this.theta = theta;
+        this.chunkSize = chunkSize;
+
+        this.worker = new Thread(this::work, "theta4j-download");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    // Submit
+
+    /**
+     * Submit the download of the original data of the object with the default priority.
+     *
+     * @param objectHandle The ObjectHandle of the object to download.
+     * @param dst          The destination for the object's data. It is written by the worker thread.
+     * @return The submitted job.
+     * @throws NullPointerException if an argument is null.
+     */
+    public DownloadJob submit(UINT32 objectHandle, OutputStream dst) {
+        return submit(objectHandle, dst, DownloadJob.Variant.FULL, DEFAULT_PRIORITY);
+    }
+
+    /**
+     * Submit the download of the object.
+     * If the manager is closed, the returned job is completed exceptionally with IOException.
+     *
+     * @param objectHandle The ObjectHandle of the object to download.
+     * @param dst          The destination for the object's data. It is written by the worker thread.
+     * @param variant      The variant of the object to download.
+     * @param priority     The priority of the job. The job of the higher priority is executed first.
+     * @return The submitted job.
+     * @throws NullPointerException if an argument is null.
+     */
+    public synchronized DownloadJob submit(UINT32 objectHandle, OutputStream dst, DownloadJob.Variant variant, int priority) {
+        Validators.notNull("objectHandle", objectHandle);
+        Validators.notNull("dst", dst);
+        Validators.notNull("variant", variant);
+
+        DownloadJob job = new DownloadJob(objectHandle, dst, variant, priority, nextSequenceNumber++);
+
+        if (closed) {
+            fail(job, new IOException("The download manager is closed."));
+            return job;
+        }
+
+        queue.add(job);
+        notifyAll();
+
+        return job;
+    }
+
+    /**
+     * Change the priority of the job.
+     * If the job is running and a queued job gets the higher priority, the running job yields to it.
+     *
+     * @param job      The job to change the priority.
+     * @param priority The new priority of the job.
+     * @throws NullPointerException if job is null.
+     */
+    public synchronized void setPriority(DownloadJob job, int priority) {
+        Validators.notNull("job", job);
+
+        // Re-insert to keep the order of the queue
+        boolean queued = queue.remove(job);
+        job.setPriority(priority);
+        if (queued) {
+            queue.add(job);
+        }
+    }
+
+    /**
+     * Returns the queued jobs in the order of execution. The running job is not included.
+     */
+    public synchronized List<DownloadJob> getQueuedJobs() {
+        List<DownloadJob> jobs = new ArrayList<>();
+        for (DownloadJob job : queue) {
+            if (!job.getFuture().isDone()) {
+                jobs.add(job);
+            }
+        }
+
+        jobs.sort(DownloadJob.ORDER);
+        return jobs;
+    }
+
+    // Closeable
+
+    /**
+     * Stop the worker thread and complete the queued jobs exceptionally.
+     * The running job stops at the boundary of the chunk.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+
+        failQueuedJobs();
+    }
+
+    /**
+     * Complete the queued jobs exceptionally.
+     * The lock is released before completing, because the dependent actions of the futures run on the completing thread.
+     */
+    private void failQueuedJobs() {
+        List<DownloadJob> pending;
+
+        synchronized (this) {
+            pending = new ArrayList<>(queue);
+            queue.clear();
+        }
+
+        for (DownloadJob job : pending) {
+            fail(job, new IOException("The download manager is closed."));
+        }
+    }
+
+    // Worker
+
+    private void work() {
+        DownloadJob job;
+
+        while ((job = take()) != null) {
+            job.started();
+
+            try {
+                if (download(job)) {
+                    boolean completed = job.getFuture().complete(null);
+                    job.stopped(completed ? DownloadJob.State.COMPLETED : DownloadJob.State.CANCELLED);
+                } else if (job.getFuture().isCancelled()) {
+                    job.stopped(DownloadJob.State.CANCELLED);
+                } else if (isClosed()) {
+                    fail(job, new IOException("The download manager is closed."));
+                } else {
+                    // Yielded to the job of the higher priority
+                    job.stopped(DownloadJob.State.QUEUED);
+                    requeue(job);
+                }
+            } catch (IOException | RuntimeException e) {
+                LOGGER.debug("Failed to download " + job, e);
+                fail(job, e);
+            }
+        }
+
+        // The worker may stop by the interrupt without close(), so nothing is left pending in the queue.
+        failQueuedJobs();
+    }
+
+    private synchronized DownloadJob take() {
+        while (true) {
+            if (closed) {
+                return null;
+            }
+
+            DownloadJob job = queue.poll();
+            if (job == null) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    LOGGER.warn("The download worker is interrupted, and the download manager is closed.");
+                    closed = true;
+                    return null;
+                }
+            } else if (!job.getFuture().isDone()) {
+                return job;
+            }
+        }
+    }
+
+    private synchronized void requeue(DownloadJob job) {
+        if (closed) {
+            fail(job, new IOException("The download manager is closed."));
+        } else {
+            queue.add(job);
+        }
+    }
+
+    private synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Returns true if the running job should stop at the boundary of the chunk.
+     */
+    private synchronized boolean shouldStop(DownloadJob job) {
+        if (closed || job.getFuture().isDone()) {
+            return true;
+        }
+
+        DownloadJob next = queue.peek();
+        while (next != null && next.getFuture().isDone()) {
+            queue.poll();
+            next = queue.peek();
+        }
+
+        return next != null && DownloadJob.ORDER.compare(next, job) < 0;
+    }
+
+    /**
+     * Download the object, or the rest of it if the job yielded before.
+     *
+     * @return true if the object is downloaded, or false if the job should stop.
+     */
+    private boolean download(DownloadJob job) throws IOException {
+        if (shouldStop(job)) {
+            return false;
+        }
+
+        switch (job.getVariant()) {
+            case FULL:
+                return downloadFull(job);
+            case THUMB:
+                theta.getThumb(job.getObjectHandle(), job.getDestination());
+                job.setTotalBytes(job.getTransferredBytes());
+                return true;
+            case RESIZED:
+                theta.getResizedImageObject(job.getObjectHandle(), job.getDestination());
+                job.setTotalBytes(job.getTransferredBytes());
+                return true;
+            default:
+                throw new AssertionError();
+        }
+    }
+
+    private boolean downloadFull(DownloadJob job) throws IOException {
+        if (job.getTotalBytes() < 0) {
+            job.setTotalBytes(theta.getObjectInfo(job.getObjectHandle()).getObjectCompressedSize().longValue());
+        }
+
+        long objectSize = job.getTotalBytes();
+        long offset = job.getTransferredBytes();
+
+        while (offset < objectSize) {
+            if (shouldStop(job)) {
+                return false;
+            }
+
+            long maxBytes = Math.min(chunkSize, objectSize - offset);
+            theta.getPartialObject(job.getObjectHandle(), new UINT32(offset), new UINT32(maxBytes), job.getDestination());
+
+            long received = job.getTransferredBytes() - offset;
+            if (received == 0) {
+                throw new IOException("No data was received at offset " + offset);
+            }
+
+            offset += received;
+        }
+
+        return true;
+    }
+
+    private static void fail(DownloadJob job, Exception e) {
+        if (job.getFuture().completeExceptionally(e)) {
+            job.stopped(DownloadJob.State.FAILED);
+        } else if (job.getFuture().isCancelled()) {
+            job.stopped(DownloadJob.State.CANCELLED);
+        }
+    }
+}
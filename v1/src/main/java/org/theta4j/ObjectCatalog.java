@@ -0,0 +1,383 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.theta4j.ptp.data.ObjectInfo;
+import org.theta4j.ptp.type.UINT32;
+import org.theta4j.util.Validators;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The persistent catalog of the ObjectInfo of the objects in THETA.
+ * <p>
+ * The catalog is stored in a memory-mapped file per THETA, which is named by the serial number of THETA.
+ * When the catalog is set to {@link Theta}, only the objects which are not in the catalog yet are requested,
+ * and the catalog is kept current by ObjectAdded, ObjectRemoved and ObjectInfoChanged events.
+ * <p>
+ * The file is an append-only log of the ObjectInfo data sets.
+ * Only the offsets of the records are held in memory, and the ObjectInfo is decoded when it is requested.
+ * The file is compacted when it is opened and the removed records occupy more than half of it.
+ *
+ * @see Theta#setObjectCatalog(ObjectCatalog)
+ */
+public final class ObjectCatalog implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ObjectCatalog.class);
+
+    private static final String FILE_EXTENSION = ".catalog";
+
+    private static final int MAGIC = 0x43_4A_34_54; // "T4JC" in little endian
+    private static final int VERSION = 1;
+
+    // Header: magic, version and the end offset of the log
+    private static final int END_OFFSET_POSITION = 8;
+    private static final int HEADER_SIZE = 16;
+
+    // Record: handle, length of the ObjectInfo data set (or REMOVED) and the data set
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int REMOVED = -1;
+
+    private static final int INITIAL_CAPACITY = 64 * 1024;
+
+    private final String serialNumber;
+    private final Path file;
+
+    // The offsets of the latest records of the objects
+    private final Map<UINT32, Integer> offsets = new TreeMap<>();
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int endOffset;
+    private long garbageSize;
+
+    // Constructor
+
+    /**
+     * Open the catalog of THETA in the directory. The file is created if it does not exist.
+     * <p>
+     * If the file is broken, the catalog starts from empty.
+     *
+     * @param directory    The directory to store the catalog file.
+     * @param serialNumber The serial number of THETA, which is returned by {@link Theta#getDeviceInfo()}.
+     * @throws IOException          if an I/O error occurs while opening the file.
+     * @throws NullPointerException if an argument is null.
+     */
+    public ObjectCatalog(Path directory, String serialNumber) throws IOException {
+        Validators.notNull("directory", directory);
+        Validators.notNull("serialNumber", serialNumber);
+
+        this.serialNumber = serialNumber;
+        this.file = directory.resolve(serialNumber.replaceAll("[^A-Za-z0-9._-]", "_") + FILE_EXTENSION);
+
+        Files.createDirectories(directory);
+        open();
+
+        if (HEADER_SIZE < garbageSize && endOffset - HEADER_SIZE < garbageSize * 2) {
+            compact();
+        }
+    }
+
+    // Getter
+
+    /**
+     * Returns the serial number of THETA.
+     */
+    public String getSerialNumber() {
+        return serialNumber;
+    }
+
+    /**
+     * Returns the path of the catalog file.
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Returns the number of the objects in the catalog.
+     */
+    public synchronized int size() {
+        return offsets.size();
+    }
+
+    /**
+     * Returns true if the object is in the catalog.
+     *
+     * @param objectHandle The handle of the object.
+     * @throws NullPointerException if objectHandle is null.
+     */
+    public synchronized boolean contains(UINT32 objectHandle) {
+        Validators.notNull("objectHandle", objectHandle);
+
+        return offsets.containsKey(objectHandle);
+    }
+
+    /**
+     * Returns the handles of the objects in the catalog in ascending order.
+     */
+    public synchronized List<UINT32> getObjectHandles() {
+        return Collections.unmodifiableList(new ArrayList<>(offsets.keySet()));
+    }
+
+    /**
+     * Returns the ObjectInfo of the object, or null if the object is not in the catalog.
+     *
+     * @param objectHandle The handle of the object.
+     * @throws IllegalStateException if the catalog is closed.
+     * @throws NullPointerException  if objectHandle is null.
+     */
+    public synchronized ObjectInfo getObjectInfo(UINT32 objectHandle) {
+        Validators.notNull("objectHandle", objectHandle);
+        checkOpen();
+
+        Integer offset = offsets.get(objectHandle);
+        if (offset == null) {
+            return null;
+        }
+
+        try {
+            return ObjectInfo.read(new ByteArrayInputStream(readDataSet(offset)));
+        } catch (IOException e) {
+            throw new AssertionError(e); // ByteArrayInputStream does not throw IOException
+        }
+    }
+
+    // Update from Theta
+
+    synchronized void put(UINT32 objectHandle, ObjectInfo objectInfo) throws IOException {
+        int offset = append(objectHandle, objectInfo.bytes());
+        discard(offsets.put(objectHandle, offset));
+    }
+
+    synchronized void remove(UINT32 objectHandle) throws IOException {
+        if (offsets.containsKey(objectHandle)) {
+            append(objectHandle, null);
+            discard(offsets.remove(objectHandle));
+            garbageSize += RECORD_HEADER_SIZE;
+        }
+    }
+
+    /**
+     * Remove the objects which are not in the handles.
+     *
+     * @return The handles which are not in the catalog, in the order of the handles.
+     */
+    synchronized Set<UINT32> retainAll(Collection<UINT32> objectHandles) throws IOException {
+        Set<UINT32> missing = new LinkedHashSet<>(objectHandles);
+
+        for (UINT32 objectHandle : new ArrayList<>(offsets.keySet())) {
+            if (!missing.remove(objectHandle)) {
+                remove(objectHandle);
+            }
+        }
+
+        return missing;
+    }
+
+    // Closeable
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (buffer == null) {
+            return;
+        }
+
+        buffer.force();
+        buffer = null;
+        offsets.clear();
+        channel.close();
+    }
+
+    // Utility
+
+    private void open() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        try {
+            load();
+        } catch (IOException | RuntimeException e) {
+            buffer = null;
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void checkOpen() {
+        if (buffer == null) {
+            throw new IllegalStateException("The catalog is closed.");
+        }
+    }
+
+    private void map(long capacity) throws IOException {
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private void load() throws IOException {
+        offsets.clear();
+        garbageSize = 0;
+
+        long size = channel.size();
+        map(Math.max(size, INITIAL_CAPACITY));
+
+        if (size < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            if (0 < size) {
+                LOGGER.warn("Unknown catalog format. Start from empty: {}", file);
+            }
+            writeHeader(buffer);
+            endOffset = HEADER_SIZE;
+            return;
+        }
+
+        long storedEndOffset = buffer.getLong(END_OFFSET_POSITION);
+        int limit = (int) Math.min(Math.max(storedEndOffset, HEADER_SIZE), buffer.capacity());
+        int offset = HEADER_SIZE;
+
+        while (offset + RECORD_HEADER_SIZE <= limit) {
+            UINT32 objectHandle = new UINT32(buffer.getInt(offset) & 0xFFFF_FFFFL);
+            int length = buffer.getInt(offset + 4);
+
+            if (length == REMOVED) {
+                discard(offsets.remove(objectHandle));
+                garbageSize += RECORD_HEADER_SIZE;
+            } else if (0 <= length && length <= limit - offset - RECORD_HEADER_SIZE) {
+                discard(offsets.put(objectHandle, offset));
+            } else {
+                break;
+            }
+
+            offset += RECORD_HEADER_SIZE + Math.max(length, 0);
+        }
+
+        if (offset != storedEndOffset) {
+            LOGGER.warn("Truncated catalog. The records after {} are dropped: {}", offset, file);
+        }
+
+        setEndOffset(offset);
+    }
+
+    private static void writeHeader(ByteBuffer buffer) {
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putLong(END_OFFSET_POSITION, HEADER_SIZE);
+    }
+
+    private void setEndOffset(int endOffset) {
+        this.endOffset = endOffset;
+        buffer.putLong(END_OFFSET_POSITION, endOffset);
+    }
+
+    private void discard(Integer offset) {
+        if (offset != null) {
+            garbageSize += RECORD_HEADER_SIZE + buffer.getInt(offset + 4);
+        }
+    }
+
+    /**
+     * Append the record and then advance the end offset, so the record is not read if the process dies while writing it.
+     */
+    private int append(UINT32 objectHandle, byte[] dataSet) throws IOException {
+        checkOpen();
+
+        int length = dataSet == null ? 0 : dataSet.length;
+        long required = (long) endOffset + RECORD_HEADER_SIZE + length;
+        if (Integer.MAX_VALUE < required) {
+            throw new IOException("The catalog is too large: " + file);
+        }
+
+        if (buffer.capacity() < required) {
+            buffer.force();
+            map(Math.min(Math.max(required, buffer.capacity() * 2L), Integer.MAX_VALUE));
+        }
+
+        int offset = endOffset;
+        buffer.putInt(offset, (int) objectHandle.longValue());
+        buffer.putInt(offset + 4, dataSet == null ? REMOVED : length);
+        if (dataSet != null) {
+            ByteBuffer view = buffer.duplicate();
+            view.position(offset + RECORD_HEADER_SIZE);
+            view.put(dataSet);
+        }
+
+        setEndOffset((int) required);
+        return offset;
+    }
+
+    private byte[] readDataSet(int offset) {
+        byte[] dataSet = new byte[buffer.getInt(offset + 4)];
+
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset + RECORD_HEADER_SIZE);
+        view.get(dataSet);
+
+        return dataSet;
+    }
+
+    /**
+     * Rewrite the live records to a new file, and replace the catalog file with it.
+     * If the file cannot be replaced, the catalog keeps using the current file.
+     */
+    private void compact() throws IOException {
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+
+        ByteBuffer compacted = ByteBuffer.allocate((int) (endOffset - garbageSize)).order(ByteOrder.LITTLE_ENDIAN);
+        writeHeader(compacted);
+        compacted.position(HEADER_SIZE);
+        for (Map.Entry<UINT32, Integer> entry : offsets.entrySet()) {
+            byte[] dataSet = readDataSet(entry.getValue());
+            compacted.putInt((int) entry.getKey().longValue());
+            compacted.putInt(dataSet.length);
+            compacted.put(dataSet);
+        }
+        compacted.putLong(END_OFFSET_POSITION, compacted.position());
+        compacted.flip();
+
+        try (FileChannel tempChannel = FileChannel.open(tempFile,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (compacted.hasRemaining()) {
+                tempChannel.write(compacted);
+            }
+            tempChannel.force(true);
+        }
+
+        try {
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // e.g. the mapped file cannot be replaced on some platforms
+            LOGGER.warn("Failed to compact catalog: " + file, e);
+            Files.deleteIfExists(tempFile);
+            return;
+        }
+
+        buffer = null;
+        channel.close();
+        open();
+
+        LOGGER.debug("Compacted catalog: {}", file);
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.theta4j.ptp.PtpException;
+import org.theta4j.ptp.type.UINT32;
+import org.theta4j.util.Validators;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A download of an object into a file, which can be resumed after the connection to THETA is lost.
+ * <p>
+ * The object is downloaded chunk by chunk with GetPartialObject operation.
+ * Each chunk is checkpointed after THETA confirmed it by OK response and it is forced to the storage.
+ * {@link #resume(Theta)} continues the download from the last confirmed byte,
+ * and discards the bytes of the chunk which was not confirmed.
+ * <p>
+ * To resume the download after the process is restarted,
+ * persist {@link #getConfirmedLength()} and pass it to the constructor.
+ */
+public final class ResumableDownload {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResumableDownload.class);
+
+    private static final long MAX_OBJECT_SIZE = 0xFFFF_FFFFL;
+
+    /**
+     * Default size of the chunk in bytes.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+
+    // Property
+
+    private final UINT32 objectHandle;
+    private final long objectSize;
+    private final Path file;
+    private final int chunkSize;
+
+    // State
+
+    private volatile long confirmedLength;
+
+    // Constructor
+
+    /**
+     * Create a download of the object from the beginning.
+     *
+     * @param objectHandle The ObjectHandle of the object to download.
+     * @param objectSize   The size of the object in bytes.
+     * @param file         The file to write the object's data.
+     * @throws NullPointerException     if an argument is null.
+     * @throws IllegalArgumentException if objectSize is out of range of UINT32.
+     */
+    public ResumableDownload(UINT32 objectHandle, long objectSize, Path file) {
+        this(objectHandle, objectSize, file, DEFAULT_CHUNK_SIZE, 0);
+    }
+
+    /**
+     * Create a download of the object which continues from confirmedLength.
+     *
+     * @param objectHandle    The ObjectHandle of the object to download.
+     * @param objectSize      The size of the object in bytes.
+     * @param file            The file to write the object's data.
+     * @param chunkSize       The size of the chunk in bytes.
+     * @param confirmedLength The number of bytes which were already downloaded into the file.
+     * @throws NullPointerException     if an argument is null.
+     * @throws IllegalArgumentException if objectSize is out of range of UINT32,
+     *                                  chunkSize is not positive or confirmedLength is out of range of the object.
+     */
+    public ResumableDownload(UINT32 objectHandle, long objectSize, Path file, int chunkSize, long confirmedLength) {
+        Validators.notNull("objectHandle", objectHandle);
+        Validators.notNull("file", file);
+        Validators.rangeEq("objectSize", objectSize, 0L, MAX_OBJECT_SIZE);
+        Validators.rangeEq("chunkSize", chunkSize, 1, Integer.MAX_VALUE);
+        Validators.rangeEq("confirmedLength", confirmedLength, 0L, objectSize);
+
+        this.objectHandle = objectHandle;
+        this.objectSize = objectSize;
+        this.file = file;
+        this.chunkSize = chunkSize;
+        this.confirmedLength = confirmedLength;
+    }
+
+    // Static Factory Method
+
+    /**
+     * Create a download of the object from the beginning.
+     * The size of the object is acquired from the ObjectInfo.
+     *
+     * @param theta        THETA to acquire the ObjectInfo.
+     * @param objectHandle The ObjectHandle of the object to download.
+     * @param file         The file to write the object's data.
+     * @throws IOException          if an I/O error occurs while getting the ObjectInfo.
+     * @throws PtpException         if the PTP response is not OK.
+     * @throws NullPointerException if an argument is null.
+     */
+    public static ResumableDownload of(Theta theta, UINT32 objectHandle, Path file) throws IOException {
+        Validators.notNull("theta", theta);
+        Validators.notNull("objectHandle", objectHandle);
+        Validators.notNull("file", file);
+
+        long objectSize = theta.getObjectInfo(objectHandle).getObjectCompressedSize().longValue();
+
+        return new ResumableDownload(objectHandle, objectSize, file);
+    }
+
+    // Getter
+
+    /**
+     * Returns the ObjectHandle of the object to download.
+     */
+    public UINT32 getObjectHandle() {
+        return objectHandle;
+    }
+
+    /**
+     * Returns the size of the object in bytes.
+     */
+    public long getObjectSize() {
+        return objectSize;
+    }
+
+    /**
+     * Returns the file to write the object's data.
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Returns the number of bytes which were confirmed by THETA and written into the file.
+     */
+    public long getConfirmedLength() {
+        return confirmedLength;
+    }
+
+    /**
+     * Returns true if all bytes of the object were downloaded.
+     */
+    public boolean isCompleted() {
+        return confirmedLength == objectSize;
+    }
+
+    // Download
+
+    /**
+     * Download the rest of the object from THETA.
+     * If an error occurs, the download can be resumed by calling this method again
+     * with the same or reconnected THETA.
+     * If the file is shorter than the confirmed length, e.g. it was truncated or replaced,
+     * the download is restarted from the beginning.
+     *
+     * @param theta THETA to download the object from.
+     * @throws IOException          if an I/O error occurs while receiving data or writing the file.
+     * @throws PtpException         if the PTP response is not OK.
+     * @throws NullPointerException if theta is null.
+     */
+    public synchronized void resume(Theta theta) throws IOException {
+        Validators.notNull("theta", theta);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            // The confirmed bytes are lost, so the file would have a hole at the confirmed length.
+            if (channel.size() < confirmedLength) {
+                LOGGER.warn("Restart the download of {}, because {} is shorter than the confirmed length {}",
+                        objectHandle, file, confirmedLength);
+                confirmedLength = 0;
+            }
+
+            // Discard the bytes which were not confirmed
+            if (confirmedLength < channel.size()) {
+                channel.truncate(confirmedLength);
+            }
+
+            while (confirmedLength < objectSize) {
+                long offset = confirmedLength;
+                long maxBytes = Math.min(chunkSize, objectSize - offset);
+
+                channel.position(offset);
+                theta.getPartialObject(objectHandle, new UINT32(offset), new UINT32(maxBytes), channel);
+
+                long received = channel.position() - offset;
+                if (received == 0) {
+                    throw new IOException("No data was received at offset " + offset);
+                }
+
+                channel.force(false);
+                confirmedLength = Math.min(offset + received, objectSize);
+                LOGGER.debug("Confirmed {}/{} bytes of {}", confirmedLength, objectSize, objectHandle);
+            }
+        }
+    }
+
+    // Basic Method
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("objectHandle", objectHandle)
+                .append("objectSize", objectSize)
+                .append("file", file)
+                .append("chunkSize", chunkSize)
+                .append("confirmedLength", confirmedLength)
+                .toString();
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j;
+
+import org.theta4j.ptp.data.StorageInfo;
+import org.theta4j.ptp.type.UINT32;
+import org.theta4j.util.Validators;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The monitor of the storages of THETA.
+ * <p>
+ * It keeps the list of the storages and the StorageInfo of each storage,
+ * which are refreshed by {@link Theta} when THETA raises StorageInfoChanged, StoreAdded, StoreRemoved,
+ * ObjectAdded or ObjectRemoved event.
+ * The sizes of the recently added objects are recorded to estimate how many more objects can be captured,
+ * so the objects can be offloaded before the storage becomes full.
+ *
+ * @see Theta#setStorageMonitor(StorageMonitor)
+ */
+public final class StorageMonitor {
+    /**
+     * Default number of the recently added objects used for the estimation.
+     */
+    public static final int DEFAULT_SAMPLE_SIZE = 16;
+
+    private static final long UNKNOWN_FREE_SPACE_IN_IMAGES = 0xFFFF_FFFFL;
+
+    private final Map<UINT32, StorageInfo> storageInfos = new LinkedHashMap<>();
+
+    // Ring buffer of the sizes of the recently added objects
+    private final long[] objectSizes;
+    private int objectSizeCount = 0;
+    private int nextObjectSizeIndex = 0;
+
+    // Constructor
+
+    /**
+     * Create the monitor which estimates from DEFAULT_SAMPLE_SIZE recently added objects.
+     */
+    public StorageMonitor() {
+        this(DEFAULT_SAMPLE_SIZE);
+    }
+
+    /**
+     * Create the monitor.
+     *
+     * @param sampleSize The number of the recently added objects used for the estimation.
+     * @throws IllegalArgumentException if sampleSize is not positive.
+     */
+    public StorageMonitor(int sampleSize) {
+        Validators.rangeEq("sampleSize", sampleSize, 1, Integer.MAX_VALUE);
+
+        this.objectSizes = new long[sampleSize];
+    }
+
+    // Getter
+
+    /**
+     * Returns the IDs of the known storages.
+     */
+    public synchronized List<UINT32> getStorageIDs() {
+        return Collections.unmodifiableList(new ArrayList<>(storageInfos.keySet()));
+    }
+
+    /**
+     * Returns the last known StorageInfo of the storage, or null if the storage is not known.
+     *
+     * @param storageID The ID of the storage.
+     * @throws NullPointerException if storageID is null.
+     */
+    public synchronized StorageInfo getStorageInfo(UINT32 storageID) {
+        Validators.notNull("storageID", storageID);
+
+        return storageInfos.get(storageID);
+    }
+
+    /**
+     * Returns the average size in bytes of the recently added objects, or 0 if no object is recorded.
+     */
+    public synchronized long getAverageObjectSize() {
+        if (objectSizeCount == 0) {
+            return 0;
+        }
+
+        long sum = 0;
+        for (int i = 0; i < objectSizeCount; i++) {
+            sum += objectSizes[i];
+        }
+
+        return sum / objectSizeCount;
+    }
+
+    // Estimation
+
+    /**
+     * Estimates the number of objects which can be captured to the storage.
+     * The free space of the storage is divided by the average size of the recently added objects.
+     * If no object is recorded yet, the estimation of THETA in the StorageInfo is returned.
+     *
+     * @param storageID The ID of the storage.
+     * @return The estimated number of objects, or -1 if it cannot be estimated.
+     * @throws NullPointerException if storageID is null.
+     */
+    public synchronized long estimateRemainingCaptures(UINT32 storageID) {
+        Validators.notNull("storageID", storageID);
+
+        StorageInfo storageInfo = storageInfos.get(storageID);
+        if (storageInfo == null) {
+            return -1;
+        }
+
+        long averageObjectSize = getAverageObjectSize();
+        if (0 < averageObjectSize) {
+            return storageInfo.getFreeSpaceInBytes().bigInteger().divide(BigInteger.valueOf(averageObjectSize)).longValue();
+        }
+
+        long freeSpaceInImages = storageInfo.getFreeSpaceInImages().longValue();
+        return freeSpaceInImages == UNKNOWN_FREE_SPACE_IN_IMAGES ? -1 : freeSpaceInImages;
+    }
+
+    // Update from Theta
+
+    /**
+     * Replace the known storages with the storages of the IDs.
+     * The StorageInfo of the storages which are still known is kept.
+     */
+    synchronized void updateStorageIDs(List<UINT32> storageIDs) {
+        storageInfos.keySet().retainAll(storageIDs);
+
+        for (UINT32 storageID : storageIDs) {
+            if (!storageInfos.containsKey(storageID)) {
+                storageInfos.put(storageID, null);
+            }
+        }
+    }
+
+    synchronized void updateStorageInfo(UINT32 storageID, StorageInfo storageInfo) {
+        storageInfos.put(storageID, storageInfo);
+    }
+
+    synchronized void addObjectSize(long objectSize) {
+        objectSizes[nextObjectSizeIndex] = objectSize;
+        nextObjectSizeIndex = (nextObjectSizeIndex + 1) % objectSizes.length;
+        objectSizeCount = Math.min(objectSizeCount + 1, objectSizes.length);
+    }
+}
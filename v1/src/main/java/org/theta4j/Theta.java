@@ -7,31 +7,54 @@ package org.theta4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.theta4j.data.*;
-import org.theta4j.ptp.PtpEventListener;
+import org.theta4j.ptp.InvalidDataException;
+import org.theta4j.ptp.PtpEventDispatcher;
 import org.theta4j.ptp.PtpException;
 import org.theta4j.ptp.PtpInitiator;
 import org.theta4j.ptp.code.EventCode;
 import org.theta4j.ptp.code.OperationCode;
 import org.theta4j.ptp.code.ResponseCode;
 import org.theta4j.ptp.data.DeviceInfo;
+import org.theta4j.ptp.data.DevicePropDesc;
+import org.theta4j.ptp.data.Event;
 import org.theta4j.ptp.data.ObjectInfo;
 import org.theta4j.ptp.data.Response;
+import org.theta4j.ptp.data.StorageInfo;
 import org.theta4j.ptp.type.*;
+import org.theta4j.ptpip.Backoff;
 import org.theta4j.ptpip.PtpIpInitiator;
+import org.theta4j.ptpip.PtpIpTransport;
+import org.theta4j.ptpip.ReconnectingPtpIpInitiator;
 import org.theta4j.util.Validators;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * This class provides the interface for RICOH THETA on PTP-IP.
@@ -40,13 +63,38 @@ public final class Theta implements Closeable {
     private static final Logger LOGGER = LoggerFactory.getLogger(Theta.class);
 
     private static final UINT32 SESSION_ID = new UINT32(1);
+    private static final UINT32 ALL_STORAGES = UINT32.MAX_VALUE;
     private static final String IP_ADDRESS = "192.168.1.1";
     private static final int TCP_PORT = 15740;
 
     private static final String DATE_TIME_FORMAT = "yyyyMMdd'T'HHmmss";
 
+    private static final int TRANSFER_BUFFER_SIZE = 64 * 1024;
+
     private final PtpInitiator ptpInitiator;
     private final ThetaEventListenerSet listenerSet = new ThetaEventListenerSet();
+    private final CommandQueue commandQueue = new CommandQueue("theta4j-command");
+
+    private volatile DevicePropCache devicePropCache;
+    private volatile StorageMonitor storageMonitor;
+    private volatile ObjectCatalog objectCatalog;
+    private volatile ThumbnailCache thumbnailCache;
+
+    // The keys of the cached thumbnails for this session, so a cache hit does not need GetObjectInfo.
+    // Dropped when THETA notifies the change or the removal of the object.
+    private final Map<UINT32, String> thumbnailKeys = new ConcurrentHashMap<>();
+
+    // The stall of the transfer is detected if the rate is below minBytesPerSecond for stallPeriod. 0 to disable.
+    private volatile long minBytesPerSecond = 0;
+    private volatile Duration stallPeriod = Duration.ofSeconds(10);
+
+    // The serial number of THETA, which is fetched when it is needed first.
+    private String serialNumber;
+
+    // Descriptions of the device properties for this connection. Empty if THETA does not describe the property.
+    // Dropped when THETA notifies the change of the property, because the mode of THETA changes GetSet and the allowed values.
+    private final Map<DevicePropCode, Optional<DevicePropDesc>> devicePropDescs =
+            Collections.synchronizedMap(new EnumMap<>(DevicePropCode.class));
 
     /**
      * Connect to THETA.
@@ -55,9 +103,83 @@ public final class Theta implements Closeable {
      * @throws PtpException if the PTP response is not OK.
      */
     public Theta() throws IOException {
-        ptpInitiator = new PtpIpInitiator(UUID.randomUUID(), IP_ADDRESS, TCP_PORT);
+        this(PtpIpTransport.SOCKET);
+    }
+
+    /**
+     * Connect to THETA with the specified transport.
+     *
+     * @param transport The transport of the PTP-IP connections.
+     * @throws IOException          if an I/O error occurs while connecting THETA.
+     * @throws PtpException         if the PTP response is not OK.
+     * @throws NullPointerException if transport is null.
+     */
+    public Theta(PtpIpTransport transport) throws IOException {
+        this(new PtpIpInitiator(UUID.randomUUID(), IP_ADDRESS, TCP_PORT, transport));
+    }
+
+    /**
+     * Connect to THETA with the specified transport and event dispatcher.
+     * The listeners are invoked through eventDispatcher,
+     * so slow listeners do not delay reading the events from THETA.
+     *
+     * @param transport       The transport of the PTP-IP connections.
+     * @param eventDispatcher The dispatcher which delivers the events to the listeners.
+     *                        It is not closed when this object is closed.
+     * @throws IOException          if an I/O error occurs while connecting THETA.
+     * @throws PtpException         if the PTP response is not OK.
+     * @throws NullPointerException if an argument is null.
+     */
+    public Theta(PtpIpTransport transport, PtpEventDispatcher eventDispatcher) throws IOException {
+        this(new PtpIpInitiator(UUID.randomUUID(), IP_ADDRESS, TCP_PORT, transport,
+                Objects.requireNonNull(eventDispatcher, "eventDispatcher must not be null.")));
+    }
 
-        ptpInitiator.addListener(listenerSet::raise);
+    /**
+     * Connect to THETA with the specified transport and timeouts.
+     *
+     * @param transport      The transport of the PTP-IP connections.
+     * @param connectTimeout The timeout of connecting in milliseconds, or 0 for no timeout.
+     * @param readTimeout    The timeout of each read in milliseconds, or 0 for no timeout.
+     *                       It is not applied with {@link PtpIpTransport#CHANNEL}.
+     * @throws IOException              if an I/O error occurs while connecting THETA.
+     * @throws PtpException             if the PTP response is not OK.
+     * @throws NullPointerException     if transport is null.
+     * @throws IllegalArgumentException if a timeout is negative.
+     */
+    public Theta(PtpIpTransport transport, int connectTimeout, int readTimeout) throws IOException {
+        this(new PtpIpInitiator(UUID.randomUUID(), IP_ADDRESS, TCP_PORT, transport, null, connectTimeout, readTimeout));
+    }
+
+    /**
+     * Connect to THETA, and reconnect automatically when the connection is lost.
+     * The operation which is running when the connection is lost fails with IOException,
+     * and the following operations, including the queued asynchronous operations,
+     * are executed after the connection is re-established and the session is reopened.
+     * The listeners and the caches are kept across reconnecting.
+     *
+     * @param transport      The transport of the PTP-IP connections.
+     * @param connectTimeout The timeout of connecting in milliseconds, or 0 for no timeout.
+     * @param readTimeout    The timeout of each read in milliseconds, or 0 for no timeout.
+     *                       It is not applied with {@link PtpIpTransport#CHANNEL}.
+     * @param backoff        The backoff of reconnecting.
+     * @throws IOException              if an I/O error occurs while connecting THETA.
+     * @throws PtpException             if the PTP response is not OK.
+     * @throws NullPointerException     if transport or backoff is null.
+     * @throws IllegalArgumentException if a timeout is negative.
+     */
+    public Theta(PtpIpTransport transport, int connectTimeout, int readTimeout, Backoff backoff) throws IOException {
+        this(new ReconnectingPtpIpInitiator(UUID.randomUUID(), IP_ADDRESS, TCP_PORT, transport, null, connectTimeout, readTimeout, backoff));
+    }
+
+    Theta(PtpInitiator ptpInitiator) throws IOException {
+        this.ptpInitiator = ptpInitiator;
+
+        ptpInitiator.addListener(this::onEvent);
+
+        if (ptpInitiator instanceof ReconnectingPtpIpInitiator) {
+            ((ReconnectingPtpIpInitiator) ptpInitiator).addReconnectListener(this::onReconnected);
+        }
 
         ptpInitiator.openSession(SESSION_ID);
     }
@@ -74,14 +196,78 @@ public final class Theta implements Closeable {
         return ptpInitiator.getDeviceInfo();
     }
 
+    private synchronized String getSerialNumber() throws IOException {
+        if (serialNumber == null) {
+            serialNumber = getDeviceInfo().getSerialNumber();
+        }
+
+        return serialNumber;
+    }
+
+    /**
+     * Returns a list of the IDs of the storages.
+     * If the storage monitor is set, it is updated with the list.
+     *
+     * @throws IOException  if an I/O error occurs while getting the list of storage IDs.
+     * @throws PtpException if the PTP response is not OK.
+     */
+    public synchronized List<UINT32> getStorageIDs() throws IOException {
+        ptpInitiator.sendOperation(OperationCode.GET_STORAGE_IDS);
+        List<UINT32> storageIDs = AUINT32.read(ptpInitiator.receiveData());
+        ptpInitiator.checkAndReadResponse();
+
+        StorageMonitor monitor = storageMonitor;
+        if (monitor != null) {
+            monitor.updateStorageIDs(storageIDs);
+        }
+
+        return storageIDs;
+    }
+
+    /**
+     * Returns a StorageInfo for the storage specified by the storageID.
+     * If the storage monitor is set, it is updated with the StorageInfo.
+     *
+     * @param storageID The ID of the storage to acquire the StorageInfo.
+     * @throws IOException          if an I/O error occurs while getting the StorageInfo.
+     * @throws PtpException         if the PTP response is not OK.
+     * @throws NullPointerException if storageID is null.
+     */
+    public synchronized StorageInfo getStorageInfo(UINT32 storageID) throws IOException {
+        Validators.notNull("storageID", storageID);
+
+        ptpInitiator.sendOperation(OperationCode.GET_STORAGE_INFO, storageID);
+        StorageInfo storageInfo = StorageInfo.read(ptpInitiator.receiveData());
+        ptpInitiator.checkAndReadResponse();
+
+        StorageMonitor monitor = storageMonitor;
+        if (monitor != null) {
+            monitor.updateStorageInfo(storageID, storageInfo);
+        }
+
+        return storageInfo;
+    }
+
     /**
      * Returns the total number of objects.
      *
      * @throws IOException  if an I/O error occurs while getting the number of objects.
      * @throws PtpException if the PTP response is not OK.
      */
-    public synchronized long getNumObjects() throws IOException {
-        UINT32 storageID = new UINT32(0xFFFFFFFFL);
+    public long getNumObjects() throws IOException {
+        return getNumObjects(ALL_STORAGES);
+    }
+
+    /**
+     * Returns the number of objects in the storage.
+     *
+     * @param storageID The ID of the storage.
+     * @throws IOException          if an I/O error occurs while getting the number of objects.
+     * @throws PtpException         if the PTP response is not OK.
+     * @throws NullPointerException if storageID is null.
+     */
+    public synchronized long getNumObjects(UINT32 storageID) throws IOException {
+        Validators.notNull("storageID", storageID);
 
         ptpInitiator.sendOperation(OperationCode.GET_NUM_OBJECTS, storageID);
         Response response = ptpInitiator.checkAndReadResponse();
@@ -95,8 +281,20 @@ public final class Theta implements Closeable {
      * @throws IOException  if an I/O error occurs while getting the list of object handles.
      * @throws PtpException if the PTP response is not OK.
      */
-    public synchronized List<UINT32> getObjectHandles() throws IOException {
-        UINT32 storageID = new UINT32(0xFFFFFFFFL);
+    public List<UINT32> getObjectHandles() throws IOException {
+        return getObjectHandles(ALL_STORAGES);
+    }
+
+    /**
+     * Returns a list of the object handles in the storage.
+     *
+     * @param storageID The ID of the storage.
+     * @throws IOException          if an I/O error occurs while getting the list of object handles.
+     * @throws PtpException         if the PTP response is not OK.
+     * @throws NullPointerException if storageID is null.
+     */
+    public synchronized List<UINT32> getObjectHandles(UINT32 storageID) throws IOException {
+        Validators.notNull("storageID", storageID);
 
         ptpInitiator.sendOperation(OperationCode.GET_OBJECT_HANDLES, storageID);
         List<UINT32> objectHandles = AUINT32.read(ptpInitiator.receiveData());
@@ -105,6 +303,25 @@ public final class Theta implements Closeable {
         return objectHandles;
     }
 
+    /**
+     * Returns the object handles as an array of long values.
+     * Unlike getObjectHandles(), the handles are decoded into the single primitive array
+     * while receiving data, so it is suitable for the storage which has a lot of objects.
+     *
+     * @throws IOException  if an I/O error occurs while getting the object handles.
+     * @throws PtpException if the PTP response is not OK.
+     */
+    public synchronized long[] getObjectHandleArray() throws IOException {
+        ptpInitiator.sendOperation(OperationCode.GET_OBJECT_HANDLES, ALL_STORAGES);
+        long[] objectHandles;
+        try (InputStream data = ptpInitiator.openData()) {
+            objectHandles = AUINT32.readArray(data);
+        }
+        ptpInitiator.checkAndReadResponse();
+
+        return objectHandles;
+    }
+
     /**
      * Returns a ObjectInfo for the object specified by the objectHandle.
      *
@@ -141,8 +358,130 @@ public final class Theta implements Closeable {
         ptpInitiator.checkAndReadResponse();
     }
 
+    /**
+     * Retrieves the object's data and writes to the dst.
+     * The data is written without allocating a byte array for each PTP-IP Data packet.
+     * If dst is a FileChannel, the data is written from the current position of the file,
+     * and with {@link PtpIpTransport#CHANNEL} it is transferred from the socket to the file directly.
+     *
+     * @param objectHandle The ObjectHandle of the object to acquire the data.
+     * @param dst          The destination for the object's data.
+     * @throws IOException          if an I/O error occurs while receiving data.
+     * @throws PtpException         if the PTP response is not OK.
+     * @throws NullPointerException if an argument is null.
+     */
+    public synchronized void getObject(UINT32 objectHandle, WritableByteChannel dst) throws IOException {
+        Validators.notNull("objectHandle", objectHandle);
+        Validators.notNull("dst", dst);
+
+        ptpInitiator.sendOperation(OperationCode.GET_OBJECT, objectHandle);
+        ptpInitiator.receiveData(dst);
+        ptpInitiator.checkAndReadResponse();
+    }
+
+    /**
+     * Retrieves the object's data and writes to the dst within the timeout.
+     * If the deadline passes or the transfer is stalled (see {@link #setStallDetection(long, Duration)}),
+     * the transfer is cancelled and this method fails fast.
+     * The deadline is counted from sending the operation, after the preceding commands are finished.
+     * If THETA does not stop the transfer, e.g. because it dropped off the network,
+     * the connection is closed so the invoker thread does not hang.
+     * If this object reconnects automatically (see {@link #Theta(PtpIpTransport, int, int, Backoff)}),
+     * the following operations are executed after reconnecting.
+     * Otherwise the following operations fail with IOException, and THETA must be connected again.
+     *
+     * @param objectHandle The ObjectHandle of the object to acquire the data.
+     * @param dst          The destination for the object's data.
+     * @param timeout      The time to wait for the transfer.
+     * @throws InterruptedIOException   if the deadline passes or the transfer is stalled.
+     * @throws IOException              if an I/O error occurs while receiving data.
+     * @throws PtpException             if the PTP response is not OK.
+     * @throws NullPointerException     if an argument is null.
+     * @throws IllegalArgumentException if timeout is not positive.
+     */
+    public synchronized void getObject(UINT32 objectHandle, OutputStream dst, Duration timeout) throws IOException {
+        Validators.notNull("objectHandle", objectHandle);
+        Validators.notNull("dst", dst);
+        Validators.notNull("timeout", timeout);
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("timeout must be positive.");
+        }
+
+        Transfer transfer = new Transfer(objectHandle, ptpInitiator);
+
+        try {
+            receiveObject(transfer, dst, timeout);
+        } catch (IOException e) {
+            if (!transfer.finished(e) && transfer.getException() != null) {
+                IOException aborted = transfer.getException();
+                aborted.addSuppressed(e);
+                throw aborted;
+            }
+            throw e;
+        }
+
+        if (!transfer.finished(null) && transfer.getException() != null) {
+            throw transfer.getException();
+        }
+    }
+
+    /**
+     * Retrieves the part of the object's data and writes to the dst.
+     *
+     * @param objectHandle The ObjectHandle of the object to acquire the data.
+     * @param offset       The offset in bytes of the part in the object's data.
+     * @param maxBytes     The maximum number of bytes to acquire.
+     * @param dst          The destination for the part of the object's data.
+     * @return The number of bytes actually sent from THETA.
+     * @throws IOException          if an I/O error occurs while receiving data.
+     * @throws PtpException         if the PTP response is not OK.
+     * @throws NullPointerException if an argument is null.
+     */
+    public synchronized UINT32 getPartialObject(UINT32 objectHandle, UINT32 offset, UINT32 maxBytes, OutputStream dst) throws IOException {
+        Validators.notNull("objectHandle", objectHandle);
+        Validators.notNull("offset", offset);
+        Validators.notNull("maxBytes", maxBytes);
+        Validators.notNull("dst", dst);
+
+        ptpInitiator.sendOperation(OperationCode.GET_PARTIAL_OBJECT, objectHandle, offset, maxBytes);
+        ptpInitiator.receiveData(dst);
+        Response response = ptpInitiator.checkAndReadResponse();
+
+        return response.getP1();
+    }
+
+    /**
+     * Retrieves the part of the object's data and writes to the dst.
+     * If dst is a FileChannel, the data is written from the current position of the file.
+     *
+     * @param objectHandle The ObjectHandle of the object to acquire the data.
+     * @param offset       The offset in bytes of the part in the object's data.
+     * @param maxBytes     The maximum number of bytes to acquire.
+     * @param dst          The destination for the part of the object's data.
+     * @return The number of bytes actually sent from THETA.
+     * @throws IOException          if an I/O error occurs while receiving data.
+     * @throws PtpException         if the PTP response is not OK.
+     * @throws NullPointerException if an argument is null.
+     * @see ResumableDownload
+     */
+    public synchronized UINT32 getPartialObject(UINT32 objectHandle, UINT32 offset, UINT32 maxBytes, WritableByteChannel dst) throws IOException {
+        Validators.notNull("objectHandle", objectHandle);
+        Validators.notNull("offset", offset);
+        Validators.notNull("maxBytes", maxBytes);
+        Validators.notNull("dst", dst);
+
+        ptpInitiator.sendOperation(OperationCode.GET_PARTIAL_OBJECT, objectHandle, offset, maxBytes);
+        ptpInitiator.receiveData(dst);
+        Response response = ptpInitiator.checkAndReadResponse();
+
+        return response.getP1();
+    }
+
     /**
      * Retrieves the object's thumbnail data and writes to the dst.
+     * If the thumbnail cache is set, the cached thumbnail is written without retrieving it from THETA.
+     * The key of the thumbnail is built from the ObjectInfo, which is acquired once per object in this session
+     * unless the object catalog is set.
      *
      * @param objectHandle The ObjectHandle of the object to acquire the thumbnail data.
      * @param dst          The destination for the object's thumbnail data.
@@ -154,9 +493,19 @@ public final class Theta implements Closeable {
         Validators.notNull("objectHandle", objectHandle);
         Validators.notNull("dst", dst);
 
-        ptpInitiator.sendOperation(OperationCode.GET_THUMB, objectHandle);
-        ptpInitiator.receiveData(dst);
-        ptpInitiator.checkAndReadResponse();
+        ThumbnailCache cache = thumbnailCache;
+        if (cache == null) {
+            receiveThumb(objectHandle, dst);
+            return;
+        }
+
+        String key = thumbnailKey(objectHandle);
+        byte[] thumb = cache.get(key);
+        if (thumb == null) {
+            thumb = cacheThumb(cache, key, objectHandle);
+        }
+
+        dst.write(thumb);
     }
 
     /**
@@ -174,51 +523,194 @@ public final class Theta implements Closeable {
         ptpInitiator.checkAndReadResponse();
     }
 
+    /**
+     * Sends the object information of the object to be sent by sendObject.
+     * The object is stored into the storage and the parent object specified by the object information.
+     *
+     * @param objectInfo The object information of the object to send.
+     * @return The ObjectHandle reserved for the object.
+     * @throws IOException          if an I/O error occurs while sending the object information.
+     * @throws PtpException         if the PTP response is not OK.
+     * @throws NullPointerException if objectInfo is null.
+     */
+    public synchronized UINT32 sendObjectInfo(ObjectInfo objectInfo) throws IOException {
+        Validators.notNull("objectInfo", objectInfo);
+
+        ptpInitiator.sendOperationWithData(OperationCode.SEND_OBJECT_INFO, objectInfo.getStorageID(), objectInfo.getParentObject());
+        ptpInitiator.sendData(objectInfo.bytes());
+        Response response = ptpInitiator.checkAndReadResponse();
+
+        return response.getP3();
+    }
+
+    /**
+     * Sends the object's data read from src.
+     * The data is sent chunk by chunk without buffering the whole object in memory.
+     * sendObjectInfo must be called before this method.
+     *
+     * @param src    The source of the object's data.
+     * @param length The size of the object in bytes.
+     * @throws IOException              if an I/O error occurs while reading src or sending data.
+     * @throws PtpException             if the PTP response is not OK.
+     * @throws NullPointerException     if src is null.
+     * @throws IllegalArgumentException if length is negative.
+     */
+    public synchronized void sendObject(InputStream src, long length) throws IOException {
+        Validators.notNull("src", src);
+        Validators.rangeEq("length", length, 0L, Long.MAX_VALUE);
+
+        ptpInitiator.sendOperationWithData(OperationCode.SEND_OBJECT);
+        ptpInitiator.sendData(src, length);
+        ptpInitiator.checkAndReadResponse();
+    }
+
+    /**
+     * Sends the object's data read from src.
+     * The data is sent chunk by chunk without buffering the whole object in memory.
+     * sendObjectInfo must be called before this method.
+     *
+     * @param src    The source of the object's data.
+     * @param length The size of the object in bytes.
+     * @throws IOException              if an I/O error occurs while reading src or sending data.
+     * @throws PtpException             if the PTP response is not OK.
+     * @throws NullPointerException     if src is null.
+     * @throws IllegalArgumentException if length is negative.
+     */
+    public synchronized void sendObject(ReadableByteChannel src, long length) throws IOException {
+        Validators.notNull("src", src);
+        Validators.rangeEq("length", length, 0L, Long.MAX_VALUE);
+
+        ptpInitiator.sendOperationWithData(OperationCode.SEND_OBJECT);
+        ptpInitiator.sendData(src, length);
+        ptpInitiator.checkAndReadResponse();
+    }
+
     /**
      * Captures an image synchronously.
+     * Other operations can be executed while waiting for the completion of the capture.
      *
      * @return The object handle of captured image.
      * @throws IOException          if an I/O error occurs while capturing an image.
      * @throws PtpException         if the PTP response is not OK.
      * @throws InterruptedException The invoker thread is interrupted while capturing an image.
+     * @see #startCapture()
      */
-    public synchronized UINT32 initiateCapture() throws IOException, InterruptedException {
-        final CountDownLatch latch = new CountDownLatch(1);
-        final AtomicBoolean storeFull = new AtomicBoolean(false);
-        final AtomicReference<UINT32> transactionIDRef = new AtomicReference<>();
-        final AtomicReference<UINT32> objectHandleRef = new AtomicReference<>();
-
-        PtpEventListener listener = event -> {
-            if (event.getEventCode().equals(EventCode.OBJECT_ADDED.value())) {
-                objectHandleRef.set(event.getP1());
-            } else if (event.getEventCode().equals(EventCode.STORE_FULL.value())) {
-                if (transactionIDRef.get().equals(event.getTransactionID())) {
-                    storeFull.set(true);
-                    latch.countDown();
-                }
-            } else if (event.getEventCode().equals(EventCode.CAPTURE_COMPLETE.value())) {
-                if (transactionIDRef.get().equals(event.getP1())) {
-                    latch.countDown();
-                }
-            }
-        };
+    public UINT32 initiateCapture() throws IOException, InterruptedException {
+        CompletableFuture<UINT32> capture = startCapture();
+
+        try {
+            return capture.get();
+        } catch (ExecutionException e) {
+            throw captureException(e);
+        }
+    }
+
+    /**
+     * Captures an image and returns the object handle of it, waiting for the completion up to the timeout.
+     * If the capture is not completed in the timeout, it is abandoned.
+     *
+     * @param timeout The time to wait for the completion of the capture.
+     * @return The object handle of the captured image.
+     * @throws InterruptedIOException   if the capture is not completed in the timeout.
+     * @throws IOException              if an I/O error occurs while initiating capturing.
+     * @throws PtpException             if the PTP response is not OK.
+     * @throws InterruptedException     The invoker thread is interrupted while waiting for the capture.
+     * @throws NullPointerException     if timeout is null.
+     * @throws IllegalArgumentException if timeout is not positive.
+     * @see #startCapture()
+     */
+    public UINT32 initiateCapture(Duration timeout) throws IOException, InterruptedException {
+        Validators.notNull("timeout", timeout);
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("timeout must be positive.");
+        }
+
+        long deadline = System.nanoTime() + timeout.toNanos();
+        CompletableFuture<UINT32> capture = startCapture();
 
         try {
-            ptpInitiator.addListener(listener);
+            return capture.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw captureException(e);
+        } catch (TimeoutException e) {
+            InterruptedIOException timedOut = new InterruptedIOException("The capture is not completed in " + timeout);
+            capture.completeExceptionally(timedOut);
+            throw timedOut;
+        }
+    }
+
+    private static IOException captureException(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof IOException) {
+            return (IOException) cause;
+        }
+        return new IOException(cause);
+    }
+
+    /**
+     * Starts capturing an image, and returns when THETA accepts it.
+     * The capture is correlated with ObjectAdded, CaptureComplete and StoreFull events
+     * by the TransactionID of the operation, so the next capture can be started before this capture is completed.
+     *
+     * @return The future which is completed with the object handle of the captured image
+     * when THETA notifies the completion of the capture,
+     * or completed exceptionally with PtpException if the storage is full,
+     * or with IOException if the connection is closed or reset.
+     * @throws IOException  if an I/O error occurs while initiating capturing.
+     * @throws PtpException if the PTP response is not OK.
+     */
+    public synchronized CompletableFuture<UINT32> startCapture() throws IOException {
+        UINT32 transactionID = ptpInitiator.sendOperation(OperationCode.INITIATE_CAPTURE);
+
+        // The events received before waiting are kept by the initiator, so they are not missed.
+        // No timeout. The waiters are cancelled when the capture is completed.
+        CompletableFuture<UINT32> capture = Capture.await((eventCode, txid) ->
+                ptpInitiator.awaitEventOfTransaction(eventCode, txid, Long.MAX_VALUE, TimeUnit.NANOSECONDS), transactionID);
 
-            transactionIDRef.set(ptpInitiator.sendOperation(OperationCode.INITIATE_CAPTURE));
+        try {
             ptpInitiator.checkAndReadResponse();
+        } catch (IOException | RuntimeException e) {
+            capture.completeExceptionally(e);
+            throw e;
+        }
 
-            latch.await();
+        return capture;
+    }
 
-            if (storeFull.get()) {
-                throw new PtpException(ResponseCode.STORE_FULL.value());
-            }
+    /**
+     * Captures images back to back.
+     * If THETA is busy, the next capture is started after the previous capture is completed.
+     *
+     * @param count The number of images to capture.
+     * @return The futures of the captures in the order of capturing. See {@link #startCapture()}.
+     * @throws IOException              if an I/O error occurs while initiating capturing.
+     * @throws PtpException             if the PTP response is not OK.
+     * @throws InterruptedException     The invoker thread is interrupted while waiting for the previous capture.
+     * @throws IllegalArgumentException if count is not positive.
+     */
+    public List<CompletableFuture<UINT32>> captureBurst(int count) throws IOException, InterruptedException {
+        Validators.rangeEq("count", count, 1, Integer.MAX_VALUE);
 
-            return objectHandleRef.get();
-        } finally {
-            ptpInitiator.removeListener(listener);
+        List<CompletableFuture<UINT32>> captures = new ArrayList<>(count);
+
+        while (captures.size() < count) {
+            try {
+                captures.add(startCapture());
+            } catch (PtpException e) {
+                CompletableFuture<UINT32> previous = captures.isEmpty() ? null : captures.get(captures.size() - 1);
+                if (!e.value().equals(ResponseCode.DEVICE_BUSY.value()) || previous == null || previous.isDone()) {
+                    throw e;
+                }
+
+                try {
+                    previous.get();
+                } catch (ExecutionException ignored) {
+                    // The error is reported by the future of the previous capture.
+                }
+            }
         }
+
+        return captures;
     }
 
     /**
@@ -229,7 +721,7 @@ public final class Theta implements Closeable {
      * @see #initiateOpenCapture()
      */
     public synchronized void terminateOpenCapture() throws IOException {
-        UINT32 transactionID = new UINT32(0xFFFFFFFFL);
+        UINT32 transactionID = UINT32.valueOf(0xFFFFFFFFL);
 
         ptpInitiator.sendOperation(OperationCode.TERMINATE_OPEN_CAPTURE, transactionID);
         ptpInitiator.checkAndReadResponse();
@@ -261,12 +753,191 @@ public final class Theta implements Closeable {
         Validators.notNull("objectHandle", objectHandle);
         Validators.notNull("dst", dst);
 
-        ptpInitiator.sendOperation(ThetaOperationCode.GET_RESIZED_IMAGE_OBJECT, objectHandle, new UINT32(2048), new UINT32(1024));
+        ptpInitiator.sendOperation(ThetaOperationCode.GET_RESIZED_IMAGE_OBJECT, objectHandle, UINT32.valueOf(2048), UINT32.valueOf(1024));
 
         ptpInitiator.receiveData(dst);
         ptpInitiator.checkAndReadResponse();
     }
 
+    // Asynchronous Operation
+
+    /**
+     * Asynchronous version of {@link #getDeviceInfo()}.
+     * The operation is queued and executed by the command worker thread in the order of submission.
+     *
+     * @return The future which is completed with the device information,
+     * or completed exceptionally with IOException or PtpException.
+     */
+    public CompletableFuture<DeviceInfo> getDeviceInfoAsync() {
+        return commandQueue.submit(this::getDeviceInfo);
+    }
+
+    /**
+     * Asynchronous version of {@link #getObjectHandles()}.
+     * The operation is queued and executed by the command worker thread in the order of submission.
+     *
+     * @return The future which is completed with the list of the object handles,
+     * or completed exceptionally with IOException or PtpException.
+     */
+    public CompletableFuture<List<UINT32>> getObjectHandlesAsync() {
+        return commandQueue.submit(this::getObjectHandles);
+    }
+
+    /**
+     * Asynchronous version of {@link #getObjectInfo(UINT32)}.
+     * The operation is queued and executed by the command worker thread in the order of submission.
+     *
+     * @param objectHandle The ObjectHandle of the object to acquire the ObjectInfo.
+     * @return The future which is completed with the ObjectInfo,
+     * or completed exceptionally with IOException or PtpException.
+     * @throws NullPointerException if objectHandle is null.
+     */
+    public CompletableFuture<ObjectInfo> getObjectInfoAsync(UINT32 objectHandle) {
+        Validators.notNull("objectHandle", objectHandle);
+
+        return commandQueue.submit(() -> getObjectInfo(objectHandle));
+    }
+
+    /**
+     * Asynchronous version of {@link #getObject(UINT32, OutputStream)}.
+     * The operation is queued and executed by the command worker thread in the order of submission.
+     * dst is written by the worker thread.
+     *
+     * @param objectHandle The ObjectHandle of the object to acquire the data.
+     * @param dst          The destination for the object's data.
+     * @return The future which is completed when all data is written to dst,
+     * or completed exceptionally with IOException or PtpException.
+     * @throws NullPointerException if an argument is null.
+     */
+    public CompletableFuture<Void> getObjectAsync(UINT32 objectHandle, OutputStream dst) {
+        Validators.notNull("objectHandle", objectHandle);
+        Validators.notNull("dst", dst);
+
+        return commandQueue.submit(() -> {
+            getObject(objectHandle, dst);
+            return null;
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link #getObject(UINT32, WritableByteChannel)}.
+     * The operation is queued and executed by the command worker thread in the order of submission.
+     * dst is written by the worker thread.
+     *
+     * @param objectHandle The ObjectHandle of the object to acquire the data.
+     * @param dst          The destination for the object's data.
+     * @return The future which is completed when all data is written to dst,
+     * or completed exceptionally with IOException or PtpException.
+     * @throws NullPointerException if an argument is null.
+     */
+    public CompletableFuture<Void> getObjectAsync(UINT32 objectHandle, WritableByteChannel dst) {
+        Validators.notNull("objectHandle", objectHandle);
+        Validators.notNull("dst", dst);
+
+        return commandQueue.submit(() -> {
+            getObject(objectHandle, dst);
+            return null;
+        });
+    }
+
+    /**
+     * Cancellable version of {@link #getObjectAsync(UINT32, OutputStream)}.
+     * If the returned transfer is cancelled while it is running, Cancel is sent to THETA
+     * and the rest of the data is discarded, so the following commands are executed
+     * without waiting for the whole data or reconnecting.
+     * If the transfer is stalled (see {@link #setStallDetection(long, Duration)}),
+     * the transfer is completed exceptionally with InterruptedIOException.
+     *
+     * @param objectHandle The ObjectHandle of the object to acquire the data.
+     * @param dst          The destination for the object's data.
+     * @return The transfer of the object's data.
+     * @throws NullPointerException if an argument is null.
+     */
+    public Transfer getObjectCancellable(UINT32 objectHandle, OutputStream dst) {
+        Validators.notNull("objectHandle", objectHandle);
+        Validators.notNull("dst", dst);
+
+        Transfer transfer = new Transfer(objectHandle, ptpInitiator);
+        commandQueue.submit(() -> {
+            receiveObject(transfer, dst, null);
+            return null;
+        }).whenComplete((v, e) -> transfer.finished(e));
+
+        return transfer;
+    }
+
+    /**
+     * Asynchronous version of {@link #getPartialObject(UINT32, UINT32, UINT32, WritableByteChannel)}.
+     * The operation is queued and executed by the command worker thread in the order of submission.
+     * dst is written by the worker thread.
+     *
+     * @param objectHandle The ObjectHandle of the object to acquire the data.
+     * @param offset       The offset in bytes of the part in the object's data.
+     * @param maxBytes     The maximum number of bytes to acquire.
+     * @param dst          The destination for the part of the object's data.
+     * @return The future which is completed with the number of bytes actually sent from THETA,
+     * or completed exceptionally with IOException or PtpException.
+     * @throws NullPointerException if an argument is null.
+     */
+    public CompletableFuture<UINT32> getPartialObjectAsync(UINT32 objectHandle, UINT32 offset, UINT32 maxBytes, WritableByteChannel dst) {
+        Validators.notNull("objectHandle", objectHandle);
+        Validators.notNull("offset", offset);
+        Validators.notNull("maxBytes", maxBytes);
+        Validators.notNull("dst", dst);
+
+        return commandQueue.submit(() -> getPartialObject(objectHandle, offset, maxBytes, dst));
+    }
+
+    /**
+     * Asynchronous version of {@link #getThumb(UINT32, OutputStream)}.
+     * The operation is queued and executed by the command worker thread in the order of submission.
+     * dst is written by the worker thread.
+     *
+     * @param objectHandle The ObjectHandle of the object to acquire the thumbnail data.
+     * @param dst          The destination for the object's thumbnail data.
+     * @return The future which is completed when all data is written to dst,
+     * or completed exceptionally with IOException or PtpException.
+     * @throws NullPointerException if an argument is null.
+     */
+    public CompletableFuture<Void> getThumbAsync(UINT32 objectHandle, OutputStream dst) {
+        Validators.notNull("objectHandle", objectHandle);
+        Validators.notNull("dst", dst);
+
+        return commandQueue.submit(() -> {
+            getThumb(objectHandle, dst);
+            return null;
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link #deleteObject(UINT32)}.
+     * The operation is queued and executed by the command worker thread in the order of submission.
+     *
+     * @param objectHandle The ObjectHandle of the object to delete.
+     * @return The future which is completed when the object is deleted,
+     * or completed exceptionally with IOException or PtpException.
+     * @throws NullPointerException if objectHandle is null.
+     */
+    public CompletableFuture<Void> deleteObjectAsync(UINT32 objectHandle) {
+        Validators.notNull("objectHandle", objectHandle);
+
+        return commandQueue.submit(() -> {
+            deleteObject(objectHandle);
+            return null;
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link #initiateCapture()}.
+     * The operation is queued and executed by the command worker thread in the order of submission.
+     *
+     * @return The future which is completed with the object handle of captured image,
+     * or completed exceptionally with IOException, PtpException or InterruptedException.
+     */
+    public CompletableFuture<UINT32> initiateCaptureAsync() {
+        return commandQueue.submit(this::initiateCapture);
+    }
+
     // Property
 
     /**
@@ -276,7 +947,7 @@ public final class Theta implements Closeable {
      * @throws PtpException if the PTP response is not OK.
      */
     public synchronized BatteryLevel getBatteryLevel() throws IOException {
-        UINT8 value = ptpInitiator.getDevicePropValueAsUINT8(DevicePropCode.BATTERY_LEVEL);
+        UINT8 value = UINT8.read(getDevicePropValue(DevicePropCode.BATTERY_LEVEL));
         return BatteryLevel.valueOf(value);
     }
 
@@ -287,7 +958,7 @@ public final class Theta implements Closeable {
      * @throws PtpException if the PTP response is not OK.
      */
     public synchronized WhiteBalance getWhiteBalance() throws IOException {
-        UINT16 value = ptpInitiator.getDevicePropValueAsUINT16(DevicePropCode.WHITE_BALANCE);
+        UINT16 value = UINT16.read(getDevicePropValue(DevicePropCode.WHITE_BALANCE));
         return WhiteBalance.valueOf(value);
     }
 
@@ -295,14 +966,17 @@ public final class Theta implements Closeable {
      * Sets the white balance.
      * It returns to the default value when the power is turned off.
      *
-     * @throws IOException          if an I/O error occurs setting the value.
-     * @throws PtpException         if the PTP response is not OK.
-     * @throws NullPointerException if whiteBalance is null.
+     * @throws IOException              if an I/O error occurs setting the value.
+     * @throws PtpException             if the PTP response is not OK.
+     * @throws NullPointerException     if whiteBalance is null.
+     * @throws IllegalArgumentException if THETA does not support the value.
      */
     public synchronized void setWhiteBalance(WhiteBalance whiteBalance) throws IOException {
         Validators.notNull("whiteBalance", whiteBalance);
 
+        checkDevicePropValue(DevicePropCode.WHITE_BALANCE, whiteBalance.value());
         ptpInitiator.setDevicePropValue(DevicePropCode.WHITE_BALANCE, whiteBalance.value());
+        invalidateDevicePropValue(DevicePropCode.WHITE_BALANCE);
     }
 
     /**
@@ -312,7 +986,7 @@ public final class Theta implements Closeable {
      * @throws PtpException if the PTP response is not OK.
      */
     public synchronized ISOSpeed getExposureIndex() throws IOException {
-        UINT16 value = ptpInitiator.getDevicePropValueAsUINT16(DevicePropCode.EXPOSURE_INDEX);
+        UINT16 value = UINT16.read(getDevicePropValue(DevicePropCode.EXPOSURE_INDEX));
         return ISOSpeed.valueOf(value);
     }
 
@@ -322,14 +996,17 @@ public final class Theta implements Closeable {
      * It returns to the default value when the power is turned off.
      *
      * @param isoSpeed An ISO speed
-     * @throws IOException          if an I/O error occurs setting the value.
-     * @throws PtpException         if the PTP response is not OK.
-     * @throws NullPointerException if isoSpeed is null.
+     * @throws IOException              if an I/O error occurs setting the value.
+     * @throws PtpException             if the PTP response is not OK.
+     * @throws NullPointerException     if isoSpeed is null.
+     * @throws IllegalArgumentException if THETA does not support the value.
      */
     public synchronized void setExposureIndex(ISOSpeed isoSpeed) throws IOException {
         Validators.notNull("isoSpeed", isoSpeed);
 
+        checkDevicePropValue(DevicePropCode.EXPOSURE_INDEX, isoSpeed.value());
         ptpInitiator.setDevicePropValue(DevicePropCode.EXPOSURE_INDEX, isoSpeed.value());
+        invalidateDevicePropValue(DevicePropCode.EXPOSURE_INDEX);
     }
 
     /**
@@ -339,7 +1016,7 @@ public final class Theta implements Closeable {
      * @throws PtpException if the PTP response is not OK.
      */
     public synchronized ExposureBiasCompensation getExposureBiasCompensation() throws IOException {
-        INT16 value = ptpInitiator.getDevicePropValueAsINT16(DevicePropCode.EXPOSURE_BIAS_COMPENSATION);
+        INT16 value = INT16.read(getDevicePropValue(DevicePropCode.EXPOSURE_BIAS_COMPENSATION));
         return ExposureBiasCompensation.valueOf(value);
     }
 
@@ -348,14 +1025,17 @@ public final class Theta implements Closeable {
      * Returns to the default value when the power is turned off.
      *
      * @param exposureBiasCompensation An exposure bias compensation value to set.
-     * @throws IOException          if an I/O error occurs setting the value.
-     * @throws PtpException         if the PTP response is not OK.
-     * @throws NullPointerException if exposureBiasCompensation is null.
+     * @throws IOException              if an I/O error occurs setting the value.
+     * @throws PtpException             if the PTP response is not OK.
+     * @throws NullPointerException     if exposureBiasCompensation is null.
+     * @throws IllegalArgumentException if THETA does not support the value.
      */
     public synchronized void setExposureBiasCompensation(ExposureBiasCompensation exposureBiasCompensation) throws IOException {
         Validators.notNull("exposureBiasCompensation", exposureBiasCompensation);
 
+        checkDevicePropValue(DevicePropCode.EXPOSURE_BIAS_COMPENSATION, exposureBiasCompensation.value());
         ptpInitiator.setDevicePropValue(DevicePropCode.EXPOSURE_BIAS_COMPENSATION, exposureBiasCompensation.value());
+        invalidateDevicePropValue(DevicePropCode.EXPOSURE_BIAS_COMPENSATION);
     }
 
     /**
@@ -365,29 +1045,26 @@ public final class Theta implements Closeable {
      * @throws PtpException if the PTP response is not OK.
      */
     public synchronized Date getDateTime() throws IOException {
-        String str = ptpInitiator.getDevicePropValueAsString(DevicePropCode.DATE_TIME);
-
-        try {
-            return new SimpleDateFormat(DATE_TIME_FORMAT, Locale.US).parse(str);
-        } catch (ParseException e) {
-            throw new RuntimeException(e);
-        }
+        return parseDateTime(STR.read(getDevicePropValue(DevicePropCode.DATE_TIME)));
     }
 
     /**
      * Sets the date and time.
      *
      * @param dateTime A date and time to set.
-     * @throws IOException          if an I/O error occurs setting the value.
-     * @throws PtpException         if the PTP response is not OK.
-     * @throws NullPointerException if dateTime is null.
+     * @throws IOException              if an I/O error occurs setting the value.
+     * @throws PtpException             if the PTP response is not OK.
+     * @throws NullPointerException     if dateTime is null.
+     * @throws IllegalArgumentException if THETA does not support the value.
      */
     public synchronized void setDateTime(Date dateTime) throws IOException {
         Validators.notNull("dateTime", dateTime);
 
         String str = new SimpleDateFormat(DATE_TIME_FORMAT, Locale.US).format(dateTime);
 
+        checkDevicePropValue(DevicePropCode.DATE_TIME, str);
         ptpInitiator.setDevicePropValue(DevicePropCode.DATE_TIME, str);
+        invalidateDevicePropValue(DevicePropCode.DATE_TIME);
     }
 
     /**
@@ -397,7 +1074,7 @@ public final class Theta implements Closeable {
      * @throws PtpException if the PTP response is not OK.
      */
     public synchronized StillCaptureMode getStillCaptureMode() throws IOException {
-        UINT16 value = ptpInitiator.getDevicePropValueAsUINT16(DevicePropCode.STILL_CAPTURE_MODE);
+        UINT16 value = UINT16.read(getDevicePropValue(DevicePropCode.STILL_CAPTURE_MODE));
         return StillCaptureMode.valueOf(value);
     }
 
@@ -406,14 +1083,17 @@ public final class Theta implements Closeable {
      * Returns to the default value when the power is turned off or when #initiateOpenCapture() ends.
      *
      * @param stillCaptureMode A still capture mode to set.
-     * @throws IOException          if an I/O error occurs setting the value.
-     * @throws PtpException         if the PTP response is not OK.
-     * @throws NullPointerException if stillCaptureMode is null.
+     * @throws IOException              if an I/O error occurs setting the value.
+     * @throws PtpException             if the PTP response is not OK.
+     * @throws NullPointerException     if stillCaptureMode is null.
+     * @throws IllegalArgumentException if THETA does not support the value.
      */
     public synchronized void setStillCaptureMode(StillCaptureMode stillCaptureMode) throws IOException {
         Validators.notNull("stillCaptureMode", stillCaptureMode);
 
+        checkDevicePropValue(DevicePropCode.STILL_CAPTURE_MODE, stillCaptureMode.value());
         ptpInitiator.setDevicePropValue(DevicePropCode.STILL_CAPTURE_MODE, stillCaptureMode.value());
+        invalidateDevicePropValue(DevicePropCode.STILL_CAPTURE_MODE);
     }
 
     /**
@@ -423,7 +1103,7 @@ public final class Theta implements Closeable {
      * @throws PtpException if the PTP response is not OK.
      */
     public synchronized int getTimelapseNumber() throws IOException {
-        return ptpInitiator.getDevicePropValueAsUINT16(DevicePropCode.TIMELAPSE_NUMBER).intValue();
+        return UINT16.read(getDevicePropValue(DevicePropCode.TIMELAPSE_NUMBER)).intValue();
     }
 
     /**
@@ -433,9 +1113,10 @@ public final class Theta implements Closeable {
      * So, this property has to be set before switching the StillCaptureMode to interval shooting mode.
      *
      * @param timelapseNumber The upper limit value for interval shooting. The valid range is in 0 or 2-65535. The 0 means unlimited.
-     * @throws IOException          if an I/O error occurs setting the value.
-     * @throws PtpException         if the PTP response is not OK.
-     * @throws NullPointerException if timelapseNumber is null.
+     * @throws IOException              if an I/O error occurs setting the value.
+     * @throws PtpException             if the PTP response is not OK.
+     * @throws NullPointerException     if timelapseNumber is null.
+     * @throws IllegalArgumentException if THETA does not support the value.
      */
     public synchronized void setTimelapseNumber(int timelapseNumber) throws IOException {
         if (timelapseNumber < 0 || timelapseNumber == 1 || 65535 < timelapseNumber) {
@@ -445,7 +1126,9 @@ public final class Theta implements Closeable {
 
         UINT16 value = new UINT16(timelapseNumber);
 
+        checkDevicePropValue(DevicePropCode.TIMELAPSE_NUMBER, value);
         ptpInitiator.setDevicePropValue(DevicePropCode.TIMELAPSE_NUMBER, value);
+        invalidateDevicePropValue(DevicePropCode.TIMELAPSE_NUMBER);
     }
 
     /**
@@ -455,7 +1138,7 @@ public final class Theta implements Closeable {
      * @throws PtpException if the PTP response is not OK.
      */
     public synchronized int getTimelapseInterval() throws IOException {
-        return ptpInitiator.getDevicePropValueAsUINT32(DevicePropCode.TIMELAPSE_INTERVAL).intValue();
+        return UINT32.read(getDevicePropValue(DevicePropCode.TIMELAPSE_INTERVAL)).intValue();
     }
 
     /**
@@ -465,9 +1148,10 @@ public final class Theta implements Closeable {
      * So, this property has to be set before switching the StillCaptureMode to interval shooting mode.
      *
      * @param timelapseInterval The shooting interval in msec for interval shooting. The valid range is in 5000-3600000.
-     * @throws IOException          if an I/O error occurs setting the value.
-     * @throws PtpException         if the PTP response is not OK.
-     * @throws NullPointerException if timelapseInterval is null.
+     * @throws IOException              if an I/O error occurs setting the value.
+     * @throws PtpException             if the PTP response is not OK.
+     * @throws NullPointerException     if timelapseInterval is null.
+     * @throws IllegalArgumentException if THETA does not support the value.
      */
     public synchronized void setTimelapseInterval(int timelapseInterval) throws IOException {
         if (timelapseInterval < 5000 || 3600000 < timelapseInterval) {
@@ -477,7 +1161,9 @@ public final class Theta implements Closeable {
 
         UINT32 value = new UINT32(timelapseInterval);
 
+        checkDevicePropValue(DevicePropCode.TIMELAPSE_INTERVAL, value);
         ptpInitiator.setDevicePropValue(DevicePropCode.TIMELAPSE_INTERVAL, value);
+        invalidateDevicePropValue(DevicePropCode.TIMELAPSE_INTERVAL);
     }
 
     /**
@@ -487,7 +1173,7 @@ public final class Theta implements Closeable {
      * @throws PtpException if the PTP response is not OK.
      */
     public synchronized int getAudioVolume() throws IOException {
-        return ptpInitiator.getDevicePropValueAsUINT32(DevicePropCode.AUDIO_VOLUME).intValue();
+        return UINT32.read(getDevicePropValue(DevicePropCode.AUDIO_VOLUME)).intValue();
     }
 
     /**
@@ -495,9 +1181,10 @@ public final class Theta implements Closeable {
      * Returns to the default value when the power is turned off. // TODO: Confirm the actual behavior.
      *
      * @param audioVolume The volume for the shutter sound. The valid range is in 0-100.
-     * @throws IOException          if an I/O error occurs setting the value.
-     * @throws PtpException         if the PTP response is not OK.
-     * @throws NullPointerException if audioVolume is null.
+     * @throws IOException              if an I/O error occurs setting the value.
+     * @throws PtpException             if the PTP response is not OK.
+     * @throws NullPointerException     if audioVolume is null.
+     * @throws IllegalArgumentException if THETA does not support the value.
      */
     public synchronized void setAudioVolume(int audioVolume) throws IOException {
         if (audioVolume < 0 || 100 < audioVolume) {
@@ -507,7 +1194,9 @@ public final class Theta implements Closeable {
 
         UINT32 value = new UINT32(audioVolume);
 
+        checkDevicePropValue(DevicePropCode.AUDIO_VOLUME, value);
         ptpInitiator.setDevicePropValue(DevicePropCode.AUDIO_VOLUME, value);
+        invalidateDevicePropValue(DevicePropCode.AUDIO_VOLUME);
     }
 
     /**
@@ -517,7 +1206,7 @@ public final class Theta implements Closeable {
      * @throws PtpException if the PTP response is not OK.
      */
     public synchronized ErrorInfo getErrorInfo() throws IOException {
-        UINT32 value = ptpInitiator.getDevicePropValueAsUINT32(DevicePropCode.ERROR_INFO);
+        UINT32 value = UINT32.read(getDevicePropValue(DevicePropCode.ERROR_INFO));
         return ErrorInfo.valueOf(value);
     }
 
@@ -528,7 +1217,7 @@ public final class Theta implements Closeable {
      * @throws PtpException if the PTP response is not OK.
      */
     public synchronized ShutterSpeed getShutterSpeed() throws IOException {
-        UINT64 value = ptpInitiator.getDevicePropValueAsUINT64(DevicePropCode.SHUTTER_SPEED);
+        UINT64 value = UINT64.read(getDevicePropValue(DevicePropCode.SHUTTER_SPEED));
         return ShutterSpeed.valueOf(Rational.valueOf(value.bytes()));
     }
 
@@ -537,15 +1226,20 @@ public final class Theta implements Closeable {
      * Returns to the default value when the power is turned off.
      *
      * @param shutterSpeed The shutter speed to set.
-     * @throws IOException          if an I/O error occurs setting the value.
-     * @throws PtpException         if the PTP response is not OK.
-     * @throws NullPointerException if shutterSpeed is null.
+     * @throws IOException              if an I/O error occurs setting the value.
+     * @throws PtpException             if the PTP response is not OK.
+     * @throws NullPointerException     if shutterSpeed is null.
+     * @throws IllegalArgumentException if THETA does not support the value.
      */
 
     public synchronized void setShutterSpeed(ShutterSpeed shutterSpeed) throws IOException {
         Validators.notNull("shutterSpeed", shutterSpeed);
 
-        ptpInitiator.setDevicePropValue(DevicePropCode.SHUTTER_SPEED, shutterSpeed.value().bytes());
+        UINT64 value = new UINT64(shutterSpeed.value().bytes());
+
+        checkDevicePropValue(DevicePropCode.SHUTTER_SPEED, value);
+        ptpInitiator.setDevicePropValue(DevicePropCode.SHUTTER_SPEED, value);
+        invalidateDevicePropValue(DevicePropCode.SHUTTER_SPEED);
     }
 
     /**
@@ -555,13 +1249,7 @@ public final class Theta implements Closeable {
      * @throws PtpException if the PTP response is not OK.
      */
     public synchronized GPSInfo getGPSInfo() throws IOException {
-        String gpsInfoStr = STR.read(ptpInitiator.getDevicePropValue(DevicePropCode.GPS_INFO));
-        try {
-            return GPSInfo.parse(gpsInfoStr);
-        } catch (ParseException e) {
-            String message = String.format("THETA returned invalid GPS string: \"%s\"", gpsInfoStr);
-            throw new IOException(message, e);
-        }
+        return parseGPSInfo(STR.read(getDevicePropValue(DevicePropCode.GPS_INFO)));
     }
 
     /**
@@ -569,14 +1257,19 @@ public final class Theta implements Closeable {
      * Returns to the default value when the power is turned off.
      *
      * @param gpsInfo The GPS information to set.
-     * @throws IOException          if an I/O error occurs setting the value.
-     * @throws PtpException         if the PTP response is not OK.
-     * @throws NullPointerException if gpsInfo is null.
+     * @throws IOException              if an I/O error occurs setting the value.
+     * @throws PtpException             if the PTP response is not OK.
+     * @throws NullPointerException     if gpsInfo is null.
+     * @throws IllegalArgumentException if THETA does not support the value.
      */
     public synchronized void setGPSInfo(GPSInfo gpsInfo) throws IOException {
         Validators.notNull("gpsInfo", gpsInfo);
 
-        ptpInitiator.setDevicePropValue(DevicePropCode.GPS_INFO, gpsInfo.toString());
+        String str = gpsInfo.toString();
+
+        checkDevicePropValue(DevicePropCode.GPS_INFO, str);
+        ptpInitiator.setDevicePropValue(DevicePropCode.GPS_INFO, str);
+        invalidateDevicePropValue(DevicePropCode.GPS_INFO);
     }
 
     /**
@@ -586,16 +1279,17 @@ public final class Theta implements Closeable {
      * @throws PtpException if the PTP response is not OK.
      */
     public synchronized int getAutoPowerOffDelay() throws IOException {
-        return ptpInitiator.getDevicePropValueAsUINT8(DevicePropCode.AUTO_POWER_OFF_DELAY).intValue();
+        return UINT8.read(getDevicePropValue(DevicePropCode.AUTO_POWER_OFF_DELAY)).intValue();
     }
 
     /**
      * Sets the time in minutes to start the auto power off.
      *
      * @param autoPowerOffDelay The time in minutes to start the auto power off. The valid range is in 0-30. The 0 disables the auto power off.
-     * @throws IOException          if an I/O error occurs setting the value.
-     * @throws PtpException         if the PTP response is not OK.
-     * @throws NullPointerException if autoPowerOffDelay is null.
+     * @throws IOException              if an I/O error occurs setting the value.
+     * @throws PtpException             if the PTP response is not OK.
+     * @throws NullPointerException     if autoPowerOffDelay is null.
+     * @throws IllegalArgumentException if THETA does not support the value.
      */
     public synchronized void setAutoPowerOffDelay(int autoPowerOffDelay) throws IOException {
         if (autoPowerOffDelay < 0 || 30 < autoPowerOffDelay) {
@@ -603,7 +1297,11 @@ public final class Theta implements Closeable {
                     String.format("Auto power off delay is not work with %d. Set 0-30.", autoPowerOffDelay));
         }
 
-        ptpInitiator.setDevicePropValue(DevicePropCode.AUTO_POWER_OFF_DELAY, new UINT8(autoPowerOffDelay));
+        UINT8 value = UINT8.valueOf(autoPowerOffDelay);
+
+        checkDevicePropValue(DevicePropCode.AUTO_POWER_OFF_DELAY, value);
+        ptpInitiator.setDevicePropValue(DevicePropCode.AUTO_POWER_OFF_DELAY, value);
+        invalidateDevicePropValue(DevicePropCode.AUTO_POWER_OFF_DELAY);
     }
 
     /**
@@ -613,16 +1311,17 @@ public final class Theta implements Closeable {
      * @throws PtpException if the PTP response is not OK.
      */
     public synchronized int getSleepDelay() throws IOException {
-        return ptpInitiator.getDevicePropValueAsUINT16(DevicePropCode.SLEEP_DELAY).intValue();
+        return UINT16.read(getDevicePropValue(DevicePropCode.SLEEP_DELAY)).intValue();
     }
 
     /**
      * Sets the time in seconds to start sleep.
      *
      * @param sleepDelay The time in seconds to start sleep. The valid range is in 0-1800. Does not switch to sleep mode with 0.
-     * @throws IOException          if an I/O error occurs setting the value.
-     * @throws PtpException         if the PTP response is not OK.
-     * @throws NullPointerException if sleepDelay is null.
+     * @throws IOException              if an I/O error occurs setting the value.
+     * @throws PtpException             if the PTP response is not OK.
+     * @throws NullPointerException     if sleepDelay is null.
+     * @throws IllegalArgumentException if THETA does not support the value.
      */
     public synchronized void setSleepDelay(int sleepDelay) throws IOException {
         if (sleepDelay < 0 || 1800 < sleepDelay) {
@@ -630,7 +1329,11 @@ public final class Theta implements Closeable {
                     String.format("Sleep delay is not work with %d. Set 0-1800.", sleepDelay));
         }
 
-        ptpInitiator.setDevicePropValue(DevicePropCode.SLEEP_DELAY, new UINT16(sleepDelay));
+        UINT16 value = UINT16.valueOf(sleepDelay);
+
+        checkDevicePropValue(DevicePropCode.SLEEP_DELAY, value);
+        ptpInitiator.setDevicePropValue(DevicePropCode.SLEEP_DELAY, value);
+        invalidateDevicePropValue(DevicePropCode.SLEEP_DELAY);
     }
 
     /**
@@ -640,7 +1343,7 @@ public final class Theta implements Closeable {
      * @throws PtpException if the PTP response is not OK.
      */
     public synchronized ChannelNumber getChannelNumber() throws IOException {
-        UINT8 value = ptpInitiator.getDevicePropValueAsUINT8(DevicePropCode.CHANNEL_NUMBER);
+        UINT8 value = UINT8.read(getDevicePropValue(DevicePropCode.CHANNEL_NUMBER));
         return ChannelNumber.valueOf(value);
     }
 
@@ -649,14 +1352,17 @@ public final class Theta implements Closeable {
      * This operation effects after wireless LAN OFF/ON.
      *
      * @param channelNumber The wireless LAN channel number to set.
-     * @throws IOException          if an I/O error occurs setting the value.
-     * @throws PtpException         if the PTP response is not OK.
-     * @throws NullPointerException if channelNumber is null.
+     * @throws IOException              if an I/O error occurs setting the value.
+     * @throws PtpException             if the PTP response is not OK.
+     * @throws NullPointerException     if channelNumber is null.
+     * @throws IllegalArgumentException if THETA does not support the value.
      */
     public synchronized void setChannelNumber(ChannelNumber channelNumber) throws IOException {
         Validators.notNull("channelNumber", channelNumber);
 
+        checkDevicePropValue(DevicePropCode.CHANNEL_NUMBER, channelNumber.value());
         ptpInitiator.setDevicePropValue(DevicePropCode.CHANNEL_NUMBER, channelNumber.value());
+        invalidateDevicePropValue(DevicePropCode.CHANNEL_NUMBER);
     }
 
     /**
@@ -666,7 +1372,7 @@ public final class Theta implements Closeable {
      * @throws PtpException if the PTP response is not OK.
      */
     public synchronized CaptureStatus getCaptureStatus() throws IOException {
-        UINT8 value = ptpInitiator.getDevicePropValueAsUINT8(DevicePropCode.CAPTURE_STATUS);
+        UINT8 value = UINT8.read(getDevicePropValue(DevicePropCode.CAPTURE_STATUS));
         return CaptureStatus.valueOf(value);
     }
 
@@ -677,7 +1383,7 @@ public final class Theta implements Closeable {
      * @throws PtpException if the PTP response is not OK.
      */
     public synchronized int getRecordingTime() throws IOException {
-        return ptpInitiator.getDevicePropValueAsUINT16(DevicePropCode.RECORDING_TIME).intValue();
+        return UINT16.read(getDevicePropValue(DevicePropCode.RECORDING_TIME)).intValue();
     }
 
     /**
@@ -687,7 +1393,549 @@ public final class Theta implements Closeable {
      * @throws PtpException if the PTP response is not OK.
      */
     public synchronized int getRemainingRecordingTime() throws IOException {
-        return ptpInitiator.getDevicePropValueAsUINT16(DevicePropCode.REMAINING_RECORDING_TIME).intValue();
+        return UINT16.read(getDevicePropValue(DevicePropCode.REMAINING_RECORDING_TIME)).intValue();
+    }
+
+    // Snapshot
+
+    /**
+     * Acquires the values of all device properties at once.
+     * The properties are read one after another while holding the lock of this object,
+     * so no other operation is interleaved and the values are consistent with each other.
+     * The values of the properties which THETA does not support are null.
+     * If the device property cache is set, it is refreshed with the acquired values.
+     *
+     * @throws IOException  if an I/O error occurs getting the values.
+     * @throws PtpException if the PTP response is not OK.
+     */
+    public synchronized ThetaState snapshot() throws IOException {
+        DevicePropCache cache = devicePropCache;
+        DevicePropCode[] codes = DevicePropCode.values();
+        byte[][] values = new byte[codes.length][];
+
+        for (DevicePropCode code : codes) {
+            long version = cache == null ? 0 : cache.version(code);
+
+            byte[] value;
+            try {
+                value = readAllBytes(ptpInitiator.getDevicePropValue(code));
+            } catch (PtpException e) {
+                if (ResponseCode.find(e.value().intValue()) == ResponseCode.DEVICE_PROP_NOT_SUPPORTED) {
+                    continue;
+                }
+                throw e;
+            }
+
+            values[code.ordinal()] = value;
+            if (cache != null) {
+                cache.put(code, version, value);
+            }
+        }
+
+        return new ThetaState(
+                decode(values, DevicePropCode.BATTERY_LEVEL, is -> BatteryLevel.valueOf(UINT8.read(is))),
+                decode(values, DevicePropCode.WHITE_BALANCE, is -> WhiteBalance.valueOf(UINT16.read(is))),
+                decode(values, DevicePropCode.EXPOSURE_INDEX, is -> ISOSpeed.valueOf(UINT16.read(is))),
+                decode(values, DevicePropCode.EXPOSURE_BIAS_COMPENSATION, is -> ExposureBiasCompensation.valueOf(INT16.read(is))),
+                decode(values, DevicePropCode.DATE_TIME, is -> parseDateTime(STR.read(is))),
+                decode(values, DevicePropCode.STILL_CAPTURE_MODE, is -> StillCaptureMode.valueOf(UINT16.read(is))),
+                decode(values, DevicePropCode.TIMELAPSE_NUMBER, is -> UINT16.read(is).intValue()),
+                decode(values, DevicePropCode.TIMELAPSE_INTERVAL, is -> UINT32.read(is).intValue()),
+                decode(values, DevicePropCode.AUDIO_VOLUME, is -> UINT32.read(is).intValue()),
+                decode(values, DevicePropCode.ERROR_INFO, is -> ErrorInfo.valueOf(UINT32.read(is))),
+                decode(values, DevicePropCode.SHUTTER_SPEED, is -> ShutterSpeed.valueOf(Rational.valueOf(UINT64.read(is).bytes()))),
+                decode(values, DevicePropCode.GPS_INFO, is -> parseGPSInfo(STR.read(is))),
+                decode(values, DevicePropCode.AUTO_POWER_OFF_DELAY, is -> UINT8.read(is).intValue()),
+                decode(values, DevicePropCode.SLEEP_DELAY, is -> UINT16.read(is).intValue()),
+                decode(values, DevicePropCode.CHANNEL_NUMBER, is -> ChannelNumber.valueOf(UINT8.read(is))),
+                decode(values, DevicePropCode.CAPTURE_STATUS, is -> CaptureStatus.valueOf(UINT8.read(is))),
+                decode(values, DevicePropCode.RECORDING_TIME, is -> UINT16.read(is).intValue()),
+                decode(values, DevicePropCode.REMAINING_RECORDING_TIME, is -> UINT16.read(is).intValue())
+        );
+    }
+
+    // Property Description
+
+    /**
+     * Acquires the description of the device property, such as the allowed values.
+     * The description is kept until THETA notifies the change of the property,
+     * and used to reject the unsupported values by the setters without a round trip to THETA.
+     *
+     * @param devicePropCode The code of the device property.
+     * @throws IOException          if an I/O error occurs getting the description.
+     * @throws PtpException         if the PTP response is not OK.
+     * @throws InvalidDataException if THETA returns a description which cannot be decoded.
+     * @throws NullPointerException if devicePropCode is null.
+     */
+    public synchronized DevicePropDesc getDevicePropDesc(DevicePropCode devicePropCode) throws IOException {
+        Validators.notNull("devicePropCode", devicePropCode);
+
+        DevicePropDesc devicePropDesc = ptpInitiator.getDevicePropDesc(devicePropCode);
+        devicePropDescs.put(devicePropCode, Optional.of(devicePropDesc));
+
+        return devicePropDesc;
+    }
+
+    /**
+     * Throws IllegalArgumentException if THETA does not allow to set the value to the property.
+     * The kept description is used if it accepts the value.
+     * Otherwise the description is acquired again before rejecting the value, because it may be stale.
+     */
+    private void checkDevicePropValue(DevicePropCode devicePropCode, Object value) throws IOException {
+        Optional<DevicePropDesc> devicePropDesc = devicePropDescs.get(devicePropCode);
+
+        if (devicePropDesc == null || !accepts(devicePropDesc, value)) {
+            devicePropDesc = fetchDevicePropDesc(devicePropCode);
+        }
+
+        if (accepts(devicePropDesc, value)) {
+            return;
+        }
+
+        if (!devicePropDesc.get().isSettable()) {
+            throw new IllegalArgumentException(String.format("%s is read-only.", devicePropCode));
+        }
+
+        throw new IllegalArgumentException(String.format("%s does not support the value: %s", devicePropCode, value));
+    }
+
+    // Property Cache
+
+    /**
+     * Sets the cache of the device property values.
+     * While the cache is set, the property getters return the cached value without a round trip to THETA.
+     * The cache is invalidated when it is set, and kept up to date with the events from THETA.
+     *
+     * @param devicePropCache The cache to use, or null to disable caching.
+     * @see DevicePropCache
+     */
+    public synchronized void setDevicePropCache(DevicePropCache devicePropCache) {
+        if (devicePropCache != null) {
+            devicePropCache.invalidateAll();
+        }
+
+        this.devicePropCache = devicePropCache;
+    }
+
+    /**
+     * Returns the cache of the device property values, or null if caching is disabled.
+     */
+    public DevicePropCache getDevicePropCache() {
+        return devicePropCache;
+    }
+
+    private InputStream getDevicePropValue(DevicePropCode devicePropCode) throws IOException {
+        DevicePropCache cache = devicePropCache;
+
+        if (cache == null) {
+            return ptpInitiator.getDevicePropValue(devicePropCode);
+        }
+
+        byte[] value = cache.get(devicePropCode);
+        if (value == null) {
+            long version = cache.version(devicePropCode);
+            value = readAllBytes(ptpInitiator.getDevicePropValue(devicePropCode));
+            cache.put(devicePropCode, version, value);
+        }
+
+        return new ByteArrayInputStream(value);
+    }
+
+    private Optional<DevicePropDesc> fetchDevicePropDesc(DevicePropCode devicePropCode) throws IOException {
+        Optional<DevicePropDesc> devicePropDesc;
+
+        try {
+            devicePropDesc = Optional.of(ptpInitiator.getDevicePropDesc(devicePropCode));
+        } catch (PtpException e) {
+            ResponseCode responseCode = ResponseCode.find(e.value().intValue());
+            if (responseCode != ResponseCode.OPERATION_NOT_SUPPORTED && responseCode != ResponseCode.DEVICE_PROP_NOT_SUPPORTED) {
+                throw e;
+            }
+            devicePropDesc = Optional.empty();
+        } catch (InvalidDataException e) {
+            // Leave the value to THETA as if there were no description, e.g. for a vendor form flag.
+            LOGGER.warn("Ignored the description of {} which cannot be decoded", devicePropCode, e);
+            devicePropDesc = Optional.empty();
+        }
+
+        devicePropDescs.put(devicePropCode, devicePropDesc);
+        return devicePropDesc;
+    }
+
+    private static boolean accepts(Optional<DevicePropDesc> devicePropDesc, Object value) {
+        return !devicePropDesc.isPresent() || devicePropDesc.get().isSettable() && devicePropDesc.get().isAllowed(value);
+    }
+
+    private void invalidateDevicePropValue(DevicePropCode devicePropCode) {
+        DevicePropCache cache = devicePropCache;
+
+        if (cache != null) {
+            cache.invalidate(devicePropCode);
+        }
+    }
+
+    // Storage Monitor
+
+    /**
+     * Sets the monitor of the storages and fills it with the current storages.
+     * While the monitor is set, it is refreshed in the background when THETA notifies the change of the storages.
+     *
+     * @param storageMonitor The monitor to use, or null to stop monitoring.
+     * @throws IOException  if an I/O error occurs while getting the storage information.
+     * @throws PtpException if the PTP response is not OK.
+     * @see StorageMonitor
+     */
+    public synchronized void setStorageMonitor(StorageMonitor storageMonitor) throws IOException {
+        this.storageMonitor = storageMonitor;
+
+        if (storageMonitor != null) {
+            refreshStorages();
+        }
+    }
+
+    /**
+     * Returns the monitor of the storages, or null if the storages are not monitored.
+     */
+    public StorageMonitor getStorageMonitor() {
+        return storageMonitor;
+    }
+
+    private synchronized void refreshStorages() throws IOException {
+        for (UINT32 storageID : getStorageIDs()) {
+            getStorageInfo(storageID);
+        }
+    }
+
+    // Thumbnail Cache
+
+    /**
+     * Sets the cache of the thumbnails, which is used by {@link #getThumb(UINT32, OutputStream)}.
+     * While the cache is set, the thumbnails of the added objects are fetched
+     * when the command worker thread has no other operation to execute.
+     *
+     * @param thumbnailCache The cache to use, or null to stop caching.
+     * @throws IOException  if an I/O error occurs while getting the serial number of THETA.
+     * @throws PtpException if the PTP response is not OK.
+     * @see ThumbnailCache
+     */
+    public synchronized void setThumbnailCache(ThumbnailCache thumbnailCache) throws IOException {
+        if (thumbnailCache != null) {
+            getSerialNumber(); // The key of the thumbnails
+        }
+
+        thumbnailKeys.clear();
+        this.thumbnailCache = thumbnailCache;
+    }
+
+    /**
+     * Returns the cache of the thumbnails, or null if the thumbnails are not cached.
+     */
+    public ThumbnailCache getThumbnailCache() {
+        return thumbnailCache;
+    }
+
+    /**
+     * Called when the connection is re-established.
+     * The events may be lost while reconnecting, so the state derived from the events is refreshed.
+     */
+    private void onReconnected() {
+        devicePropDescs.clear();
+        thumbnailKeys.clear();
+
+        DevicePropCache cache = devicePropCache;
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+
+        StorageMonitor monitor = storageMonitor;
+        ObjectCatalog catalog = objectCatalog;
+        if (monitor == null && catalog == null) {
+            return;
+        }
+
+        commandQueue.submit(() -> {
+            if (monitor != null) {
+                refreshStorages();
+            }
+            if (catalog != null) {
+                synchronizeObjectCatalog(catalog);
+            }
+            return null;
+        }).whenComplete((result, e) -> {
+            if (e != null) {
+                LOGGER.warn("Failed to refresh the storage monitor or the object catalog after reconnecting", e);
+            }
+        });
+    }
+
+    /**
+     * Receive the object's data until the transfer is cancelled.
+     * The rest of the Data Phase is discarded by closing the data, and the response is always read.
+     * The transfer is watched only while it owns the connection, so waiting for the preceding commands
+     * is not detected as the stall.
+     */
+    private synchronized void receiveObject(Transfer transfer, OutputStream dst, Duration timeout) throws IOException {
+        if (transfer.getFuture().isDone()) {
+            return;
+        }
+
+        UINT32 transactionID = ptpInitiator.sendOperation(OperationCode.GET_OBJECT, transfer.getObjectHandle());
+        transfer.started(transactionID);
+
+        TransferWatchdog watchdog = new TransferWatchdog(transfer, timeout, minBytesPerSecond, stallPeriod, connectionAborter());
+        try {
+            readObject(transfer, dst);
+        } finally {
+            watchdog.close();
+        }
+    }
+
+    private void readObject(Transfer transfer, OutputStream dst) throws IOException {
+        try (InputStream data = ptpInitiator.openData()) {
+            byte[] buffer = new byte[TRANSFER_BUFFER_SIZE];
+            for (int size; !transfer.getFuture().isDone() && (size = data.read(buffer)) != -1; ) {
+                dst.write(buffer, 0, size);
+                transfer.transferred(size);
+            }
+        } catch (PtpException e) {
+            // THETA responded instead of sending the data
+            if (transfer.getFuture().isDone() && e.value().equals(ResponseCode.TRANSACTION_CANCELLED.value())) {
+                return;
+            }
+            throw e;
+        }
+
+        Response response = ptpInitiator.receiveResponse();
+        if (transfer.getFuture().isDone()) {
+            LOGGER.debug("Cancelled {}: {}", transfer, response);
+            return;
+        }
+
+        if (ResponseCode.find(response.getResponseCodeValue()) != ResponseCode.OK) {
+            throw new PtpException(response.getResponseCode(), "ResponseCode was not OK: " + response.getResponseCode());
+        }
+    }
+
+    /**
+     * Returns the action which releases the thread blocked on reading the connection,
+     * or null if the initiator can not release it.
+     * The session is kept only when the initiator reconnects automatically.
+     */
+    private Runnable connectionAborter() {
+        if (ptpInitiator instanceof ReconnectingPtpIpInitiator) {
+            return ((ReconnectingPtpIpInitiator) ptpInitiator)::disconnect;
+        }
+
+        if (ptpInitiator instanceof PtpIpInitiator) {
+            return ((PtpIpInitiator) ptpInitiator)::abortCommandDataConnection;
+        }
+
+        return null;
+    }
+
+    private void receiveThumb(UINT32 objectHandle, OutputStream dst) throws IOException {
+        ptpInitiator.sendOperation(OperationCode.GET_THUMB, objectHandle);
+        ptpInitiator.receiveData(dst);
+        ptpInitiator.checkAndReadResponse();
+    }
+
+    private synchronized String thumbnailKey(UINT32 objectHandle) throws IOException {
+        String key = thumbnailKeys.get(objectHandle);
+        if (key != null) {
+            return key;
+        }
+
+        ObjectCatalog catalog = objectCatalog;
+        ObjectInfo objectInfo = catalog == null ? null : catalog.getObjectInfo(objectHandle);
+
+        if (objectInfo == null) {
+            objectInfo = getObjectInfo(objectHandle);
+        }
+
+        key = ThumbnailCache.key(getSerialNumber(), objectInfo);
+        thumbnailKeys.put(objectHandle, key);
+
+        return key;
+    }
+
+    private synchronized byte[] cacheThumb(ThumbnailCache cache, String key, UINT32 objectHandle) throws IOException {
+        ByteArrayOutputStream thumb = new ByteArrayOutputStream();
+        receiveThumb(objectHandle, thumb);
+
+        try {
+            cache.put(key, thumb.toByteArray());
+        } catch (IOException e) {
+            LOGGER.warn("Failed to cache the thumbnail", e);
+        }
+
+        return thumb.toByteArray();
+    }
+
+    private void prefetchThumb(ThumbnailCache cache, UINT32 objectHandle) {
+        commandQueue.submitWhenIdle(() -> {
+            String key = thumbnailKey(objectHandle);
+            if (!cache.contains(key)) {
+                cacheThumb(cache, key, objectHandle);
+            }
+            return null;
+        }).whenComplete((result, e) -> {
+            if (e != null) {
+                LOGGER.warn("Failed to prefetch the thumbnail", e);
+            }
+        });
+    }
+
+    // Object Catalog
+
+    /**
+     * Sets the catalog of the objects and synchronizes it with the objects in THETA.
+     * Only the ObjectInfo of the objects which are not in the catalog are requested.
+     * While the catalog is set, it is updated in the background when THETA notifies the change of the objects,
+     * so it must not be closed until it is unset.
+     *
+     * @param objectCatalog The catalog to use, or null to stop updating the catalog.
+     * @throws IOException              if an I/O error occurs while synchronizing the catalog.
+     * @throws PtpException             if the PTP response is not OK.
+     * @throws IllegalArgumentException if the catalog is not for this THETA.
+     * @see ObjectCatalog
+     */
+    public synchronized void setObjectCatalog(ObjectCatalog objectCatalog) throws IOException {
+        if (objectCatalog != null) {
+            if (!getSerialNumber().equals(objectCatalog.getSerialNumber())) {
+                throw new IllegalArgumentException("The catalog is not for this THETA: " + objectCatalog.getSerialNumber());
+            }
+        }
+
+        // Set before synchronizing, so the events while synchronizing are applied after that.
+        this.objectCatalog = objectCatalog;
+
+        if (objectCatalog != null) {
+            synchronizeObjectCatalog(objectCatalog);
+        }
+    }
+
+    /**
+     * Returns the catalog of the objects, or null if the catalog is not set.
+     */
+    public ObjectCatalog getObjectCatalog() {
+        return objectCatalog;
+    }
+
+    private synchronized void synchronizeObjectCatalog(ObjectCatalog catalog) throws IOException {
+        for (UINT32 objectHandle : catalog.retainAll(getObjectHandles())) {
+            catalog.put(objectHandle, getObjectInfo(objectHandle));
+        }
+    }
+
+    private void onObjectChanged(UINT32 objectHandle, boolean isAdded) throws IOException {
+        ObjectInfo objectInfo = getObjectInfo(objectHandle);
+
+        ObjectCatalog catalog = objectCatalog;
+        if (catalog != null) {
+            catalog.put(objectHandle, objectInfo);
+        }
+
+        StorageMonitor monitor = storageMonitor;
+        if (monitor != null && isAdded) {
+            monitor.addObjectSize(objectInfo.getObjectCompressedSize().longValue());
+            getStorageInfo(objectInfo.getStorageID());
+        }
+    }
+
+    /**
+     * Update the storage monitor, the object catalog and the thumbnail cache on the command worker thread,
+     * because the event thread must not wait for the operation in progress, such as capturing.
+     */
+    private void onStorageEvent(EventCode eventCode, Event event) throws IOException {
+        StorageMonitor monitor = storageMonitor;
+        ObjectCatalog catalog = objectCatalog;
+        ThumbnailCache cache = thumbnailCache;
+        Callable<?> command;
+
+        switch (eventCode) {
+            case STORAGE_INFO_CHANGED:
+                if (monitor == null) {
+                    return;
+                }
+                command = () -> getStorageInfo(event.getP1());
+                break;
+            case OBJECT_ADDED:
+            case OBJECT_INFO_CHANGED:
+                thumbnailKeys.remove(event.getP1());
+                if (cache != null && eventCode == EventCode.OBJECT_ADDED) {
+                    prefetchThumb(cache, event.getP1());
+                }
+                if (monitor == null && catalog == null) {
+                    return;
+                }
+                command = () -> {
+                    onObjectChanged(event.getP1(), eventCode == EventCode.OBJECT_ADDED);
+                    return null;
+                };
+                break;
+            case OBJECT_REMOVED:
+                thumbnailKeys.remove(event.getP1());
+                if (catalog != null) {
+                    catalog.remove(event.getP1());
+                }
+                if (monitor == null) {
+                    return;
+                }
+                command = () -> {
+                    refreshStorages();
+                    return null;
+                };
+                break;
+            case STORE_ADDED:
+            case STORE_REMOVED:
+                thumbnailKeys.clear();
+                if (monitor == null && catalog == null) {
+                    return;
+                }
+                command = () -> {
+                    if (monitor != null) {
+                        refreshStorages();
+                    }
+                    if (catalog != null) {
+                        synchronizeObjectCatalog(catalog);
+                    }
+                    return null;
+                };
+                break;
+            default:
+                return;
+        }
+
+        commandQueue.submit(command).whenComplete((result, e) -> {
+            if (e != null) {
+                LOGGER.warn("Failed to update the storage monitor or the object catalog", e);
+            }
+        });
+    }
+
+    // Stall Detection
+
+    /**
+     * Set the threshold of the transfer rate.
+     * If the rate of the transfer stays below minBytesPerSecond for the period,
+     * the transfer is cancelled and fails with InterruptedIOException.
+     * It is applied to {@link #getObject(UINT32, OutputStream, Duration)}
+     * and {@link #getObjectCancellable(UINT32, OutputStream)}.
+     *
+     * @param minBytesPerSecond The threshold of the transfer rate in bytes per second, or 0 to disable the detection.
+     * @param period            The period which the transfer rate is measured over.
+     * @throws NullPointerException     if period is null.
+     * @throws IllegalArgumentException if minBytesPerSecond is negative or period is not positive.
+     */
+    public void setStallDetection(long minBytesPerSecond, Duration period) {
+        Validators.rangeEq("minBytesPerSecond", minBytesPerSecond, 0L, Long.MAX_VALUE);
+        Validators.notNull("period", period);
+        if (period.isNegative() || period.isZero()) {
+            throw new IllegalArgumentException("period must be positive.");
+        }
+
+        this.minBytesPerSecond = minBytesPerSecond;
+        this.stallPeriod = period;
     }
 
     // Listener
@@ -721,6 +1969,7 @@ public final class Theta implements Closeable {
      */
     @Override
     public void close() throws IOException {
+        commandQueue.close();
         listenerSet.clear();
 
         synchronized (this) {
@@ -734,4 +1983,66 @@ public final class Theta implements Closeable {
             }
         }
     }
+
+    // Utility
+
+    private void onEvent(Event event) {
+        EventCode eventCode = EventCode.find(event.getEventCodeValue());
+
+        // Invalidate before notifying, so the listeners get the new value.
+        if (eventCode == EventCode.DEVICE_PROP_CHANGED) {
+            DevicePropCode devicePropCode = DevicePropCode.find(event.getP1().intValue());
+            if (devicePropCode != null) {
+                invalidateDevicePropValue(devicePropCode);
+                devicePropDescs.remove(devicePropCode);
+            }
+        }
+
+        if (eventCode != null && (storageMonitor != null || objectCatalog != null || thumbnailCache != null)) {
+            try {
+                onStorageEvent(eventCode, event);
+            } catch (IOException e) {
+                LOGGER.warn("Failed to update the object catalog", e);
+            }
+        }
+
+        listenerSet.raise(event);
+    }
+
+    private static Date parseDateTime(String str) {
+        try {
+            return new SimpleDateFormat(DATE_TIME_FORMAT, Locale.US).parse(str);
+        } catch (ParseException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static GPSInfo parseGPSInfo(String gpsInfoStr) throws IOException {
+        try {
+            return GPSInfo.parse(gpsInfoStr);
+        } catch (ParseException e) {
+            String message = String.format("THETA returned invalid GPS string: \"%s\"", gpsInfoStr);
+            throw new IOException(message, e);
+        }
+    }
+
+    private interface Decoder<T> {
+        T decode(InputStream is) throws IOException;
+    }
+
+    private static <T> T decode(byte[][] values, DevicePropCode devicePropCode, Decoder<T> decoder) throws IOException {
+        byte[] value = values[devicePropCode.ordinal()];
+        return value == null ? null : decoder.decode(new ByteArrayInputStream(value));
+    }
+
+    private static byte[] readAllBytes(InputStream is) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        byte[] buffer = new byte[256];
+
+        for (int size; (size = is.read(buffer)) != -1; ) {
+            baos.write(buffer, 0, size);
+        }
+
+        return baos.toByteArray();
+    }
 }
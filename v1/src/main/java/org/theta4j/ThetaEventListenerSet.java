@@ -167,31 +167,54 @@ final class ThetaEventListenerSet extends AbstractSet<ThetaEventListener> implem
     public void raise(Event event) {
         Validators.notNull("event", event);
 
-        UINT16 eventCode = event.getEventCode();
+        EventCode eventCode = EventCode.find(event.getEventCodeValue());
         UINT32 p1 = event.getP1();
 
-        if (eventCode.equals(EventCode.OBJECT_ADDED.value())) {
-            onObjectAdded(p1);
-        } else if (eventCode.equals(EventCode.DEVICE_PROP_CHANGED.value())) {
-            onDevicePropChanged(new UINT16(p1.intValue()));
-        } else if (eventCode.equals(EventCode.STORE_FULL.value())) {
-            onStoreFull();
-        } else if (eventCode.equals(EventCode.CAPTURE_COMPLETE.value())) {
-            onCaptureComplete(p1);
-        } else {
-            LOGGER.warn("Unknown EventCode: {}", eventCode);
+        if (eventCode == null) {
+            LOGGER.warn("Unknown EventCode: {}", event.getEventCode());
+            return;
+        }
+
+        switch (eventCode) {
+            case OBJECT_ADDED:
+                onObjectAdded(p1);
+                break;
+            case DEVICE_PROP_CHANGED:
+                onDevicePropChanged(p1.intValue());
+                break;
+            case STORE_FULL:
+                onStoreFull();
+                break;
+            case CAPTURE_COMPLETE:
+                onCaptureComplete(p1);
+                break;
+            default:
+                LOGGER.warn("Unknown EventCode: {}", event.getEventCode());
+                break;
         }
     }
 
-    private void onDevicePropChanged(UINT16 devicePropCode) {
-        if (DevicePropCode.CAPTURE_STATUS.value().equals(devicePropCode)) {
-            onCaptureStatusChanged();
-        } else if (DevicePropCode.RECORDING_TIME.value().equals(devicePropCode)) {
-            onRecordingTimeChanged();
-        } else if (DevicePropCode.REMAINING_RECORDING_TIME.value().equals(devicePropCode)) {
-            onRemainingRecordingTimeChanged();
-        } else {
-            LOGGER.warn("Unknown DevicePropCode: {}", devicePropCode);
+    private void onDevicePropChanged(int value) {
+        DevicePropCode devicePropCode = DevicePropCode.find(value);
+
+        if (devicePropCode == null) {
+            LOGGER.warn("Unknown DevicePropCode: {}", UINT16.valueOf(value));
+            return;
+        }
+
+        switch (devicePropCode) {
+            case CAPTURE_STATUS:
+                onCaptureStatusChanged();
+                break;
+            case RECORDING_TIME:
+                onRecordingTimeChanged();
+                break;
+            case REMAINING_RECORDING_TIME:
+                onRemainingRecordingTimeChanged();
+                break;
+            default:
+                LOGGER.warn("Unknown DevicePropCode: {}", devicePropCode);
+                break;
         }
     }
 }
@@ -21,7 +21,7 @@ enum ThetaOperationCode implements Code<UINT16> {
     // Constructor
 
     ThetaOperationCode(int value) {
-        this.value = new UINT16(value);
+        this.value = UINT16.valueOf(value);
     }
 
     // Code
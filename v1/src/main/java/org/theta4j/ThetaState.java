@@ -0,0 +1,279 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.theta4j.data.*;
+
+import java.util.Date;
+
+/**
+ * The immutable snapshot of the device properties of THETA.
+ * <p>
+ * The value of the property which THETA does not support is null.
+ *
+ * @see Theta#snapshot()
+ */
+public final class ThetaState {
+    private final BatteryLevel batteryLevel;
+    private final WhiteBalance whiteBalance;
+    private final ISOSpeed exposureIndex;
+    private final ExposureBiasCompensation exposureBiasCompensation;
+    private final Long dateTime; // Date is mutable
+    private final StillCaptureMode stillCaptureMode;
+    private final Integer timelapseNumber;
+    private final Integer timelapseInterval;
+    private final Integer audioVolume;
+    private final ErrorInfo errorInfo;
+    private final ShutterSpeed shutterSpeed;
+    private final GPSInfo gpsInfo;
+    private final Integer autoPowerOffDelay;
+    private final Integer sleepDelay;
+    private final ChannelNumber channelNumber;
+    private final CaptureStatus captureStatus;
+    private final Integer recordingTime;
+    private final Integer remainingRecordingTime;
+
+    // Constructor
+
+    ThetaState(BatteryLevel batteryLevel, WhiteBalance whiteBalance, ISOSpeed exposureIndex,
+               ExposureBiasCompensation exposureBiasCompensation, Date dateTime, StillCaptureMode stillCaptureMode,
+               Integer timelapseNumber, Integer timelapseInterval, Integer audioVolume, ErrorInfo errorInfo,
+               ShutterSpeed shutterSpeed, GPSInfo gpsInfo, Integer autoPowerOffDelay, Integer sleepDelay,
+               ChannelNumber channelNumber, CaptureStatus captureStatus, Integer recordingTime, Integer remainingRecordingTime) {
+        this.batteryLevel = batteryLevel;
+        this.whiteBalance = whiteBalance;
+        this.exposureIndex = exposureIndex;
+        this.exposureBiasCompensation = exposureBiasCompensation;
+        this.dateTime = dateTime == null ? null : dateTime.getTime();
+        this.stillCaptureMode = stillCaptureMode;
+        this.timelapseNumber = timelapseNumber;
+        this.timelapseInterval = timelapseInterval;
+        this.audioVolume = audioVolume;
+        this.errorInfo = errorInfo;
+        this.shutterSpeed = shutterSpeed;
+        this.gpsInfo = gpsInfo;
+        this.autoPowerOffDelay = autoPowerOffDelay;
+        this.sleepDelay = sleepDelay;
+        this.channelNumber = channelNumber;
+        this.captureStatus = captureStatus;
+        this.recordingTime = recordingTime;
+        this.remainingRecordingTime = remainingRecordingTime;
+    }
+
+    // Getter
+
+    /**
+     * Returns the battery charge level.
+     */
+    public BatteryLevel getBatteryLevel() {
+        return batteryLevel;
+    }
+
+    /**
+     * Returns the white balance.
+     */
+    public WhiteBalance getWhiteBalance() {
+        return whiteBalance;
+    }
+
+    /**
+     * Returns the ISO sensitivity.
+     */
+    public ISOSpeed getExposureIndex() {
+        return exposureIndex;
+    }
+
+    /**
+     * Returns the exposure bias compensation value.
+     */
+    public ExposureBiasCompensation getExposureBiasCompensation() {
+        return exposureBiasCompensation;
+    }
+
+    /**
+     * Returns the date and time.
+     */
+    public Date getDateTime() {
+        return dateTime == null ? null : new Date(dateTime);
+    }
+
+    /**
+     * Returns the still image shooting method.
+     */
+    public StillCaptureMode getStillCaptureMode() {
+        return stillCaptureMode;
+    }
+
+    /**
+     * Returns the upper limit value for interval shooting.
+     */
+    public Integer getTimelapseNumber() {
+        return timelapseNumber;
+    }
+
+    /**
+     * Returns the shooting interval in msec for interval shooting.
+     */
+    public Integer getTimelapseInterval() {
+        return timelapseInterval;
+    }
+
+    /**
+     * Returns the volume for the shutter sound.
+     */
+    public Integer getAudioVolume() {
+        return audioVolume;
+    }
+
+    /**
+     * Returns the error information.
+     */
+    public ErrorInfo getErrorInfo() {
+        return errorInfo;
+    }
+
+    /**
+     * Returns the shutter speed.
+     */
+    public ShutterSpeed getShutterSpeed() {
+        return shutterSpeed;
+    }
+
+    /**
+     * Returns the GPS information.
+     */
+    public GPSInfo getGPSInfo() {
+        return gpsInfo;
+    }
+
+    /**
+     * Returns the time in minutes to start the auto power off.
+     */
+    public Integer getAutoPowerOffDelay() {
+        return autoPowerOffDelay;
+    }
+
+    /**
+     * Returns the time in seconds to start sleep.
+     */
+    public Integer getSleepDelay() {
+        return sleepDelay;
+    }
+
+    /**
+     * Returns the wireless LAN channel number.
+     */
+    public ChannelNumber getChannelNumber() {
+        return channelNumber;
+    }
+
+    /**
+     * Returns the camera shooting execution status.
+     */
+    public CaptureStatus getCaptureStatus() {
+        return captureStatus;
+    }
+
+    /**
+     * Returns the video recording time in seconds. (Model: RICOH THETA m15)
+     */
+    public Integer getRecordingTime() {
+        return recordingTime;
+    }
+
+    /**
+     * Returns the amount of time remaining in seconds for recording video. (Model: RICOH THETA m15)
+     */
+    public Integer getRemainingRecordingTime() {
+        return remainingRecordingTime;
+    }
+
+    // Basic Method
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        ThetaState rhs = (ThetaState) o;
+
+        return new EqualsBuilder()
+                .append(batteryLevel, rhs.batteryLevel)
+                .append(whiteBalance, rhs.whiteBalance)
+                .append(exposureIndex, rhs.exposureIndex)
+                .append(exposureBiasCompensation, rhs.exposureBiasCompensation)
+                .append(dateTime, rhs.dateTime)
+                .append(stillCaptureMode, rhs.stillCaptureMode)
+                .append(timelapseNumber, rhs.timelapseNumber)
+                .append(timelapseInterval, rhs.timelapseInterval)
+                .append(audioVolume, rhs.audioVolume)
+                .append(errorInfo, rhs.errorInfo)
+                .append(shutterSpeed, rhs.shutterSpeed)
+                .append(gpsInfo, rhs.gpsInfo)
+                .append(autoPowerOffDelay, rhs.autoPowerOffDelay)
+                .append(sleepDelay, rhs.sleepDelay)
+                .append(channelNumber, rhs.channelNumber)
+                .append(captureStatus, rhs.captureStatus)
+                .append(recordingTime, rhs.recordingTime)
+                .append(remainingRecordingTime, rhs.remainingRecordingTime)
+                .isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder()
+                .append(batteryLevel)
+                .append(whiteBalance)
+                .append(exposureIndex)
+                .append(exposureBiasCompensation)
+                .append(dateTime)
+                .append(stillCaptureMode)
+                .append(timelapseNumber)
+                .append(timelapseInterval)
+                .append(audioVolume)
+                .append(errorInfo)
+                .append(shutterSpeed)
+                .append(gpsInfo)
+                .append(autoPowerOffDelay)
+                .append(sleepDelay)
+                .append(channelNumber)
+                .append(captureStatus)
+                .append(recordingTime)
+                .append(remainingRecordingTime)
+                .toHashCode();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("batteryLevel", batteryLevel)
+                .append("whiteBalance", whiteBalance)
+                .append("exposureIndex", exposureIndex)
+                .append("exposureBiasCompensation", exposureBiasCompensation)
+                .append("dateTime", getDateTime())
+                .append("stillCaptureMode", stillCaptureMode)
+                .append("timelapseNumber", timelapseNumber)
+                .append("timelapseInterval", timelapseInterval)
+                .append("audioVolume", audioVolume)
+                .append("errorInfo", errorInfo)
+                .append("shutterSpeed", shutterSpeed)
+                .append("gpsInfo", gpsInfo)
+                .append("autoPowerOffDelay", autoPowerOffDelay)
+                .append("sleepDelay", sleepDelay)
+                .append("channelNumber", channelNumber)
+                .append("captureStatus", captureStatus)
+                .append("recordingTime", recordingTime)
+                .append("remainingRecordingTime", remainingRecordingTime)
+                .toString();
+    }
+}
@@ -0,0 +1,319 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.theta4j.ptp.data.ObjectInfo;
+import org.theta4j.util.Validators;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The cache of the thumbnails of the objects in THETA.
+ * <p>
+ * The thumbnails are keyed by the serial number of THETA and the file name and the capture date of the object,
+ * so the cache can be shared by several THETAs and survives reconnections and restarts.
+ * The cache consists of the memory tier and the disk tier, and both tiers evict the least recently used thumbnails
+ * when they exceed their capacities. The order of the disk tier is kept by the last modified time of the files.
+ *
+ * @see Theta#setThumbnailCache(ThumbnailCache)
+ */
+public final class ThumbnailCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ThumbnailCache.class);
+
+    /**
+     * Default capacity in bytes of the memory tier.
+     */
+    public static final long DEFAULT_MEMORY_CAPACITY = 8L * 1024 * 1024;
+
+    /**
+     * Default capacity in bytes of the disk tier.
+     */
+    public static final long DEFAULT_DISK_CAPACITY = 256L * 1024 * 1024;
+
+    private static final String FILE_EXTENSION = ".thumb";
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final Path directory;
+    private final long memoryCapacity;
+    private final long diskCapacity;
+
+    // Access ordered, so the first entry is the least recently used.
+    private final Map<String, byte[]> memoryEntries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Long> diskEntries = new LinkedHashMap<>(16, 0.75f, true);
+    private long memorySize = 0;
+    private long diskSize = 0;
+
+    private final AtomicLong memoryHitCount = new AtomicLong();
+    private final AtomicLong diskHitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    // Constructor
+
+    /**
+     * Create the cache in the directory with the default capacities.
+     *
+     * @param directory The directory to store the thumbnails.
+     * @throws IOException          if an I/O error occurs while reading the directory.
+     * @throws NullPointerException if directory is null.
+     */
+    public ThumbnailCache(Path directory) throws IOException {
+        this(directory, DEFAULT_MEMORY_CAPACITY, DEFAULT_DISK_CAPACITY);
+    }
+
+    /**
+     * Create the cache in the directory.
+     * The thumbnails already stored in the directory are used.
+     *
+     * @param directory      The directory to store the thumbnails.
+     * @param memoryCapacity The capacity in bytes of the memory tier. 0 disables the memory tier.
+     * @param diskCapacity   The capacity in bytes of the disk tier. 0 disables the disk tier.
+     * @throws IOException              if an I/O error occurs while reading the directory.
+     * @throws NullPointerException     if directory is null.
+     * @throws IllegalArgumentException if a capacity is negative.
+     */
+    public ThumbnailCache(Path directory, long memoryCapacity, long diskCapacity) throws IOException {
+        Validators.notNull("directory", directory);
+        Validators.rangeEq("memoryCapacity", memoryCapacity, 0L, Long.MAX_VALUE);
+        Validators.rangeEq("diskCapacity", diskCapacity, 0L, Long.MAX_VALUE);
+
+        this.directory = directory;
+        this.memoryCapacity = memoryCapacity;
+        this.diskCapacity = diskCapacity;
+
+        Files.createDirectories(directory);
+        load();
+    }
+
+    // Getter
+
+    /**
+     * Returns the capacity in bytes of the memory tier.
+     */
+    public long getMemoryCapacity() {
+        return memoryCapacity;
+    }
+
+    /**
+     * Returns the capacity in bytes of the disk tier.
+     */
+    public long getDiskCapacity() {
+        return diskCapacity;
+    }
+
+    /**
+     * Returns the total size in bytes of the thumbnails in the memory tier.
+     */
+    public synchronized long getMemorySize() {
+        return memorySize;
+    }
+
+    /**
+     * Returns the total size in bytes of the thumbnails in the disk tier.
+     */
+    public synchronized long getDiskSize() {
+        return diskSize;
+    }
+
+    /**
+     * Returns the number of the requests which are served by the memory tier.
+     */
+    public long getMemoryHitCount() {
+        return memoryHitCount.get();
+    }
+
+    /**
+     * Returns the number of the requests which are served by the disk tier.
+     */
+    public long getDiskHitCount() {
+        return diskHitCount.get();
+    }
+
+    /**
+     * Returns the number of the requests which are served by the cache.
+     */
+    public long getHitCount() {
+        return memoryHitCount.get() + diskHitCount.get();
+    }
+
+    /**
+     * Returns the number of the requests which are not served by the cache.
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    // Basic Method
+
+    /**
+     * Remove all thumbnails from the cache.
+     */
+    public synchronized void clear() {
+        memoryEntries.clear();
+        memorySize = 0;
+
+        for (String key : new ArrayList<>(diskEntries.keySet())) {
+            removeFromDisk(key);
+        }
+    }
+
+    // Cache from Theta
+
+    /**
+     * Returns the key of the thumbnail of the object.
+     */
+    static String key(String serialNumber, ObjectInfo objectInfo) {
+        String name = serialNumber + '\0' + objectInfo.getFileName() + '\0' + objectInfo.getCaptureDate();
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(name.getBytes(StandardCharsets.UTF_8));
+            char[] hex = new char[digest.length * 2];
+            for (int i = 0; i < digest.length; i++) {
+                hex[i * 2] = HEX_DIGITS[(digest[i] >> 4) & 0x0F];
+                hex[i * 2 + 1] = HEX_DIGITS[digest[i] & 0x0F];
+            }
+            return new String(hex);
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError(e); // SHA-1 is supported by every Java platform
+        }
+    }
+
+    /**
+     * Returns true if the thumbnail is cached. The hit and miss counts are not changed.
+     */
+    synchronized boolean contains(String key) {
+        return memoryEntries.containsKey(key) || diskEntries.containsKey(key);
+    }
+
+    /**
+     * Returns the cached thumbnail, or null if it is not cached.
+     */
+    synchronized byte[] get(String key) throws IOException {
+        byte[] thumb = memoryEntries.get(key);
+        if (thumb != null) {
+            memoryHitCount.incrementAndGet();
+            diskEntries.get(key); // Mark as recently used
+            return thumb;
+        }
+
+        if (diskEntries.containsKey(key)) {
+            Path file = file(key);
+            try {
+                thumb = Files.readAllBytes(file);
+                diskEntries.get(key); // Mark as recently used
+                Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            } catch (NoSuchFileException e) {
+                diskSize -= diskEntries.remove(key);
+                thumb = null;
+            }
+
+            if (thumb != null) {
+                diskHitCount.incrementAndGet();
+                putToMemory(key, thumb);
+                return thumb;
+            }
+        }
+
+        missCount.incrementAndGet();
+        return null;
+    }
+
+    synchronized void put(String key, byte[] thumb) throws IOException {
+        putToMemory(key, thumb);
+
+        if (diskCapacity < thumb.length) {
+            return;
+        }
+
+        Path file = file(key);
+        Path tempFile = directory.resolve(key + ".tmp");
+        Files.write(tempFile, thumb);
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        Long oldSize = diskEntries.put(key, (long) thumb.length);
+        diskSize += thumb.length - (oldSize == null ? 0 : oldSize);
+
+        evictFromDisk();
+    }
+
+    // Utility
+
+    private Path file(String key) {
+        return directory.resolve(key + FILE_EXTENSION);
+    }
+
+    private void load() throws IOException {
+        Map<Path, FileTime> lastModifiedTimes = new HashMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + FILE_EXTENSION)) {
+            for (Path file : stream) {
+                lastModifiedTimes.put(file, Files.getLastModifiedTime(file));
+            }
+        }
+
+        // Oldest first, so the least recently used file becomes the first entry.
+        List<Path> files = new ArrayList<>(lastModifiedTimes.keySet());
+        files.sort(Comparator.comparing(lastModifiedTimes::get));
+
+        for (Path file : files) {
+            String fileName = file.getFileName().toString();
+            String key = fileName.substring(0, fileName.length() - FILE_EXTENSION.length());
+            long size = Files.size(file);
+
+            diskEntries.put(key, size);
+            diskSize += size;
+        }
+
+        evictFromDisk();
+    }
+
+    private void putToMemory(String key, byte[] thumb) {
+        if (memoryCapacity < thumb.length) {
+            return;
+        }
+
+        byte[] old = memoryEntries.put(key, thumb);
+        memorySize += thumb.length - (old == null ? 0 : old.length);
+
+        Iterator<byte[]> iterator = memoryEntries.values().iterator();
+        while (memoryCapacity < memorySize) {
+            memorySize -= iterator.next().length;
+            iterator.remove();
+        }
+    }
+
+    private void evictFromDisk() {
+        while (diskCapacity < diskSize) {
+            removeFromDisk(diskEntries.keySet().iterator().next());
+        }
+    }
+
+    private void removeFromDisk(String key) {
+        diskSize -= diskEntries.remove(key);
+
+        try {
+            Files.deleteIfExists(file(key));
+        } catch (IOException e) {
+            LOGGER.warn("Failed to delete the cached thumbnail: " + file(key), e);
+        }
+    }
+}
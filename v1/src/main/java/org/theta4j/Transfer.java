@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.theta4j.ptp.PtpInitiator;
+import org.theta4j.ptp.type.UINT32;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A transfer of an object's data from THETA which can be cancelled while it is running.
+ * <p>
+ * Cancelling the running transfer sends Cancel to THETA with the TransactionID of the transfer.
+ * The rest of the data is discarded without being written to the destination,
+ * and the session is kept open, so the following commands are executed without reconnecting.
+ *
+ * @see Theta#getObjectCancellable(UINT32, OutputStream)
+ */
+public final class Transfer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Transfer.class);
+
+    private final UINT32 objectHandle;
+    private final PtpInitiator ptpInitiator;
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+    private final AtomicLong transferredBytes = new AtomicLong();
+
+    private UINT32 transactionID; // Guarded by this
+    private boolean isCancelSent = false; // Guarded by this
+
+    // Constructor
+
+    Transfer(UINT32 objectHandle, PtpInitiator ptpInitiator) {
+        this.objectHandle = objectHandle;
+        this.ptpInitiator = ptpInitiator;
+
+        future.whenComplete((v, e) -> {
+            if (future.isCancelled()) {
+                sendCancel();
+            }
+        });
+    }
+
+    // Getter
+
+    /**
+     * Returns the ObjectHandle of the object to transfer.
+     */
+    public UINT32 getObjectHandle() {
+        return objectHandle;
+    }
+
+    /**
+     * Returns the future which is completed when all data is written to the destination,
+     * or completed exceptionally with IOException or PtpException.
+     * Cancelling the future cancels the transfer.
+     */
+    public CompletableFuture<Void> getFuture() {
+        return future;
+    }
+
+    /**
+     * Returns the number of bytes written to the destination.
+     */
+    public long getTransferredBytes() {
+        return transferredBytes.get();
+    }
+
+    // Cancel
+
+    /**
+     * Cancel the transfer. If the transfer is queued, it is not started.
+     * If the transfer is running, Cancel is sent to THETA and no more data is written to the destination.
+     *
+     * @return true if the transfer is cancelled by this call.
+     */
+    public boolean cancel() {
+        return future.cancel(false);
+    }
+
+    // Update from Theta
+
+    /**
+     * Called when the operation of the transfer is sent.
+     * If the transfer is already cancelled or aborted, Cancel is sent immediately.
+     */
+    void started(UINT32 transactionID) {
+        synchronized (this) {
+            this.transactionID = transactionID;
+        }
+
+        if (future.isDone()) {
+            sendCancel();
+        }
+    }
+
+    void transferred(int size) {
+        transferredBytes.addAndGet(size);
+    }
+
+    /**
+     * Complete the future with the result of the operation.
+     *
+     * @return false if the transfer is already cancelled or aborted.
+     */
+    boolean finished(Throwable e) {
+        return e == null ? future.complete(null) : future.completeExceptionally(e);
+    }
+
+    /**
+     * Stop the transfer like {@link #cancel()}, but complete the future exceptionally with the cause.
+     *
+     * @return true if the transfer is aborted by this call.
+     */
+    boolean abort(IOException cause) {
+        if (!future.completeExceptionally(cause)) {
+            return false;
+        }
+
+        sendCancel();
+        return true;
+    }
+
+    /**
+     * Returns the exception which the future is completed with, or null if it is not completed by IOException.
+     */
+    IOException getException() {
+        if (!future.isCompletedExceptionally() || future.isCancelled()) {
+            return null;
+        }
+
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException) {
+                return (IOException) e.getCause();
+            }
+        }
+
+        return null;
+    }
+
+    private void sendCancel() {
+        UINT32 transactionID;
+
+        synchronized (this) {
+            if (this.transactionID == null || isCancelSent) {
+                return;
+            }
+
+            isCancelSent = true;
+            transactionID = this.transactionID;
+        }
+
+        try {
+            ptpInitiator.cancelTransaction(transactionID);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to send Cancel for " + this, e);
+        }
+    }
+
+    // Basic Method
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("objectHandle", objectHandle)
+                .append("transferredBytes", transferredBytes.get())
+                .toString();
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The watchdog of a running transfer, which stops the transfer when the deadline passes
+ * or the transfer rate stays below the threshold for the period.
+ * <p>
+ * The transfer is aborted by Cancel first. If the transfer still does not stop in the grace period,
+ * e.g. because THETA dropped off the network and the read is blocked, the connection is aborted,
+ * so the worker thread does not hang. The transfer cancelled by the user is not escalated to aborting the connection.
+ * The watchdog must be started after the operation of the transfer is sent,
+ * and closed as soon as the transfer stops.
+ */
+final class TransferWatchdog implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransferWatchdog.class);
+
+    /**
+     * The time to wait for the transfer to stop after Cancel is sent.
+     */
+    static final Duration GRACE_PERIOD = Duration.ofSeconds(5);
+
+    private static final long CHECK_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+
+    private static final ScheduledThreadPoolExecutor TIMER = new ScheduledThreadPoolExecutor(1, r -> {
+        Thread thread = new Thread(r, "theta4j-transfer-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        TIMER.setRemoveOnCancelPolicy(true);
+    }
+
+    private final Transfer transfer;
+    private final long deadlineNanos; // Long.MAX_VALUE if there is no deadline
+    private final long minBytesPerSecond; // 0 if the stall is not detected
+    private final long stallPeriodNanos;
+    private final Runnable abortConnection;
+    private final ScheduledFuture<?> check;
+
+    // Guarded by this
+    private long windowStartNanos;
+    private long windowStartBytes;
+    private boolean isExpired = false;
+    private long abortNanos;
+    private boolean isConnectionAborted = false;
+
+    // Constructor
+
+    /**
+     * Start watching the transfer.
+     *
+     * @param transfer          The transfer to watch.
+     * @param timeout           The time until the deadline, or null for no deadline.
+     * @param minBytesPerSecond The threshold of the transfer rate, or 0 not to detect the stall.
+     * @param stallPeriod       The period which the transfer rate is measured over.
+     * @param abortConnection   The action which aborts the connection when Cancel does not stop the transfer,
+     *                          or null not to abort the connection.
+     */
+    TransferWatchdog(Transfer transfer, Duration timeout, long minBytesPerSecond, Duration stallPeriod, Runnable abortConnection) {
+        long now = System.nanoTime();
+
+        this.transfer = transfer;
+        this.deadlineNanos = timeout == null ? Long.MAX_VALUE : now + timeout.toNanos();
+        this.minBytesPerSecond = minBytesPerSecond;
+        this.stallPeriodNanos = stallPeriod.toNanos();
+        this.abortConnection = abortConnection;
+
+        this.windowStartNanos = now;
+        this.windowStartBytes = transfer.getTransferredBytes();
+
+        this.check = TIMER.scheduleWithFixedDelay(this::check, CHECK_INTERVAL_NANOS, CHECK_INTERVAL_NANOS, TimeUnit.NANOSECONDS);
+    }
+
+    // Closeable
+
+    /**
+     * Stop watching the transfer.
+     */
+    @Override
+    public void close() {
+        check.cancel(false);
+    }
+
+    // Check
+
+    void check() {
+        check(System.nanoTime());
+    }
+
+    void check(long now) {
+        InterruptedIOException reason = null;
+        boolean abort = false;
+
+        synchronized (this) {
+            if (!isExpired) {
+                // The transfer cancelled by the user is stopped by Cancel only, however long it takes,
+                // so the session stays usable on a slow network.
+                reason = transfer.getFuture().isDone() ? null : detect(now);
+                if (reason != null) {
+                    isExpired = true;
+                    abortNanos = now + GRACE_PERIOD.toNanos();
+                }
+            } else if (abortConnection != null && !isConnectionAborted && 0 <= now - abortNanos) {
+                isConnectionAborted = true;
+                abort = true;
+            }
+        }
+
+        if (reason != null) {
+            LOGGER.warn("Cancel {}: {}", transfer, reason.getMessage());
+            transfer.abort(reason);
+        } else if (abort) {
+            LOGGER.warn("Abort the connection, because {} is not stopped in {}", transfer, GRACE_PERIOD);
+            abortConnection.run();
+        }
+    }
+
+    private InterruptedIOException detect(long now) {
+        long bytes = transfer.getTransferredBytes();
+
+        if (deadlineNanos != Long.MAX_VALUE && 0 <= now - deadlineNanos) {
+            return new InterruptedIOException("The deadline of the transfer passed. transferred=" + bytes);
+        }
+
+        if (minBytesPerSecond <= 0) {
+            return null;
+        }
+
+        long elapsed = now - windowStartNanos;
+        if (elapsed < stallPeriodNanos) {
+            return null;
+        }
+
+        double bytesPerSecond = (bytes - windowStartBytes) * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+        if (bytesPerSecond < minBytesPerSecond) {
+            return new InterruptedIOException(String.format(
+                    "The transfer is stalled: %.0f bytes/s for %d ms. transferred=%d",
+                    bytesPerSecond, TimeUnit.NANOSECONDS.toMillis(elapsed), bytes));
+        }
+
+        windowStartNanos = now;
+        windowStartBytes = bytes;
+
+        return null;
+    }
+}
@@ -8,6 +8,8 @@ import org.theta4j.ptp.code.Code;
 import org.theta4j.ptp.code.OperationCode;
 import org.theta4j.ptp.code.ResponseCode;
 import org.theta4j.ptp.data.DeviceInfo;
+import org.theta4j.ptp.data.DevicePropDesc;
+import org.theta4j.ptp.data.Event;
 import org.theta4j.ptp.data.Response;
 import org.theta4j.ptp.type.*;
 import org.theta4j.util.Validators;
@@ -16,6 +18,9 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * An abstract class for implementing PTP initiator. This class exists as convenience for implementing PTP initiator.
@@ -71,6 +76,57 @@ public abstract class AbstractPtpInitiator implements PtpInitiator {
         return sendOperation(operationCode, p1, p2, p3, p4, UINT32.ZERO);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public UINT32 sendOperationWithData(Code<UINT16> operationCode) throws IOException {
+        return sendOperationWithData(operationCode, UINT32.ZERO);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public UINT32 sendOperationWithData(Code<UINT16> operationCode, UINT32 p1) throws IOException {
+        return sendOperationWithData(operationCode, p1, UINT32.ZERO);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public UINT32 sendOperationWithData(Code<UINT16> operationCode, UINT32 p1, UINT32 p2) throws IOException {
+        return sendOperationWithData(operationCode, p1, p2, UINT32.ZERO);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public UINT32 sendOperationWithData(Code<UINT16> operationCode, UINT32 p1, UINT32 p2, UINT32 p3) throws IOException {
+        return sendOperationWithData(operationCode, p1, p2, p3, UINT32.ZERO);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public UINT32 sendOperationWithData(Code<UINT16> operationCode, UINT32 p1, UINT32 p2, UINT32 p3, UINT32 p4) throws IOException {
+        return sendOperationWithData(operationCode, p1, p2, p3, p4, UINT32.ZERO);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation sends the operation by sendOperation.
+     * Override it if the transport announces the direction of the data phase in the operation request.
+     */
+    @Override
+    public UINT32 sendOperationWithData(Code<UINT16> operationCode, UINT32 p1, UINT32 p2, UINT32 p3, UINT32 p4, UINT32 p5) throws IOException {
+        return sendOperation(operationCode, p1, p2, p3, p4, p5);
+    }
+
     // Operations
 
     /**
@@ -115,6 +171,25 @@ public abstract class AbstractPtpInitiator implements PtpInitiator {
 
     // Device Property
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public DevicePropDesc getDevicePropDesc(Code<UINT16> devicePropCode) throws IOException {
+        Validators.notNull("devicePropCode", devicePropCode);
+
+        sendOperation(OperationCode.GET_DEVICE_PROP_DESC, UINT32.valueOf(devicePropCode.value().intValue()));
+        InputStream is = receiveData();
+        checkAndReadResponse();
+
+        // Decode after the response so that an undecodable data set does not leave the response on the connection.
+        try {
+            return DevicePropDesc.read(is);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidDataException("Invalid DevicePropDesc of " + devicePropCode + ": " + e.getMessage(), e);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -122,7 +197,7 @@ public abstract class AbstractPtpInitiator implements PtpInitiator {
     public InputStream getDevicePropValue(Code<UINT16> devicePropCode) throws IOException {
         Validators.notNull("devicePropCode", devicePropCode);
 
-        sendOperation(OperationCode.GET_DEVICE_PROP_VALUE, new UINT32(devicePropCode.value().intValue()));
+        sendOperation(OperationCode.GET_DEVICE_PROP_VALUE, UINT32.valueOf(devicePropCode.value().intValue()));
         InputStream is = receiveData();
         checkAndReadResponse();
 
@@ -225,7 +300,7 @@ public abstract class AbstractPtpInitiator implements PtpInitiator {
         Validators.notNull("devicePropCode", devicePropCode);
         Validators.notNull("value", value);
 
-        sendOperation(OperationCode.SET_DEVICE_PROP_VALUE, new UINT32(devicePropCode.value().intValue()));
+        sendOperationWithData(OperationCode.SET_DEVICE_PROP_VALUE, UINT32.valueOf(devicePropCode.value().intValue()));
         sendData(value);
         checkAndReadResponse();
     }
@@ -255,7 +330,7 @@ public abstract class AbstractPtpInitiator implements PtpInitiator {
     public Response checkAndReadResponse() throws IOException {
         Response response = receiveResponse();
 
-        if (!response.getResponseCode().equals(ResponseCode.OK.value())) {
+        if (ResponseCode.find(response.getResponseCodeValue()) != ResponseCode.OK) {
             String message = "ResponseCode was not OK: " + response.getResponseCode();
             throw new PtpException(response.getResponseCode(), message);
         }
@@ -265,6 +340,16 @@ public abstract class AbstractPtpInitiator implements PtpInitiator {
 
     // Data
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void sendData(InputStream src, long length) throws IOException {
+        Validators.notNull("src", src);
+
+        sendData(Channels.newChannel(src), length);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -298,4 +383,32 @@ public abstract class AbstractPtpInitiator implements PtpInitiator {
 
         return listenerSet.remove(listener);
     }
+
+    // Waiter
+
+    protected final PtpEventWaiters eventWaiters = new PtpEventWaiters();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final CompletableFuture<Event> awaitEvent(Code<UINT16> eventCode, long timeout, TimeUnit unit) {
+        return eventWaiters.await(eventCode, timeout, unit);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final CompletableFuture<Event> awaitEventOfTransaction(Code<UINT16> eventCode, UINT32 transactionID, long timeout, TimeUnit unit) {
+        return eventWaiters.awaitTransaction(eventCode, transactionID, timeout, unit);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final CompletableFuture<Event> awaitEventWithParameter(Code<UINT16> eventCode, UINT32 p1, long timeout, TimeUnit unit) {
+        return eventWaiters.awaitParameter(eventCode, p1, timeout, unit);
+    }
 }
@@ -0,0 +1,23 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j.ptp;
+
+import java.io.IOException;
+
+/**
+ * Signals that the data set sent by PTP-Responder cannot be decoded.
+ * The transaction is completed when this exception is thrown, so the connection can be used for the following operations.
+ */
+public class InvalidDataException extends IOException {
+    // Constructor
+
+    public InvalidDataException(String message) {
+        super(message);
+    }
+
+    public InvalidDataException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
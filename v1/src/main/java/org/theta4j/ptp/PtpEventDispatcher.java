@@ -0,0 +1,210 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j.ptp;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.theta4j.ptp.data.Event;
+import org.theta4j.util.Validators;
+
+import java.io.Closeable;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Dispatcher which delivers PTP events to the listener on an Executor.
+ * <p>
+ * The events are handed off from the reading thread through a bounded queue,
+ * so a slow listener does not stall reading events.
+ * The events are delivered one by one in the order of dispatch even if the Executor has multiple threads.
+ * When the queue is full, the event is handled according to the OverflowPolicy.
+ */
+public final class PtpEventDispatcher implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PtpEventDispatcher.class);
+
+    /**
+     * Default capacity of the hand-off queue.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 256;
+
+    /**
+     * The policy when the hand-off queue is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * The dispatching thread waits until the queue has space.
+         */
+        BLOCK,
+
+        /**
+         * The oldest event in the queue is discarded.
+         */
+        DROP_OLDEST,
+
+        /**
+         * The event to dispatch is discarded.
+         */
+        DROP_NEWEST
+    }
+
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+    private final BlockingQueue<Runnable> queue;
+    private final OverflowPolicy overflowPolicy;
+
+    // State
+
+    private final AtomicBoolean isScheduled = new AtomicBoolean(false);
+    private final AtomicLong droppedCount = new AtomicLong(0);
+    private volatile boolean isClosed = false;
+
+    // Constructor
+
+    /**
+     * Create the dispatcher with own single daemon thread,
+     * the queue of DEFAULT_QUEUE_CAPACITY and BLOCK policy.
+     * The thread is stopped when the dispatcher is closed.
+     */
+    public PtpEventDispatcher() {
+        this.ownedExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "theta4j-event-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor = ownedExecutor;
+        this.queue = new ArrayBlockingQueue<>(DEFAULT_QUEUE_CAPACITY);
+        this.overflowPolicy = OverflowPolicy.BLOCK;
+    }
+
+    /**
+     * Create the dispatcher on the executor.
+     * The executor is not shut down when the dispatcher is closed.
+     *
+     * @param executor       The executor which the listener is invoked on.
+     * @param queueCapacity  The capacity of the hand-off queue.
+     * @param overflowPolicy The policy when the queue is full.
+     * @throws NullPointerException     if an argument is null.
+     * @throws IllegalArgumentException if queueCapacity is not positive.
+     */
+    public PtpEventDispatcher(Executor executor, int queueCapacity, OverflowPolicy overflowPolicy) {
+        Validators.notNull("executor", executor);
+        Validators.rangeEq("queueCapacity", queueCapacity, 1, Integer.MAX_VALUE);
+        Validators.notNull("overflowPolicy", overflowPolicy);
+
+        this.ownedExecutor = null;
+        this.executor = executor;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    // Getter
+
+    /**
+     * Returns the number of events discarded because the queue was full.
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    // Dispatch
+
+    /**
+     * Hand off the event to the executor to deliver it to the listener.
+     * The event is ignored if the dispatcher is closed.
+     *
+     * @param event    The event to deliver.
+     * @param listener The listener to deliver the event to.
+     * @throws NullPointerException if an argument is null.
+     * @throws InterruptedException if the thread is interrupted while waiting for space in the queue.
+     */
+    public void dispatch(Event event, PtpEventListener listener) throws InterruptedException {
+        Validators.notNull("event", event);
+        Validators.notNull("listener", listener);
+
+        if (isClosed) {
+            return;
+        }
+
+        Runnable task = () -> listener.onEvent(event);
+
+        switch (overflowPolicy) {
+            case BLOCK:
+                queue.put(task);
+                break;
+            case DROP_OLDEST:
+                while (!queue.offer(task)) {
+                    if (queue.poll() != null) {
+                        drop(event);
+                    }
+                }
+                break;
+            case DROP_NEWEST:
+                if (!queue.offer(task)) {
+                    drop(event);
+                }
+                break;
+            default:
+                throw new AssertionError();
+        }
+
+        schedule();
+    }
+
+    // Closeable
+
+    /**
+     * Discard the pending events and stop dispatching.
+     * The executor is shut down only if the dispatcher created it.
+     */
+    @Override
+    public void close() {
+        isClosed = true;
+        queue.clear();
+
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+    }
+
+    // Utility
+
+    private void drop(Event event) {
+        droppedCount.incrementAndGet();
+        LOGGER.warn("Event queue is full. Dropped event: {}", event);
+    }
+
+    private void schedule() {
+        if (!isScheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            isScheduled.set(false);
+            LOGGER.error("Executor rejected to dispatch events", e);
+        }
+    }
+
+    private void drain() {
+        try {
+            for (Runnable task; !isClosed && (task = queue.poll()) != null; ) {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    LOGGER.error("Unexpected exception in listener", e);
+                }
+            }
+        } finally {
+            isScheduled.set(false);
+        }
+
+        // An event may be queued after the loop and before clearing the flag.
+        if (!isClosed && !queue.isEmpty()) {
+            schedule();
+        }
+    }
+}
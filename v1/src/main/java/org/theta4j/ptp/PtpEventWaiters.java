@@ -0,0 +1,308 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j.ptp;
+
+import org.theta4j.ptp.code.Code;
+import org.theta4j.ptp.data.Event;
+import org.theta4j.ptp.type.UINT16;
+import org.theta4j.ptp.type.UINT32;
+import org.theta4j.util.Validators;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Registry of the futures waiting for PTP events.
+ * <p>
+ * The waiters are indexed by the event code and the TransactionID or P1 of the event,
+ * so completing the waiters costs constant time per event regardless of the number of the waiters.
+ * The waiters are completed directly by the thread which reads the events,
+ * so the dependent actions of the futures should not block.
+ * <p>
+ * The recent events are kept to complete the waiter for the TransactionID
+ * which is registered after the event arrived, because the TransactionID is not known until the operation is sent.
+ */
+public final class PtpEventWaiters implements Closeable {
+    /**
+     * The number of the recent events kept for the waiters for the TransactionID.
+     */
+    public static final int HISTORY_SIZE = 64;
+
+    private static final ScheduledThreadPoolExecutor TIMER = new ScheduledThreadPoolExecutor(1, r -> {
+        Thread thread = new Thread(r, "theta4j-event-waiter-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        TIMER.setRemoveOnCancelPolicy(true);
+    }
+
+    private enum Field {
+        ANY, TRANSACTION_ID, P1
+    }
+
+    private final Map<Key, List<CompletableFuture<Event>>> waiters = new HashMap<>();
+    private final Deque<Event> history = new ArrayDeque<>(HISTORY_SIZE);
+    private boolean isClosed = false;
+
+    // Register
+
+    /**
+     * Returns the future which is completed with the next event of the code.
+     *
+     * @param eventCode The code of the event to wait.
+     * @param timeout   The time to wait. The future is completed exceptionally with TimeoutException after it.
+     * @param unit      The unit of timeout.
+     * @throws NullPointerException     if an argument is null.
+     * @throws IllegalArgumentException if timeout is not positive.
+     */
+    public CompletableFuture<Event> await(Code<UINT16> eventCode, long timeout, TimeUnit unit) {
+        Validators.notNull("eventCode", eventCode);
+
+        return register(new Key(eventCode.value(), Field.ANY, null), timeout, unit);
+    }
+
+    /**
+     * Returns the future which is completed with the event of the code and the TransactionID.
+     * If the event arrived recently, the future is completed with it immediately.
+     *
+     * @param eventCode     The code of the event to wait.
+     * @param transactionID The TransactionID of the event to wait.
+     * @param timeout       The time to wait. The future is completed exceptionally with TimeoutException after it.
+     * @param unit          The unit of timeout.
+     * @throws NullPointerException     if an argument is null.
+     * @throws IllegalArgumentException if timeout is not positive.
+     */
+    public CompletableFuture<Event> awaitTransaction(Code<UINT16> eventCode, UINT32 transactionID, long timeout, TimeUnit unit) {
+        Validators.notNull("eventCode", eventCode);
+        Validators.notNull("transactionID", transactionID);
+
+        return register(new Key(eventCode.value(), Field.TRANSACTION_ID, transactionID), timeout, unit);
+    }
+
+    /**
+     * Returns the future which is completed with the next event of the code and the parameter 1.
+     *
+     * @param eventCode The code of the event to wait.
+     * @param p1        The parameter 1 of the event to wait.
+     * @param timeout   The time to wait. The future is completed exceptionally with TimeoutException after it.
+     * @param unit      The unit of timeout.
+     * @throws NullPointerException     if an argument is null.
+     * @throws IllegalArgumentException if timeout is not positive.
+     */
+    public CompletableFuture<Event> awaitParameter(Code<UINT16> eventCode, UINT32 p1, long timeout, TimeUnit unit) {
+        Validators.notNull("eventCode", eventCode);
+        Validators.notNull("p1", p1);
+
+        return register(new Key(eventCode.value(), Field.P1, p1), timeout, unit);
+    }
+
+    /**
+     * Returns the number of the waiting futures.
+     */
+    public synchronized int size() {
+        int size = 0;
+        for (List<CompletableFuture<Event>> futures : waiters.values()) {
+            size += futures.size();
+        }
+
+        return size;
+    }
+
+    // Complete
+
+    /**
+     * Complete the futures waiting for the event.
+     *
+     * @param event The received event.
+     * @throws NullPointerException if event is null.
+     */
+    public void complete(Event event) {
+        Validators.notNull("event", event);
+
+        List<CompletableFuture<Event>> completed = new ArrayList<>();
+
+        synchronized (this) {
+            if (isClosed) {
+                return;
+            }
+
+            if (history.size() == HISTORY_SIZE) {
+                history.removeFirst();
+            }
+            history.addLast(event);
+
+            collect(new Key(event.getEventCode(), Field.ANY, null), completed);
+            collect(new Key(event.getEventCode(), Field.TRANSACTION_ID, event.getTransactionID()), completed);
+            collect(new Key(event.getEventCode(), Field.P1, event.getP1()), completed);
+        }
+
+        for (CompletableFuture<Event> future : completed) {
+            future.complete(event);
+        }
+    }
+
+    /**
+     * Complete the waiting futures exceptionally and forget the recent events,
+     * e.g. when the connection is reset and the events of the waiters are lost.
+     *
+     * @param e The exception to complete the futures with.
+     * @throws NullPointerException if e is null.
+     */
+    public void failAll(Exception e) {
+        Validators.notNull("e", e);
+
+        List<CompletableFuture<Event>> failed = new ArrayList<>();
+
+        synchronized (this) {
+            history.clear();
+
+            for (List<CompletableFuture<Event>> futures : waiters.values()) {
+                failed.addAll(futures);
+            }
+            waiters.clear();
+        }
+
+        for (CompletableFuture<Event> future : failed) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    // Closeable
+
+    /**
+     * Complete the waiting futures exceptionally with IOException and reject the new waiters.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            isClosed = true;
+        }
+
+        failAll(new IOException("The initiator is closed."));
+    }
+
+    // Utility
+
+    private CompletableFuture<Event> register(Key key, long timeout, TimeUnit unit) {
+        Validators.rangeEq("timeout", timeout, 1L, Long.MAX_VALUE);
+        Validators.notNull("unit", unit);
+
+        CompletableFuture<Event> future = new CompletableFuture<>();
+        Event arrived = null;
+
+        synchronized (this) {
+            if (isClosed) {
+                future.completeExceptionally(new IOException("The initiator is closed."));
+                return future;
+            }
+
+            if (key.field == Field.TRANSACTION_ID) {
+                for (Event event : history) {
+                    if (key.equals(new Key(event.getEventCode(), Field.TRANSACTION_ID, event.getTransactionID()))) {
+                        arrived = event;
+                        break;
+                    }
+                }
+            }
+
+            if (arrived == null) {
+                waiters.computeIfAbsent(key, k -> new ArrayList<>(1)).add(future);
+            }
+        }
+
+        if (arrived != null) {
+            future.complete(arrived);
+            return future;
+        }
+
+        // The registry removes the waiter before completing it, so only the waiter cancelled by the invoker is removed here.
+        ScheduledFuture<?> timer = TIMER.schedule(() -> {
+            if (remove(key, future)) {
+                future.completeExceptionally(new TimeoutException("The event is not received in " + timeout + " " + unit));
+            }
+        }, timeout, unit);
+
+        future.whenComplete((event, e) -> {
+            timer.cancel(false);
+            if (future.isCancelled()) {
+                remove(key, future);
+            }
+        });
+
+        return future;
+    }
+
+    private void collect(Key key, List<CompletableFuture<Event>> completed) {
+        List<CompletableFuture<Event>> futures = waiters.remove(key);
+
+        if (futures != null) {
+            completed.addAll(futures);
+        }
+    }
+
+    private synchronized boolean remove(Key key, CompletableFuture<Event> future) {
+        List<CompletableFuture<Event>> futures = waiters.getOrDefault(key, Collections.emptyList());
+
+        if (!futures.remove(future)) {
+            return false;
+        }
+
+        if (futures.isEmpty()) {
+            waiters.remove(key);
+        }
+
+        return true;
+    }
+
+    // Key
+
+    private static final class Key {
+        private final UINT16 eventCode;
+        private final Field field;
+        private final UINT32 value;
+
+        private Key(UINT16 eventCode, Field field, UINT32 value) {
+            this.eventCode = eventCode;
+            this.field = field;
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+
+            // Compared for every event on the event thread, so the builders are not used.
+            Key rhs = (Key) o;
+
+            return eventCode.equals(rhs.eventCode) && field == rhs.field && Objects.equals(value, rhs.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * eventCode.hashCode() + field.hashCode()) + Objects.hashCode(value);
+        }
+    }
+}
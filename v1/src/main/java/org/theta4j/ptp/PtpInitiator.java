@@ -6,6 +6,8 @@ package org.theta4j.ptp;
 
 import org.theta4j.ptp.code.Code;
 import org.theta4j.ptp.data.DeviceInfo;
+import org.theta4j.ptp.data.DevicePropDesc;
+import org.theta4j.ptp.data.Event;
 import org.theta4j.ptp.data.Response;
 import org.theta4j.ptp.type.*;
 
@@ -13,6 +15,10 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * An interface of PTP initiator defined in PTP standard.
@@ -95,6 +101,81 @@ public interface PtpInitiator extends Closeable {
      */
     UINT32 sendOperation(Code<UINT16> operationCode, UINT32 p1, UINT32 p2, UINT32 p3, UINT32 p4, UINT32 p5) throws IOException;
 
+    /**
+     * Send PTP-Responder operation request which is followed by the data sent by sendData.
+     *
+     * @param operationCode Operation code
+     * @return Transaction ID
+     * @throws IOException          if an I/O error occurs while sending the operation.
+     * @throws NullPointerException if operationCode is null.
+     */
+    UINT32 sendOperationWithData(Code<UINT16> operationCode) throws IOException;
+
+    /**
+     * Send PTP-Responder operation request which is followed by the data sent by sendData.
+     *
+     * @param operationCode Operation code
+     * @param p1            Parameter 1
+     * @return Transaction ID
+     * @throws IOException          if an I/O error occurs while sending the operation.
+     * @throws NullPointerException if an argument is null.
+     */
+    UINT32 sendOperationWithData(Code<UINT16> operationCode, UINT32 p1) throws IOException;
+
+    /**
+     * Send PTP-Responder operation request which is followed by the data sent by sendData.
+     *
+     * @param operationCode Operation code
+     * @param p1            Parameter 1
+     * @param p2            Parameter 2
+     * @return Transaction ID
+     * @throws IOException          if an I/O error occurs while sending the operation.
+     * @throws NullPointerException if an argument is null.
+     */
+    UINT32 sendOperationWithData(Code<UINT16> operationCode, UINT32 p1, UINT32 p2) throws IOException;
+
+    /**
+     * Send PTP-Responder operation request which is followed by the data sent by sendData.
+     *
+     * @param operationCode Operation code
+     * @param p1            Parameter 1
+     * @param p2            Parameter 2
+     * @param p3            Parameter 3
+     * @return Transaction ID
+     * @throws IOException          if an I/O error occurs while sending the operation.
+     * @throws NullPointerException if an argument is null.
+     */
+    UINT32 sendOperationWithData(Code<UINT16> operationCode, UINT32 p1, UINT32 p2, UINT32 p3) throws IOException;
+
+    /**
+     * Send PTP-Responder operation request which is followed by the data sent by sendData.
+     *
+     * @param operationCode Operation code
+     * @param p1            Parameter 1
+     * @param p2            Parameter 2
+     * @param p3            Parameter 3
+     * @param p4            Parameter 4
+     * @return Transaction ID
+     * @throws IOException          if an I/O error occurs while sending the operation.
+     * @throws NullPointerException if an argument is null.
+     */
+    UINT32 sendOperationWithData(Code<UINT16> operationCode, UINT32 p1, UINT32 p2, UINT32 p3, UINT32 p4) throws IOException;
+
+    /**
+     * Send PTP-Responder operation request which is followed by the data sent by sendData.
+     *
+     * @param operationCode Operation code
+     * @param p1            Parameter 1
+     * @param p2            Parameter 2
+     * @param p3            Parameter 3
+     * @param p4            Parameter 4
+     * @param p5            Parameter 5
+     * @return Transaction ID
+     * @throws IOException          if an I/O error occurs while sending the operation.
+     * @throws NullPointerException if an argument is null.
+     */
+    UINT32 sendOperationWithData(Code<UINT16> operationCode, UINT32 p1, UINT32 p2, UINT32 p3, UINT32 p4, UINT32 p5) throws IOException;
+
     // Operation
 
     /**
@@ -127,6 +208,18 @@ public interface PtpInitiator extends Closeable {
 
     // Device Property
 
+    /**
+     * Get the description of the device property of PTP-Responder.
+     *
+     * @param devicePropCode The code of the device property to get the description.
+     * @return Device property description
+     * @throws IOException          if an I/O error occurs while getting the description.
+     * @throws PtpException         if the PTP response is not OK.
+     * @throws InvalidDataException if the description cannot be decoded, such as an unknown form flag.
+     * @throws NullPointerException if devicePropCode is null.
+     */
+    DevicePropDesc getDevicePropDesc(Code<UINT16> devicePropCode) throws IOException;
+
     /**
      * Get device property value of PTP-Responder.
      *
@@ -319,6 +412,30 @@ public interface PtpInitiator extends Closeable {
      */
     void sendData(byte[] data) throws IOException;
 
+    /**
+     * Send the PTP-Responder data read from src.
+     * Unlike sendData(byte[]), the data is not buffered in memory but sent chunk by chunk while reading src.
+     *
+     * @param src    The source of the data to send.
+     * @param length The number of bytes to read from src and send.
+     * @throws IOException              if an I/O error occurs while reading src or sending data.
+     * @throws NullPointerException     if src is null.
+     * @throws IllegalArgumentException if length is negative.
+     */
+    void sendData(InputStream src, long length) throws IOException;
+
+    /**
+     * Send the PTP-Responder data read from src.
+     * Unlike sendData(byte[]), the data is not buffered in memory but sent chunk by chunk while reading src.
+     *
+     * @param src    The source of the data to send.
+     * @param length The number of bytes to read from src and send.
+     * @throws IOException              if an I/O error occurs while reading src or sending data.
+     * @throws NullPointerException     if src is null.
+     * @throws IllegalArgumentException if length is negative.
+     */
+    void sendData(ReadableByteChannel src, long length) throws IOException;
+
     /**
      * Receive data from the PTP-Responder.
      *
@@ -336,6 +453,41 @@ public interface PtpInitiator extends Closeable {
      */
     void receiveData(OutputStream dst) throws IOException;
 
+    /**
+     * Receive data from the PTP-Responder.
+     * If dst is a FileChannel, the data is written from the current position of the file.
+     *
+     * @param dst The destination which to write data from the PTP-Responder.
+     * @throws IOException          if an I/O error occurs while receiving data.
+     * @throws NullPointerException if dst is null.
+     */
+    void receiveData(WritableByteChannel dst) throws IOException;
+
+    /**
+     * Open the stream over the data from the PTP-Responder.
+     * Unlike receiveData(), the data is not buffered in memory but read from the PTP-Responder on demand.
+     * The returned stream must be read to the end or closed before receiving the response.
+     *
+     * @return The stream over the data from the PTP-Responder.
+     * @throws IOException  if an I/O error occurs while receiving data.
+     * @throws PtpException if the PTP-Responder returned the response with error instead of data.
+     */
+    InputStream openData() throws IOException;
+
+    // Cancel
+
+    /**
+     * Request the responder to cancel the transaction.
+     * This method can be called by any thread while another thread is receiving the Data Phase of the transaction.
+     * The receiving thread should read or close the rest of the Data Phase and then read the response,
+     * so the session is still usable after the transaction is cancelled.
+     *
+     * @param transactionID The TransactionID of the transaction to cancel.
+     * @throws IOException          if an I/O error occurs while sending the request.
+     * @throws NullPointerException if transactionID is null.
+     */
+    void cancelTransaction(UINT32 transactionID) throws IOException;
+
     // Listener
 
     /**
@@ -355,4 +507,46 @@ public interface PtpInitiator extends Closeable {
      * @throws NullPointerException if listener is null.
      */
     boolean removeListener(PtpEventListener listener);
+
+    // Waiter
+
+    /**
+     * Wait for the next PTP event of the code.
+     * The waiter is completed by the thread which reads the events without passing through the listeners.
+     *
+     * @param eventCode The code of the event to wait.
+     * @param timeout   The time to wait. The future is completed exceptionally with TimeoutException after it.
+     * @param unit      The unit of timeout.
+     * @return The future which is completed with the event.
+     * @throws NullPointerException     if an argument is null.
+     * @throws IllegalArgumentException if timeout is not positive.
+     */
+    CompletableFuture<Event> awaitEvent(Code<UINT16> eventCode, long timeout, TimeUnit unit);
+
+    /**
+     * Wait for the PTP event of the code and the TransactionID.
+     * The event which arrived just before the call is also accepted.
+     *
+     * @param eventCode     The code of the event to wait.
+     * @param transactionID The TransactionID of the event to wait.
+     * @param timeout       The time to wait. The future is completed exceptionally with TimeoutException after it.
+     * @param unit          The unit of timeout.
+     * @return The future which is completed with the event.
+     * @throws NullPointerException     if an argument is null.
+     * @throws IllegalArgumentException if timeout is not positive.
+     */
+    CompletableFuture<Event> awaitEventOfTransaction(Code<UINT16> eventCode, UINT32 transactionID, long timeout, TimeUnit unit);
+
+    /**
+     * Wait for the next PTP event of the code and the parameter 1.
+     *
+     * @param eventCode The code of the event to wait.
+     * @param p1        The parameter 1 of the event to wait.
+     * @param timeout   The time to wait. The future is completed exceptionally with TimeoutException after it.
+     * @param unit      The unit of timeout.
+     * @return The future which is completed with the event.
+     * @throws NullPointerException     if an argument is null.
+     * @throws IllegalArgumentException if timeout is not positive.
+     */
+    CompletableFuture<Event> awaitEventWithParameter(Code<UINT16> eventCode, UINT32 p1, long timeout, TimeUnit unit);
 }
@@ -33,7 +33,7 @@ public final class TransactionIDIterator implements Iterator<UINT32> {
             current = 1;
         }
 
-        return new UINT32(current++);
+        return UINT32.valueOf(current++);
     }
 
     /**
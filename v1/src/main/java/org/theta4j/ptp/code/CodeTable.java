@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j.ptp.code;
+
+import org.theta4j.ptp.type.PtpInteger;
+import org.theta4j.util.Validators;
+
+/**
+ * The lookup table of the codes indexed by the primitive code value.
+ * <p>
+ * The table covers the values from 0x0000 to 0xFFFF,
+ * and is divided into pages of 256 entries which are allocated only if a code exists in the range.
+ * So the lookup is two array accesses without boxing or hashing.
+ *
+ * @param <T> The type of the code.
+ */
+public final class CodeTable<T extends Code<? extends PtpInteger>> {
+    private static final int PAGE_BITS = 8;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final long MAX_VALUE = 0xFFFF;
+
+    private final Object[][] pages = new Object[PAGE_SIZE][];
+
+    // Constructor
+
+    private CodeTable(T[] codes) {
+        for (T code : codes) {
+            long value = code.value().longValue();
+
+            if (value < 0 || MAX_VALUE < value) {
+                throw new IllegalArgumentException("The code is out of range of the table: " + code);
+            }
+
+            int pageIndex = (int) (value >>> PAGE_BITS);
+            if (pages[pageIndex] == null) {
+                pages[pageIndex] = new Object[PAGE_SIZE];
+            }
+
+            // If the codes have the same value, the latter one is used.
+            pages[pageIndex][(int) (value & (PAGE_SIZE - 1))] = code;
+        }
+    }
+
+    // Static Factory Method
+
+    /**
+     * Create the table of the codes.
+     *
+     * @param codes The codes to register to the table.
+     * @throws NullPointerException     if codes is null.
+     * @throws IllegalArgumentException if a code is out of range from 0x0000 to 0xFFFF.
+     */
+    public static <T extends Code<? extends PtpInteger>> CodeTable<T> of(T[] codes) {
+        Validators.notNull("codes", codes);
+
+        return new CodeTable<>(codes);
+    }
+
+    // Lookup
+
+    /**
+     * Returns the code of the value, or null if the code of the value is not in the table.
+     *
+     * @param value The primitive code value.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(long value) {
+        if (value < 0 || MAX_VALUE < value) {
+            return null;
+        }
+
+        Object[] page = pages[(int) (value >>> PAGE_BITS)];
+        if (page == null) {
+            return null;
+        }
+
+        return (T) page[(int) (value & (PAGE_SIZE - 1))];
+    }
+}
@@ -47,7 +47,7 @@ public enum DevicePropCode implements Code<UINT16> {
     // Constructor
 
     DevicePropCode(int value) {
-        this.value = new UINT16(value);
+        this.value = UINT16.valueOf(value);
     }
 
     // Code
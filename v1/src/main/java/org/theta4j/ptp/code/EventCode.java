@@ -23,6 +23,10 @@ public enum EventCode implements Code<UINT16> {
     CAPTURE_COMPLETE(0x400D),
     UNREPORTED_STATUS(0x400E);
 
+    // Table for valueOf method
+
+    private static final CodeTable<EventCode> TABLE = CodeTable.of(values());
+
     // Property
 
     private final UINT16 value;
@@ -30,7 +34,7 @@ public enum EventCode implements Code<UINT16> {
     // Constructor
 
     EventCode(int value) {
-        this.value = new UINT16(value);
+        this.value = UINT16.valueOf(value);
     }
 
     // Code
@@ -40,6 +44,33 @@ public enum EventCode implements Code<UINT16> {
         return value;
     }
 
+    // valueOf
+
+    /**
+     * Returns the EventCode of the value, or null if the value is not defined.
+     *
+     * @param value The primitive value of the code.
+     */
+    public static EventCode find(int value) {
+        return TABLE.get(value);
+    }
+
+    /**
+     * Returns the EventCode of the value.
+     *
+     * @param value The primitive value of the code.
+     * @throws IllegalArgumentException if the value is not defined.
+     */
+    public static EventCode valueOf(int value) {
+        EventCode code = find(value);
+
+        if (code == null) {
+            throw new IllegalArgumentException(String.format("Unknown Event Code: 0x%04x", value));
+        }
+
+        return code;
+    }
+
     // Code Type Checker
 
     public static boolean isReservedCode(UINT16 value) {
@@ -46,7 +46,7 @@ public enum ObjectFormatCode implements Code<UINT16> {
     // Constructor
 
     ObjectFormatCode(int value, Type type) {
-        this.value = new UINT16(value);
+        this.value = UINT16.valueOf(value);
         this.type = type;
     }
 
@@ -37,6 +37,10 @@ public enum OperationCode implements Code<UINT16> {
     GET_PARTIAL_OBJECT(0x101B),
     INITIATE_OPEN_CAPTURER(0x101C);
 
+    // Table for valueOf method
+
+    private static final CodeTable<OperationCode> TABLE = CodeTable.of(values());
+
     // Property
 
     private final UINT16 value;
@@ -44,7 +48,7 @@ public enum OperationCode implements Code<UINT16> {
     // Constructor
 
     OperationCode(int value) {
-        this.value = new UINT16(value);
+        this.value = UINT16.valueOf(value);
     }
 
     // Code
@@ -54,6 +58,33 @@ public enum OperationCode implements Code<UINT16> {
         return value;
     }
 
+    // valueOf
+
+    /**
+     * Returns the OperationCode of the value, or null if the value is not defined.
+     *
+     * @param value The primitive value of the code.
+     */
+    public static OperationCode find(int value) {
+        return TABLE.get(value);
+    }
+
+    /**
+     * Returns the OperationCode of the value.
+     *
+     * @param value The primitive value of the code.
+     * @throws IllegalArgumentException if the value is not defined.
+     */
+    public static OperationCode valueOf(int value) {
+        OperationCode code = find(value);
+
+        if (code == null) {
+            throw new IllegalArgumentException(String.format("Unknown Operation Code: 0x%04x", value));
+        }
+
+        return code;
+    }
+
     // Code Type Checker
 
     public static boolean isReservedCode(UINT16 value) {
@@ -41,6 +41,10 @@ public enum ResponseCode implements Code<UINT16> {
     TRANSACTION_CANCELLED(0x201F),
     SPECIFICATION_OF_DESTINATION_UNSUPPORTED(0x2020);
 
+    // Table for valueOf method
+
+    private static final CodeTable<ResponseCode> TABLE = CodeTable.of(values());
+
     // Property
 
     private final UINT16 value;
@@ -48,7 +52,7 @@ public enum ResponseCode implements Code<UINT16> {
     // Constructor
 
     ResponseCode(int value) {
-        this.value = new UINT16(value);
+        this.value = UINT16.valueOf(value);
     }
 
     // Code
@@ -58,6 +62,33 @@ public enum ResponseCode implements Code<UINT16> {
         return value;
     }
 
+    // valueOf
+
+    /**
+     * Returns the ResponseCode of the value, or null if the value is not defined.
+     *
+     * @param value The primitive value of the code.
+     */
+    public static ResponseCode find(int value) {
+        return TABLE.get(value);
+    }
+
+    /**
+     * Returns the ResponseCode of the value.
+     *
+     * @param value The primitive value of the code.
+     * @throws IllegalArgumentException if the value is not defined.
+     */
+    public static ResponseCode valueOf(int value) {
+        ResponseCode code = find(value);
+
+        if (code == null) {
+            throw new IllegalArgumentException(String.format("Unknown Response Code: 0x%04x", value));
+        }
+
+        return code;
+    }
+
     // Code Type Checker
 
     public static boolean isReservedCode(UINT16 value) {
@@ -0,0 +1,378 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j.ptp.data;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.theta4j.ptp.code.Code;
+import org.theta4j.ptp.io.PtpInputStream;
+import org.theta4j.ptp.type.DataType;
+import org.theta4j.ptp.type.PtpInteger;
+import org.theta4j.ptp.type.UINT16;
+import org.theta4j.ptp.type.UINT8;
+import org.theta4j.util.Validators;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The device property describing data set defined in PTP standard.
+ * <p>
+ * The values are held as the objects returned by {@link PtpInputStream#readAs(DataType)}
+ * for the data type of the property.
+ */
+public class DevicePropDesc {
+    private static final int GET_SET = 0x01;
+
+    /**
+     * The form of the allowed values of the property.
+     */
+    public enum FormFlag implements Code<UINT8> {
+        /**
+         * The allowed values are not described.
+         */
+        NONE(0x00),
+
+        /**
+         * The allowed values are described by the minimum value, the maximum value and the step size.
+         */
+        RANGE(0x01),
+
+        /**
+         * The allowed values are enumerated.
+         */
+        ENUMERATION(0x02);
+
+        private final UINT8 value;
+
+        FormFlag(int value) {
+            this.value = UINT8.valueOf(value);
+        }
+
+        @Override
+        public UINT8 value() {
+            return value;
+        }
+
+        /**
+         * Returns the form of the value.
+         *
+         * @throws NullPointerException     if value is null.
+         * @throws IllegalArgumentException if the value is unknown.
+         */
+        public static FormFlag valueOf(UINT8 value) {
+            Validators.notNull("value", value);
+
+            for (FormFlag formFlag : values()) {
+                if (formFlag.value.equals(value)) {
+                    return formFlag;
+                }
+            }
+
+            throw new IllegalArgumentException("Unknown FormFlag Value: " + value);
+        }
+    }
+
+    private final UINT16 devicePropCode;
+    private final DataType dataType;
+    private final boolean isSettable;
+    private final Object factoryDefaultValue;
+    private final Object currentValue;
+    private final FormFlag formFlag;
+    private final Object minimumValue;
+    private final Object maximumValue;
+    private final Object stepSize;
+    private final List<Object> supportedValues;
+
+    // Constructor
+
+    /**
+     * @param devicePropCode      The code of the property.
+     * @param dataType            The data type of the property.
+     * @param isSettable          true if the property can be set.
+     * @param factoryDefaultValue The factory default value of the property.
+     * @param currentValue        The current value of the property.
+     * @param formFlag            The form of the allowed values.
+     * @param minimumValue        The minimum value. Must not be null if formFlag is RANGE.
+     * @param maximumValue        The maximum value. Must not be null if formFlag is RANGE.
+     * @param stepSize            The step size. Must not be null if formFlag is RANGE.
+     * @param supportedValues     The allowed values. Must not be empty if formFlag is ENUMERATION.
+     * @throws NullPointerException     if an argument is null, except the range values of other forms than RANGE.
+     * @throws IllegalArgumentException if formFlag is ENUMERATION and supportedValues is empty.
+     */
+    public DevicePropDesc(UINT16 devicePropCode, DataType dataType, boolean isSettable,
+                          Object factoryDefaultValue, Object currentValue, FormFlag formFlag,
+                          Object minimumValue, Object maximumValue, Object stepSize, List<?> supportedValues
+    ) {
+        Validators.notNull("devicePropCode", devicePropCode);
+        Validators.notNull("dataType", dataType);
+        Validators.notNull("factoryDefaultValue", factoryDefaultValue);
+        Validators.notNull("currentValue", currentValue);
+        Validators.notNull("formFlag", formFlag);
+        Validators.notNull("supportedValues", supportedValues);
+
+        if (formFlag == FormFlag.RANGE) {
+            Validators.notNull("minimumValue", minimumValue);
+            Validators.notNull("maximumValue", maximumValue);
+            Validators.notNull("stepSize", stepSize);
+        }
+
+        if (formFlag == FormFlag.ENUMERATION && supportedValues.isEmpty()) {
+            throw new IllegalArgumentException("supportedValues must not be empty.");
+        }
+
+        this.devicePropCode = devicePropCode;
+        this.dataType = dataType;
+        this.isSettable = isSettable;
+        this.factoryDefaultValue = factoryDefaultValue;
+        this.currentValue = currentValue;
+        this.formFlag = formFlag;
+        this.minimumValue = minimumValue;
+        this.maximumValue = maximumValue;
+        this.stepSize = stepSize;
+        this.supportedValues = Collections.unmodifiableList(new ArrayList<>(supportedValues));
+    }
+
+    // Static Factory Method
+
+    /**
+     * Construct DevicePropDesc from InputStream.
+     *
+     * @throws IOException          if an I/O error occurs while reading the stream.
+     * @throws NullPointerException if an argument is null.
+     */
+    public static DevicePropDesc read(InputStream is) throws IOException {
+        return read(new PtpInputStream(is));
+    }
+
+    /**
+     * Construct DevicePropDesc from PtpInputStream.
+     *
+     * @throws IOException          if an I/O error occurs while reading the stream.
+     * @throws NullPointerException if an argument is null.
+     */
+    public static DevicePropDesc read(PtpInputStream pis) throws IOException {
+        Validators.notNull("pis", pis);
+
+        UINT16 devicePropCode = pis.readUINT16();
+        DataType dataType = DataType.valueOf(pis.readUINT16());
+        boolean isSettable = pis.readUINT8().intValue() == GET_SET;
+        Object factoryDefaultValue = pis.readAs(dataType);
+        Object currentValue = pis.readAs(dataType);
+        FormFlag formFlag = FormFlag.valueOf(pis.readUINT8());
+
+        Object minimumValue = null;
+        Object maximumValue = null;
+        Object stepSize = null;
+        List<Object> supportedValues = new ArrayList<>();
+
+        switch (formFlag) {
+            case NONE:
+                break;
+            case RANGE:
+                minimumValue = pis.readAs(dataType);
+                maximumValue = pis.readAs(dataType);
+                stepSize = pis.readAs(dataType);
+                break;
+            case ENUMERATION:
+                int numberOfValues = pis.readUINT16().intValue();
+                for (int i = 0; i < numberOfValues; i++) {
+                    supportedValues.add(pis.readAs(dataType));
+                }
+                break;
+            default:
+                throw new AssertionError();
+        }
+
+        return new DevicePropDesc(devicePropCode, dataType, isSettable,
+                factoryDefaultValue, currentValue, formFlag,
+                minimumValue, maximumValue, stepSize, supportedValues
+        );
+    }
+
+    // Getter
+
+    /**
+     * Returns the code of the property.
+     */
+    public UINT16 getDevicePropCode() {
+        return devicePropCode;
+    }
+
+    /**
+     * Returns the data type of the property.
+     */
+    public DataType getDataType() {
+        return dataType;
+    }
+
+    /**
+     * Returns true if the property can be set.
+     */
+    public boolean isSettable() {
+        return isSettable;
+    }
+
+    /**
+     * Returns the factory default value of the property.
+     */
+    public Object getFactoryDefaultValue() {
+        return factoryDefaultValue;
+    }
+
+    /**
+     * Returns the current value of the property.
+     */
+    public Object getCurrentValue() {
+        return currentValue;
+    }
+
+    /**
+     * Returns the form of the allowed values.
+     */
+    public FormFlag getFormFlag() {
+        return formFlag;
+    }
+
+    /**
+     * Returns the minimum value, or null if the form is not RANGE.
+     */
+    public Object getMinimumValue() {
+        return minimumValue;
+    }
+
+    /**
+     * Returns the maximum value, or null if the form is not RANGE.
+     */
+    public Object getMaximumValue() {
+        return maximumValue;
+    }
+
+    /**
+     * Returns the step size, or null if the form is not RANGE.
+     */
+    public Object getStepSize() {
+        return stepSize;
+    }
+
+    /**
+     * Returns the allowed values, or the empty list if the form is not ENUMERATION.
+     */
+    public List<Object> getSupportedValues() {
+        return supportedValues;
+    }
+
+    // Validation
+
+    /**
+     * Returns true if the value is allowed by the form of this property.
+     * If the form is NONE, any value is allowed.
+     *
+     * @param value The value to check. The integer values are compared by the numerical value.
+     * @throws NullPointerException if value is null.
+     */
+    public boolean isAllowed(Object value) {
+        Validators.notNull("value", value);
+
+        switch (formFlag) {
+            case NONE:
+                return true;
+            case RANGE:
+                return isInRange(value);
+            case ENUMERATION:
+                if (value instanceof PtpInteger) {
+                    for (Object supportedValue : supportedValues) {
+                        if (supportedValue instanceof PtpInteger && ((PtpInteger) value).compareTo((PtpInteger) supportedValue) == 0) {
+                            return true;
+                        }
+                    }
+                    return false;
+                }
+                return supportedValues.contains(value);
+            default:
+                throw new AssertionError();
+        }
+    }
+
+    private boolean isInRange(Object value) {
+        if (!(value instanceof PtpInteger) || !(minimumValue instanceof PtpInteger)) {
+            return false;
+        }
+
+        BigInteger v = ((PtpInteger) value).bigInteger();
+        BigInteger min = ((PtpInteger) minimumValue).bigInteger();
+        BigInteger max = ((PtpInteger) maximumValue).bigInteger();
+        BigInteger step = ((PtpInteger) stepSize).bigInteger().abs();
+
+        if (v.compareTo(min) < 0 || max.compareTo(v) < 0) {
+            return false;
+        }
+
+        return step.signum() == 0 || v.subtract(min).mod(step).signum() == 0;
+    }
+
+    // Basic Method
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        DevicePropDesc rhs = (DevicePropDesc) o;
+
+        return new EqualsBuilder()
+                .append(devicePropCode, rhs.devicePropCode)
+                .append(dataType, rhs.dataType)
+                .append(isSettable, rhs.isSettable)
+                .append(factoryDefaultValue, rhs.factoryDefaultValue)
+                .append(currentValue, rhs.currentValue)
+                .append(formFlag, rhs.formFlag)
+                .append(minimumValue, rhs.minimumValue)
+                .append(maximumValue, rhs.maximumValue)
+                .append(stepSize, rhs.stepSize)
+                .append(supportedValues, rhs.supportedValues)
+                .isEquals();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder()
+                .append(devicePropCode)
+                .append(dataType)
+                .append(isSettable)
+                .append(factoryDefaultValue)
+                .append(currentValue)
+                .append(formFlag)
+                .append(minimumValue)
+                .append(maximumValue)
+                .append(stepSize)
+                .append(supportedValues)
+                .toHashCode();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this);
+    }
+}
@@ -97,6 +97,13 @@ public class Event {
         return eventCode;
     }
 
+    /**
+     * Returns the event code of this event as a primitive int.
+     */
+    public int getEventCodeValue() {
+        return eventCode.intValue();
+    }
+
     /**
      * Returns the session ID of this event.
      */
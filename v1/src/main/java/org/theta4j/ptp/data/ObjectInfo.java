@@ -9,8 +9,10 @@ import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.theta4j.ptp.code.Code;
 import org.theta4j.ptp.io.PtpInputStream;
+import org.theta4j.ptp.type.STR;
 import org.theta4j.ptp.type.UINT16;
 import org.theta4j.ptp.type.UINT32;
+import org.theta4j.util.ArrayUtils;
 import org.theta4j.util.Validators;
 
 import java.io.IOException;
@@ -300,6 +302,33 @@ public class ObjectInfo {
         return keywords;
     }
 
+    /**
+     * Returns the byte array of the object information data set, which can be sent by SendObjectInfo operation.
+     */
+    public byte[] bytes() {
+        return ArrayUtils.join(
+                storageID.bytes(),
+                objectFormat.bytes(),
+                protectionStatus.value().bytes(),
+                objectCompressedSize.bytes(),
+                thumbFormat.bytes(),
+                thumbCompressedSize.bytes(),
+                thumbPixWidth.bytes(),
+                thumbPixHeight.bytes(),
+                imagePixWidth.bytes(),
+                imagePixHeight.bytes(),
+                imageBitDepth.bytes(),
+                parentObject.bytes(),
+                associationType.bytes(),
+                associationDesc.bytes(),
+                sequenceNumber.bytes(),
+                STR.toBytes(fileName),
+                STR.toBytes(captureDate),
+                STR.toBytes(modificationDate),
+                STR.toBytes(keywords)
+        );
+    }
+
     // Basic Method
 
     /**
@@ -402,7 +431,7 @@ public class ObjectInfo {
         // Constructor
 
         ProtectionStatus(int value) {
-            this.value = new UINT16(value);
+            this.value = UINT16.valueOf(value);
         }
 
         // Code
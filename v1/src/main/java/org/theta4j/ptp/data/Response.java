@@ -134,6 +134,13 @@ public class Response {
         return responseCode;
     }
 
+    /**
+     * Returns the response code of this response as a primitive int.
+     */
+    public int getResponseCodeValue() {
+        return responseCode.intValue();
+    }
+
     /**
      * Returns the session ID of this response.
      */
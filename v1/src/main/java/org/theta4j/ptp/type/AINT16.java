@@ -6,8 +6,10 @@ package org.theta4j.ptp.type;
 
 import org.theta4j.util.Validators;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -32,4 +34,23 @@ public class AINT16 {
 
         return list;
     }
+
+    /**
+     * Read AINT16 from the stream as an array of int values.
+     * Unlike read(), the elements are decoded in bulk without creating an object per element.
+     *
+     * @throws EOFException         if the stream reaches end before the end of the array.
+     * @throws IOException          if an I/O error occurs while reading the stream.
+     * @throws NullPointerException if is is null.
+     */
+    public static int[] readArray(InputStream is) throws IOException {
+        ByteBuffer buffer = ArrayDecoder.readElements(is, INT16.SIZE_IN_BYTES);
+        int[] array = new int[buffer.remaining() / INT16.SIZE_IN_BYTES];
+
+        for (int i = 0; i < array.length; i++) {
+            array[i] = buffer.getShort();
+        }
+
+        return array;
+    }
 }
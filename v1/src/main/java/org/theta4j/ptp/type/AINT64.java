@@ -6,8 +6,10 @@ package org.theta4j.ptp.type;
 
 import org.theta4j.util.Validators;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.LongBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -32,4 +34,20 @@ public class AINT64 {
 
         return list;
     }
+
+    /**
+     * Read AINT64 from the stream as an array of long values.
+     * Unlike read(), the elements are decoded in bulk without creating an object per element.
+     *
+     * @throws EOFException         if the stream reaches end before the end of the array.
+     * @throws IOException          if an I/O error occurs while reading the stream.
+     * @throws NullPointerException if is is null.
+     */
+    public static long[] readArray(InputStream is) throws IOException {
+        LongBuffer elements = ArrayDecoder.readElements(is, INT64.SIZE_IN_BYTES).asLongBuffer();
+        long[] array = new long[elements.remaining()];
+        elements.get(array);
+
+        return array;
+    }
 }
@@ -4,10 +4,10 @@
 
 package org.theta4j.ptp.type;
 
-import org.theta4j.util.Validators;
-
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -20,16 +20,33 @@ public class AUINT16 {
     }
 
     public static List<UINT16> read(InputStream is) throws IOException {
-        Validators.notNull("is", is);
-
-        long length = UINT32.read(is).longValue();
+        int[] array = readArray(is);
 
-        List<UINT16> list = new ArrayList<>((int) length);
+        List<UINT16> list = new ArrayList<>(array.length);
 
-        for (int i = 0; i < length; i++) {
-            list.add(UINT16.read(is));
+        for (int value : array) {
+            list.add(UINT16.valueOf(value));
         }
 
         return list;
     }
+
+    /**
+     * Read AUINT16 from the stream as an array of int values.
+     * Unlike read(), the elements are decoded in bulk without creating an object per element.
+     *
+     * @throws EOFException         if the stream reaches end before the end of the array.
+     * @throws IOException          if an I/O error occurs while reading the stream.
+     * @throws NullPointerException if is is null.
+     */
+    public static int[] readArray(InputStream is) throws IOException {
+        ByteBuffer buffer = ArrayDecoder.readElements(is, UINT16.SIZE_IN_BYTES);
+        int[] array = new int[buffer.remaining() / UINT16.SIZE_IN_BYTES];
+
+        for (int i = 0; i < array.length; i++) {
+            array[i] = buffer.getShort() & 0xFFFF;
+        }
+
+        return array;
+    }
 }
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j.ptp.type;
+
+import org.theta4j.util.Validators;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * A utility class to decode the PTP arrays in bulk.
+ */
+final class ArrayDecoder {
+    /**
+     * The maximum size of the buffer allocated before the elements arrive.
+     * The number of elements is not trusted, so the buffer grows as the elements are read.
+     */
+    private static final int INITIAL_CAPACITY = 64 * 1024;
+
+    private ArrayDecoder() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Read the number of elements and all elements of the array from the stream.
+     *
+     * @param is          The stream to read.
+     * @param elementSize The size of the element in bytes.
+     * @return The little endian buffer over the elements.
+     * @throws EOFException         if the stream reaches end before the end of the array.
+     * @throws IOException          if an I/O error occurs while reading the stream, or the array is too large.
+     * @throws NullPointerException if is is null.
+     */
+    static ByteBuffer readElements(InputStream is, int elementSize) throws IOException {
+        Validators.notNull("is", is);
+
+        long length = UINT32.read(is).longValue();
+        long sizeInBytes = length * elementSize;
+
+        if (Integer.MAX_VALUE < sizeInBytes) {
+            throw new IOException("The array is too large: " + length + " elements");
+        }
+
+        int size = (int) sizeInBytes;
+        byte[] bytes = new byte[Math.min(size, INITIAL_CAPACITY)];
+        for (int offset = 0; offset < size; ) {
+            if (offset == bytes.length) {
+                bytes = Arrays.copyOf(bytes, (int) Math.min(size, 2L * bytes.length));
+            }
+
+            int count = is.read(bytes, offset, bytes.length - offset);
+            if (count == -1) {
+                throw new EOFException();
+            }
+            offset += count;
+        }
+
+        return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
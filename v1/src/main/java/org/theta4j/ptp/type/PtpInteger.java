@@ -10,95 +10,169 @@ import java.math.BigInteger;
 
 /**
  * A base class PTP integer classes.
+ * <p>
+ * The integers up to 64 bits are held as a primitive long,
+ * and BigInteger and byte array are created on demand.
+ * UINT64 values larger than Long.MAX_VALUE are held as the same bits in the long.
+ * The integers larger than 64 bits are held as BigInteger.
  */
 public abstract class PtpInteger extends Number implements Comparable<PtpInteger> {
-    private final byte[] bytes;
-    private final BigInteger bigInteger;
+    private static final int LONG_SIZE_IN_BYTES = 8;
+
+    // Representation
+
+    private final long value; // Valid if bigValue is null
+    private final BigInteger bigValue; // Only for the integers larger than 64 bits
+
+    // Cache of bigInteger()
+    private BigInteger bigInteger;
 
     // Constructor
 
     PtpInteger(long value) {
-        this(BigInteger.valueOf(value));
+        if (!isInRange(value)) {
+            throw new IllegalArgumentException();
+        }
+
+        if (sizeInBytes() <= LONG_SIZE_IN_BYTES) {
+            this.value = value;
+            this.bigValue = null;
+        } else {
+            this.value = 0;
+            this.bigValue = BigInteger.valueOf(value);
+        }
     }
 
     PtpInteger(BigInteger value) {
         Validators.notNull("value", value);
 
-        if (value.compareTo(min()) < 0 || 0 < value.compareTo(max())) {
+        if (!isInRange(value)) {
             throw new IllegalArgumentException();
         }
 
-        this.bytes = BigIntegerUtils.toLittleEndian(value, sizeInBytes());
-        this.bigInteger = value;
+        if (sizeInBytes() <= LONG_SIZE_IN_BYTES) {
+            this.value = value.longValue();
+            this.bigValue = null;
+        } else {
+            this.value = 0;
+            this.bigValue = value;
+        }
     }
 
     PtpInteger(byte[] bytes) {
         Validators.notNull("bytes", bytes);
         Validators.length("bytes", bytes, sizeInBytes());
 
-        this.bytes = bytes.clone();
-        if (isSigned()) {
-            this.bigInteger = BigIntegerUtils.asSignedLittleEndian(this.bytes);
+        if (sizeInBytes() <= LONG_SIZE_IN_BYTES) {
+            this.value = fromLittleEndian(bytes, isSigned());
+            this.bigValue = null;
+        } else if (isSigned()) {
+            this.value = 0;
+            this.bigValue = BigIntegerUtils.asSignedLittleEndian(bytes);
         } else {
-            this.bigInteger = BigIntegerUtils.asUnsignedLittleEndian(this.bytes);
+            this.value = 0;
+            this.bigValue = BigIntegerUtils.asUnsignedLittleEndian(bytes);
         }
     }
 
     // Getter
 
     public byte[] bytes() {
-        return bytes.clone();
+        if (bigValue != null) {
+            return BigIntegerUtils.toLittleEndian(bigValue, sizeInBytes());
+        }
+
+        byte[] bytes = new byte[sizeInBytes()];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (value >>> (8 * i));
+        }
+        return bytes;
     }
 
     public BigInteger bigInteger() {
-        return bigInteger;
+        if (bigValue != null) {
+            return bigValue;
+        }
+
+        BigInteger result = bigInteger;
+        if (result == null) {
+            if (isExactLong()) {
+                result = BigInteger.valueOf(value);
+            } else {
+                // UINT64 larger than Long.MAX_VALUE
+                result = BigInteger.valueOf(value >>> 1).shiftLeft(1).or(BigInteger.valueOf(value & 1));
+            }
+            bigInteger = result;
+        }
+        return result;
     }
 
-    // Min / Max
+    // Range
 
-    private BigInteger min() {
+    private boolean isInRange(long value) {
+        int size = sizeInBytes();
+
+        if (LONG_SIZE_IN_BYTES <= size) {
+            return isSigned() || 0 <= value;
+        }
+
+        int bits = size * 8;
         if (isSigned()) {
-            return BigIntegerUtils.minOfSigned(sizeInBytes());
+            long min = -1L << (bits - 1);
+            return min <= value && value <= ~min;
         } else {
-            return BigInteger.ZERO;
+            return 0 <= value && value < (1L << bits);
         }
     }
 
-    private BigInteger max() {
+    private boolean isInRange(BigInteger value) {
+        int bits = sizeInBytes() * 8;
+
         if (isSigned()) {
-            return BigIntegerUtils.maxOfSigned(sizeInBytes());
+            return value.bitLength() < bits;
         } else {
-            return BigIntegerUtils.maxOfUnsigned(sizeInBytes());
+            return 0 <= value.signum() && value.bitLength() <= bits;
         }
     }
 
+    /**
+     * Returns true if the value is held in the long and the long is the exact value.
+     */
+    private boolean isExactLong() {
+        return bigValue == null && (isSigned() || sizeInBytes() < LONG_SIZE_IN_BYTES || 0 <= value);
+    }
+
     // Number
 
     @Override
     public int intValue() {
-        return bigInteger.intValue();
+        return bigValue == null ? (int) value : bigValue.intValue();
     }
 
     @Override
     public long longValue() {
-        return bigInteger.longValue();
+        return bigValue == null ? value : bigValue.longValue();
     }
 
     @Override
     public float floatValue() {
-        return bigInteger.floatValue();
+        return isExactLong() ? (float) value : bigInteger().floatValue();
     }
 
     @Override
     public double doubleValue() {
-        return bigInteger.doubleValue();
+        return isExactLong() ? (double) value : bigInteger().doubleValue();
     }
 
     // Comparable
 
     @Override
     public int compareTo(PtpInteger o) {
-        return bigInteger.compareTo(o.bigInteger);
+        if (isExactLong() && o.isExactLong()) {
+            return Long.compare(value, o.value);
+        }
+
+        return bigInteger().compareTo(o.bigInteger());
     }
 
     // Basic Method
@@ -115,17 +189,38 @@ public abstract class PtpInteger extends Number implements Comparable<PtpInteger
 
         PtpInteger rhs = (PtpInteger) o;
 
-        return bigInteger.equals(rhs.bigInteger);
+        if (bigValue == null) {
+            return value == rhs.value;
+        } else {
+            return bigValue.equals(rhs.bigValue);
+        }
     }
 
     @Override
     public int hashCode() {
-        return bigInteger.hashCode();
+        return bigValue == null ? Long.hashCode(value) : bigValue.hashCode();
     }
 
     @Override
     public String toString() {
-        return BigIntegerUtils.toHexString(bigInteger, sizeInBytes());
+        return BigIntegerUtils.toHexString(bigInteger(), sizeInBytes());
+    }
+
+    // Utility
+
+    private static long fromLittleEndian(byte[] bytes, boolean isSigned) {
+        long result = 0;
+        for (int i = bytes.length - 1; 0 <= i; i--) {
+            result = (result << 8) | (bytes[i] & 0xFF);
+        }
+
+        // Sign Extension
+        int shift = 64 - bytes.length * 8;
+        if (isSigned && 0 < shift) {
+            result = (result << shift) >> shift;
+        }
+
+        return result;
     }
 
     // For Subclasses
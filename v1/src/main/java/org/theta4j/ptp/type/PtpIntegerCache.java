@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j.ptp.type;
+
+import org.theta4j.util.Validators;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongFunction;
+
+/**
+ * A cache of PTP integer instances for the values from 0 to (size - 1).
+ * <p>
+ * The instances are created on first use, and the cache is allocated page by page,
+ * so the ranges of values which are never used do not consume memory.
+ */
+final class PtpIntegerCache<T extends PtpInteger> {
+    private static final int PAGE_BITS = 8;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+
+    private final int size;
+    private final LongFunction<T> factory;
+    private final AtomicReferenceArray<AtomicReferenceArray<T>> pages;
+
+    // Constructor
+
+    /**
+     * Create the cache.
+     *
+     * @param size    The number of values to cache.
+     * @param factory The function to create the instance of the value.
+     */
+    PtpIntegerCache(int size, LongFunction<T> factory) {
+        Validators.rangeEq("size", size, 1, Integer.MAX_VALUE);
+        Validators.notNull("factory", factory);
+
+        this.size = size;
+        this.factory = factory;
+        this.pages = new AtomicReferenceArray<>((size + PAGE_SIZE - 1) / PAGE_SIZE);
+    }
+
+    // Get
+
+    /**
+     * Returns the cached instance of the value.
+     * If the value is out of range of the cache, the new instance is returned.
+     */
+    T get(long value) {
+        if (value < 0 || size <= value) {
+            return factory.apply(value);
+        }
+
+        int pageIndex = (int) (value >>> PAGE_BITS);
+        AtomicReferenceArray<T> page = pages.get(pageIndex);
+        if (page == null) {
+            pages.compareAndSet(pageIndex, null, new AtomicReferenceArray<>(PAGE_SIZE));
+            page = pages.get(pageIndex);
+        }
+
+        int index = (int) (value & (PAGE_SIZE - 1));
+        T integer = page.get(index);
+        if (integer == null) {
+            page.compareAndSet(index, null, factory.apply(value));
+            integer = page.get(index);
+        }
+
+        return integer;
+    }
+}
@@ -25,6 +25,8 @@ public final class UINT16 extends PtpInteger {
 
     public static final UINT16 ZERO = new UINT16(0);
 
+    private static final PtpIntegerCache<UINT16> CACHE = new PtpIntegerCache<>(1 << 16, UINT16::new);
+
     // Constructor
 
     public UINT16(long value) {
@@ -41,6 +43,16 @@ public final class UINT16 extends PtpInteger {
 
     // Static Factory Method
 
+    /**
+     * Returns the instance of the value.
+     * All values of UINT16 are cached.
+     *
+     * @throws IllegalArgumentException if value is out of range of UINT16.
+     */
+    public static UINT16 valueOf(long value) {
+        return CACHE.get(value);
+    }
+
     public static UINT16 read(InputStream is) throws IOException {
         byte[] bytes = new byte[SIZE_IN_BYTES];
 
@@ -48,7 +60,7 @@ public final class UINT16 extends PtpInteger {
             throw new EOFException();
         }
 
-        return new UINT16(bytes);
+        return valueOf((bytes[0] & 0xFF) | (bytes[1] & 0xFF) << 8);
     }
 
     // LittleEndianInteger
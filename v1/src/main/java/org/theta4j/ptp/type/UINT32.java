@@ -25,6 +25,8 @@ public final class UINT32 extends PtpInteger {
 
     public static final UINT32 ZERO = new UINT32(0);
 
+    private static final PtpIntegerCache<UINT32> CACHE = new PtpIntegerCache<>(1 << 16, UINT32::new);
+
     // Constructor
 
     public UINT32(long value) {
@@ -41,6 +43,20 @@ public final class UINT32 extends PtpInteger {
 
     // Static Factory Method
 
+    /**
+     * Returns the instance of the value.
+     * The values from 0 to 0xFFFF and MAX_VALUE are cached.
+     *
+     * @throws IllegalArgumentException if value is out of range of UINT32.
+     */
+    public static UINT32 valueOf(long value) {
+        if (value == 0xFFFF_FFFFL) {
+            return MAX_VALUE;
+        }
+
+        return CACHE.get(value);
+    }
+
     public static UINT32 read(InputStream is) throws IOException {
         byte[] bytes = new byte[SIZE_IN_BYTES];
 
@@ -48,7 +64,7 @@ public final class UINT32 extends PtpInteger {
             throw new EOFException();
         }
 
-        return new UINT32(bytes);
+        return valueOf((bytes[0] & 0xFFL) | (bytes[1] & 0xFFL) << 8 | (bytes[2] & 0xFFL) << 16 | (bytes[3] & 0xFFL) << 24);
     }
 
     // LittleEndianInteger
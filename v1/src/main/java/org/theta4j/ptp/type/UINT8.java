@@ -22,6 +22,8 @@ public final class UINT8 extends PtpInteger {
 
     public static final UINT8 ZERO = new UINT8(0);
 
+    private static final PtpIntegerCache<UINT8> CACHE = new PtpIntegerCache<>(1 << 8, UINT8::new);
+
     // Constructor
 
     public UINT8(long value) {
@@ -38,6 +40,16 @@ public final class UINT8 extends PtpInteger {
 
     // Static Factory Method
 
+    /**
+     * Returns the instance of the value.
+     * All values of UINT8 are cached.
+     *
+     * @throws IllegalArgumentException if value is out of range of UINT8.
+     */
+    public static UINT8 valueOf(long value) {
+        return CACHE.get(value);
+    }
+
     public static UINT8 read(InputStream is) throws IOException {
         byte[] bytes = new byte[SIZE_IN_BYTES];
 
@@ -45,7 +57,7 @@ public final class UINT8 extends PtpInteger {
             throw new EOFException();
         }
 
-        return new UINT8(bytes);
+        return valueOf(bytes[0] & 0xFF);
     }
 
     // LittleEndianInteger
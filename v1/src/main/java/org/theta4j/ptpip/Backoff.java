@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j.ptpip;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.theta4j.util.Validators;
+
+import java.time.Duration;
+
+/**
+ * The exponential backoff of reconnecting.
+ * The first attempt is made immediately, and the delay before each next attempt is doubled up to the maximum delay.
+ */
+public final class Backoff {
+    /**
+     * Default backoff: 5 attempts, starting with 500 ms and up to 8 seconds.
+     */
+    public static final Backoff DEFAULT = new Backoff(5, Duration.ofMillis(500), Duration.ofSeconds(8));
+
+    private final int maxAttempts;
+    private final Duration initialDelay;
+    private final Duration maxDelay;
+
+    // Constructor
+
+    /**
+     * Create the backoff.
+     *
+     * @param maxAttempts  The maximum number of the attempts.
+     * @param initialDelay The delay before the second attempt.
+     * @param maxDelay     The maximum delay before an attempt.
+     * @throws NullPointerException     if an argument is null.
+     * @throws IllegalArgumentException if maxAttempts is not positive, a delay is negative,
+     *                                  or initialDelay is longer than maxDelay.
+     */
+    public Backoff(int maxAttempts, Duration initialDelay, Duration maxDelay) {
+        Validators.rangeEq("maxAttempts", maxAttempts, 1, Integer.MAX_VALUE);
+        Validators.notNull("initialDelay", initialDelay);
+        Validators.notNull("maxDelay", maxDelay);
+        if (initialDelay.isNegative() || maxDelay.compareTo(initialDelay) < 0) {
+            throw new IllegalArgumentException("0 <= initialDelay <= maxDelay is required.");
+        }
+
+        this.maxAttempts = maxAttempts;
+        this.initialDelay = initialDelay;
+        this.maxDelay = maxDelay;
+    }
+
+    // Getter
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public Duration getInitialDelay() {
+        return initialDelay;
+    }
+
+    public Duration getMaxDelay() {
+        return maxDelay;
+    }
+
+    /**
+     * Returns the delay before the attempt.
+     *
+     * @param attempt The index of the attempt from 0.
+     * @throws IllegalArgumentException if attempt is negative.
+     */
+    public Duration delay(int attempt) {
+        Validators.rangeEq("attempt", attempt, 0, Integer.MAX_VALUE);
+
+        if (attempt == 0) {
+            return Duration.ZERO;
+        }
+
+        Duration delay = initialDelay;
+        for (int i = 1; i < attempt && delay.compareTo(maxDelay) < 0; i++) {
+            delay = delay.multipliedBy(2);
+        }
+
+        return delay.compareTo(maxDelay) < 0 ? delay : maxDelay;
+    }
+
+    // Basic Method
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("maxAttempts", maxAttempts)
+                .append("initialDelay", initialDelay)
+                .append("maxDelay", maxDelay)
+                .toString();
+    }
+}
@@ -7,20 +7,23 @@ package org.theta4j.ptpip;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.theta4j.ptp.AbstractPtpInitiator;
+import org.theta4j.ptp.PtpEventDispatcher;
+import org.theta4j.ptp.PtpEventListener;
 import org.theta4j.ptp.TransactionIDIterator;
 import org.theta4j.ptp.code.Code;
 import org.theta4j.ptp.data.Event;
 import org.theta4j.ptp.data.Response;
 import org.theta4j.ptp.type.UINT16;
 import org.theta4j.ptp.type.UINT32;
-import org.theta4j.ptpip.io.PtpIpInputStream;
-import org.theta4j.ptpip.io.PtpIpOutputStream;
+import org.theta4j.ptpip.io.PtpIpConnection;
 import org.theta4j.ptpip.packet.*;
 import org.theta4j.util.Validators;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
-import java.net.Socket;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.UUID;
 
 /**
@@ -29,6 +32,21 @@ import java.util.UUID;
 public final class PtpIpInitiator extends AbstractPtpInitiator {
     private static final Logger LOGGER = LoggerFactory.getLogger(PtpIpInitiator.class);
 
+    /**
+     * Default timeout of connecting to the responder in milliseconds.
+     */
+    public static final int DEFAULT_CONNECT_TIMEOUT = 10 * 1000;
+
+    /**
+     * Default timeout of each read from the Command Data Connection in milliseconds.
+     */
+    public static final int DEFAULT_READ_TIMEOUT = 60 * 1000;
+
+    // DataPhaseInfo of OperationRequest
+
+    private static final UINT32 DATA_PHASE_NONE_OR_IN = new UINT32(1);
+    private static final UINT32 DATA_PHASE_OUT = new UINT32(2);
+
     // Property
 
     private final UUID guid;
@@ -39,51 +57,138 @@ public final class PtpIpInitiator extends AbstractPtpInitiator {
 
     private volatile boolean isClosed = false;
     private final TransactionIDIterator transactionIDIterator = new TransactionIDIterator();
+    private volatile UINT32 transactionID; // The TransactionID of the last operation, which the Data Phase belongs to
 
     // Command Data Connection
 
-    private final Socket commandDataConnection;
-    private final PtpIpInputStream ci;
-    private final PtpIpOutputStream co;
+    private final PtpIpConnection commandDataConnection;
 
     // Event Connection
 
-    private final Socket eventConnection;
-    private final PtpIpInputStream ei;
-    private final PtpIpOutputStream eo;
+    private final PtpIpConnection eventConnection;
+    private final PtpEventDispatcher eventDispatcher;
+    private final boolean ownsEventDispatcher;
+    private final PtpEventListener eventHook;
 
     // Connect
 
     public PtpIpInitiator(UUID guid, String host, int port) throws IOException {
+        this(guid, host, port, PtpIpTransport.SOCKET);
+    }
+
+    public PtpIpInitiator(UUID guid, String host, int port, PtpIpTransport transport) throws IOException {
+        this(guid, host, port, transport, null);
+    }
+
+    /**
+     * Connect to the PTP-Responder.
+     * The events are read by the dedicated thread and delivered to the listeners through eventDispatcher.
+     *
+     * @param guid            The GUID of the initiator.
+     * @param host            The host of the responder.
+     * @param port            The TCP port of the responder.
+     * @param transport       The transport of the connections.
+     * @param eventDispatcher The dispatcher of the events, or null to use own dispatcher.
+     *                        The given dispatcher is not closed when the initiator is closed.
+     * @throws IOException              if an I/O error occurs while connecting the responder.
+     * @throws NullPointerException     if an argument except eventDispatcher is null.
+     * @throws IllegalArgumentException if port is out of range.
+     */
+    public PtpIpInitiator(UUID guid, String host, int port, PtpIpTransport transport, PtpEventDispatcher eventDispatcher) throws IOException {
+        this(guid, host, port, transport, eventDispatcher, DEFAULT_CONNECT_TIMEOUT, DEFAULT_READ_TIMEOUT);
+    }
+
+    /**
+     * Connect to the PTP-Responder with the timeouts.
+     * The read timeout is applied to the Command Data Connection only,
+     * because the events are not sent while nothing happens on the responder.
+     *
+     * @param guid            The GUID of the initiator.
+     * @param host            The host of the responder.
+     * @param port            The TCP port of the responder.
+     * @param transport       The transport of the connections.
+     * @param eventDispatcher The dispatcher of the events, or null to use own dispatcher.
+     *                        The given dispatcher is not closed when the initiator is closed.
+     * @param connectTimeout  The timeout of connecting in milliseconds, or 0 for no timeout.
+     * @param readTimeout     The timeout of each read in milliseconds, or 0 for no timeout.
+     *                        It is not applied with {@link PtpIpTransport#CHANNEL}.
+     * @throws IOException              if an I/O error occurs while connecting the responder.
+     * @throws NullPointerException     if an argument except eventDispatcher is null.
+     * @throws IllegalArgumentException if port or a timeout is out of range.
+     */
+    public PtpIpInitiator(UUID guid, String host, int port, PtpIpTransport transport, PtpEventDispatcher eventDispatcher,
+                          int connectTimeout, int readTimeout) throws IOException {
+        this(guid, host, port, transport, eventDispatcher, connectTimeout, readTimeout, null);
+    }
+
+    /**
+     * Connect to the PTP-Responder with the hook of the events.
+     * The hook is called by the thread reading the Event Connection before the events are dispatched,
+     * so it sees every event in order even if the dispatcher drops the event or the listeners are slow.
+     * It is not called after this initiator is closed.
+     *
+     * @param eventHook The hook of the events, or null. It must not block.
+     */
+    PtpIpInitiator(UUID guid, String host, int port, PtpIpTransport transport, PtpEventDispatcher eventDispatcher,
+                   int connectTimeout, int readTimeout, PtpEventListener eventHook) throws IOException {
         Validators.notNull("guid", guid);
         Validators.notNull("host", host);
         Validators.portNumber(port);
+        Validators.notNull("transport", transport);
+        Validators.rangeEq("connectTimeout", connectTimeout, 0, Integer.MAX_VALUE);
+        Validators.rangeEq("readTimeout", readTimeout, 0, Integer.MAX_VALUE);
 
         this.guid = guid;
         this.host = host;
         this.port = port;
+        this.ownsEventDispatcher = eventDispatcher == null;
+        this.eventDispatcher = ownsEventDispatcher ? new PtpEventDispatcher() : eventDispatcher;
+        this.eventHook = eventHook;
+
+        PtpIpConnection commandDataConnection = null;
+        PtpIpConnection eventConnection = null;
+
+        try {
+            // Establish Command Data Connection
+            commandDataConnection = transport.connect(host, port, connectTimeout, readTimeout);
+            this.commandDataConnection = commandDataConnection;
+            UINT32 connectionNumber = establishCommandDataConnection();
+
+            // Establish Event Connection
+            eventConnection = transport.connect(host, port, connectTimeout, 0);
+            this.eventConnection = eventConnection;
+            establishEventConnection(connectionNumber);
+        } catch (IOException | RuntimeException e) {
+            // Release what is opened, because the invoker can not close the initiator which is not constructed.
+            closeQuietly(eventConnection);
+            closeQuietly(commandDataConnection);
+            if (ownsEventDispatcher) {
+                this.eventDispatcher.close();
+            }
+            throw e;
+        }
 
-        // Establish Command Data Connection
-        this.commandDataConnection = new Socket(host, port);
-        this.ci = new PtpIpInputStream(commandDataConnection.getInputStream());
-        this.co = new PtpIpOutputStream(commandDataConnection.getOutputStream());
-        UINT32 connectionNumber = establishCommandDataConnection();
+        startEventHandlerThread();
+    }
 
-        // Establish Event Connection
-        this.eventConnection = new Socket(host, port);
-        this.ei = new PtpIpInputStream(eventConnection.getInputStream());
-        this.eo = new PtpIpOutputStream(eventConnection.getOutputStream());
-        establishEventConnection(connectionNumber);
+    private static void closeQuietly(PtpIpConnection connection) {
+        if (connection == null) {
+            return;
+        }
 
-        startEventHandlerThread();
+        try {
+            connection.close();
+        } catch (IOException e) {
+            LOGGER.debug("Error occurred while closing the connection", e);
+        }
     }
 
     private UINT32 establishCommandDataConnection() throws IOException {
         InitCommandRequestPacket initCommandRequest = new InitCommandRequestPacket(guid, "test", ProtocolVersions.REV_1_0);
-        co.write(initCommandRequest);
+        commandDataConnection.write(initCommandRequest);
         LOGGER.debug("Sent InitCommandRequest: {}", initCommandRequest);
 
-        InitCommandAckPacket initCommandAck = ci.readInitCommandAckPacket();
+        InitCommandAckPacket initCommandAck = commandDataConnection.readInitCommandAckPacket();
         LOGGER.debug("Command Data Connection is established: {}", initCommandAck);
 
         return initCommandAck.getConnectionNumber();
@@ -91,19 +196,19 @@ public final class PtpIpInitiator extends AbstractPtpInitiator {
 
     private void establishEventConnection(UINT32 connectionNumber) throws IOException {
         InitEventRequestPacket initEventRequest = new InitEventRequestPacket(connectionNumber);
-        eo.write(initEventRequest);
+        eventConnection.write(initEventRequest);
         LOGGER.debug("Sent InitEventRequest: {}", initEventRequest);
 
-        InitEventAckPacket initEventAck = ei.readInitEventAckPacket();
+        InitEventAckPacket initEventAck = eventConnection.readInitEventAckPacket();
         LOGGER.debug("Event Connection is established: {}", initEventAck);
     }
 
     private void startEventHandlerThread() {
-        new Thread(() -> {
+        Thread thread = new Thread(() -> {
             for (; ; ) {
                 final EventPacket eventPacket;
                 try {
-                    eventPacket = ei.readEventPacket();
+                    eventPacket = eventConnection.readEventPacket();
                 } catch (final IOException e) {
                     if (isClosed) {
                         LOGGER.debug("Finished Event Listener Thread.");
@@ -121,16 +226,32 @@ public final class PtpIpInitiator extends AbstractPtpInitiator {
                     return;
                 }
 
-                listenerSet.onEvent(new Event(
+                Event event = new Event(
                         eventPacket.getEventCode(),
                         getSessionID(),
                         eventPacket.getTransactionID(),
                         eventPacket.getP1(),
                         eventPacket.getP2(),
                         eventPacket.getP3()
-                ));
+                );
+
+                eventWaiters.complete(event);
+
+                if (eventHook != null && !isClosed) {
+                    eventHook.onEvent(event);
+                }
+
+                try {
+                    eventDispatcher.dispatch(event, listenerSet);
+                } catch (InterruptedException e) {
+                    LOGGER.debug("Interrupted Event Listener Thread.");
+                    Thread.currentThread().interrupt();
+                    return;
+                }
             }
-        }).start();
+        }, "theta4j-event-reader");
+        thread.setDaemon(true);
+        thread.start();
     }
 
     // Getter
@@ -156,6 +277,13 @@ public final class PtpIpInitiator extends AbstractPtpInitiator {
         return port;
     }
 
+    /**
+     * Returns true if the initiator is closed, by {@link #close()} or by the error on the Event Connection.
+     */
+    public boolean isClosed() {
+        return isClosed;
+    }
+
     // AbstractPtpInitiator
 
     /**
@@ -163,6 +291,21 @@ public final class PtpIpInitiator extends AbstractPtpInitiator {
      */
     @Override
     public UINT32 sendOperation(Code<UINT16> operationCode, UINT32 p1, UINT32 p2, UINT32 p3, UINT32 p4, UINT32 p5) throws IOException {
+        return sendOperationRequest(DATA_PHASE_NONE_OR_IN, operationCode, p1, p2, p3, p4, p5);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The operation request announces the data-out phase to the responder.
+     */
+    @Override
+    public UINT32 sendOperationWithData(Code<UINT16> operationCode, UINT32 p1, UINT32 p2, UINT32 p3, UINT32 p4, UINT32 p5) throws IOException {
+        return sendOperationRequest(DATA_PHASE_OUT, operationCode, p1, p2, p3, p4, p5);
+    }
+
+    private UINT32 sendOperationRequest(UINT32 dataPhaseInfo, Code<UINT16> operationCode,
+                                        UINT32 p1, UINT32 p2, UINT32 p3, UINT32 p4, UINT32 p5) throws IOException {
         Validators.notNull("operationCode", operationCode);
         Validators.notNull("p1", p1);
         Validators.notNull("p2", p2);
@@ -171,14 +314,15 @@ public final class PtpIpInitiator extends AbstractPtpInitiator {
         Validators.notNull("p5", p5);
 
         UINT32 transactionID = transactionIDIterator.next();
+        this.transactionID = transactionID;
 
         OperationRequestPacket operationRequestPacket = new OperationRequestPacket(
-                new UINT32(1),
+                dataPhaseInfo,
                 operationCode.value(),
                 transactionID,
                 p1, p2, p3, p4, p5
         );
-        co.write(operationRequestPacket);
+        commandDataConnection.write(operationRequestPacket);
         LOGGER.debug("Sent OperationRequest: {}", operationRequestPacket);
 
         return transactionID;
@@ -189,11 +333,11 @@ public final class PtpIpInitiator extends AbstractPtpInitiator {
      */
     @Override
     public Response receiveResponse() throws IOException {
-        if (ci.nextType() != PtpIpPacket.Type.OPERATION_RESPONSE) {
-            throw new IllegalStateException("Expected OperationResponse but was " + ci.nextType());
+        if (commandDataConnection.nextType() != PtpIpPacket.Type.OPERATION_RESPONSE) {
+            throw new IllegalStateException("Expected OperationResponse but was " + commandDataConnection.nextType());
         }
 
-        OperationResponsePacket operationResponsePacket = ci.readOperationResponsePacket();
+        OperationResponsePacket operationResponsePacket = commandDataConnection.readOperationResponsePacket();
 
         return new Response(
                 operationResponsePacket.getResponseCode(),
@@ -214,7 +358,26 @@ public final class PtpIpInitiator extends AbstractPtpInitiator {
     public void sendData(byte[] data) throws IOException {
         Validators.notNull("data", data);
 
-        co.writeData(transactionIDIterator.next(), data);
+        commandDataConnection.writeData(currentTransactionID(), data);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void sendData(ReadableByteChannel src, long length) throws IOException {
+        Validators.notNull("src", src);
+
+        commandDataConnection.writeData(currentTransactionID(), src, length);
+    }
+
+    private UINT32 currentTransactionID() {
+        UINT32 transactionID = this.transactionID;
+        if (transactionID == null) {
+            throw new IllegalStateException("No operation is sent.");
+        }
+
+        return transactionID;
     }
 
     /**
@@ -224,7 +387,53 @@ public final class PtpIpInitiator extends AbstractPtpInitiator {
     public void receiveData(OutputStream dst) throws IOException {
         Validators.notNull("dst", dst);
 
-        ci.readData(dst);
+        commandDataConnection.readData(dst);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void receiveData(WritableByteChannel dst) throws IOException {
+        Validators.notNull("dst", dst);
+
+        commandDataConnection.readData(dst);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public InputStream openData() throws IOException {
+        return commandDataConnection.openData();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Cancel packet is sent on the Event Connection, so it is not blocked by the running Data Phase.
+     */
+    @Override
+    public void cancelTransaction(UINT32 transactionID) throws IOException {
+        Validators.notNull("transactionID", transactionID);
+
+        CancelPacket cancelPacket = new CancelPacket(transactionID);
+        synchronized (eventConnection) {
+            eventConnection.write(cancelPacket);
+        }
+        LOGGER.debug("Sent Cancel: {}", cancelPacket);
+    }
+
+    // Abort
+
+    /**
+     * Close the Command Data Connection without closing this initiator,
+     * so the thread blocked on reading it is released with IOException, even with {@link PtpIpTransport#CHANNEL}.
+     * The events are still received, but the following operations fail with IOException.
+     */
+    public void abortCommandDataConnection() {
+        LOGGER.warn("Abort the Command Data Connection");
+        closeQuietly(commandDataConnection);
     }
 
     // Closeable
@@ -236,6 +445,11 @@ public final class PtpIpInitiator extends AbstractPtpInitiator {
     public void close() throws IOException {
         isClosed = true;
         listenerSet.clear();
+        eventWaiters.close();
+
+        if (ownsEventDispatcher) {
+            eventDispatcher.close();
+        }
 
         // (1) Close Event Connection
         if (eventConnection != null) {
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j.ptpip;
+
+import org.theta4j.ptpip.io.PtpIpChannelConnection;
+import org.theta4j.ptpip.io.PtpIpConnection;
+import org.theta4j.ptpip.io.PtpIpStreamConnection;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.channels.SocketChannel;
+
+/**
+ * A set of transports which PtpIpInitiator establishes the TCP connections with.
+ */
+public enum PtpIpTransport {
+    /**
+     * Blocking java.net.Socket and streams.
+     */
+    SOCKET {
+        @Override
+        PtpIpConnection connect(String host, int port, int connectTimeout, int readTimeout) throws IOException {
+            Socket socket = new Socket();
+            try {
+                socket.connect(new InetSocketAddress(host, port), connectTimeout);
+                socket.setSoTimeout(readTimeout);
+                return new PtpIpStreamConnection(socket);
+            } catch (IOException e) {
+                socket.close();
+                throw e;
+            }
+        }
+    },
+
+    /**
+     * java.nio SocketChannel and reusable direct buffers.
+     * The read timeout is not applied, because the read of SocketChannel does not time out.
+     * Use the deadline of the operation to detect the stalled read.
+     */
+    CHANNEL {
+        @Override
+        PtpIpConnection connect(String host, int port, int connectTimeout, int readTimeout) throws IOException {
+            SocketChannel channel = SocketChannel.open();
+            try {
+                channel.socket().connect(new InetSocketAddress(host, port), connectTimeout);
+                return new PtpIpChannelConnection(channel);
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+        }
+    };
+
+    /**
+     * Connect to the responder.
+     *
+     * @param connectTimeout The timeout of connecting in milliseconds, or 0 for no timeout.
+     * @param readTimeout    The timeout of each read in milliseconds, or 0 for no timeout.
+     */
+    abstract PtpIpConnection connect(String host, int port, int connectTimeout, int readTimeout) throws IOException;
+}
@@ -0,0 +1,436 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j.ptpip;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.theta4j.ptp.AbstractPtpInitiator;
+import org.theta4j.ptp.PtpEventDispatcher;
+import org.theta4j.ptp.PtpException;
+import org.theta4j.ptp.code.Code;
+import org.theta4j.ptp.code.ResponseCode;
+import org.theta4j.ptp.data.Response;
+import org.theta4j.ptp.type.UINT16;
+import org.theta4j.ptp.type.UINT32;
+import org.theta4j.util.Validators;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * PTP Initiator which re-establishes the PTP-IP connections when they are lost.
+ * <p>
+ * When an I/O error occurs on the connections, or the Event Connection is closed by an error,
+ * the connections are re-established with the backoff before the next operation is sent.
+ * The handshake of PTP-IP is done again, the session is reopened with the same SessionID,
+ * and the events are delivered to the listeners registered to this initiator.
+ * The waiters for the events are completed exceptionally with IOException, because their events are lost.
+ * The operation which was running when the connection is lost fails with IOException,
+ * but the following operations only wait while reconnecting.
+ */
+public final class ReconnectingPtpIpInitiator extends AbstractPtpInitiator {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReconnectingPtpIpInitiator.class);
+
+    // Property
+
+    private final UUID guid;
+    private final String host;
+    private final int port;
+    private final PtpIpTransport transport;
+    private final int connectTimeout;
+    private final int readTimeout;
+    private final Backoff backoff;
+
+    private final PtpEventDispatcher eventDispatcher;
+    private final boolean ownsEventDispatcher;
+
+    // State
+
+    private final Object connectLock = new Object();
+    private volatile PtpIpInitiator delegate; // null while disconnected
+    private volatile boolean isClosed = false;
+    private final List<Runnable> reconnectListeners = new CopyOnWriteArrayList<>();
+
+    // Connect
+
+    /**
+     * Connect to the PTP-Responder.
+     * The first connection is not retried, so the wrong address is reported immediately.
+     *
+     * @param guid            The GUID of the initiator.
+     * @param host            The host of the responder.
+     * @param port            The TCP port of the responder.
+     * @param transport       The transport of the connections.
+     * @param eventDispatcher The dispatcher of the events, or null to use own dispatcher.
+     *                        The given dispatcher is not closed when the initiator is closed.
+     * @param connectTimeout  The timeout of connecting in milliseconds, or 0 for no timeout.
+     * @param readTimeout     The timeout of each read in milliseconds, or 0 for no timeout.
+     * @param backoff         The backoff of reconnecting.
+     * @throws IOException              if an I/O error occurs while connecting the responder.
+     * @throws NullPointerException     if an argument except eventDispatcher is null.
+     * @throws IllegalArgumentException if port or a timeout is out of range.
+     */
+    public ReconnectingPtpIpInitiator(UUID guid, String host, int port, PtpIpTransport transport, PtpEventDispatcher eventDispatcher,
+                                      int connectTimeout, int readTimeout, Backoff backoff) throws IOException {
+        Validators.notNull("guid", guid);
+        Validators.notNull("host", host);
+        Validators.portNumber(port);
+        Validators.notNull("transport", transport);
+        Validators.rangeEq("connectTimeout", connectTimeout, 0, Integer.MAX_VALUE);
+        Validators.rangeEq("readTimeout", readTimeout, 0, Integer.MAX_VALUE);
+        Validators.notNull("backoff", backoff);
+
+        this.guid = guid;
+        this.host = host;
+        this.port = port;
+        this.transport = transport;
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        this.backoff = backoff;
+
+        // The dispatcher is shared by the connections, so the order of the events is kept across reconnecting.
+        this.ownsEventDispatcher = eventDispatcher == null;
+        this.eventDispatcher = ownsEventDispatcher ? new PtpEventDispatcher() : eventDispatcher;
+
+        try {
+            this.delegate = connect();
+        } catch (IOException | RuntimeException e) {
+            if (ownsEventDispatcher) {
+                this.eventDispatcher.close();
+            }
+            throw e;
+        }
+    }
+
+    private PtpIpInitiator connect() throws IOException {
+        // The waiters are completed by the reading thread, so they do not depend on the dispatcher,
+        // which may drop the event or hold it behind the slow listeners.
+        PtpIpInitiator initiator = new PtpIpInitiator(guid, host, port, transport, eventDispatcher, connectTimeout, readTimeout,
+                eventWaiters::complete);
+        initiator.addListener(listenerSet::onEvent);
+
+        UINT32 sessionID = getSessionID();
+        if (sessionID.longValue() == 0) {
+            return initiator;
+        }
+
+        try {
+            initiator.openSession(sessionID);
+        } catch (PtpException e) {
+            if (!e.value().equals(ResponseCode.SESSION_ALREADY_OPEN.value())) {
+                closeQuietly(initiator);
+                throw e;
+            }
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(initiator);
+            throw e;
+        }
+
+        return initiator;
+    }
+
+    // Getter
+
+    /**
+     * Returns true if the connections are established now.
+     */
+    public boolean isConnected() {
+        PtpIpInitiator current = delegate;
+        return current != null && !current.isClosed();
+    }
+
+    // Reconnect
+
+    /**
+     * Add the listener which is called after the connections are re-established and the session is reopened.
+     * The listener is called by the thread which sends the next operation, so it should not block.
+     *
+     * @param listener The listener to add.
+     * @throws NullPointerException if listener is null.
+     */
+    public void addReconnectListener(Runnable listener) {
+        Validators.notNull("listener", listener);
+
+        reconnectListeners.add(listener);
+    }
+
+    /**
+     * Close the current connections without closing this initiator.
+     * The connections are re-established before the next operation is sent.
+     * It releases the thread blocked on reading the connections.
+     */
+    public void disconnect() {
+        PtpIpInitiator current = delegate;
+        if (current != null) {
+            closeQuietly(current);
+        }
+    }
+
+    /**
+     * Returns the current connections, re-establishing them if they are lost.
+     */
+    private PtpIpInitiator reconnectIfNeeded() throws IOException {
+        PtpIpInitiator current = delegate;
+        if (current != null && !current.isClosed()) {
+            return current;
+        }
+
+        synchronized (connectLock) {
+            if (isClosed) {
+                throw new IOException("The initiator is closed.");
+            }
+
+            current = delegate;
+            if (current != null && !current.isClosed()) {
+                return current;
+            }
+
+            if (current != null) {
+                closeQuietly(current);
+                delegate = null;
+            }
+
+            // The events of the lost connection are not received anymore.
+            eventWaiters.failAll(new IOException("The connection is reset."));
+
+            current = reconnect();
+            delegate = current;
+
+            if (isClosed) {
+                // Closed while reconnecting
+                delegate = null;
+                closeQuietly(current);
+                throw new IOException("The initiator is closed.");
+            }
+        }
+
+        for (Runnable listener : reconnectListeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                LOGGER.warn("Reconnect listener failed", e);
+            }
+        }
+
+        return current;
+    }
+
+    private PtpIpInitiator reconnect() throws IOException {
+        IOException lastError = null;
+
+        for (int attempt = 0; attempt < backoff.getMaxAttempts() && !isClosed; attempt++) {
+            Duration delay = backoff.delay(attempt);
+            try {
+                Thread.sleep(delay.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while reconnecting.");
+            }
+
+            try {
+                PtpIpInitiator initiator = connect();
+                LOGGER.info("Reconnected to {}:{} at attempt {}", host, port, attempt + 1);
+                return initiator;
+            } catch (IOException e) {
+                LOGGER.warn("Failed to reconnect to " + host + ":" + port + " at attempt " + (attempt + 1), e);
+                lastError = e;
+            }
+        }
+
+        throw new IOException("Failed to reconnect in " + backoff.getMaxAttempts() + " attempts.", lastError);
+    }
+
+    /**
+     * Returns the current connections in the middle of the transaction, which can not be re-established.
+     */
+    private PtpIpInitiator connected() throws IOException {
+        PtpIpInitiator current = delegate;
+        if (current == null || current.isClosed()) {
+            throw new IOException("The connection is lost.");
+        }
+
+        return current;
+    }
+
+    /**
+     * Close the connections after an I/O error, so they are re-established before the next operation.
+     * PtpException does not break the connections.
+     */
+    private static IOException lost(PtpIpInitiator current, IOException e) {
+        if (!(e instanceof PtpException)) {
+            LOGGER.warn("The connection is lost", e);
+            closeQuietly(current);
+        }
+
+        return e;
+    }
+
+    private static void closeQuietly(PtpIpInitiator initiator) {
+        try {
+            initiator.close();
+        } catch (IOException e) {
+            LOGGER.debug("Error occurred while closing the connection", e);
+        }
+    }
+
+    // AbstractPtpInitiator
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the connections are lost, they are re-established before sending the operation.
+     */
+    @Override
+    public UINT32 sendOperation(Code<UINT16> operationCode, UINT32 p1, UINT32 p2, UINT32 p3, UINT32 p4, UINT32 p5) throws IOException {
+        PtpIpInitiator current = reconnectIfNeeded();
+
+        try {
+            return current.sendOperation(operationCode, p1, p2, p3, p4, p5);
+        } catch (IOException e) {
+            throw lost(current, e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the connections are lost, they are re-established before sending the operation.
+     */
+    @Override
+    public UINT32 sendOperationWithData(Code<UINT16> operationCode, UINT32 p1, UINT32 p2, UINT32 p3, UINT32 p4, UINT32 p5) throws IOException {
+        PtpIpInitiator current = reconnectIfNeeded();
+
+        try {
+            return current.sendOperationWithData(operationCode, p1, p2, p3, p4, p5);
+        } catch (IOException e) {
+            throw lost(current, e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Response receiveResponse() throws IOException {
+        PtpIpInitiator current = connected();
+
+        try {
+            return current.receiveResponse();
+        } catch (IOException e) {
+            throw lost(current, e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void sendData(byte[] data) throws IOException {
+        PtpIpInitiator current = connected();
+
+        try {
+            current.sendData(data);
+        } catch (IOException e) {
+            throw lost(current, e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void sendData(ReadableByteChannel src, long length) throws IOException {
+        PtpIpInitiator current = connected();
+
+        try {
+            current.sendData(src, length);
+        } catch (IOException e) {
+            throw lost(current, e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void receiveData(OutputStream dst) throws IOException {
+        PtpIpInitiator current = connected();
+
+        try {
+            current.receiveData(dst);
+        } catch (IOException e) {
+            throw lost(current, e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void receiveData(WritableByteChannel dst) throws IOException {
+        PtpIpInitiator current = connected();
+
+        try {
+            current.receiveData(dst);
+        } catch (IOException e) {
+            throw lost(current, e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public InputStream openData() throws IOException {
+        PtpIpInitiator current = connected();
+
+        try {
+            return current.openData();
+        } catch (IOException e) {
+            throw lost(current, e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void cancelTransaction(UINT32 transactionID) throws IOException {
+        connected().cancelTransaction(transactionID);
+    }
+
+    // Closeable
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        isClosed = true;
+        listenerSet.clear();
+        eventWaiters.close();
+
+        // Not synchronized on connectLock, so closing does not wait for the backoff.
+        try {
+            PtpIpInitiator current = delegate;
+            delegate = null;
+            if (current != null) {
+                current.close();
+            }
+        } finally {
+            if (ownsEventDispatcher) {
+                eventDispatcher.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j.ptpip.io;
+
+import org.theta4j.ptpip.packet.PtpIpPacket;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+
+import static org.theta4j.ptpip.packet.PtpIpPacket.Type.CANCEL;
+import static org.theta4j.ptpip.packet.PtpIpPacket.Type.DATA;
+import static org.theta4j.ptpip.packet.PtpIpPacket.Type.END_DATA;
+
+/**
+ * InputStream over the data of a Data Phase (StartData -&gt; [Data] -&gt; EndData).
+ * <p>
+ * The Data packets are read from the connection on demand,
+ * so the data is never buffered more than the buffer of the underlying connection.
+ * The length of the data is checked against the total data length in StartData packet.
+ * <p>
+ * The stream must be read to the end or closed before the next packet is read from the connection.
+ * Closing the stream skips the rest of the Data Phase.
+ * <p>
+ * If the responder cancels the Data Phase by Cancel packet, the stream ends there
+ * and the result of the transaction is reported by the following OperationResponse packet.
+ */
+public final class DataPhaseInputStream extends InputStream {
+    /**
+     * The total data length which means the length is unknown.
+     */
+    public static final long UNKNOWN_LENGTH = 0xFFFF_FFFF_FFFF_FFFFL;
+
+    /**
+     * The connection which the Data packets are read from.
+     */
+    interface Source {
+        /**
+         * Get type of next PTP-IP Packet without consuming it.
+         */
+        PtpIpPacket.Type nextType() throws IOException;
+
+        /**
+         * Consume the header and the TransactionID of Data or EndData packet,
+         * and returns the length of the data of the packet.
+         */
+        long readDataHeader() throws IOException;
+
+        /**
+         * Read the data of current packet up to len bytes.
+         *
+         * @return The number of bytes read, or -1 if the end of the connection is reached.
+         */
+        int readData(byte[] b, int off, int len) throws IOException;
+
+        /**
+         * Discard n bytes of the data of current packet.
+         */
+        void skipData(long n) throws IOException;
+
+        /**
+         * Consume Cancel packet.
+         */
+        void readCancel() throws IOException;
+    }
+
+    private final Source source;
+    private final long totalLength;
+
+    private final byte[] singleByte = new byte[1];
+
+    // State
+
+    private long announcedLength = 0; // The sum of data length of the packets read so far
+    private long packetRemaining = 0;
+    private boolean isLastPacket = false;
+    private boolean isCancelled = false;
+    private boolean isClosed = false;
+
+    // Constructor
+
+    DataPhaseInputStream(Source source, long totalLength) {
+        this.source = source;
+        this.totalLength = totalLength;
+    }
+
+    // Getter
+
+    /**
+     * Returns the total data length in StartData packet, or UNKNOWN_LENGTH.
+     */
+    public long getTotalLength() {
+        return totalLength;
+    }
+
+    /**
+     * Returns true if the Data Phase is ended by Cancel packet.
+     */
+    public boolean isCancelled() {
+        return isCancelled;
+    }
+
+    // InputStream
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int read() throws IOException {
+        return read(singleByte, 0, 1) == -1 ? -1 : singleByte[0] & 0xFF;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IOException if the data is longer or shorter than the total data length in StartData packet.
+     */
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (isClosed) {
+            throw new IOException("Stream closed");
+        }
+
+        return readInternal(b, off, len);
+    }
+
+    /**
+     * Skip the rest of the Data Phase and close the stream.
+     * The skipped data is discarded without being copied to the caller,
+     * and it is not checked against the total data length, because the data may be cut short by cancelling the transaction.
+     * The underlying connection is not closed.
+     *
+     * @throws IOException if an I/O error occurs while skipping the Data Phase.
+     */
+    @Override
+    public void close() throws IOException {
+        if (isClosed) {
+            return;
+        }
+
+        isClosed = true;
+
+        while (packetRemaining != 0 || !isLastPacket) {
+            if (packetRemaining == 0) {
+                nextPacket();
+            } else {
+                source.skipData(packetRemaining);
+                packetRemaining = 0;
+            }
+        }
+    }
+
+    // Length Check
+
+    static void checkNotExceeded(long totalLength, long announcedLength, long dataLength) throws IOException {
+        if (totalLength != UNKNOWN_LENGTH && Long.compareUnsigned(totalLength - announcedLength, dataLength) < 0) {
+            String message = String.format(Locale.US, "Data exceeds the total data length: total=%d, received=%d, next=%d.",
+                    totalLength, announcedLength, dataLength);
+            throw new IOException(message);
+        }
+    }
+
+    static void checkCompleted(long totalLength, long announcedLength) throws IOException {
+        if (totalLength != UNKNOWN_LENGTH && totalLength != announcedLength) {
+            String message = String.format(Locale.US, "Data is shorter than the total data length: total=%d, received=%d.",
+                    totalLength, announcedLength);
+            throw new IOException(message);
+        }
+    }
+
+    // Utility
+
+    private int readInternal(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+
+        while (packetRemaining == 0) {
+            if (isLastPacket) {
+                if (!isCancelled) {
+                    checkCompleted(totalLength, announcedLength);
+                }
+                return -1;
+            }
+
+            nextPacket();
+        }
+
+        int size = source.readData(b, off, (int) Math.min(len, packetRemaining));
+        if (size == -1) {
+            throw new EOFException();
+        }
+
+        packetRemaining -= size;
+
+        return size;
+    }
+
+    private void nextPacket() throws IOException {
+        PtpIpPacket.Type type = source.nextType();
+
+        if (type == CANCEL) {
+            source.readCancel();
+            isCancelled = true;
+            isLastPacket = true;
+            return;
+        }
+
+        if (type != DATA && type != END_DATA) {
+            throw new IOException("Expected Data or EndData but was " + type);
+        }
+
+        long dataLength = source.readDataHeader();
+        checkNotExceeded(totalLength, announcedLength, dataLength);
+
+        announcedLength += dataLength;
+        packetRemaining = dataLength;
+        isLastPacket = type == END_DATA;
+    }
+}
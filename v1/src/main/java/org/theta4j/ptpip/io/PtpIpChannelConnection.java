@@ -0,0 +1,554 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j.ptpip.io;
+
+import org.theta4j.ptp.PtpException;
+import org.theta4j.ptp.code.ResponseCode;
+import org.theta4j.ptp.type.UINT32;
+import org.theta4j.ptp.type.UINT64;
+import org.theta4j.ptpip.packet.*;
+import org.theta4j.util.Validators;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ByteChannel;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Locale;
+
+import static org.theta4j.ptpip.packet.PtpIpPacket.Type.*;
+
+/**
+ * PTP-IP connection on NIO channels.
+ * <p>
+ * Packets are received into a reusable direct buffer and the headers are decoded in place.
+ * The payload of the control packets is handed to the packet layer as a slice of the buffer,
+ * and the payload of the data packets is copied from the buffer to the destination directly.
+ * If the destination is a FileChannel, the payload is transferred from the channel to the file
+ * without passing through the buffer.
+ */
+public final class PtpIpChannelConnection implements PtpIpConnection {
+    private static final int HEADER_SIZE_IN_BYTES = UINT32.SIZE_IN_BYTES + PtpIpPacket.Type.SIZE_IN_BYTES;
+
+    /**
+     * Default size of the receive buffer and the send buffer in bytes.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Minimum size of the receive buffer and the send buffer in bytes.
+     */
+    public static final int MIN_BUFFER_SIZE = 1024;
+
+    private final ReadableByteChannel in;
+    private final WritableByteChannel out;
+
+    private final ByteBuffer readBuffer;
+    private final ByteBuffer writeBuffer;
+
+    // Header of the next packet
+
+    private boolean hasHeader = false;
+    private long nextLength;
+    private PtpIpPacket.Type nextType;
+
+    // Constructor
+
+    /**
+     * Wrap the channel by PtpIpChannelConnection.
+     *
+     * @param channel The connected channel such as SocketChannel.
+     * @throws NullPointerException if channel is null.
+     */
+    public PtpIpChannelConnection(ByteChannel channel) {
+        this(channel, channel);
+    }
+
+    /**
+     * Wrap the channels by PtpIpChannelConnection.
+     *
+     * @param in  The channel to read packets from.
+     * @param out The channel to write packets to.
+     * @throws NullPointerException if an argument is null.
+     */
+    public PtpIpChannelConnection(ReadableByteChannel in, WritableByteChannel out) {
+        this(in, out, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Wrap the channels by PtpIpChannelConnection.
+     *
+     * @param in         The channel to read packets from.
+     * @param out        The channel to write packets to.
+     * @param bufferSize The size of the receive buffer and the send buffer in bytes.
+     * @throws NullPointerException     if an argument is null.
+     * @throws IllegalArgumentException if bufferSize is smaller than MIN_BUFFER_SIZE.
+     */
+    public PtpIpChannelConnection(ReadableByteChannel in, WritableByteChannel out, int bufferSize) {
+        Validators.notNull("in", in);
+        Validators.notNull("out", out);
+
+        if (bufferSize < MIN_BUFFER_SIZE) {
+            String message = String.format(Locale.US, "bufferSize must be %d or more, but was %d.", MIN_BUFFER_SIZE, bufferSize);
+            throw new IllegalArgumentException(message);
+        }
+
+        this.in = in;
+        this.out = out;
+
+        this.readBuffer = ByteBuffer.allocateDirect(bufferSize).order(ByteOrder.LITTLE_ENDIAN);
+        this.readBuffer.flip(); // Empty
+        this.writeBuffer = ByteBuffer.allocateDirect(bufferSize).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    // Check Next
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public PtpIpPacket.Type nextType() throws IOException {
+        if (!hasHeader) {
+            fill(HEADER_SIZE_IN_BYTES);
+
+            nextLength = readBuffer.getInt() & 0xFFFF_FFFFL;
+            nextType = PtpIpPacket.Type.valueOf(readBuffer.getInt());
+            hasHeader = true;
+
+            if (nextLength < HEADER_SIZE_IN_BYTES) {
+                throw new IOException("Too short packet length: " + nextLength);
+            }
+        }
+
+        return nextType;
+    }
+
+    // Read Packet
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public InitCommandAckPacket readInitCommandAckPacket() throws IOException {
+        return InitCommandAckPacket.readPayload(readPayload(INIT_COMMAND_ACK));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public InitEventAckPacket readInitEventAckPacket() throws IOException {
+        return InitEventAckPacket.readPayload(readPayload(INIT_EVENT_ACK));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public OperationResponsePacket readOperationResponsePacket() throws IOException {
+        return OperationResponsePacket.readPayload(readPayload(OPERATION_RESPONSE));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EventPacket readEventPacket() throws IOException {
+        return EventPacket.readPayload(readPayload(EVENT));
+    }
+
+    // Read Data
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void readData(OutputStream dst) throws IOException {
+        Validators.notNull("dst", dst);
+
+        readData(Channels.newChannel(dst));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If dst is a FileChannel, the data is transferred from the channel to the file by
+     * {@link FileChannel#transferFrom(ReadableByteChannel, long, long)}.
+     * If the responder cancels the Data Phase by Cancel packet, this method returns there.
+     */
+    @Override
+    public void readData(WritableByteChannel dst) throws IOException {
+        Validators.notNull("dst", dst);
+
+        long totalLength = readStartData();
+        long announcedLength = 0;
+
+        for (; ; ) {
+            PtpIpPacket.Type type = nextType();
+
+            if (type == CANCEL) {
+                readPayload(CANCEL);
+                return;
+            }
+
+            if (type != DATA && type != END_DATA) {
+                throw new IOException("Expected Data or EndData but was " + type);
+            }
+
+            long dataLength = readDataHeader();
+            DataPhaseInputStream.checkNotExceeded(totalLength, announcedLength, dataLength);
+            announcedLength += dataLength;
+
+            if (dst instanceof FileChannel) {
+                transfer(dataLength, (FileChannel) dst);
+            } else {
+                transfer(dataLength, dst);
+            }
+
+            if (type == END_DATA) {
+                DataPhaseInputStream.checkCompleted(totalLength, announcedLength);
+                return;
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public DataPhaseInputStream openData() throws IOException {
+        return new DataPhaseInputStream(dataSource, readStartData());
+    }
+
+    // Write
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(PtpIpPacket packet) throws IOException {
+        Validators.notNull("packet", packet);
+
+        put(packet);
+        flush();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeData(UINT32 transactionID, byte[] data) throws IOException {
+        Validators.notNull("transactionID", transactionID);
+        Validators.notNull("data", data);
+
+        // StartData
+        put(new StartDataPacket(transactionID, new UINT64(data.length)));
+
+        // EndData
+        long packetLength = (long) HEADER_SIZE_IN_BYTES + UINT32.SIZE_IN_BYTES + data.length;
+        ensureWritable(HEADER_SIZE_IN_BYTES + UINT32.SIZE_IN_BYTES);
+        writeBuffer.putInt((int) packetLength);
+        writeBuffer.putInt(END_DATA.value().intValue());
+        writeBuffer.putInt(transactionID.intValue());
+        put(data);
+
+        flush();
+    }
+
+    /**
+     * {@inheritDoc}
+     * The size of each Data packet is bounded by the size of the write buffer.
+     */
+    @Override
+    public void writeData(UINT32 transactionID, ReadableByteChannel src, long length) throws IOException {
+        Validators.notNull("transactionID", transactionID);
+        Validators.notNull("src", src);
+        Validators.rangeEq("length", length, 0L, Long.MAX_VALUE);
+
+        // StartData
+        put(new StartDataPacket(transactionID, new UINT64(length)));
+
+        // Data and EndData
+        int dataHeaderSize = HEADER_SIZE_IN_BYTES + UINT32.SIZE_IN_BYTES;
+        int maxChunkLength = writeBuffer.capacity() - dataHeaderSize;
+        long remaining = length;
+        do {
+            int chunkLength = (int) Math.min(maxChunkLength, remaining);
+            remaining -= chunkLength;
+            PtpIpPacket.Type type = remaining == 0 ? END_DATA : DATA;
+
+            ensureWritable(dataHeaderSize + chunkLength);
+            writeBuffer.putInt(dataHeaderSize + chunkLength);
+            writeBuffer.putInt(type.value().intValue());
+            writeBuffer.putInt(transactionID.intValue());
+
+            // Read the chunk into the write buffer directly
+            int limit = writeBuffer.limit();
+            writeBuffer.limit(writeBuffer.position() + chunkLength);
+            try {
+                PtpIpOutputStream.readFully(src, writeBuffer);
+            } finally {
+                writeBuffer.limit(limit);
+            }
+        } while (remaining > 0);
+
+        flush();
+    }
+
+    // Closeable
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            in.close();
+        } finally {
+            out.close();
+        }
+    }
+
+    // Utility (Read)
+
+    private final DataPhaseInputStream.Source dataSource = new DataPhaseInputStream.Source() {
+        @Override
+        public PtpIpPacket.Type nextType() throws IOException {
+            return PtpIpChannelConnection.this.nextType();
+        }
+
+        @Override
+        public long readDataHeader() throws IOException {
+            return PtpIpChannelConnection.this.readDataHeader();
+        }
+
+        @Override
+        public int readData(byte[] b, int off, int len) throws IOException {
+            fill(1);
+
+            int size = Math.min(len, readBuffer.remaining());
+            readBuffer.get(b, off, size);
+
+            return size;
+        }
+
+        @Override
+        public void skipData(long n) throws IOException {
+            long remaining = n;
+
+            while (0 < remaining) {
+                fill(1);
+
+                int size = (int) Math.min(remaining, readBuffer.remaining());
+                readBuffer.position(readBuffer.position() + size);
+                remaining -= size;
+            }
+        }
+
+        @Override
+        public void readCancel() throws IOException {
+            readPayload(CANCEL);
+        }
+    };
+
+    /**
+     * Consume StartData packet and returns the total data length.
+     */
+    private long readStartData() throws IOException {
+        if (nextType() == OPERATION_RESPONSE) {
+            OperationResponsePacket response = readOperationResponsePacket();
+
+            if (ResponseCode.find(response.getResponseCode().intValue()) == ResponseCode.OK) {
+                throw new IOException("Expected StartData but was OperationResponse(OK)");
+            } else {
+                throw new PtpException(response.getResponseCode());
+            }
+        }
+
+        StartDataPacket startData = StartDataPacket.readPayload(readPayload(START_DATA));
+
+        return startData.getTotalDataLength().longValue();
+    }
+
+    /**
+     * Consume the header and the TransactionID of Data or EndData packet,
+     * and returns the length of the data.
+     */
+    private long readDataHeader() throws IOException {
+        nextType();
+
+        long dataLength = nextLength - HEADER_SIZE_IN_BYTES - UINT32.SIZE_IN_BYTES; // -TransactionID
+        if (dataLength < 0) {
+            throw new IOException("Too short packet length: " + nextLength);
+        }
+
+        hasHeader = false;
+
+        // Skip TransactionID
+        fill(UINT32.SIZE_IN_BYTES);
+        readBuffer.position(readBuffer.position() + UINT32.SIZE_IN_BYTES);
+
+        return dataLength;
+    }
+
+    /**
+     * Consume the next packet and returns its payload as a slice of the receive buffer.
+     * The slice is valid until the next read operation.
+     */
+    private ByteBuffer readPayload(PtpIpPacket.Type expected) throws IOException {
+        assertNextTypeIs(expected);
+
+        long payloadLength = nextLength - HEADER_SIZE_IN_BYTES;
+        if (readBuffer.capacity() < payloadLength) {
+            throw new IOException(String.format(Locale.US, "Too large %s packet: %d bytes.", expected, nextLength));
+        }
+
+        fill((int) payloadLength);
+
+        ByteBuffer payload = readBuffer.slice();
+        payload.limit((int) payloadLength);
+
+        readBuffer.position(readBuffer.position() + (int) payloadLength);
+        hasHeader = false;
+
+        return payload;
+    }
+
+    /**
+     * Read from the channel until the receive buffer has at least size bytes.
+     */
+    private void fill(int size) throws IOException {
+        if (size <= readBuffer.remaining()) {
+            return;
+        }
+
+        readBuffer.compact();
+        try {
+            while (readBuffer.position() < size) {
+                if (in.read(readBuffer) == -1) {
+                    throw new EOFException();
+                }
+            }
+        } finally {
+            readBuffer.flip();
+        }
+    }
+
+    /**
+     * Transfer the length bytes from the channel to dst through the receive buffer.
+     */
+    private void transfer(long length, WritableByteChannel dst) throws IOException {
+        long remaining = length;
+
+        while (0 < remaining) {
+            fill(1);
+            remaining -= drain(remaining, dst);
+        }
+    }
+
+    /**
+     * Transfer the length bytes from the channel to dst at the current position of dst.
+     * The bytes already in the receive buffer are written first,
+     * and the rest are transferred from the channel to dst directly.
+     */
+    private void transfer(long length, FileChannel dst) throws IOException {
+        long remaining = length;
+
+        while (0 < remaining) {
+            if (readBuffer.hasRemaining()) {
+                remaining -= drain(remaining, dst);
+                continue;
+            }
+
+            long position = dst.position();
+            long count = dst.transferFrom(in, position, remaining);
+            if (count == 0) {
+                // End of stream, or the position is beyond the end of the file
+                fill(1);
+                continue;
+            }
+
+            dst.position(position + count);
+            remaining -= count;
+        }
+    }
+
+    /**
+     * Write the bytes in the receive buffer to dst up to max bytes.
+     *
+     * @return The number of bytes written.
+     */
+    private int drain(long max, WritableByteChannel dst) throws IOException {
+        int chunkSize = (int) Math.min(max, readBuffer.remaining());
+        int limit = readBuffer.limit();
+
+        readBuffer.limit(readBuffer.position() + chunkSize);
+        try {
+            while (readBuffer.hasRemaining()) {
+                dst.write(readBuffer);
+            }
+        } finally {
+            readBuffer.limit(limit);
+        }
+
+        return chunkSize;
+    }
+
+    private void assertNextTypeIs(PtpIpPacket.Type expected) throws IOException {
+        PtpIpPacket.Type actual = nextType();
+
+        if (actual != expected) {
+            throw new RuntimeException(String.format("Expected %s but was %s", expected, actual));
+        }
+    }
+
+    // Utility (Write)
+
+    private void put(PtpIpPacket packet) throws IOException {
+        int size = packet.size();
+
+        if (writeBuffer.capacity() < size) {
+            put(packet.bytes());
+            return;
+        }
+
+        ensureWritable(size);
+        packet.writeTo(writeBuffer);
+    }
+
+    private void put(byte[] bytes) throws IOException {
+        int offset = 0;
+
+        while (offset < bytes.length) {
+            ensureWritable(1);
+
+            int length = Math.min(writeBuffer.remaining(), bytes.length - offset);
+            writeBuffer.put(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    private void ensureWritable(int size) throws IOException {
+        if (writeBuffer.remaining() < size) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        writeBuffer.flip();
+        try {
+            while (writeBuffer.hasRemaining()) {
+                out.write(writeBuffer);
+            }
+        } finally {
+            writeBuffer.clear();
+        }
+    }
+}
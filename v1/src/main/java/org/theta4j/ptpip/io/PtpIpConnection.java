@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j.ptpip.io;
+
+import org.theta4j.ptp.type.UINT32;
+import org.theta4j.ptpip.packet.*;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * A TCP connection of PTP-IP, which is used as Command/Data Connection or Event Connection.
+ */
+public interface PtpIpConnection extends Closeable {
+    // Check Next
+
+    /**
+     * Get type of next PTP-IP Packet.
+     * This method does not consume the packet.
+     *
+     * @throws IOException if an I/O error occurs while reading the connection.
+     */
+    PtpIpPacket.Type nextType() throws IOException;
+
+    // Read Packet
+
+    /**
+     * Read InitCommandAckPacket from the connection.
+     *
+     * @throws RuntimeException if next packet is not InitCommandAckPacket.
+     * @throws IOException      if an I/O error occurs while reading the connection.
+     */
+    InitCommandAckPacket readInitCommandAckPacket() throws IOException;
+
+    /**
+     * Read InitEventAckPacket from the connection.
+     *
+     * @throws RuntimeException if next packet is not InitEventAckPacket.
+     * @throws IOException      if an I/O error occurs while reading the connection.
+     */
+    InitEventAckPacket readInitEventAckPacket() throws IOException;
+
+    /**
+     * Read OperationResponsePacket from the connection.
+     *
+     * @throws RuntimeException if next packet is not OperationResponsePacket.
+     * @throws IOException      if an I/O error occurs while reading the connection.
+     */
+    OperationResponsePacket readOperationResponsePacket() throws IOException;
+
+    /**
+     * Read EventPacket from the connection.
+     *
+     * @throws RuntimeException if next packet is not EventPacket.
+     * @throws IOException      if an I/O error occurs while reading the connection.
+     */
+    EventPacket readEventPacket() throws IOException;
+
+    // Read Data
+
+    /**
+     * Process Data Phase (StartData -&gt; [Data] -&gt; EndData) and writes all data to dst.
+     * If the responder cancels the Data Phase by Cancel packet, this method returns there.
+     *
+     * @param dst The destination of the data.
+     * @throws RuntimeException if it is not Data Phase.
+     * @throws IOException      if an I/O error occurs while reading the connection or writing dst.
+     */
+    void readData(OutputStream dst) throws IOException;
+
+    /**
+     * Process Data Phase (StartData -&gt; [Data] -&gt; EndData) and writes all data to dst.
+     * If the responder cancels the Data Phase by Cancel packet, this method returns there.
+     * The data is written without allocating a byte array for each Data packet.
+     * If dst is a FileChannel, the data is written from the current position of the file,
+     * and the position is advanced by the length of the data.
+     *
+     * @param dst The destination of the data.
+     * @throws RuntimeException if it is not Data Phase.
+     * @throws IOException      if an I/O error occurs while reading the connection or writing dst.
+     */
+    void readData(WritableByteChannel dst) throws IOException;
+
+    /**
+     * Read StartData packet and returns the stream over the data of the Data Phase.
+     * The Data packets are read from the connection on demand while reading the returned stream,
+     * so the returned stream must be read to the end or closed before reading the next packet.
+     *
+     * @throws RuntimeException if it is not Data Phase.
+     * @throws IOException      if an I/O error occurs while reading the connection.
+     */
+    DataPhaseInputStream openData() throws IOException;
+
+    // Write
+
+    /**
+     * Write PTP-IP Packet to the connection.
+     *
+     * @param packet The packet to write.
+     * @throws IOException if an I/O error occurs while writing the connection.
+     */
+    void write(PtpIpPacket packet) throws IOException;
+
+    /**
+     * Write data to the connection as content of Data Phase (StartData -&gt; [Data] -&gt; EndData)
+     *
+     * @param transactionID The transaction ID of the Data Phase.
+     * @param data          The data to write.
+     * @throws IOException if an I/O error occurs while writing the connection.
+     */
+    void writeData(UINT32 transactionID, byte[] data) throws IOException;
+
+    /**
+     * Write data read from src to the connection as content of Data Phase (StartData -&gt; [Data] -&gt; EndData)
+     * The data is split into Data packets of the bounded size, so the whole data is never held in memory.
+     *
+     * @param transactionID The transaction ID of the Data Phase.
+     * @param src           The source of the data to write.
+     * @param length        The number of bytes to read from src and write.
+     * @throws EOFException if src reaches end of stream before length bytes are read.
+     * @throws IOException  if an I/O error occurs while reading src or writing the connection.
+     */
+    void writeData(UINT32 transactionID, ReadableByteChannel src, long length) throws IOException;
+}
@@ -11,15 +11,42 @@ import org.theta4j.ptp.type.UINT32;
 import org.theta4j.ptpip.packet.*;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.util.Locale;
 
 import static org.theta4j.ptpip.packet.PtpIpPacket.Type.*;
 
 /**
  * InputStream of PTP-IP.
+ * <p>
+ * The header of each packet is read exactly once into a reusable buffer,
+ * and the read methods dispatch on the decoded type without re-parsing the header.
+ * The payload of the control packets is read into a reusable buffer and decoded from there,
+ * and the data of the Data Phase is read from the stream directly.
  */
 public final class PtpIpInputStream implements Closeable {
+    private static final int TRANSFER_BUFFER_SIZE = 8 * 1024;
+    private static final int HEADER_SIZE_IN_BYTES = UINT32.SIZE_IN_BYTES + PtpIpPacket.Type.SIZE_IN_BYTES;
+    private static final int DATA_HEADER_SIZE_IN_BYTES = HEADER_SIZE_IN_BYTES + UINT32.SIZE_IN_BYTES; // +TransactionID
+    private static final int INITIAL_PAYLOAD_BUFFER_SIZE = 64;
+
     private final PtpInputStream pis;
 
+    // Reusable buffers
+    private final byte[] headerBuffer = new byte[HEADER_SIZE_IN_BYTES];
+    private final ByteBuffer headerView = ByteBuffer.wrap(headerBuffer).order(ByteOrder.LITTLE_ENDIAN);
+    private byte[] payloadBuffer = new byte[INITIAL_PAYLOAD_BUFFER_SIZE];
+    private final byte[] transferBuffer = new byte[TRANSFER_BUFFER_SIZE];
+    private final ByteBuffer transferView = ByteBuffer.wrap(transferBuffer);
+
+    // Header of the next packet
+
+    private boolean hasHeader = false;
+    private long nextLength;
+    private PtpIpPacket.Type nextType;
+
     /**
      * Wrap InputStream by PtpIpInputStream.
      *
@@ -33,24 +60,25 @@ public final class PtpIpInputStream implements Closeable {
 
     /**
      * Get type of next PTP-IP Packet.
-     * This method does not change the position of stream.
+     * The header of the packet is read from the stream only once,
+     * and kept until the packet is consumed by the read methods.
      *
      * @throws IOException
      */
     public PtpIpPacket.Type nextType() throws IOException {
-        pis.mark(UINT32.SIZE_IN_BYTES + UINT32.SIZE_IN_BYTES);
-
-        // Skip Length Value on Header
-        long sizeToSkip = UINT32.SIZE_IN_BYTES;
-        if (pis.skip(sizeToSkip) != sizeToSkip) {
-            throw new IOException();
-        }
+        if (!hasHeader) {
+            readFully(headerBuffer, HEADER_SIZE_IN_BYTES);
 
-        UINT32 typeValue = pis.readUINT32();
+            nextLength = headerView.getInt(0) & 0xFFFF_FFFFL;
+            nextType = PtpIpPacket.Type.valueOf(headerView.getInt(UINT32.SIZE_IN_BYTES));
+            hasHeader = true;
 
-        pis.reset();
+            if (nextLength < HEADER_SIZE_IN_BYTES) {
+                throw new IOException("Too short packet length: " + nextLength);
+            }
+        }
 
-        return PtpIpPacket.Type.valueOf(typeValue);
+        return nextType;
     }
 
     // Read Packet
@@ -62,9 +90,7 @@ public final class PtpIpInputStream implements Closeable {
      * @throws IOException
      */
     public InitCommandRequestPacket readInitCommandRequestPacket() throws IOException {
-        assertNextTypeIs(INIT_COMMAND_REQUEST);
-
-        return InitCommandRequestPacket.read(pis);
+        return InitCommandRequestPacket.readPayload(readPayload(INIT_COMMAND_REQUEST));
     }
 
     /**
@@ -74,9 +100,7 @@ public final class PtpIpInputStream implements Closeable {
      * @throws IOException
      */
     public InitCommandAckPacket readInitCommandAckPacket() throws IOException {
-        assertNextTypeIs(INIT_COMMAND_ACK);
-
-        return InitCommandAckPacket.read(pis);
+        return InitCommandAckPacket.readPayload(readPayload(INIT_COMMAND_ACK));
     }
 
     /**
@@ -86,9 +110,7 @@ public final class PtpIpInputStream implements Closeable {
      * @throws IOException
      */
     public InitEventRequestPacket readInitEventRequestPacket() throws IOException {
-        assertNextTypeIs(INIT_EVENT_REQUEST);
-
-        return InitEventRequestPacket.read(pis);
+        return InitEventRequestPacket.readPayload(readPayload(INIT_EVENT_REQUEST));
     }
 
     /**
@@ -98,9 +120,7 @@ public final class PtpIpInputStream implements Closeable {
      * @throws IOException
      */
     public InitEventAckPacket readInitEventAckPacket() throws IOException {
-        assertNextTypeIs(INIT_EVENT_ACK);
-
-        return InitEventAckPacket.read(pis);
+        return InitEventAckPacket.readPayload(readPayload(INIT_EVENT_ACK));
     }
 
     /**
@@ -110,9 +130,7 @@ public final class PtpIpInputStream implements Closeable {
      * @throws IOException
      */
     public InitFailPacket readInitFailPacket() throws IOException {
-        assertNextTypeIs(INIT_FAIL);
-
-        return InitFailPacket.read(pis);
+        return InitFailPacket.readPayload(readPayload(INIT_FAIL));
     }
 
     /**
@@ -122,9 +140,7 @@ public final class PtpIpInputStream implements Closeable {
      * @throws IOException
      */
     public OperationRequestPacket readOperationRequestPacket() throws IOException {
-        assertNextTypeIs(OPERATION_REQUEST);
-
-        return OperationRequestPacket.read(pis);
+        return OperationRequestPacket.readPayload(readPayload(OPERATION_REQUEST));
     }
 
     /**
@@ -134,9 +150,7 @@ public final class PtpIpInputStream implements Closeable {
      * @throws IOException
      */
     public OperationResponsePacket readOperationResponsePacket() throws IOException {
-        assertNextTypeIs(OPERATION_RESPONSE);
-
-        return OperationResponsePacket.read(pis);
+        return OperationResponsePacket.readPayload(readPayload(OPERATION_RESPONSE));
     }
 
     /**
@@ -146,9 +160,7 @@ public final class PtpIpInputStream implements Closeable {
      * @throws IOException
      */
     public EventPacket readEventPacket() throws IOException {
-        assertNextTypeIs(EVENT);
-
-        return EventPacket.read(pis);
+        return EventPacket.readPayload(readPayload(EVENT));
     }
 
     /**
@@ -158,9 +170,7 @@ public final class PtpIpInputStream implements Closeable {
      * @throws IOException
      */
     public StartDataPacket readStartDataPacket() throws IOException {
-        assertNextTypeIs(START_DATA);
-
-        return StartDataPacket.read(pis);
+        return StartDataPacket.readPayload(readPayload(START_DATA));
     }
 
     /**
@@ -170,9 +180,7 @@ public final class PtpIpInputStream implements Closeable {
      * @throws IOException
      */
     public DataPacket readDataPacket() throws IOException {
-        assertNextTypeIs(DATA);
-
-        return DataPacket.read(pis);
+        return DataPacket.readPayload(readPayload(DATA));
     }
 
     /**
@@ -182,9 +190,7 @@ public final class PtpIpInputStream implements Closeable {
      * @throws IOException
      */
     public EndDataPacket readEndDataPacket() throws IOException {
-        assertNextTypeIs(END_DATA);
-
-        return EndDataPacket.read(pis);
+        return EndDataPacket.readPayload(readPayload(END_DATA));
     }
 
     /**
@@ -194,9 +200,7 @@ public final class PtpIpInputStream implements Closeable {
      * @throws IOException
      */
     public CancelPacket readCancelPacket() throws IOException {
-        assertNextTypeIs(CANCEL);
-
-        return CancelPacket.read(pis);
+        return CancelPacket.readPayload(readPayload(CANCEL));
     }
 
     /**
@@ -206,9 +210,7 @@ public final class PtpIpInputStream implements Closeable {
      * @throws IOException
      */
     public ProbeRequestPacket readProbeRequestPacket() throws IOException {
-        assertNextTypeIs(PROBE_REQUEST);
-
-        return ProbeRequestPacket.read(pis);
+        return ProbeRequestPacket.readPayload(readPayload(PROBE_REQUEST));
     }
 
     /**
@@ -218,9 +220,7 @@ public final class PtpIpInputStream implements Closeable {
      * @throws IOException
      */
     public ProbeResponsePacket readProbeResponsePacket() throws IOException {
-        assertNextTypeIs(PROBE_RESPONSE);
-
-        return ProbeResponsePacket.read(pis);
+        return ProbeResponsePacket.readPayload(readPayload(PROBE_RESPONSE));
     }
 
     // Read Data
@@ -238,36 +238,69 @@ public final class PtpIpInputStream implements Closeable {
 
     /**
      * Process Data Phase (StartData -&gt; [Data] -&gt; EndData) and writes all data to dst.
+     * If the responder cancels the Data Phase by Cancel packet, this method returns there.
      *
-     * @param dst
+     * @param dst The destination of the data.
      * @throws RuntimeException if it is not Data Phase.
      * @throws IOException
      */
     public void readData(OutputStream dst) throws IOException {
+        readData((buffer, length) -> dst.write(buffer, 0, length));
+    }
+
+    /**
+     * Process Data Phase (StartData -&gt; [Data] -&gt; EndData) and writes all data to dst.
+     * The payload of the Data packets is passed to dst through a reusable buffer.
+     *
+     * @param dst The destination of the data.
+     * @throws RuntimeException if it is not Data Phase.
+     * @throws IOException
+     */
+    public void readData(WritableByteChannel dst) throws IOException {
+        readData((buffer, length) -> {
+            transferView.clear();
+            transferView.limit(length);
+            while (transferView.hasRemaining()) {
+                dst.write(transferView);
+            }
+        });
+    }
+
+    private void readData(DataSink dst) throws IOException {
+        DataPhaseInputStream data = openData();
+
+        for (; ; ) {
+            int size = data.read(transferBuffer, 0, transferBuffer.length);
+            if (size == -1) {
+                return;
+            }
+            dst.write(transferBuffer, size);
+        }
+    }
+
+    /**
+     * Read StartData packet and returns the stream over the data of the Data Phase.
+     * The Data packets are read from this stream on demand while reading the returned stream,
+     * so the returned stream must be read to the end or closed before reading the next packet.
+     *
+     * @throws RuntimeException if it is not Data Phase.
+     * @throws PtpException     if the PTP-Responder returned OperationResponse with error instead of data.
+     * @throws IOException
+     */
+    public DataPhaseInputStream openData() throws IOException {
         if (nextType() == OPERATION_RESPONSE) {
             OperationResponsePacket response = readOperationResponsePacket();
 
-            if (response.getResponseCode().equals(ResponseCode.OK.value())) {
+            if (ResponseCode.find(response.getResponseCode().intValue()) == ResponseCode.OK) {
                 throw new IOException("Expected StartData but was OperationResponse(OK)");
             } else {
                 throw new PtpException(response.getResponseCode());
             }
         }
 
-        readStartDataPacket();
+        StartDataPacket startData = readStartDataPacket();
 
-        for (; ; ) {
-            switch (nextType()) {
-                case DATA:
-                    dst.write(readDataPacket().getDataPayload());
-                    break;
-                case END_DATA:
-                    dst.write(readEndDataPacket().getDataPayload());
-                    return;
-                default:
-                    throw new IOException("Expected Data or EndData but was " + nextType());
-            }
-        }
+        return new DataPhaseInputStream(dataSource, startData.getTotalDataLength().longValue());
     }
 
     // Closeable
@@ -279,6 +312,95 @@ public final class PtpIpInputStream implements Closeable {
 
     // Utility
 
+    private interface DataSink {
+        void write(byte[] buffer, int length) throws IOException;
+    }
+
+    private final DataPhaseInputStream.Source dataSource = new DataPhaseInputStream.Source() {
+        @Override
+        public PtpIpPacket.Type nextType() throws IOException {
+            return PtpIpInputStream.this.nextType();
+        }
+
+        @Override
+        public long readDataHeader() throws IOException {
+            nextType();
+
+            long dataLength = nextLength - DATA_HEADER_SIZE_IN_BYTES;
+            if (dataLength < 0) {
+                throw new IOException("Too short packet length: " + nextLength);
+            }
+
+            hasHeader = false;
+
+            // Skip TransactionID
+            readFully(headerBuffer, UINT32.SIZE_IN_BYTES);
+
+            return dataLength;
+        }
+
+        @Override
+        public int readData(byte[] b, int off, int len) throws IOException {
+            return pis.read(b, off, len);
+        }
+
+        @Override
+        public void skipData(long n) throws IOException {
+            long remaining = n;
+
+            while (0 < remaining) {
+                long size = pis.skip(remaining);
+                if (size <= 0) {
+                    // skip() of some streams returns 0 before the end of stream
+                    if (pis.read() == -1) {
+                        throw new EOFException();
+                    }
+                    size = 1;
+                }
+                remaining -= size;
+            }
+        }
+
+        @Override
+        public void readCancel() throws IOException {
+            readPayload(CANCEL);
+        }
+    };
+
+    /**
+     * Consume the next packet and returns its payload.
+     * The returned buffer is valid until the next read operation.
+     */
+    private ByteBuffer readPayload(PtpIpPacket.Type expected) throws IOException {
+        assertNextTypeIs(expected);
+
+        long payloadLength = nextLength - HEADER_SIZE_IN_BYTES;
+        if (Integer.MAX_VALUE < payloadLength) {
+            throw new IOException(String.format(Locale.US, "Too large %s packet: %d bytes.", expected, nextLength));
+        }
+
+        if (payloadBuffer.length < payloadLength) {
+            payloadBuffer = new byte[(int) payloadLength];
+        }
+
+        hasHeader = false;
+        readFully(payloadBuffer, (int) payloadLength);
+
+        return ByteBuffer.wrap(payloadBuffer, 0, (int) payloadLength);
+    }
+
+    private void readFully(byte[] buffer, int length) throws IOException {
+        int offset = 0;
+
+        while (offset < length) {
+            int size = pis.read(buffer, offset, length - offset);
+            if (size == -1) {
+                throw new EOFException();
+            }
+            offset += size;
+        }
+    }
+
     private void assertNextTypeIs(PtpIpPacket.Type expected) throws IOException {
         PtpIpPacket.Type actual = nextType();
 
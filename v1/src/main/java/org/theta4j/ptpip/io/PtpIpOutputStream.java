@@ -9,17 +9,33 @@ import org.theta4j.ptp.type.UINT32;
 import org.theta4j.ptp.type.UINT64;
 import org.theta4j.ptpip.packet.PtpIpPacket;
 import org.theta4j.ptpip.packet.StartDataPacket;
+import org.theta4j.util.Validators;
 
 import java.io.Closeable;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
 
 /**
  * OutputStream of PTP-IP.
  */
 public final class PtpIpOutputStream implements Closeable {
+    private static final int INITIAL_BUFFER_SIZE = 256;
+    private static final int DATA_HEADER_SIZE_IN_BYTES = UINT32.SIZE_IN_BYTES + PtpIpPacket.Type.SIZE_IN_BYTES + UINT32.SIZE_IN_BYTES;
+
+    /**
+     * Maximum size of the data in a Data packet written by {@link #writeData(UINT32, ReadableByteChannel, long)}.
+     */
+    public static final int MAX_DATA_CHUNK_SIZE = 64 * 1024;
+
     private final PtpOutputStream os;
 
+    // Reusable buffer to encode packets
+    private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
     /**
      * Wrap OutputStream by PacketOutputStream
      *
@@ -36,7 +52,11 @@ public final class PtpIpOutputStream implements Closeable {
      * @throws IOException
      */
     public void write(PtpIpPacket packet) throws IOException {
-        os.write(packet.bytes());
+        ensureCapacity(packet.size());
+
+        buffer.clear();
+        packet.writeTo(buffer);
+        os.write(buffer.array(), 0, buffer.position());
         os.flush();
     }
 
@@ -55,15 +75,78 @@ public final class PtpIpOutputStream implements Closeable {
         long packetLength = (long) UINT32.SIZE_IN_BYTES + PtpIpPacket.Type.SIZE_IN_BYTES + UINT32.SIZE_IN_BYTES + data.length;
 
         // Send EndData
-        os.write(new UINT32(packetLength));
-        os.write(PtpIpPacket.Type.END_DATA.value());
-        os.write(transactionID);
+        buffer.clear();
+        buffer.putInt((int) packetLength);
+        buffer.putInt((int) PtpIpPacket.Type.END_DATA.value().longValue());
+        buffer.putInt((int) transactionID.longValue());
+        os.write(buffer.array(), 0, buffer.position());
         os.write(data);
         os.flush();
     }
 
+    /**
+     * Write data read from src to the stream as content of DataPhase (StartData -&gt; [Data] -&gt; EndData)
+     * The data is split into Data packets of MAX_DATA_CHUNK_SIZE at most, and the last chunk is sent as EndData.
+     *
+     * @param transactionID The transaction ID of the Data Phase.
+     * @param src           The source of the data to write.
+     * @param length        The number of bytes to read from src and write.
+     * @throws EOFException             if src reaches end of stream before length bytes are read.
+     * @throws IOException              if an I/O error occurs while reading src or writing the stream.
+     * @throws NullPointerException     if an argument is null.
+     * @throws IllegalArgumentException if length is negative.
+     */
+    public void writeData(UINT32 transactionID, ReadableByteChannel src, long length) throws IOException {
+        Validators.notNull("transactionID", transactionID);
+        Validators.notNull("src", src);
+        Validators.rangeEq("length", length, 0L, Long.MAX_VALUE);
+
+        // Send StartData
+        write(new StartDataPacket(transactionID, new UINT64(length)));
+
+        // Send Data and EndData
+        long remaining = length;
+        do {
+            int chunkLength = (int) Math.min(MAX_DATA_CHUNK_SIZE, remaining);
+            remaining -= chunkLength;
+            PtpIpPacket.Type type = remaining == 0 ? PtpIpPacket.Type.END_DATA : PtpIpPacket.Type.DATA;
+
+            ensureCapacity(DATA_HEADER_SIZE_IN_BYTES + chunkLength);
+            buffer.clear();
+            buffer.putInt(DATA_HEADER_SIZE_IN_BYTES + chunkLength);
+            buffer.putInt(type.value().intValue());
+            buffer.putInt(transactionID.intValue());
+            buffer.limit(DATA_HEADER_SIZE_IN_BYTES + chunkLength);
+            readFully(src, buffer);
+            os.write(buffer.array(), 0, buffer.position());
+        } while (remaining > 0);
+
+        os.flush();
+    }
+
     @Override
     public void close() throws IOException {
         os.close();
     }
+
+    // Utility
+
+    /**
+     * Read bytes from src until dst has no remaining.
+     *
+     * @throws EOFException if src reaches end of stream before dst is filled.
+     */
+    static void readFully(ReadableByteChannel src, ByteBuffer dst) throws IOException {
+        while (dst.hasRemaining()) {
+            if (src.read(dst) == -1) {
+                throw new EOFException();
+            }
+        }
+    }
+
+    private void ensureCapacity(int size) {
+        if (buffer.capacity() < size) {
+            buffer = ByteBuffer.allocate(Math.max(size, buffer.capacity() * 2)).order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
 }
@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j.ptpip.io;
+
+import org.theta4j.ptp.type.UINT32;
+import org.theta4j.ptpip.packet.*;
+import org.theta4j.util.Validators;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * PTP-IP connection on blocking streams.
+ *
+ * @see PtpIpInputStream
+ * @see PtpIpOutputStream
+ */
+public final class PtpIpStreamConnection implements PtpIpConnection {
+    private final PtpIpInputStream is;
+    private final PtpIpOutputStream os;
+
+    // Constructor
+
+    /**
+     * Wrap the streams of the socket by PtpIpStreamConnection.
+     *
+     * @param socket The connected socket.
+     * @throws IOException if an I/O error occurs while getting the streams of the socket.
+     */
+    public PtpIpStreamConnection(Socket socket) throws IOException {
+        this(socket.getInputStream(), socket.getOutputStream());
+    }
+
+    /**
+     * Wrap InputStream and OutputStream by PtpIpStreamConnection.
+     *
+     * @param is The stream to read packets from.
+     * @param os The stream to write packets to.
+     * @throws NullPointerException if an argument is null.
+     */
+    public PtpIpStreamConnection(InputStream is, OutputStream os) {
+        Validators.notNull("is", is);
+        Validators.notNull("os", os);
+
+        this.is = new PtpIpInputStream(is);
+        this.os = new PtpIpOutputStream(os);
+    }
+
+    // Check Next
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public PtpIpPacket.Type nextType() throws IOException {
+        return is.nextType();
+    }
+
+    // Read Packet
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public InitCommandAckPacket readInitCommandAckPacket() throws IOException {
+        return is.readInitCommandAckPacket();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public InitEventAckPacket readInitEventAckPacket() throws IOException {
+        return is.readInitEventAckPacket();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public OperationResponsePacket readOperationResponsePacket() throws IOException {
+        return is.readOperationResponsePacket();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EventPacket readEventPacket() throws IOException {
+        return is.readEventPacket();
+    }
+
+    // Read Data
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void readData(OutputStream dst) throws IOException {
+        is.readData(dst);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void readData(WritableByteChannel dst) throws IOException {
+        is.readData(dst);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public DataPhaseInputStream openData() throws IOException {
+        return is.openData();
+    }
+
+    // Write
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(PtpIpPacket packet) throws IOException {
+        os.write(packet);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeData(UINT32 transactionID, byte[] data) throws IOException {
+        os.writeData(transactionID, data);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeData(UINT32 transactionID, ReadableByteChannel src, long length) throws IOException {
+        os.writeData(transactionID, src, length);
+    }
+
+    // Closeable
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            is.close();
+        } finally {
+            os.close();
+        }
+    }
+}
@@ -10,6 +10,7 @@ import org.theta4j.ptp.type.UINT32;
 import org.theta4j.util.Validators;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
  * Cancel Packet defined in PTP-IP
@@ -19,16 +20,12 @@ public final class CancelPacket extends PtpIpPacket {
 
     private final UINT32 transactionID;
 
-    private final byte[] payload;
-
     // Constructor
 
     public CancelPacket(UINT32 transactionID) {
         Validators.notNull("transactionID", transactionID);
 
         this.transactionID = transactionID;
-
-        this.payload = this.transactionID.bytes();
     }
 
     // Static Factory Method
@@ -51,6 +48,19 @@ public final class CancelPacket extends PtpIpPacket {
         return new CancelPacket(transactionID);
     }
 
+    public static CancelPacket readPayload(ByteBuffer payload) throws IOException {
+        Validators.notNull("payload", payload);
+
+        // Validate Payload
+        PtpIpPacketUtils.checkLength(payload.remaining(), SIZE_IN_BYTES);
+
+        // Read Body
+        ByteBuffer buffer = PtpIpPacketUtils.littleEndian(payload);
+        UINT32 transactionID = PtpIpPacketUtils.getUINT32(buffer);
+
+        return new CancelPacket(transactionID);
+    }
+
     // PtpIpPacket
 
     @Override
@@ -59,8 +69,13 @@ public final class CancelPacket extends PtpIpPacket {
     }
 
     @Override
-    byte[] getPayload() {
-        return payload;
+    int getPayloadSize() {
+        return SIZE_IN_BYTES;
+    }
+
+    @Override
+    void writePayload(ByteBuffer buffer) {
+        PtpIpPacketUtils.putUINT32(buffer, transactionID);
     }
 
     // Getter
@@ -9,11 +9,11 @@ import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.theta4j.ptp.io.PtpInputStream;
 import org.theta4j.ptp.type.UINT32;
-import org.theta4j.util.ArrayUtils;
 import org.theta4j.util.Validators;
 
 import java.io.EOFException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
  * EndData Packet defined in PTP-IP
@@ -22,8 +22,6 @@ public final class EndDataPacket extends PtpIpPacket {
     private final UINT32 transactionID;
     private final byte[] dataPayload;
 
-    private final byte[] payload;
-
     // Constructor
 
     public EndDataPacket(UINT32 transactionID, byte[] dataPayload) {
@@ -32,11 +30,6 @@ public final class EndDataPacket extends PtpIpPacket {
 
         this.transactionID = transactionID;
         this.dataPayload = dataPayload.clone();
-
-        this.payload = ArrayUtils.join(
-                transactionID.bytes(),
-                this.dataPayload
-        );
     }
 
     // Static Factory Method
@@ -65,6 +58,20 @@ public final class EndDataPacket extends PtpIpPacket {
         return new EndDataPacket(transactionID, dataPayload);
     }
 
+    public static EndDataPacket readPayload(ByteBuffer payload) throws IOException {
+        Validators.notNull("payload", payload);
+
+        // Read Body (TransactionID)
+        ByteBuffer buffer = PtpIpPacketUtils.littleEndian(payload);
+        UINT32 transactionID = PtpIpPacketUtils.getUINT32(buffer);
+
+        // Read Body (Data)
+        byte[] dataPayload = new byte[buffer.remaining()];
+        buffer.get(dataPayload);
+
+        return new EndDataPacket(transactionID, dataPayload);
+    }
+
     // PtpIpPacket
 
     @Override
@@ -73,8 +80,14 @@ public final class EndDataPacket extends PtpIpPacket {
     }
 
     @Override
-    byte[] getPayload() {
-        return payload;
+    int getPayloadSize() {
+        return UINT32.SIZE_IN_BYTES + dataPayload.length;
+    }
+
+    @Override
+    void writePayload(ByteBuffer buffer) {
+        PtpIpPacketUtils.putUINT32(buffer, transactionID);
+        buffer.put(dataPayload);
     }
 
     // Getter
@@ -10,10 +10,10 @@ import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.theta4j.ptp.io.PtpInputStream;
 import org.theta4j.ptp.type.UINT16;
 import org.theta4j.ptp.type.UINT32;
-import org.theta4j.util.ArrayUtils;
 import org.theta4j.util.Validators;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
  * Event Packet defined in PTP-IP
@@ -25,20 +25,18 @@ public final class EventPacket extends PtpIpPacket {
     private final UINT32 transactionID;
     private final UINT32 p1, p2, p3;
 
-    private final byte[] payload;
-
     // Constructor
 
     public EventPacket(UINT16 eventCode, UINT32 transactionID) {
-        this(eventCode, transactionID, new UINT32(0));
+        this(eventCode, transactionID, UINT32.ZERO);
     }
 
     public EventPacket(UINT16 eventCode, UINT32 transactionID, UINT32 p1) {
-        this(eventCode, transactionID, p1, new UINT32(0));
+        this(eventCode, transactionID, p1, UINT32.ZERO);
     }
 
     public EventPacket(UINT16 eventCode, UINT32 transactionID, UINT32 p1, UINT32 p2) {
-        this(eventCode, transactionID, p1, p2, new UINT32(0));
+        this(eventCode, transactionID, p1, p2, UINT32.ZERO);
     }
 
     public EventPacket(UINT16 eventCode, UINT32 transactionID, UINT32 p1, UINT32 p2, UINT32 p3) {
@@ -53,12 +51,6 @@ public final class EventPacket extends PtpIpPacket {
         this.p1 = p1;
         this.p2 = p2;
         this.p3 = p3;
-
-        this.payload = ArrayUtils.join(
-                eventCode.bytes(),
-                transactionID.bytes(),
-                p1.bytes(), p2.bytes(), p3.bytes()
-        );
     }
 
     // Static Factory Method
@@ -85,6 +77,23 @@ public final class EventPacket extends PtpIpPacket {
         return new EventPacket(eventCode, transactionID, p1, p2, p3);
     }
 
+    public static EventPacket readPayload(ByteBuffer payload) throws IOException {
+        Validators.notNull("payload", payload);
+
+        // Validate Payload
+        PtpIpPacketUtils.checkLength(payload.remaining(), SIZE_IN_BYTES);
+
+        // Read Body
+        ByteBuffer buffer = PtpIpPacketUtils.littleEndian(payload);
+        UINT16 eventCode = PtpIpPacketUtils.getUINT16(buffer);
+        UINT32 transactionID = PtpIpPacketUtils.getUINT32(buffer);
+        UINT32 p1 = PtpIpPacketUtils.getUINT32(buffer);
+        UINT32 p2 = PtpIpPacketUtils.getUINT32(buffer);
+        UINT32 p3 = PtpIpPacketUtils.getUINT32(buffer);
+
+        return new EventPacket(eventCode, transactionID, p1, p2, p3);
+    }
+
     // PtpIpPacket
 
     @Override
@@ -93,8 +102,17 @@ public final class EventPacket extends PtpIpPacket {
     }
 
     @Override
-    byte[] getPayload() {
-        return payload;
+    int getPayloadSize() {
+        return SIZE_IN_BYTES;
+    }
+
+    @Override
+    void writePayload(ByteBuffer buffer) {
+        PtpIpPacketUtils.putUINT16(buffer, eventCode);
+        PtpIpPacketUtils.putUINT32(buffer, transactionID);
+        PtpIpPacketUtils.putUINT32(buffer, p1);
+        PtpIpPacketUtils.putUINT32(buffer, p2);
+        PtpIpPacketUtils.putUINT32(buffer, p3);
     }
 
     // Getter
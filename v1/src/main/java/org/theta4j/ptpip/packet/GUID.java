@@ -38,4 +38,15 @@ final class GUID {
 
         return new UUID(buffer.getLong(), buffer.getLong());
     }
+
+    public static UUID get(ByteBuffer buffer) throws EOFException {
+        PtpIpPacketUtils.checkRemaining(buffer, SIZE_IN_BYTES);
+
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    public static void put(ByteBuffer buffer, UUID guid) {
+        buffer.putLong(guid.getMostSignificantBits());
+        buffer.putLong(guid.getLeastSignificantBits());
+    }
 }
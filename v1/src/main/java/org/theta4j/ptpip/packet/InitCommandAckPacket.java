@@ -10,10 +10,10 @@ import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.theta4j.ptp.io.PtpInputStream;
 import org.theta4j.ptp.type.STR;
 import org.theta4j.ptp.type.UINT32;
-import org.theta4j.util.ArrayUtils;
 import org.theta4j.util.Validators;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.UUID;
 
 /**
@@ -27,8 +27,6 @@ public final class InitCommandAckPacket extends PtpIpPacket {
     private final String name;
     private final UINT32 protocolVersion;
 
-    private final byte[] payload;
-
     // Constructor
 
     public InitCommandAckPacket(UINT32 connectionNumber, UUID guid, String name, UINT32 protocolVersion) {
@@ -41,13 +39,6 @@ public final class InitCommandAckPacket extends PtpIpPacket {
         this.guid = guid;
         this.name = name;
         this.protocolVersion = protocolVersion;
-
-        this.payload = ArrayUtils.join(
-                connectionNumber.bytes(),
-                GUID.toBytes(guid),
-                PtpIpString.toBytes(name),
-                protocolVersion.bytes()
-        );
     }
 
     // Static Factory Method
@@ -73,6 +64,22 @@ public final class InitCommandAckPacket extends PtpIpPacket {
         return new InitCommandAckPacket(connectionNumber, guid, name, protocolVersion);
     }
 
+    public static InitCommandAckPacket readPayload(ByteBuffer payload) throws IOException {
+        Validators.notNull("payload", payload);
+
+        // Validate Payload
+        PtpIpPacketUtils.checkMinLength(payload.remaining(), MIN_SIZE_IN_BYTES);
+
+        // Read Body
+        ByteBuffer buffer = PtpIpPacketUtils.littleEndian(payload);
+        UINT32 connectionNumber = PtpIpPacketUtils.getUINT32(buffer);
+        UUID guid = GUID.get(buffer);
+        String name = PtpIpString.get(buffer);
+        UINT32 protocolVersion = PtpIpPacketUtils.getUINT32(buffer);
+
+        return new InitCommandAckPacket(connectionNumber, guid, name, protocolVersion);
+    }
+
     // PtpIpPacket
 
     @Override
@@ -81,8 +88,16 @@ public final class InitCommandAckPacket extends PtpIpPacket {
     }
 
     @Override
-    byte[] getPayload() {
-        return payload;
+    int getPayloadSize() {
+        return UINT32.SIZE_IN_BYTES + GUID.SIZE_IN_BYTES + PtpIpString.sizeInBytes(name) + UINT32.SIZE_IN_BYTES;
+    }
+
+    @Override
+    void writePayload(ByteBuffer buffer) {
+        PtpIpPacketUtils.putUINT32(buffer, connectionNumber);
+        GUID.put(buffer, guid);
+        PtpIpString.put(buffer, name);
+        PtpIpPacketUtils.putUINT32(buffer, protocolVersion);
     }
 
     // Getter
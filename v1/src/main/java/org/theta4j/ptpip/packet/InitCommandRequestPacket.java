@@ -10,10 +10,10 @@ import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.theta4j.ptp.io.PtpInputStream;
 import org.theta4j.ptp.type.STR;
 import org.theta4j.ptp.type.UINT32;
-import org.theta4j.util.ArrayUtils;
 import org.theta4j.util.Validators;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.UUID;
 
 /**
@@ -26,8 +26,6 @@ public final class InitCommandRequestPacket extends PtpIpPacket {
     private final String name;
     private final UINT32 protocolVersion;
 
-    private final byte[] payload;
-
     // Constructor
 
     public InitCommandRequestPacket(UUID guid, String name, UINT32 protocolVersion) {
@@ -38,11 +36,6 @@ public final class InitCommandRequestPacket extends PtpIpPacket {
         this.guid = guid;
         this.name = name;
         this.protocolVersion = protocolVersion;
-        this.payload = ArrayUtils.join(
-                GUID.toBytes(guid),
-                PtpIpString.toBytes(name),
-                protocolVersion.bytes()
-        );
     }
 
     // Static Factory Method
@@ -67,6 +60,21 @@ public final class InitCommandRequestPacket extends PtpIpPacket {
         return new InitCommandRequestPacket(guid, name, protocolVersion);
     }
 
+    public static InitCommandRequestPacket readPayload(ByteBuffer payload) throws IOException {
+        Validators.notNull("payload", payload);
+
+        // Validate Payload
+        PtpIpPacketUtils.checkMinLength(payload.remaining(), MIN_SIZE_IN_BYTES);
+
+        // Read Body
+        ByteBuffer buffer = PtpIpPacketUtils.littleEndian(payload);
+        UUID guid = GUID.get(buffer);
+        String name = PtpIpString.get(buffer);
+        UINT32 protocolVersion = PtpIpPacketUtils.getUINT32(buffer);
+
+        return new InitCommandRequestPacket(guid, name, protocolVersion);
+    }
+
     // PtpIpPacket
 
     @Override
@@ -75,8 +83,15 @@ public final class InitCommandRequestPacket extends PtpIpPacket {
     }
 
     @Override
-    byte[] getPayload() {
-        return payload;
+    int getPayloadSize() {
+        return GUID.SIZE_IN_BYTES + PtpIpString.sizeInBytes(name) + UINT32.SIZE_IN_BYTES;
+    }
+
+    @Override
+    void writePayload(ByteBuffer buffer) {
+        GUID.put(buffer, guid);
+        PtpIpString.put(buffer, name);
+        PtpIpPacketUtils.putUINT32(buffer, protocolVersion);
     }
 
     // Getter
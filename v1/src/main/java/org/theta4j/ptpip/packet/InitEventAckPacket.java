@@ -4,12 +4,12 @@
 
 package org.theta4j.ptpip.packet;
 
-import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.theta4j.ptp.io.PtpInputStream;
 import org.theta4j.util.Validators;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
  * InitEventAck Packet defined in PTP-IP
@@ -34,6 +34,15 @@ public final class InitEventAckPacket extends PtpIpPacket {
         return new InitEventAckPacket();
     }
 
+    public static InitEventAckPacket readPayload(ByteBuffer payload) throws IOException {
+        Validators.notNull("payload", payload);
+
+        // Validate Payload
+        PtpIpPacketUtils.checkLength(payload.remaining(), SIZE_IN_BYTES);
+
+        return new InitEventAckPacket();
+    }
+
     // PtpIpPacket
 
     @Override
@@ -42,8 +51,13 @@ public final class InitEventAckPacket extends PtpIpPacket {
     }
 
     @Override
-    byte[] getPayload() {
-        return ArrayUtils.EMPTY_BYTE_ARRAY;
+    int getPayloadSize() {
+        return SIZE_IN_BYTES;
+    }
+
+    @Override
+    void writePayload(ByteBuffer buffer) {
+        // No payload
     }
 
     // Basic Method
@@ -10,6 +10,7 @@ import org.theta4j.ptp.type.UINT32;
 import org.theta4j.util.Validators;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
  * InitEventRequest Packet defined in PTP-IP
@@ -19,15 +20,12 @@ public final class InitEventRequestPacket extends PtpIpPacket {
 
     private final UINT32 connectionNumber;
 
-    private final byte[] payload;
-
     // Constructor
 
     public InitEventRequestPacket(UINT32 connectionNumber) {
         Validators.notNull("connectionNumber", connectionNumber);
 
         this.connectionNumber = connectionNumber;
-        this.payload = connectionNumber.bytes();
     }
 
     // Static Factory Method
@@ -50,6 +48,19 @@ public final class InitEventRequestPacket extends PtpIpPacket {
         return new InitEventRequestPacket(connectionNumber);
     }
 
+    public static InitEventRequestPacket readPayload(ByteBuffer payload) throws IOException {
+        Validators.notNull("payload", payload);
+
+        // Validate Payload
+        PtpIpPacketUtils.checkLength(payload.remaining(), SIZE_IN_BYTES);
+
+        // Read Body
+        ByteBuffer buffer = PtpIpPacketUtils.littleEndian(payload);
+        UINT32 connectionNumber = PtpIpPacketUtils.getUINT32(buffer);
+
+        return new InitEventRequestPacket(connectionNumber);
+    }
+
     // PtpIpPacket
 
     @Override
@@ -58,8 +69,13 @@ public final class InitEventRequestPacket extends PtpIpPacket {
     }
 
     @Override
-    byte[] getPayload() {
-        return payload;
+    int getPayloadSize() {
+        return SIZE_IN_BYTES;
+    }
+
+    @Override
+    void writePayload(ByteBuffer buffer) {
+        PtpIpPacketUtils.putUINT32(buffer, connectionNumber);
     }
 
     // Getter
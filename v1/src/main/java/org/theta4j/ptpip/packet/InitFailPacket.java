@@ -10,6 +10,7 @@ import org.theta4j.ptp.type.UINT32;
 import org.theta4j.util.Validators;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
  * InitFail Packet defined in PTP-IP
@@ -19,15 +20,12 @@ public final class InitFailPacket extends PtpIpPacket {
 
     private final UINT32 reason;
 
-    private final byte[] payload;
-
     // Constructor
 
     public InitFailPacket(UINT32 reason) {
         Validators.notNull("reason", reason);
 
         this.reason = reason;
-        this.payload = reason.bytes();
     }
 
     // Static Factory Method
@@ -50,6 +48,19 @@ public final class InitFailPacket extends PtpIpPacket {
         return new InitFailPacket(reason);
     }
 
+    public static InitFailPacket readPayload(ByteBuffer payload) throws IOException {
+        Validators.notNull("payload", payload);
+
+        // Validate Payload
+        PtpIpPacketUtils.checkLength(payload.remaining(), SIZE_IN_BYTES);
+
+        // Read Body
+        ByteBuffer buffer = PtpIpPacketUtils.littleEndian(payload);
+        UINT32 reason = PtpIpPacketUtils.getUINT32(buffer);
+
+        return new InitFailPacket(reason);
+    }
+
     // PtpIpPacket
 
     @Override
@@ -58,8 +69,13 @@ public final class InitFailPacket extends PtpIpPacket {
     }
 
     @Override
-    byte[] getPayload() {
-        return payload;
+    int getPayloadSize() {
+        return SIZE_IN_BYTES;
+    }
+
+    @Override
+    void writePayload(ByteBuffer buffer) {
+        PtpIpPacketUtils.putUINT32(buffer, reason);
     }
 
     // Getter
@@ -10,10 +10,10 @@ import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.theta4j.ptp.io.PtpInputStream;
 import org.theta4j.ptp.type.UINT16;
 import org.theta4j.ptp.type.UINT32;
-import org.theta4j.util.ArrayUtils;
 import org.theta4j.util.Validators;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
  * OperationRequest Packet defined in PTP-IP
@@ -26,28 +26,26 @@ public final class OperationRequestPacket extends PtpIpPacket {
     private final UINT32 transactionID;
     private final UINT32 p1, p2, p3, p4, p5;
 
-    private final byte[] payload;
-
     // Constructor
 
     public OperationRequestPacket(UINT32 dataPhaseInfo, UINT16 operationCode, UINT32 transactionID) {
-        this(dataPhaseInfo, operationCode, transactionID, new UINT32(0));
+        this(dataPhaseInfo, operationCode, transactionID, UINT32.ZERO);
     }
 
     public OperationRequestPacket(UINT32 dataPhaseInfo, UINT16 operationCode, UINT32 transactionID, UINT32 p1) {
-        this(dataPhaseInfo, operationCode, transactionID, p1, new UINT32(0));
+        this(dataPhaseInfo, operationCode, transactionID, p1, UINT32.ZERO);
     }
 
     public OperationRequestPacket(UINT32 dataPhaseInfo, UINT16 operationCode, UINT32 transactionID, UINT32 p1, UINT32 p2) {
-        this(dataPhaseInfo, operationCode, transactionID, p1, p2, new UINT32(0));
+        this(dataPhaseInfo, operationCode, transactionID, p1, p2, UINT32.ZERO);
     }
 
     public OperationRequestPacket(UINT32 dataPhaseInfo, UINT16 operationCode, UINT32 transactionID, UINT32 p1, UINT32 p2, UINT32 p3) {
-        this(dataPhaseInfo, operationCode, transactionID, p1, p2, p3, new UINT32(0));
+        this(dataPhaseInfo, operationCode, transactionID, p1, p2, p3, UINT32.ZERO);
     }
 
     public OperationRequestPacket(UINT32 dataPhaseInfo, UINT16 operationCode, UINT32 transactionID, UINT32 p1, UINT32 p2, UINT32 p3, UINT32 p4) {
-        this(dataPhaseInfo, operationCode, transactionID, p1, p2, p3, p4, new UINT32(0));
+        this(dataPhaseInfo, operationCode, transactionID, p1, p2, p3, p4, UINT32.ZERO);
     }
 
     public OperationRequestPacket(UINT32 dataPhaseInfo, UINT16 operationCode, UINT32 transactionID, UINT32 p1, UINT32 p2, UINT32 p3, UINT32 p4, UINT32 p5) {
@@ -68,17 +66,6 @@ public final class OperationRequestPacket extends PtpIpPacket {
         this.p3 = p3;
         this.p4 = p4;
         this.p5 = p5;
-
-        this.payload = ArrayUtils.join(
-                dataPhaseInfo.bytes(),
-                operationCode.bytes(),
-                transactionID.bytes(),
-                p1.bytes(),
-                p2.bytes(),
-                p3.bytes(),
-                p4.bytes(),
-                p5.bytes()
-        );
     }
 
     // Static Factory Method
@@ -108,6 +95,26 @@ public final class OperationRequestPacket extends PtpIpPacket {
         return new OperationRequestPacket(dataPhaseInfo, operationCode, transactionID, p1, p2, p3, p4, p5);
     }
 
+    public static OperationRequestPacket readPayload(ByteBuffer payload) throws IOException {
+        Validators.notNull("payload", payload);
+
+        // Validate Payload
+        PtpIpPacketUtils.checkLength(payload.remaining(), SIZE_IN_BYTES);
+
+        // Read Body
+        ByteBuffer buffer = PtpIpPacketUtils.littleEndian(payload);
+        UINT32 dataPhaseInfo = PtpIpPacketUtils.getUINT32(buffer);
+        UINT16 operationCode = PtpIpPacketUtils.getUINT16(buffer);
+        UINT32 transactionID = PtpIpPacketUtils.getUINT32(buffer);
+        UINT32 p1 = PtpIpPacketUtils.getUINT32(buffer);
+        UINT32 p2 = PtpIpPacketUtils.getUINT32(buffer);
+        UINT32 p3 = PtpIpPacketUtils.getUINT32(buffer);
+        UINT32 p4 = PtpIpPacketUtils.getUINT32(buffer);
+        UINT32 p5 = PtpIpPacketUtils.getUINT32(buffer);
+
+        return new OperationRequestPacket(dataPhaseInfo, operationCode, transactionID, p1, p2, p3, p4, p5);
+    }
+
     // PtpIpPacket
 
     @Override
@@ -116,8 +123,20 @@ public final class OperationRequestPacket extends PtpIpPacket {
     }
 
     @Override
-    byte[] getPayload() {
-        return payload;
+    int getPayloadSize() {
+        return SIZE_IN_BYTES;
+    }
+
+    @Override
+    void writePayload(ByteBuffer buffer) {
+        PtpIpPacketUtils.putUINT32(buffer, dataPhaseInfo);
+        PtpIpPacketUtils.putUINT16(buffer, operationCode);
+        PtpIpPacketUtils.putUINT32(buffer, transactionID);
+        PtpIpPacketUtils.putUINT32(buffer, p1);
+        PtpIpPacketUtils.putUINT32(buffer, p2);
+        PtpIpPacketUtils.putUINT32(buffer, p3);
+        PtpIpPacketUtils.putUINT32(buffer, p4);
+        PtpIpPacketUtils.putUINT32(buffer, p5);
     }
 
     // Getter
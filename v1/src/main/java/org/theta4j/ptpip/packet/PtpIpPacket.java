@@ -5,15 +5,15 @@
 package org.theta4j.ptpip.packet;
 
 import org.theta4j.ptp.code.Code;
+import org.theta4j.ptp.code.CodeTable;
 import org.theta4j.ptp.io.PtpInputStream;
-import org.theta4j.ptp.io.PtpOutputStream;
 import org.theta4j.ptp.type.UINT32;
 import org.theta4j.util.Validators;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 /**
  * PTP-IP Packet
@@ -23,15 +23,9 @@ public abstract class PtpIpPacket {
 
     static final int HEADER_SIZE_IN_BYTES = UINT32.SIZE_IN_BYTES + UINT32.SIZE_IN_BYTES;
 
-    // Map for valueOf method
+    // Table for valueOf method
 
-    private static final Map<UINT32, Type> TYPE_MAP = new HashMap<>();
-
-    static {
-        for (Type type : Type.values()) {
-            TYPE_MAP.put(type.value, type);
-        }
-    }
+    private static final CodeTable<Type> TYPE_TABLE = CodeTable.of(Type.values());
 
     // Constructor
 
@@ -43,21 +37,59 @@ public abstract class PtpIpPacket {
 
     abstract Type getType();
 
-    abstract byte[] getPayload();
+    abstract int getPayloadSize();
+
+    /**
+     * Write the payload to the little endian buffer.
+     * The buffer has getPayloadSize() bytes or more remaining.
+     */
+    abstract void writePayload(ByteBuffer buffer);
+
+    byte[] getPayload() {
+        byte[] payload = new byte[getPayloadSize()];
+        writePayload(ByteBuffer.wrap(payload).order(ByteOrder.LITTLE_ENDIAN));
+        return payload;
+    }
+
+    /**
+     * Returns the size of the packet including the header in bytes.
+     */
+    public final int size() {
+        return HEADER_SIZE_IN_BYTES + getPayloadSize();
+    }
 
     // Converter
 
     public final byte[] bytes() {
-        UINT32 length = new UINT32(UINT32.SIZE_IN_BYTES + Type.SIZE_IN_BYTES + getPayload().length);
-
-        try (final ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-            final PtpOutputStream pos = new PtpOutputStream(baos);
-            pos.write(length);
-            pos.write(getType().value);
-            pos.write(getPayload());
-            return baos.toByteArray();
-        } catch (IOException e) {
-            throw new AssertionError(e);
+        byte[] bytes = new byte[size()];
+        writeTo(ByteBuffer.wrap(bytes));
+        return bytes;
+    }
+
+    /**
+     * Write the packet to dst from its current position.
+     * The byte order of dst is not changed.
+     *
+     * @param dst The buffer to write the packet.
+     * @throws NullPointerException    if dst is null.
+     * @throws BufferOverflowException if dst has less remaining than size().
+     */
+    public final void writeTo(ByteBuffer dst) {
+        Validators.notNull("dst", dst);
+
+        int size = size();
+        if (dst.remaining() < size) {
+            throw new BufferOverflowException();
+        }
+
+        ByteOrder order = dst.order();
+        dst.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            dst.putInt(size);
+            dst.putInt((int) getType().value.longValue());
+            writePayload(dst);
+        } finally {
+            dst.order(order);
         }
     }
 
@@ -88,7 +120,7 @@ public abstract class PtpIpPacket {
         // Constructor
 
         Type(int value) {
-            this.value = new UINT32(value);
+            this.value = UINT32.valueOf(value);
         }
 
         // Code
@@ -103,11 +135,22 @@ public abstract class PtpIpPacket {
         public static Type valueOf(UINT32 value) {
             Validators.notNull("value", value);
 
-            if (!TYPE_MAP.containsKey(value)) {
-                throw new IllegalArgumentException("Unknown Packet Type: " + value);
+            return valueOf(value.intValue());
+        }
+
+        /**
+         * Returns the packet type of the primitive value, which is read as unsigned 32-bit integer.
+         *
+         * @throws IllegalArgumentException if the value is not a known packet type.
+         */
+        public static Type valueOf(int value) {
+            Type type = TYPE_TABLE.get(value & 0xFFFF_FFFFL);
+
+            if (type == null) {
+                throw new IllegalArgumentException(String.format("Unknown Packet Type: 0x%08x", value));
             }
 
-            return TYPE_MAP.get(value);
+            return type;
         }
 
         // read
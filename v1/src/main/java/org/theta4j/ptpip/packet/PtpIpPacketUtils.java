@@ -4,10 +4,14 @@
 
 package org.theta4j.ptpip.packet;
 
+import org.theta4j.ptp.type.UINT16;
 import org.theta4j.ptp.type.UINT32;
+import org.theta4j.ptp.type.UINT64;
 
 import java.io.EOFException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 class PtpIpPacketUtils {
     private PtpIpPacketUtils() {
@@ -37,4 +41,50 @@ class PtpIpPacketUtils {
             throw new EOFException(String.format("Too short packet length: actual=%d, min=%d.", actual, min));
         }
     }
+
+    // ByteBuffer
+
+    /**
+     * Returns a little endian view of the payload, which starts at the position of the given buffer.
+     */
+    public static ByteBuffer littleEndian(ByteBuffer payload) {
+        return payload.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    // The following methods expect little endian buffer.
+
+    public static UINT16 getUINT16(ByteBuffer buffer) throws EOFException {
+        checkRemaining(buffer, UINT16.SIZE_IN_BYTES);
+        return UINT16.valueOf(buffer.getShort() & 0xFFFF);
+    }
+
+    public static UINT32 getUINT32(ByteBuffer buffer) throws EOFException {
+        checkRemaining(buffer, UINT32.SIZE_IN_BYTES);
+        return UINT32.valueOf(buffer.getInt() & 0xFFFF_FFFFL);
+    }
+
+    public static UINT64 getUINT64(ByteBuffer buffer) throws EOFException {
+        checkRemaining(buffer, UINT64.SIZE_IN_BYTES);
+        byte[] bytes = new byte[UINT64.SIZE_IN_BYTES];
+        buffer.get(bytes);
+        return new UINT64(bytes);
+    }
+
+    public static void putUINT16(ByteBuffer buffer, UINT16 value) {
+        buffer.putShort((short) value.intValue());
+    }
+
+    public static void putUINT32(ByteBuffer buffer, UINT32 value) {
+        buffer.putInt((int) value.longValue());
+    }
+
+    public static void putUINT64(ByteBuffer buffer, UINT64 value) {
+        buffer.putLong(value.longValue());
+    }
+
+    public static void checkRemaining(ByteBuffer buffer, int size) throws EOFException {
+        if (buffer.remaining() < size) {
+            throw new EOFException(String.format("Too short payload: remaining=%d, required=%d.", buffer.remaining(), size));
+        }
+    }
 }
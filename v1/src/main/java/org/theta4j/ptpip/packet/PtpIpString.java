@@ -11,6 +11,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 
 /**
@@ -61,4 +62,41 @@ final class PtpIpString {
 
         return new String(baos.toByteArray(), CHARSET);
     }
+
+    public static String get(ByteBuffer buffer) throws EOFException {
+        Validators.notNull("buffer", buffer);
+
+        StringBuilder sb = new StringBuilder();
+
+        for (; ; ) {
+            PtpIpPacketUtils.checkRemaining(buffer, UINT16.SIZE_IN_BYTES);
+
+            char c = buffer.getChar();
+
+            // End with NULL?
+            if (c == '\u0000') {
+                break;
+            }
+
+            sb.append(c);
+        }
+
+        return sb.toString();
+    }
+
+    public static int sizeInBytes(String str) {
+        Validators.notNull("str", str);
+
+        return (str.length() + 1) * UINT16.SIZE_IN_BYTES; // +NULL
+    }
+
+    public static void put(ByteBuffer buffer, String str) {
+        Validators.notNull("str", str);
+
+        for (int i = 0; i < str.length(); i++) {
+            buffer.putChar(str.charAt(i));
+        }
+
+        buffer.putChar('\u0000');
+    }
 }
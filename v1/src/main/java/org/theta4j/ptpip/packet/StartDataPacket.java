@@ -10,10 +10,10 @@ import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.theta4j.ptp.io.PtpInputStream;
 import org.theta4j.ptp.type.UINT32;
 import org.theta4j.ptp.type.UINT64;
-import org.theta4j.util.ArrayUtils;
 import org.theta4j.util.Validators;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
  * StartData Packet defined in PTP-IP
@@ -24,8 +24,6 @@ public final class StartDataPacket extends PtpIpPacket {
     private final UINT32 transactionID;
     private final UINT64 totalDataLength;
 
-    private final byte[] payload;
-
     // Constructor
 
     public StartDataPacket(UINT32 transactionID, UINT64 totalDataLength) {
@@ -34,11 +32,6 @@ public final class StartDataPacket extends PtpIpPacket {
 
         this.transactionID = transactionID;
         this.totalDataLength = totalDataLength;
-
-        this.payload = ArrayUtils.join(
-                transactionID.bytes(),
-                totalDataLength.bytes()
-        );
     }
 
     // Static Factory Method
@@ -62,6 +55,20 @@ public final class StartDataPacket extends PtpIpPacket {
         return new StartDataPacket(transactionID, totalDataLength);
     }
 
+    public static StartDataPacket readPayload(ByteBuffer payload) throws IOException {
+        Validators.notNull("payload", payload);
+
+        // Validate Payload
+        PtpIpPacketUtils.checkLength(payload.remaining(), SIZE_IN_BYTES);
+
+        // Read Body
+        ByteBuffer buffer = PtpIpPacketUtils.littleEndian(payload);
+        UINT32 transactionID = PtpIpPacketUtils.getUINT32(buffer);
+        UINT64 totalDataLength = PtpIpPacketUtils.getUINT64(buffer);
+
+        return new StartDataPacket(transactionID, totalDataLength);
+    }
+
     // PtpIpPacket
 
     @Override
@@ -70,8 +77,14 @@ public final class StartDataPacket extends PtpIpPacket {
     }
 
     @Override
-    byte[] getPayload() {
-        return payload;
+    int getPayloadSize() {
+        return SIZE_IN_BYTES;
+    }
+
+    @Override
+    void writePayload(ByteBuffer buffer) {
+        PtpIpPacketUtils.putUINT32(buffer, transactionID);
+        PtpIpPacketUtils.putUINT64(buffer, totalDataLength);
     }
 
     // Getter
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j;
+
+import org.junit.Test;
+import org.theta4j.ptp.PtpEventWaiters;
+import org.theta4j.ptp.PtpException;
+import org.theta4j.ptp.code.EventCode;
+import org.theta4j.ptp.data.Event;
+import org.theta4j.ptp.type.UINT32;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class CaptureTest {
+    private static final UINT32 SESSION_ID = new UINT32(1);
+    private static final UINT32 TRANSACTION_ID_1 = new UINT32(10);
+    private static final UINT32 TRANSACTION_ID_2 = new UINT32(11);
+    private static final UINT32 OBJECT_HANDLE_1 = new UINT32(100);
+    private static final UINT32 OBJECT_HANDLE_2 = new UINT32(101);
+
+    private final PtpEventWaiters waiters = new PtpEventWaiters();
+
+    private CompletableFuture<UINT32> capture(UINT32 transactionID) {
+        return Capture.await((eventCode, txid) -> waiters.awaitTransaction(eventCode, txid, 1, TimeUnit.MINUTES), transactionID);
+    }
+
+    private static Event objectAdded(UINT32 transactionID, UINT32 objectHandle) {
+        return new Event(EventCode.OBJECT_ADDED.value(), SESSION_ID, transactionID, objectHandle);
+    }
+
+    private static Event captureComplete(UINT32 transactionID) {
+        return new Event(EventCode.CAPTURE_COMPLETE.value(), SESSION_ID, transactionID, transactionID);
+    }
+
+    private static Throwable cause(CompletableFuture<?> future) throws InterruptedException {
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+
+        throw new AssertionError("The future is not completed exceptionally.");
+    }
+
+    @Test
+    public void correlatedByTransactionID() throws Exception {
+        // arrange
+        CompletableFuture<UINT32> capture1 = capture(TRANSACTION_ID_1);
+        CompletableFuture<UINT32> capture2 = capture(TRANSACTION_ID_2);
+
+        // act
+        waiters.complete(objectAdded(TRANSACTION_ID_2, OBJECT_HANDLE_2));
+        waiters.complete(objectAdded(TRANSACTION_ID_1, OBJECT_HANDLE_1));
+        waiters.complete(captureComplete(TRANSACTION_ID_2));
+
+        // verify
+        assertFalse(capture1.isDone());
+        assertThat(capture2.get(), is(OBJECT_HANDLE_2));
+
+        waiters.complete(captureComplete(TRANSACTION_ID_1));
+        assertThat(capture1.get(), is(OBJECT_HANDLE_1));
+        assertThat(waiters.size(), is(0));
+    }
+
+    @Test
+    public void eventsBeforeWaiting() throws Exception {
+        // arrange
+        waiters.complete(objectAdded(TRANSACTION_ID_1, OBJECT_HANDLE_1));
+        waiters.complete(captureComplete(TRANSACTION_ID_1));
+
+        // act
+        CompletableFuture<UINT32> capture = capture(TRANSACTION_ID_1);
+
+        // verify
+        assertThat(capture.get(), is(OBJECT_HANDLE_1));
+        assertThat(waiters.size(), is(0));
+    }
+
+    @Test
+    public void storeFull() throws Exception {
+        // arrange
+        CompletableFuture<UINT32> capture = capture(TRANSACTION_ID_1);
+
+        // act
+        waiters.complete(new Event(EventCode.STORE_FULL.value(), SESSION_ID, TRANSACTION_ID_1));
+
+        // verify
+        assertTrue(cause(capture) instanceof PtpException);
+        assertThat(waiters.size(), is(0));
+    }
+
+    @Test
+    public void captureCompleteWithoutObject() throws Exception {
+        // arrange
+        CompletableFuture<UINT32> capture = capture(TRANSACTION_ID_1);
+
+        // act
+        waiters.complete(captureComplete(TRANSACTION_ID_1));
+
+        // verify
+        assertTrue(cause(capture) instanceof IOException);
+    }
+
+    @Test
+    public void completedByInvoker() {
+        // arrange
+        CompletableFuture<UINT32> capture = capture(TRANSACTION_ID_1);
+
+        // act
+        capture.completeExceptionally(new IOException());
+
+        // verify
+        assertThat(waiters.size(), is(0));
+    }
+
+    @Test
+    public void connectionReset() throws Exception {
+        // given
+        IOException given = new IOException();
+
+        // arrange
+        CompletableFuture<UINT32> capture = capture(TRANSACTION_ID_1);
+
+        // act
+        waiters.failAll(given);
+
+        // verify
+        assertTrue(cause(capture) == given);
+        assertThat(waiters.size(), is(0));
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class CommandQueueTest {
+    private CommandQueue queue;
+
+    @Before
+    public void setUp() {
+        queue = new CommandQueue("test-command");
+    }
+
+    @After
+    public void tearDown() {
+        queue.close();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void submitNull() {
+        // act
+        queue.submit(null);
+    }
+
+    @Test
+    public void result() throws Exception {
+        // act
+        CompletableFuture<String> actual = queue.submit(() -> "result");
+
+        // verify
+        assertThat(actual.get(1, TimeUnit.SECONDS), is("result"));
+    }
+
+    @Test
+    public void exception() throws Exception {
+        // given
+        IOException given = new IOException();
+
+        // act
+        CompletableFuture<String> actual = queue.submit(() -> {
+            throw given;
+        });
+
+        // verify
+        try {
+            actual.get(1, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() == given);
+            return;
+        }
+
+        throw new AssertionError("ExecutionException is not thrown.");
+    }
+
+    @Test
+    public void order() throws Exception {
+        // arrange
+        List<Integer> actual = Collections.synchronizedList(new ArrayList<>());
+
+        // act
+        for (int i = 0; i < 100; i++) {
+            final int n = i;
+            queue.submit(() -> actual.add(n));
+        }
+        queue.submit(() -> null).get(1, TimeUnit.SECONDS);
+
+        // verify
+        for (int i = 0; i < 100; i++) {
+            assertThat(actual.get(i), is(i));
+        }
+    }
+
+    @Test
+    public void cancelledBeforeStart() throws Exception {
+        // arrange
+        CountDownLatch latch = new CountDownLatch(1);
+        List<String> actual = Collections.synchronizedList(new ArrayList<>());
+        queue.submit(() -> latch.await(1, TimeUnit.SECONDS));
+
+        // act
+        queue.submit(() -> actual.add("cancelled")).cancel(false);
+        latch.countDown();
+        queue.submit(() -> actual.add("executed")).get(1, TimeUnit.SECONDS);
+
+        // verify
+        assertThat(actual, is(Arrays.asList("executed")));
+    }
+
+    @Test
+    public void whenIdleYieldsToCommands() throws Exception {
+        // arrange
+        CountDownLatch latch = new CountDownLatch(1);
+        List<String> actual = Collections.synchronizedList(new ArrayList<>());
+        queue.submit(() -> latch.await(1, TimeUnit.SECONDS));
+
+        // act
+        CompletableFuture<Boolean> idle = queue.submitWhenIdle(() -> actual.add("idle"));
+        queue.submit(() -> actual.add("command1"));
+        queue.submit(() -> actual.add("command2"));
+        latch.countDown();
+        idle.get(1, TimeUnit.SECONDS);
+
+        // verify
+        assertThat(actual, is(Arrays.asList("command1", "command2", "idle")));
+    }
+
+    @Test
+    public void whenIdleOnly() throws Exception {
+        // act
+        CompletableFuture<String> idle1 = queue.submitWhenIdle(() -> "idle1");
+        CompletableFuture<String> idle2 = queue.submitWhenIdle(() -> "idle2");
+
+        // verify
+        assertThat(idle1.get(1, TimeUnit.SECONDS), is("idle1"));
+        assertThat(idle2.get(1, TimeUnit.SECONDS), is("idle2"));
+    }
+
+    @Test
+    public void closeWithPendingCommand() throws Exception {
+        // arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch latch = new CountDownLatch(1);
+        CompletableFuture<Boolean> running = queue.submit(() -> {
+            started.countDown();
+            return latch.await(1, TimeUnit.SECONDS);
+        });
+        CompletableFuture<String> pending = queue.submit(() -> "pending");
+        started.await(1, TimeUnit.SECONDS);
+
+        // act
+        queue.close();
+        latch.countDown();
+
+        // verify
+        assertThat(running.get(1, TimeUnit.SECONDS), is(true));
+        assertTrue(pending.isCompletedExceptionally());
+    }
+
+    @Test
+    public void submitAfterClose() {
+        // arrange
+        queue.close();
+
+        // act
+        CompletableFuture<String> actual = queue.submit(() -> "closed");
+
+        // verify
+        assertTrue(actual.isCompletedExceptionally());
+    }
+}
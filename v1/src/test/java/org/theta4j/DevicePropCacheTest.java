@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+
+public class DevicePropCacheTest {
+    private static final byte[] VALUE = new byte[]{0x01};
+
+    private long now;
+    private DevicePropCache cache;
+
+    private void put(DevicePropCode devicePropCode, byte[] value) {
+        cache.put(devicePropCode, cache.version(devicePropCode), value);
+    }
+
+    // Set up
+
+    @Before
+    public void setUp() {
+        now = 0;
+        cache = new DevicePropCache(() -> now);
+    }
+
+    // Default Time To Live
+
+    @Test
+    public void defaultTimeToLive() {
+        // verify
+        assertThat(cache.getTimeToLive(DevicePropCode.BATTERY_LEVEL, TimeUnit.MILLISECONDS), is(DevicePropCache.DEFAULT_TIME_TO_LIVE_MILLIS));
+        assertThat(cache.getTimeToLive(DevicePropCode.DATE_TIME, TimeUnit.MILLISECONDS), is(0L));
+        assertThat(cache.getTimeToLive(DevicePropCode.CAPTURE_STATUS, TimeUnit.MILLISECONDS), is(DevicePropCache.NO_EXPIRY));
+        assertThat(cache.getTimeToLive(DevicePropCode.RECORDING_TIME, TimeUnit.MILLISECONDS), is(DevicePropCache.NO_EXPIRY));
+        assertThat(cache.getTimeToLive(DevicePropCode.REMAINING_RECORDING_TIME, TimeUnit.MILLISECONDS), is(DevicePropCache.NO_EXPIRY));
+    }
+
+    // Set Time To Live
+
+    @Test(expected = NullPointerException.class)
+    public void setTimeToLiveWithNullCode() {
+        // act
+        cache.setTimeToLive(null, 1, TimeUnit.SECONDS);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setNegativeTimeToLive() {
+        // act
+        cache.setTimeToLive(DevicePropCode.BATTERY_LEVEL, -1, TimeUnit.SECONDS);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void setTimeToLiveWithNullUnit() {
+        // act
+        cache.setTimeToLive(DevicePropCode.BATTERY_LEVEL, 1, null);
+    }
+
+    @Test
+    public void setTimeToLive() {
+        // arrange
+        put(DevicePropCode.BATTERY_LEVEL, VALUE);
+
+        // act
+        cache.setTimeToLive(DevicePropCode.BATTERY_LEVEL, 10, TimeUnit.SECONDS);
+
+        // verify
+        assertThat(cache.getTimeToLive(DevicePropCode.BATTERY_LEVEL, TimeUnit.SECONDS), is(10L));
+        assertNull(cache.get(DevicePropCode.BATTERY_LEVEL));
+    }
+
+    // Get
+
+    @Test
+    public void hit() {
+        // arrange
+        put(DevicePropCode.WHITE_BALANCE, VALUE);
+
+        // act
+        byte[] actual = cache.get(DevicePropCode.WHITE_BALANCE);
+
+        // verify
+        assertThat(actual, is(VALUE));
+        assertThat(cache.getHitCount(), is(1L));
+        assertThat(cache.getMissCount(), is(0L));
+    }
+
+    @Test
+    public void miss() {
+        // act
+        byte[] actual = cache.get(DevicePropCode.WHITE_BALANCE);
+
+        // verify
+        assertNull(actual);
+        assertThat(cache.getHitCount(), is(0L));
+        assertThat(cache.getMissCount(), is(1L));
+    }
+
+    @Test
+    public void expired() {
+        // arrange
+        put(DevicePropCode.WHITE_BALANCE, VALUE);
+
+        // act & verify
+        now = TimeUnit.MILLISECONDS.toNanos(DevicePropCache.DEFAULT_TIME_TO_LIVE_MILLIS) - 1;
+        assertThat(cache.get(DevicePropCode.WHITE_BALANCE), is(VALUE));
+
+        now = TimeUnit.MILLISECONDS.toNanos(DevicePropCache.DEFAULT_TIME_TO_LIVE_MILLIS);
+        assertNull(cache.get(DevicePropCode.WHITE_BALANCE));
+    }
+
+    @Test
+    public void noExpiry() {
+        // arrange
+        put(DevicePropCode.CAPTURE_STATUS, VALUE);
+
+        // act
+        now = TimeUnit.DAYS.toNanos(365);
+
+        // verify
+        assertThat(cache.get(DevicePropCode.CAPTURE_STATUS), is(VALUE));
+    }
+
+    @Test
+    public void notCached() {
+        // arrange
+        put(DevicePropCode.DATE_TIME, VALUE);
+
+        // act & verify
+        assertNull(cache.get(DevicePropCode.DATE_TIME));
+    }
+
+    // Invalidate
+
+    @Test
+    public void invalidate() {
+        // arrange
+        put(DevicePropCode.CAPTURE_STATUS, VALUE);
+        put(DevicePropCode.RECORDING_TIME, VALUE);
+
+        // act
+        cache.invalidate(DevicePropCode.CAPTURE_STATUS);
+
+        // verify
+        assertNull(cache.get(DevicePropCode.CAPTURE_STATUS));
+        assertThat(cache.get(DevicePropCode.RECORDING_TIME), is(VALUE));
+    }
+
+    @Test
+    public void invalidateAll() {
+        // arrange
+        put(DevicePropCode.CAPTURE_STATUS, VALUE);
+        put(DevicePropCode.RECORDING_TIME, VALUE);
+
+        // act
+        cache.invalidateAll();
+
+        // verify
+        assertNull(cache.get(DevicePropCode.CAPTURE_STATUS));
+        assertNull(cache.get(DevicePropCode.RECORDING_TIME));
+    }
+
+    @Test
+    public void invalidatedWhileGetting() {
+        // arrange
+        long version = cache.version(DevicePropCode.CAPTURE_STATUS);
+        cache.invalidate(DevicePropCode.CAPTURE_STATUS);
+
+        // act
+        cache.put(DevicePropCode.CAPTURE_STATUS, version, VALUE);
+
+        // verify
+        assertNull(cache.get(DevicePropCode.CAPTURE_STATUS));
+    }
+}
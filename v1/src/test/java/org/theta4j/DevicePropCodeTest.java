@@ -8,6 +8,7 @@ import org.junit.Test;
 import org.theta4j.ptp.type.UINT16;
 
 import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 
 public class DevicePropCodeTest {
@@ -15,4 +16,21 @@ public class DevicePropCodeTest {
     public void value() {
         assertThat(DevicePropCode.BATTERY_LEVEL.value(), is(new UINT16(0x5001)));
     }
+
+    @Test
+    public void find() {
+        assertThat(DevicePropCode.find(0xD808), is(DevicePropCode.CAPTURE_STATUS));
+        assertNull(DevicePropCode.find(0x5002));
+        assertNull(DevicePropCode.find(-1));
+    }
+
+    @Test
+    public void valueOf() {
+        assertThat(DevicePropCode.valueOf(0xD808), is(DevicePropCode.CAPTURE_STATUS));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void valueOfUnknownValue() {
+        DevicePropCode.valueOf(0x5002);
+    }
 }
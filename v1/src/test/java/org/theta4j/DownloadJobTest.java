@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j;
+
+import org.junit.Test;
+import org.theta4j.ptp.type.UINT32;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class DownloadJobTest {
+    private static final UINT32 OBJECT_HANDLE = new UINT32(1);
+
+    private static DownloadJob job(int priority, long sequenceNumber) {
+        return new DownloadJob(OBJECT_HANDLE, new ByteArrayOutputStream(), DownloadJob.Variant.FULL, priority, sequenceNumber);
+    }
+
+    @Test
+    public void order() {
+        // given
+        DownloadJob bulk1 = job(0, 0);
+        DownloadJob bulk2 = job(0, 1);
+        DownloadJob interactive = job(10, 2);
+        List<DownloadJob> jobs = new ArrayList<>(Arrays.asList(bulk1, bulk2, interactive));
+
+        // act
+        jobs.sort(DownloadJob.ORDER);
+
+        // verify
+        assertThat(jobs, is(Arrays.asList(interactive, bulk1, bulk2)));
+    }
+
+    @Test
+    public void countTransferredBytes() throws IOException {
+        // given
+        ByteArrayOutputStream dst = new ByteArrayOutputStream();
+        DownloadJob job = new DownloadJob(OBJECT_HANDLE, dst, DownloadJob.Variant.THUMB, 0, 0);
+
+        // act
+        job.getDestination().write(new byte[]{1, 2, 3});
+        job.getDestination().write(4);
+
+        // verify
+        assertArrayEquals(new byte[]{1, 2, 3, 4}, dst.toByteArray());
+        assertThat(job.getTransferredBytes(), is(4L));
+    }
+
+    @Test
+    public void progress() throws IOException {
+        // arrange
+        DownloadJob job = job(0, 0);
+
+        // act & verify
+        assertThat(job.getProgress(), is(-1.0));
+        assertThat(job.getEstimatedRemainingTime(TimeUnit.SECONDS), is(-1L));
+
+        job.setTotalBytes(8);
+        job.getDestination().write(new byte[2]);
+        assertThat(job.getProgress(), is(0.25));
+    }
+
+    @Test
+    public void estimatedRemainingTime() throws Exception {
+        // arrange
+        DownloadJob job = job(0, 0);
+        job.setTotalBytes(1000);
+        job.started();
+        Thread.sleep(10);
+        job.getDestination().write(new byte[500]);
+        job.stopped(DownloadJob.State.QUEUED);
+
+        // act & verify
+        assertTrue(0.0 < job.getThroughput());
+        long eta = job.getEstimatedRemainingTime(TimeUnit.NANOSECONDS);
+        assertTrue(0 < eta);
+    }
+
+    @Test
+    public void cancelQueued() {
+        // arrange
+        DownloadJob job = job(0, 0);
+
+        // act
+        boolean actual = job.cancel();
+
+        // verify
+        assertTrue(actual);
+        assertThat(job.getState(), is(DownloadJob.State.CANCELLED));
+        assertTrue(job.getFuture().isCancelled());
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.theta4j.ptp.code.OperationCode;
+import org.theta4j.ptp.data.ObjectInfo;
+import org.theta4j.ptp.type.UINT16;
+import org.theta4j.ptp.type.UINT32;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DownloadManagerTest {
+    private static final int CHUNK_SIZE = 4;
+    private static final UINT32 LARGE = new UINT32(1);
+    private static final UINT32 SMALL1 = new UINT32(2);
+    private static final UINT32 SMALL2 = new UINT32(3);
+
+    private FakePtpInitiator initiator;
+    private Theta theta;
+    private DownloadManager manager;
+
+    // The chunks requested by the worker, and the permits to answer them
+    private final BlockingQueue<String> chunks = new LinkedBlockingQueue<>();
+    private final Semaphore permits = new Semaphore(0);
+    private volatile Thread worker;
+
+    @Before
+    public void setUp() throws IOException {
+        initiator = new FakePtpInitiator();
+        initiator.on(OperationCode.GET_OBJECT_INFO, operation ->
+                FakePtpInitiator.Reply.ok(objectInfo(dataOf(operation.getP1()).length).bytes()));
+        initiator.on(OperationCode.GET_PARTIAL_OBJECT, operation -> {
+            worker = Thread.currentThread();
+            chunks.add(chunk(operation.getP1(), operation.getP2().intValue()));
+            permits.acquireUninterruptibly();
+
+            byte[] data = dataOf(operation.getP1());
+            int offset = operation.getP2().intValue();
+            int length = Math.min(operation.getP3().intValue(), data.length - offset);
+            return FakePtpInitiator.Reply.ok(Arrays.copyOfRange(data, offset, offset + length));
+        });
+
+        theta = new Theta(initiator);
+        manager = new DownloadManager(theta, CHUNK_SIZE);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        permits.release(1000);
+        manager.close();
+        theta.close();
+    }
+
+    private static ObjectInfo objectInfo(int size) {
+        return new ObjectInfo(new UINT32(0x00010001), new UINT16(0x3801), ObjectInfo.ProtectionStatus.NO_PROTECTION,
+                new UINT32(size), new UINT16(0x3808), new UINT32(4096), new UINT32(160), new UINT32(80),
+                new UINT32(5376), new UINT32(2688), new UINT32(24),
+                UINT32.ZERO, UINT16.ZERO, UINT32.ZERO, UINT32.ZERO,
+                "R0010001.JPG", "20150101T000000", "20150101T000000", "");
+    }
+
+    private static byte[] dataOf(UINT32 objectHandle) {
+        byte[] data = new byte[objectHandle.equals(LARGE) ? 10 : 4];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (objectHandle.intValue() * 16 + i);
+        }
+        return data;
+    }
+
+    private static String chunk(UINT32 objectHandle, int offset) {
+        return objectHandle.intValue() + "@" + offset;
+    }
+
+    private String nextChunk() throws InterruptedException {
+        String chunk = chunks.poll(10, TimeUnit.SECONDS);
+        if (chunk == null) {
+            fail("No chunk is requested.");
+        }
+        return chunk;
+    }
+
+    private List<String> requestedChunks() {
+        List<String> requested = new ArrayList<>();
+        chunks.drainTo(requested);
+        return requested;
+    }
+
+    /**
+     * Waits for the state, because the worker updates the state after completing the future.
+     */
+    private static void assertState(DownloadJob job, DownloadJob.State state) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (job.getState() != state && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(job.getState(), is(state));
+    }
+
+    private static void assertFailed(DownloadJob job) throws InterruptedException, TimeoutException {
+        try {
+            job.getFuture().get(10, TimeUnit.SECONDS);
+            fail("The job is not failed.");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+        assertState(job, DownloadJob.State.FAILED);
+    }
+
+    // Priority
+
+    @Test
+    public void higherPriorityJumpsAheadAtChunkBoundary() throws Exception {
+        // given
+        ByteArrayOutputStream bulkDst = new ByteArrayOutputStream();
+        DownloadJob bulk = manager.submit(LARGE, bulkDst, DownloadJob.Variant.FULL, 0);
+        assertThat(nextChunk(), is(chunk(LARGE, 0)));
+
+        // act
+        ByteArrayOutputStream interactiveDst = new ByteArrayOutputStream();
+        DownloadJob interactive = manager.submit(SMALL1, interactiveDst, DownloadJob.Variant.FULL, 10);
+        permits.release(100);
+        bulk.getFuture().get(10, TimeUnit.SECONDS);
+        interactive.getFuture().get(10, TimeUnit.SECONDS);
+
+        // verify: The bulk job yields after the first chunk, and resumes from the transferred offset.
+        assertThat(requestedChunks(), is(Arrays.asList(chunk(SMALL1, 0), chunk(LARGE, 4), chunk(LARGE, 8))));
+        assertArrayEquals(dataOf(LARGE), bulkDst.toByteArray());
+        assertArrayEquals(dataOf(SMALL1), interactiveDst.toByteArray());
+        assertState(bulk, DownloadJob.State.COMPLETED);
+        assertThat(bulk.getTransferredBytes(), is(10L));
+        assertThat(bulk.getTotalBytes(), is(10L));
+    }
+
+    @Test
+    public void setPriorityOfQueuedJob() throws Exception {
+        // given
+        DownloadJob running = manager.submit(LARGE, new ByteArrayOutputStream(), DownloadJob.Variant.FULL, 0);
+        assertThat(nextChunk(), is(chunk(LARGE, 0)));
+        DownloadJob first = manager.submit(SMALL1, new ByteArrayOutputStream(), DownloadJob.Variant.FULL, 0);
+        DownloadJob second = manager.submit(SMALL2, new ByteArrayOutputStream(), DownloadJob.Variant.FULL, 0);
+
+        // act
+        manager.setPriority(second, 5);
+
+        // verify
+        assertThat(manager.getQueuedJobs(), is(Arrays.asList(second, first)));
+
+        permits.release(100);
+        first.getFuture().get(10, TimeUnit.SECONDS);
+        assertTrue(running.getFuture().isDone());
+        assertTrue(second.getFuture().isDone());
+
+        // The raised job jumps ahead of the running job, which continues before the job submitted later.
+        assertThat(requestedChunks(), is(Arrays.asList(chunk(SMALL2, 0), chunk(LARGE, 4), chunk(LARGE, 8), chunk(SMALL1, 0))));
+    }
+
+    // Cancel
+
+    @Test
+    public void cancelRunningJob() throws Exception {
+        // given
+        ByteArrayOutputStream dst = new ByteArrayOutputStream();
+        DownloadJob running = manager.submit(LARGE, dst, DownloadJob.Variant.FULL, 0);
+        assertThat(nextChunk(), is(chunk(LARGE, 0)));
+
+        // act
+        running.cancel();
+        permits.release(100);
+
+        // verify: The job stops at the boundary of the chunk, and the worker takes the next job.
+        DownloadJob next = manager.submit(SMALL1, new ByteArrayOutputStream(), DownloadJob.Variant.FULL, 0);
+        next.getFuture().get(10, TimeUnit.SECONDS);
+
+        assertTrue(running.getFuture().isCancelled());
+        assertThat(running.getState(), is(DownloadJob.State.CANCELLED));
+        assertThat(dst.size(), is(CHUNK_SIZE));
+        assertThat(requestedChunks(), is(Arrays.asList(chunk(SMALL1, 0))));
+    }
+
+    // Close
+
+    @Test
+    public void closeFailsQueuedJobs() throws Exception {
+        // given
+        DownloadJob running = manager.submit(LARGE, new ByteArrayOutputStream(), DownloadJob.Variant.FULL, 0);
+        assertThat(nextChunk(), is(chunk(LARGE, 0)));
+        DownloadJob queued = manager.submit(SMALL1, new ByteArrayOutputStream(), DownloadJob.Variant.FULL, 0);
+
+        // act
+        manager.close();
+
+        // verify
+        assertFailed(queued);
+
+        permits.release(100);
+        assertFailed(running);
+        assertFailed(manager.submit(SMALL2, new ByteArrayOutputStream()));
+        assertThat(requestedChunks(), is(new ArrayList<String>()));
+    }
+
+    @Test
+    public void interruptClosesManager() throws Exception {
+        // given
+        permits.release(100);
+        manager.submit(SMALL1, new ByteArrayOutputStream()).getFuture().get(10, TimeUnit.SECONDS);
+
+        // act
+        Thread worker = this.worker;
+        worker.interrupt();
+        worker.join(10 * 1000);
+
+        // verify: The job submitted after the worker stopped does not wait forever.
+        assertThat(worker.isAlive(), is(false));
+        assertFailed(manager.submit(SMALL2, new ByteArrayOutputStream()));
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j;
+
+import org.theta4j.ptp.AbstractPtpInitiator;
+import org.theta4j.ptp.code.Code;
+import org.theta4j.ptp.code.ResponseCode;
+import org.theta4j.ptp.data.Event;
+import org.theta4j.ptp.data.Response;
+import org.theta4j.ptp.type.UINT16;
+import org.theta4j.ptp.type.UINT32;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * PTP initiator which answers the operations in memory instead of THETA.
+ * <p>
+ * The operations are answered OK without data unless a responder is registered for the operation code.
+ * An operation sent before the response of the previous one is read fails, as a real connection gets out of sync.
+ */
+public class FakePtpInitiator extends AbstractPtpInitiator {
+    /**
+     * Answers the operation. It is called on the thread of the operation, so it can block to hold the transaction.
+     */
+    public interface Responder {
+        Reply respond(Operation operation) throws IOException;
+    }
+
+    private final Map<UINT16, Responder> responders = new ConcurrentHashMap<>();
+    private final List<Operation> operations = new CopyOnWriteArrayList<>();
+
+    private long transactionID = 0;
+    private Operation pending;
+    private Reply reply;
+    private volatile boolean closed = false;
+
+    // Responder
+
+    public void on(Code<UINT16> operationCode, Responder responder) {
+        responders.put(operationCode.value(), responder);
+    }
+
+    // Getter
+
+    public List<Operation> getOperations() {
+        return new ArrayList<>(operations);
+    }
+
+    public List<UINT16> getOperationCodes() {
+        List<UINT16> operationCodes = new ArrayList<>();
+        for (Operation operation : operations) {
+            operationCodes.add(operation.getOperationCode());
+        }
+        return operationCodes;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    // Event
+
+    public void raise(Event event) {
+        eventWaiters.complete(event);
+        listenerSet.onEvent(event);
+    }
+
+    // Operations
+
+    @Override
+    public UINT32 sendOperation(Code<UINT16> operationCode, UINT32 p1, UINT32 p2, UINT32 p3, UINT32 p4, UINT32 p5) throws IOException {
+        checkOpen();
+
+        if (pending != null) {
+            throw new IOException("The response of the previous operation is not read: " + pending.getOperationCode());
+        }
+
+        pending = new Operation(operationCode.value(), new UINT32(++transactionID), p1, p2, p3);
+        reply = null;
+        operations.add(pending);
+
+        return pending.getTransactionID();
+    }
+
+    // Response
+
+    @Override
+    public Response receiveResponse() throws IOException {
+        Reply reply = reply();
+        Response response = new Response(reply.responseCode, getSessionID(), pending.getTransactionID());
+
+        pending = null;
+        this.reply = null;
+
+        return response;
+    }
+
+    // Data
+
+    @Override
+    public void sendData(byte[] data) throws IOException {
+        checkPending();
+
+        pending.data = data.clone();
+    }
+
+    @Override
+    public void sendData(ReadableByteChannel src, long length) throws IOException {
+        checkPending();
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) length);
+        while (buffer.hasRemaining()) {
+            if (src.read(buffer) < 0) {
+                throw new IOException("The source ended before " + length + " bytes.");
+            }
+        }
+        pending.data = buffer.array();
+    }
+
+    @Override
+    public void receiveData(OutputStream dst) throws IOException {
+        dst.write(dataOfReply());
+    }
+
+    @Override
+    public void receiveData(WritableByteChannel dst) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(dataOfReply());
+        while (buffer.hasRemaining()) {
+            dst.write(buffer);
+        }
+    }
+
+    @Override
+    public InputStream openData() throws IOException {
+        return new ByteArrayInputStream(dataOfReply());
+    }
+
+    @Override
+    public void cancelTransaction(UINT32 transactionID) throws IOException {
+        checkOpen();
+    }
+
+    // Closeable
+
+    @Override
+    public void close() {
+        closed = true;
+        eventWaiters.close();
+    }
+
+    // Utility
+
+    private void checkOpen() throws IOException {
+        if (closed) {
+            throw new IOException("The initiator is closed.");
+        }
+    }
+
+    private void checkPending() throws IOException {
+        checkOpen();
+
+        if (pending == null) {
+            throw new IOException("No operation is sent.");
+        }
+    }
+
+    private Reply reply() throws IOException {
+        checkPending();
+
+        if (reply == null) {
+            Responder responder = responders.get(pending.getOperationCode());
+            reply = responder == null ? Reply.ok() : responder.respond(pending);
+        }
+
+        return reply;
+    }
+
+    private byte[] dataOfReply() throws IOException {
+        Reply reply = reply();
+
+        if (reply.data == null) {
+            throw new IOException("The operation has no data phase: " + pending.getOperationCode());
+        }
+
+        return reply.data;
+    }
+
+    // Operation
+
+    public static final class Operation {
+        private final UINT16 operationCode;
+        private final UINT32 transactionID;
+        private final UINT32 p1;
+        private final UINT32 p2;
+        private final UINT32 p3;
+        private volatile byte[] data;
+
+        private Operation(UINT16 operationCode, UINT32 transactionID, UINT32 p1, UINT32 p2, UINT32 p3) {
+            this.operationCode = operationCode;
+            this.transactionID = transactionID;
+            this.p1 = p1;
+            this.p2 = p2;
+            this.p3 = p3;
+        }
+
+        public UINT16 getOperationCode() {
+            return operationCode;
+        }
+
+        public UINT32 getTransactionID() {
+            return transactionID;
+        }
+
+        public UINT32 getP1() {
+            return p1;
+        }
+
+        public UINT32 getP2() {
+            return p2;
+        }
+
+        public UINT32 getP3() {
+            return p3;
+        }
+
+        /**
+         * Returns the data sent by the initiator, or null if the operation has no data-out phase.
+         */
+        public byte[] getData() {
+            return data;
+        }
+    }
+
+    // Reply
+
+    public static final class Reply {
+        private final UINT16 responseCode;
+        private final byte[] data;
+
+        private Reply(UINT16 responseCode, byte[] data) {
+            this.responseCode = responseCode;
+            this.data = data;
+        }
+
+        public static Reply ok() {
+            return new Reply(ResponseCode.OK.value(), null);
+        }
+
+        public static Reply ok(byte[] data) {
+            return new Reply(ResponseCode.OK.value(), data.clone());
+        }
+
+        public static Reply of(Code<UINT16> responseCode) {
+            return new Reply(responseCode.value(), null);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.theta4j.ptp.data.ObjectInfo;
+import org.theta4j.ptp.type.UINT16;
+import org.theta4j.ptp.type.UINT32;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+public class ObjectCatalogTest {
+    private static final String SERIAL_NUMBER = "00012345";
+
+    private static final UINT32 HANDLE_1 = new UINT32(1);
+    private static final UINT32 HANDLE_2 = new UINT32(2);
+    private static final UINT32 HANDLE_3 = new UINT32(3);
+
+    private Path directory;
+
+    private static ObjectInfo objectInfo(String fileName, long size) {
+        return new ObjectInfo(new UINT32(0x00010001), new UINT16(0x3801), ObjectInfo.ProtectionStatus.NO_PROTECTION,
+                new UINT32(size), new UINT16(0x3808), new UINT32(4096), new UINT32(160), new UINT32(80),
+                new UINT32(5376), new UINT32(2688), new UINT32(24),
+                UINT32.ZERO, UINT16.ZERO, UINT32.ZERO, UINT32.ZERO,
+                fileName, "20150101T000000", "20150101T000000", "");
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("theta4j-catalog");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void withNullSerialNumber() throws IOException {
+        // act
+        new ObjectCatalog(directory, null);
+    }
+
+    @Test
+    public void putAndGet() throws IOException {
+        // given
+        ObjectInfo objectInfo = objectInfo("R0010001.JPG", 1000);
+
+        try (ObjectCatalog catalog = new ObjectCatalog(directory, SERIAL_NUMBER)) {
+            // act
+            catalog.put(HANDLE_1, objectInfo);
+
+            // verify
+            assertThat(catalog.size(), is(1));
+            assertTrue(catalog.contains(HANDLE_1));
+            assertThat(catalog.getObjectInfo(HANDLE_1), is(objectInfo));
+            assertNull(catalog.getObjectInfo(HANDLE_2));
+        }
+    }
+
+    @Test
+    public void persistent() throws IOException {
+        // arrange
+        try (ObjectCatalog catalog = new ObjectCatalog(directory, SERIAL_NUMBER)) {
+            catalog.put(HANDLE_1, objectInfo("R0010001.JPG", 1000));
+            catalog.put(HANDLE_2, objectInfo("R0010002.JPG", 2000));
+            catalog.put(HANDLE_1, objectInfo("R0010001.JPG", 1500));
+            catalog.remove(HANDLE_2);
+        }
+
+        // act
+        try (ObjectCatalog catalog = new ObjectCatalog(directory, SERIAL_NUMBER)) {
+            // verify
+            assertThat(catalog.getObjectHandles(), is(Collections.singletonList(HANDLE_1)));
+            assertThat(catalog.getObjectInfo(HANDLE_1), is(objectInfo("R0010001.JPG", 1500)));
+        }
+    }
+
+    @Test
+    public void retainAll() throws IOException {
+        try (ObjectCatalog catalog = new ObjectCatalog(directory, SERIAL_NUMBER)) {
+            // arrange
+            catalog.put(HANDLE_1, objectInfo("R0010001.JPG", 1000));
+            catalog.put(HANDLE_2, objectInfo("R0010002.JPG", 2000));
+
+            // act
+            Object missing = catalog.retainAll(Arrays.asList(HANDLE_3, HANDLE_2));
+
+            // verify
+            assertThat(missing, is(Collections.singleton(HANDLE_3)));
+            assertThat(catalog.getObjectHandles(), is(Collections.singletonList(HANDLE_2)));
+        }
+    }
+
+    @Test
+    public void grow() throws IOException {
+        try (ObjectCatalog catalog = new ObjectCatalog(directory, SERIAL_NUMBER)) {
+            // act
+            for (int i = 0; i < 2000; i++) {
+                catalog.put(new UINT32(i), objectInfo(String.format("R%07d.JPG", i), i));
+            }
+
+            // verify
+            assertThat(catalog.size(), is(2000));
+            assertThat(catalog.getObjectInfo(new UINT32(1999)), is(objectInfo("R0001999.JPG", 1999)));
+        }
+    }
+
+    @Test
+    public void compactOnOpen() throws IOException {
+        // arrange
+        long sizeBeforeCompaction;
+        try (ObjectCatalog catalog = new ObjectCatalog(directory, SERIAL_NUMBER)) {
+            for (int i = 0; i < 1000; i++) {
+                catalog.put(HANDLE_1, objectInfo("R0010001.JPG", i));
+            }
+            sizeBeforeCompaction = Files.size(catalog.getFile());
+        }
+
+        // act
+        try (ObjectCatalog catalog = new ObjectCatalog(directory, SERIAL_NUMBER)) {
+            // verify
+            assertThat(catalog.getObjectInfo(HANDLE_1), is(objectInfo("R0010001.JPG", 999)));
+            assertTrue(Files.size(catalog.getFile()) < sizeBeforeCompaction);
+        }
+    }
+
+    @Test
+    public void brokenFile() throws IOException {
+        // arrange
+        Path file;
+        try (ObjectCatalog catalog = new ObjectCatalog(directory, SERIAL_NUMBER)) {
+            file = catalog.getFile();
+        }
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17});
+
+        // act
+        try (ObjectCatalog catalog = new ObjectCatalog(directory, SERIAL_NUMBER)) {
+            // verify
+            assertThat(catalog.size(), is(0));
+        }
+    }
+
+    @Test
+    public void fileNameFromSerialNumber() throws IOException {
+        try (ObjectCatalog catalog = new ObjectCatalog(directory, "a/b")) {
+            // verify
+            assertThat(catalog.getFile(), is(directory.resolve("a_b.catalog")));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void getAfterClose() throws IOException {
+        // arrange
+        ObjectCatalog catalog = new ObjectCatalog(directory, SERIAL_NUMBER);
+        catalog.close();
+
+        // act
+        catalog.getObjectInfo(HANDLE_1);
+    }
+}
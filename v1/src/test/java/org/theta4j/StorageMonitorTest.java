@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j;
+
+import org.junit.Test;
+import org.theta4j.ptp.data.StorageInfo;
+import org.theta4j.ptp.type.UINT16;
+import org.theta4j.ptp.type.UINT32;
+import org.theta4j.ptp.type.UINT64;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+
+public class StorageMonitorTest {
+    private static final UINT32 STORAGE_ID = new UINT32(0x00010001);
+    private static final UINT32 OTHER_STORAGE_ID = new UINT32(0x00020001);
+
+    private static StorageInfo storageInfo(long freeSpaceInBytes, long freeSpaceInImages) {
+        return new StorageInfo(UINT16.ZERO, UINT16.ZERO, UINT16.ZERO,
+                new UINT64(4_000_000_000L), new UINT64(freeSpaceInBytes), new UINT32(freeSpaceInImages),
+                "", "");
+    }
+
+    // Construct with error
+
+    @Test(expected = IllegalArgumentException.class)
+    public void withZeroSampleSize() {
+        // act
+        new StorageMonitor(0);
+    }
+
+    // Storages
+
+    @Test
+    public void updateStorageIDs() {
+        // given
+        StorageInfo storageInfo = storageInfo(1000, 10);
+
+        // arrange
+        StorageMonitor monitor = new StorageMonitor();
+        monitor.updateStorageIDs(Collections.singletonList(STORAGE_ID));
+        monitor.updateStorageInfo(STORAGE_ID, storageInfo);
+
+        // act
+        monitor.updateStorageIDs(Arrays.asList(STORAGE_ID, OTHER_STORAGE_ID));
+
+        // verify
+        assertThat(monitor.getStorageIDs(), is(Arrays.asList(STORAGE_ID, OTHER_STORAGE_ID)));
+        assertThat(monitor.getStorageInfo(STORAGE_ID), is(storageInfo));
+        assertNull(monitor.getStorageInfo(OTHER_STORAGE_ID));
+    }
+
+    @Test
+    public void removeStorage() {
+        // arrange
+        StorageMonitor monitor = new StorageMonitor();
+        monitor.updateStorageIDs(Arrays.asList(STORAGE_ID, OTHER_STORAGE_ID));
+        monitor.updateStorageInfo(STORAGE_ID, storageInfo(1000, 10));
+
+        // act
+        monitor.updateStorageIDs(Collections.singletonList(OTHER_STORAGE_ID));
+
+        // verify
+        assertThat(monitor.getStorageIDs(), is(Collections.singletonList(OTHER_STORAGE_ID)));
+        assertNull(monitor.getStorageInfo(STORAGE_ID));
+    }
+
+    // Estimation
+
+    @Test
+    public void estimateWithoutObjectSize() {
+        // arrange
+        StorageMonitor monitor = new StorageMonitor();
+        monitor.updateStorageInfo(STORAGE_ID, storageInfo(1000, 10));
+
+        // act & verify
+        assertThat(monitor.estimateRemainingCaptures(STORAGE_ID), is(10L));
+    }
+
+    @Test
+    public void estimateWithUnknownFreeSpaceInImages() {
+        // arrange
+        StorageMonitor monitor = new StorageMonitor();
+        monitor.updateStorageInfo(STORAGE_ID, storageInfo(1000, 0xFFFFFFFFL));
+
+        // act & verify
+        assertThat(monitor.estimateRemainingCaptures(STORAGE_ID), is(-1L));
+    }
+
+    @Test
+    public void estimateUnknownStorage() {
+        // act & verify
+        assertThat(new StorageMonitor().estimateRemainingCaptures(STORAGE_ID), is(-1L));
+    }
+
+    @Test
+    public void estimateWithObjectSize() {
+        // arrange
+        StorageMonitor monitor = new StorageMonitor();
+        monitor.updateStorageInfo(STORAGE_ID, storageInfo(1000, 10));
+        monitor.addObjectSize(100);
+        monitor.addObjectSize(300);
+
+        // act & verify
+        assertThat(monitor.getAverageObjectSize(), is(200L));
+        assertThat(monitor.estimateRemainingCaptures(STORAGE_ID), is(5L));
+    }
+
+    @Test
+    public void oldObjectSizeIsDropped() {
+        // arrange
+        StorageMonitor monitor = new StorageMonitor(2);
+        monitor.addObjectSize(1000);
+        monitor.addObjectSize(100);
+        monitor.addObjectSize(300);
+
+        // act & verify
+        assertThat(monitor.getAverageObjectSize(), is(200L));
+    }
+}
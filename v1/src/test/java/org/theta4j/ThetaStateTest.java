@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j;
+
+import org.junit.Test;
+import org.theta4j.data.BatteryLevel;
+import org.theta4j.data.CaptureStatus;
+
+import java.util.Date;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+
+public class ThetaStateTest {
+    private static ThetaState state(Date dateTime, CaptureStatus captureStatus, Integer recordingTime) {
+        return new ThetaState(BatteryLevel.FULL, null, null, null, dateTime, null, 0, 5000, 100, null,
+                null, null, 5, 180, null, captureStatus, recordingTime, null);
+    }
+
+    @Test
+    public void getter() {
+        // given
+        Date dateTime = new Date(0);
+
+        // act
+        ThetaState actual = state(dateTime, CaptureStatus.IDLE, null);
+
+        // verify
+        assertThat(actual.getBatteryLevel(), is(BatteryLevel.FULL));
+        assertThat(actual.getDateTime(), is(dateTime));
+        assertThat(actual.getTimelapseNumber(), is(0));
+        assertThat(actual.getTimelapseInterval(), is(5000));
+        assertThat(actual.getAudioVolume(), is(100));
+        assertThat(actual.getAutoPowerOffDelay(), is(5));
+        assertThat(actual.getSleepDelay(), is(180));
+        assertThat(actual.getCaptureStatus(), is(CaptureStatus.IDLE));
+        assertNull(actual.getWhiteBalance());
+        assertNull(actual.getRecordingTime());
+    }
+
+    @Test
+    public void dateTimeIsCopied() {
+        // given
+        Date dateTime = new Date(0);
+
+        // arrange
+        ThetaState actual = state(dateTime, CaptureStatus.IDLE, null);
+
+        // act
+        dateTime.setTime(1);
+        actual.getDateTime().setTime(2);
+
+        // verify
+        assertThat(actual.getDateTime(), is(new Date(0)));
+    }
+
+    @Test
+    public void nullDateTime() {
+        // act
+        ThetaState actual = state(null, CaptureStatus.IDLE, null);
+
+        // verify
+        assertNull(actual.getDateTime());
+    }
+
+    @Test
+    public void equals() {
+        // given
+        ThetaState state1 = state(new Date(0), CaptureStatus.IDLE, 10);
+        ThetaState state2 = state(new Date(0), CaptureStatus.IDLE, 10);
+
+        // verify
+        assertThat(state1, is(state2));
+        assertThat(state1.hashCode(), is(state2.hashCode()));
+    }
+
+    @Test
+    public void notEquals() {
+        // given
+        ThetaState state1 = state(new Date(0), CaptureStatus.IDLE, 10);
+        ThetaState state2 = state(new Date(0), CaptureStatus.IDLE, 11);
+
+        // verify
+        assertThat(state1, is(not(state2)));
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+import org.theta4j.data.WhiteBalance;
+import org.theta4j.ptp.InvalidDataException;
+import org.theta4j.ptp.code.OperationCode;
+import org.theta4j.ptp.code.ResponseCode;
+import org.theta4j.ptp.type.DataType;
+import org.theta4j.ptp.type.UINT16;
+import org.theta4j.ptp.type.UINT32;
+import org.theta4j.ptp.type.UINT8;
+import org.theta4j.ptpip.PtpIpInitiator;
+import org.theta4j.ptpip.PtpIpTransport;
+import org.theta4j.ptpip.packet.InitCommandAckPacket;
+import org.theta4j.ptpip.packet.OperationResponsePacket;
+import org.theta4j.ptpip.packet.PtpIpPacket;
+import org.theta4j.util.ArrayUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+@RunWith(Enclosed.class)
+public class ThetaTest {
+    private static final UINT32 OBJECT_HANDLE = new UINT32(1);
+
+    private static void closeQuietly(Theta theta) {
+        try {
+            theta.close();
+        } catch (IOException e) {
+            // The connection may be aborted by the test
+        }
+    }
+
+    public static class GetObjectWithTimeout {
+        @Test(timeout = 30 * 1000)
+        public void silentChannel() throws Exception {
+            try (SilentResponder responder = new SilentResponder()) {
+                // arrange
+                Theta theta = new Theta(new PtpIpInitiator(UUID.randomUUID(), "127.0.0.1", responder.getPort(), PtpIpTransport.CHANNEL));
+
+                // act
+                try {
+                    theta.getObject(OBJECT_HANDLE, new ByteArrayOutputStream(), Duration.ofMillis(100));
+                    fail("The blocked read is not released.");
+                } catch (InterruptedIOException e) {
+                    // verify: The read blocked on the channel is released after the grace period
+                } finally {
+                    closeQuietly(theta);
+                }
+            }
+        }
+    }
+
+    public static class SetDevicePropValueWithUndecodableDesc {
+        private static final UINT8 GET_SET = new UINT8(0x01);
+        private static final UINT8 ENUMERATION = new UINT8(0x02);
+        private static final UINT8 VENDOR_FORM_FLAG = new UINT8(0x80);
+
+        private FakePtpInitiator initiator;
+        private Theta theta;
+
+        @Before
+        public void setUp() throws IOException {
+            initiator = new FakePtpInitiator();
+            theta = new Theta(initiator);
+        }
+
+        private static byte[] whiteBalanceDesc(byte[] form) {
+            return ArrayUtils.join(
+                    DevicePropCode.WHITE_BALANCE.value().bytes(),
+                    DataType.UINT16.value().bytes(),
+                    GET_SET.bytes(),
+                    WhiteBalance.AUTO.value().bytes(),
+                    WhiteBalance.AUTO.value().bytes(),
+                    form
+            );
+        }
+
+        private void verifyValueIsSent(OperationCode... expectedCodes) {
+            List<UINT16> codes = new ArrayList<>();
+            for (OperationCode code : expectedCodes) {
+                codes.add(code.value());
+            }
+            List<FakePtpInitiator.Operation> operations = initiator.getOperations();
+
+            assertThat(initiator.getOperationCodes(), is(codes));
+            assertArrayEquals(WhiteBalance.DAYLIGHT.value().bytes(), operations.get(operations.size() - 1).getData());
+        }
+
+        @Test
+        public void emptyEnumeration() throws IOException {
+            // given
+            byte[] desc = whiteBalanceDesc(ArrayUtils.join(ENUMERATION.bytes(), new UINT16(0).bytes()));
+            initiator.on(OperationCode.GET_DEVICE_PROP_DESC, operation -> FakePtpInitiator.Reply.ok(desc));
+
+            // act
+            theta.setWhiteBalance(WhiteBalance.DAYLIGHT);
+
+            // verify
+            verifyValueIsSent(OperationCode.OPEN_SESSION, OperationCode.GET_DEVICE_PROP_DESC, OperationCode.SET_DEVICE_PROP_VALUE);
+        }
+
+        @Test
+        public void unknownFormFlag() throws IOException {
+            // given
+            byte[] desc = whiteBalanceDesc(VENDOR_FORM_FLAG.bytes());
+            initiator.on(OperationCode.GET_DEVICE_PROP_DESC, operation -> FakePtpInitiator.Reply.ok(desc));
+
+            // act
+            theta.setWhiteBalance(WhiteBalance.DAYLIGHT);
+
+            // verify
+            verifyValueIsSent(OperationCode.OPEN_SESSION, OperationCode.GET_DEVICE_PROP_DESC, OperationCode.SET_DEVICE_PROP_VALUE);
+        }
+
+        @Test
+        public void getDevicePropDesc() throws IOException {
+            // given
+            byte[] desc = whiteBalanceDesc(VENDOR_FORM_FLAG.bytes());
+            initiator.on(OperationCode.GET_DEVICE_PROP_DESC, operation -> FakePtpInitiator.Reply.ok(desc));
+
+            // act
+            try {
+                theta.getDevicePropDesc(DevicePropCode.WHITE_BALANCE);
+                fail("The undecodable description is returned.");
+            } catch (InvalidDataException e) {
+                // expected
+            }
+
+            // verify: The response is read, so the next operation succeeds
+            theta.setWhiteBalance(WhiteBalance.DAYLIGHT);
+            verifyValueIsSent(OperationCode.OPEN_SESSION, OperationCode.GET_DEVICE_PROP_DESC,
+                    OperationCode.GET_DEVICE_PROP_DESC, OperationCode.SET_DEVICE_PROP_VALUE);
+        }
+    }
+
+    // Responder
+
+    /**
+     * PTP-IP responder which opens the session, but never answers the following operations.
+     */
+    private static final class SilentResponder implements Closeable {
+        private static final int TRANSACTION_ID_OFFSET = 14; // Header, DataPhaseInfo and OperationCode
+        private static final UINT32 PROTOCOL_VERSION = new UINT32(0x00000100L);
+
+        private final ServerSocketChannel server;
+
+        private SilentResponder() throws IOException {
+            server = ServerSocketChannel.open();
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+
+            Thread thread = new Thread(this::respond, "silent-responder");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private int getPort() throws IOException {
+            return ((InetSocketAddress) server.getLocalAddress()).getPort();
+        }
+
+        private void respond() {
+            try (SocketChannel command = server.accept()) {
+                readPacket(command); // InitCommandRequest
+                command.write(ByteBuffer.wrap(new InitCommandAckPacket(new UINT32(1), UUID.randomUUID(), "responder", PROTOCOL_VERSION).bytes()));
+
+                try (SocketChannel event = server.accept()) {
+                    readPacket(event); // InitEventRequest
+                    ByteBuffer initEventAck = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+                    initEventAck.putInt(8).putInt(PtpIpPacket.Type.INIT_EVENT_ACK.value().intValue()).flip();
+                    event.write(initEventAck);
+
+                    ByteBuffer openSession = readPacket(command);
+                    UINT32 transactionID = new UINT32(openSession.getInt(TRANSACTION_ID_OFFSET) & 0xFFFF_FFFFL);
+                    command.write(ByteBuffer.wrap(new OperationResponsePacket(ResponseCode.OK.value(), transactionID).bytes()));
+
+                    // Keep the connections open without answering until the initiator closes them.
+                    for (; ; ) {
+                        readPacket(command);
+                    }
+                }
+            } catch (IOException e) {
+                // Closed
+            }
+        }
+
+        private static ByteBuffer readPacket(SocketChannel channel) throws IOException {
+            ByteBuffer length = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, length);
+
+            ByteBuffer packet = ByteBuffer.allocate(length.getInt(0)).order(ByteOrder.LITTLE_ENDIAN);
+            packet.put(length.array());
+            readFully(channel, packet);
+
+            return packet;
+        }
+
+        private static void readFully(SocketChannel channel, ByteBuffer dst) throws IOException {
+            while (dst.hasRemaining()) {
+                if (channel.read(dst) == -1) {
+                    throw new EOFException();
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            server.close();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.theta4j.ptp.data.ObjectInfo;
+import org.theta4j.ptp.type.UINT16;
+import org.theta4j.ptp.type.UINT32;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
+import static org.junit.Assert.*;
+
+public class ThumbnailCacheTest {
+    private static final String SERIAL_NUMBER = "00012345";
+
+    private static final byte[] THUMB_1 = new byte[]{1, 2, 3, 4};
+    private static final byte[] THUMB_2 = new byte[]{5, 6, 7, 8};
+    private static final byte[] THUMB_3 = new byte[]{9, 10, 11, 12};
+
+    private Path directory;
+
+    private static String key(String fileName) {
+        ObjectInfo objectInfo = new ObjectInfo(new UINT32(0x00010001), new UINT16(0x3801),
+                ObjectInfo.ProtectionStatus.NO_PROTECTION, new UINT32(1000), new UINT16(0x3808), new UINT32(4),
+                new UINT32(160), new UINT32(80), new UINT32(5376), new UINT32(2688), new UINT32(24),
+                UINT32.ZERO, UINT16.ZERO, UINT32.ZERO, UINT32.ZERO,
+                fileName, "20150101T000000", "20150101T000000", "");
+        return ThumbnailCache.key(SERIAL_NUMBER, objectInfo);
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("theta4j-thumb");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void withNegativeCapacity() throws IOException {
+        // act
+        new ThumbnailCache(directory, -1, 0);
+    }
+
+    @Test
+    public void key() {
+        // verify
+        assertThat(key("R0010001.JPG"), is(key("R0010001.JPG")));
+        assertThat(key("R0010001.JPG"), is(not(key("R0010002.JPG"))));
+    }
+
+    @Test
+    public void memoryHit() throws IOException {
+        // arrange
+        ThumbnailCache cache = new ThumbnailCache(directory);
+        cache.put(key("R0010001.JPG"), THUMB_1);
+
+        // act
+        byte[] actual = cache.get(key("R0010001.JPG"));
+
+        // verify
+        assertArrayEquals(THUMB_1, actual);
+        assertThat(cache.getMemoryHitCount(), is(1L));
+        assertThat(cache.getMissCount(), is(0L));
+    }
+
+    @Test
+    public void miss() throws IOException {
+        // arrange
+        ThumbnailCache cache = new ThumbnailCache(directory);
+
+        // act
+        byte[] actual = cache.get(key("R0010001.JPG"));
+
+        // verify
+        assertNull(actual);
+        assertThat(cache.getHitCount(), is(0L));
+        assertThat(cache.getMissCount(), is(1L));
+    }
+
+    @Test
+    public void diskHitAfterRestart() throws IOException {
+        // arrange
+        new ThumbnailCache(directory).put(key("R0010001.JPG"), THUMB_1);
+        ThumbnailCache cache = new ThumbnailCache(directory);
+
+        // act
+        byte[] actual1 = cache.get(key("R0010001.JPG"));
+        byte[] actual2 = cache.get(key("R0010001.JPG"));
+
+        // verify
+        assertArrayEquals(THUMB_1, actual1);
+        assertArrayEquals(THUMB_1, actual2);
+        assertThat(cache.getDiskHitCount(), is(1L));
+        assertThat(cache.getMemoryHitCount(), is(1L));
+    }
+
+    @Test
+    public void evictFromMemory() throws IOException {
+        // arrange
+        ThumbnailCache cache = new ThumbnailCache(directory, 8, 0);
+        cache.put(key("R0010001.JPG"), THUMB_1);
+        cache.put(key("R0010002.JPG"), THUMB_2);
+        cache.get(key("R0010001.JPG"));
+
+        // act
+        cache.put(key("R0010003.JPG"), THUMB_3);
+
+        // verify
+        assertThat(cache.getMemorySize(), is(8L));
+        assertTrue(cache.contains(key("R0010001.JPG")));
+        assertFalse(cache.contains(key("R0010002.JPG")));
+        assertTrue(cache.contains(key("R0010003.JPG")));
+    }
+
+    @Test
+    public void evictFromDisk() throws IOException {
+        // arrange
+        ThumbnailCache cache = new ThumbnailCache(directory, 0, 8);
+        cache.put(key("R0010001.JPG"), THUMB_1);
+        cache.put(key("R0010002.JPG"), THUMB_2);
+        cache.get(key("R0010001.JPG"));
+
+        // act
+        cache.put(key("R0010003.JPG"), THUMB_3);
+
+        // verify
+        assertThat(cache.getDiskSize(), is(8L));
+        assertTrue(cache.contains(key("R0010001.JPG")));
+        assertFalse(cache.contains(key("R0010002.JPG")));
+        assertFalse(Files.exists(directory.resolve(key("R0010002.JPG") + ".thumb")));
+    }
+
+    @Test
+    public void clear() throws IOException {
+        // arrange
+        ThumbnailCache cache = new ThumbnailCache(directory);
+        cache.put(key("R0010001.JPG"), THUMB_1);
+
+        // act
+        cache.clear();
+
+        // verify
+        assertFalse(cache.contains(key("R0010001.JPG")));
+        assertThat(cache.getDiskSize(), is(0L));
+        assertThat(new ThumbnailCache(directory).getDiskSize(), is(0L));
+    }
+}
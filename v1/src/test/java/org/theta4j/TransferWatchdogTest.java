@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j;
+
+import org.junit.Test;
+import org.theta4j.ptp.type.UINT32;
+
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class TransferWatchdogTest {
+    private static final long SECOND = Duration.ofSeconds(1).toNanos();
+    private static final long GRACE_PERIOD = TransferWatchdog.GRACE_PERIOD.toNanos();
+
+    private final Transfer transfer = new Transfer(new UINT32(1), null);
+    private final AtomicInteger abortCount = new AtomicInteger();
+
+    private TransferWatchdog watchdog(Duration timeout, long minBytesPerSecond) {
+        TransferWatchdog watchdog = new TransferWatchdog(transfer, timeout, minBytesPerSecond, Duration.ofSeconds(1), abortCount::incrementAndGet);
+        watchdog.close(); // Checked by the test only
+
+        return watchdog;
+    }
+
+    private static Throwable cause(CompletableFuture<?> future) throws InterruptedException {
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+
+        throw new AssertionError("The future is not completed exceptionally.");
+    }
+
+    @Test
+    public void deadline() throws Exception {
+        // arrange
+        long start = System.nanoTime();
+        TransferWatchdog watchdog = watchdog(Duration.ofSeconds(1), 0);
+
+        // act & verify
+        watchdog.check(start + SECOND / 2);
+        assertFalse(transfer.getFuture().isDone());
+
+        watchdog.check(start + 2 * SECOND);
+        assertTrue(cause(transfer.getFuture()) instanceof InterruptedIOException);
+        assertThat(abortCount.get(), is(0));
+
+        watchdog.check(start + 2 * SECOND + GRACE_PERIOD);
+        watchdog.check(start + 3 * SECOND + GRACE_PERIOD);
+        assertThat(abortCount.get(), is(1));
+    }
+
+    @Test
+    public void deadlineWithoutAbortConnection() throws Exception {
+        // arrange
+        long start = System.nanoTime();
+        TransferWatchdog watchdog = new TransferWatchdog(transfer, Duration.ofSeconds(1), 0, Duration.ofSeconds(1), null);
+        watchdog.close(); // Checked by the test only
+
+        // act
+        watchdog.check(start + 2 * SECOND);
+        watchdog.check(start + 2 * SECOND + GRACE_PERIOD);
+
+        // verify
+        assertTrue(cause(transfer.getFuture()) instanceof InterruptedIOException);
+    }
+
+    @Test
+    public void stalled() throws Exception {
+        // arrange
+        long start = System.nanoTime();
+        TransferWatchdog watchdog = watchdog(null, 1000);
+
+        // act
+        transfer.transferred(10);
+        watchdog.check(start + 2 * SECOND);
+
+        // verify
+        assertTrue(cause(transfer.getFuture()) instanceof InterruptedIOException);
+    }
+
+    @Test
+    public void progressing() {
+        // arrange
+        long start = System.nanoTime();
+        TransferWatchdog watchdog = watchdog(null, 1000);
+
+        // act
+        transfer.transferred(2000);
+        watchdog.check(start + SECOND);
+        transfer.transferred(2000);
+        watchdog.check(start + 2 * SECOND);
+
+        // verify
+        assertFalse(transfer.getFuture().isDone());
+    }
+
+    @Test
+    public void cancelledByUser() {
+        // arrange
+        long start = System.nanoTime();
+        TransferWatchdog watchdog = watchdog(null, 0);
+
+        // act
+        transfer.cancel();
+        watchdog.check(start);
+        watchdog.check(start + GRACE_PERIOD);
+        watchdog.check(start + 2 * GRACE_PERIOD);
+
+        // verify
+        assertThat(abortCount.get(), is(0));
+    }
+}
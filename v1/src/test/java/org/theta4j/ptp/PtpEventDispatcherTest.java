@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j.ptp;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.theta4j.ptp.code.EventCode;
+import org.theta4j.ptp.data.Event;
+import org.theta4j.ptp.type.UINT32;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class PtpEventDispatcherTest {
+    private static final UINT32 SESSION_ID = new UINT32(0);
+
+    private List<Runnable> tasks;
+    private List<Event> received;
+
+    private static Event event(long transactionID) {
+        return new Event(EventCode.OBJECT_ADDED.value(), SESSION_ID, new UINT32(transactionID), new UINT32(0), new UINT32(0), new UINT32(0));
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+    }
+
+    // Set up
+
+    @Before
+    public void setUp() {
+        tasks = new ArrayList<>();
+        received = new ArrayList<>();
+    }
+
+    // Construct
+
+    @Test(expected = NullPointerException.class)
+    public void constructWithNullExecutor() {
+        // act
+        new PtpEventDispatcher(null, 1, PtpEventDispatcher.OverflowPolicy.BLOCK);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructWithZeroCapacity() {
+        // act
+        new PtpEventDispatcher(tasks::add, 0, PtpEventDispatcher.OverflowPolicy.BLOCK);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void constructWithNullPolicy() {
+        // act
+        new PtpEventDispatcher(tasks::add, 1, null);
+    }
+
+    // Dispatch
+
+    @Test
+    public void dispatchOnExecutor() throws InterruptedException {
+        // arrange
+        PtpEventDispatcher dispatcher = new PtpEventDispatcher(tasks::add, 10, PtpEventDispatcher.OverflowPolicy.BLOCK);
+
+        // act
+        dispatcher.dispatch(event(1), received::add);
+        dispatcher.dispatch(event(2), received::add);
+
+        // verify
+        assertThat(received.size(), is(0));
+        assertThat(tasks.size(), is(1));
+
+        runTasks();
+        assertThat(received, is(Arrays.asList(event(1), event(2))));
+    }
+
+    @Test
+    public void dropOldest() throws InterruptedException {
+        // arrange
+        PtpEventDispatcher dispatcher = new PtpEventDispatcher(tasks::add, 2, PtpEventDispatcher.OverflowPolicy.DROP_OLDEST);
+
+        // act
+        dispatcher.dispatch(event(1), received::add);
+        dispatcher.dispatch(event(2), received::add);
+        dispatcher.dispatch(event(3), received::add);
+        runTasks();
+
+        // verify
+        assertThat(received, is(Arrays.asList(event(2), event(3))));
+        assertThat(dispatcher.getDroppedCount(), is(1L));
+    }
+
+    @Test
+    public void dropNewest() throws InterruptedException {
+        // arrange
+        PtpEventDispatcher dispatcher = new PtpEventDispatcher(tasks::add, 2, PtpEventDispatcher.OverflowPolicy.DROP_NEWEST);
+
+        // act
+        dispatcher.dispatch(event(1), received::add);
+        dispatcher.dispatch(event(2), received::add);
+        dispatcher.dispatch(event(3), received::add);
+        runTasks();
+
+        // verify
+        assertThat(received, is(Arrays.asList(event(1), event(2))));
+        assertThat(dispatcher.getDroppedCount(), is(1L));
+    }
+
+    @Test
+    public void exceptionInListener() throws InterruptedException {
+        // arrange
+        PtpEventDispatcher dispatcher = new PtpEventDispatcher(tasks::add, 10, PtpEventDispatcher.OverflowPolicy.BLOCK);
+
+        // act
+        dispatcher.dispatch(event(1), event -> {
+            throw new RuntimeException();
+        });
+        dispatcher.dispatch(event(2), received::add);
+        runTasks();
+
+        // verify
+        assertThat(received, is(Arrays.asList(event(2))));
+    }
+
+    @Test
+    public void close() throws InterruptedException {
+        // arrange
+        PtpEventDispatcher dispatcher = new PtpEventDispatcher(tasks::add, 10, PtpEventDispatcher.OverflowPolicy.BLOCK);
+        dispatcher.dispatch(event(1), received::add);
+
+        // act
+        dispatcher.close();
+        dispatcher.dispatch(event(2), received::add);
+        runTasks();
+
+        // verify
+        assertThat(received.size(), is(0));
+    }
+
+    @Test
+    public void inOrderOnThreadPool() throws InterruptedException {
+        // given
+        int count = 1000;
+
+        // arrange
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        PtpEventDispatcher dispatcher = new PtpEventDispatcher(executor, 16, PtpEventDispatcher.OverflowPolicy.BLOCK);
+        CountDownLatch latch = new CountDownLatch(count);
+        List<Event> actual = new ArrayList<>();
+
+        // act
+        try {
+            for (int i = 0; i < count; i++) {
+                dispatcher.dispatch(event(i), event -> {
+                    synchronized (actual) {
+                        actual.add(event);
+                    }
+                    latch.countDown();
+                });
+            }
+
+            // verify
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < count; i++) {
+                assertThat(actual.get(i), is(event(i)));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j.ptp;
+
+import org.junit.Test;
+import org.theta4j.ptp.code.EventCode;
+import org.theta4j.ptp.data.Event;
+import org.theta4j.ptp.type.UINT32;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class PtpEventWaitersTest {
+    private static final UINT32 SESSION_ID = new UINT32(1);
+    private static final UINT32 TRANSACTION_ID_1 = new UINT32(10);
+    private static final UINT32 TRANSACTION_ID_2 = new UINT32(11);
+    private static final UINT32 OBJECT_HANDLE = new UINT32(100);
+
+    private static Event event(EventCode eventCode, UINT32 transactionID, UINT32 p1) {
+        return new Event(eventCode.value(), SESSION_ID, transactionID, p1);
+    }
+
+    private static Throwable cause(CompletableFuture<?> future) throws InterruptedException {
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+
+        throw new AssertionError("The future is not completed exceptionally.");
+    }
+
+    // Register
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveTimeout() {
+        new PtpEventWaiters().await(EventCode.OBJECT_ADDED, 0, TimeUnit.SECONDS);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void nullEventCode() {
+        new PtpEventWaiters().await(null, 1, TimeUnit.SECONDS);
+    }
+
+    // Complete
+
+    @Test
+    public void completeByEventCode() throws Exception {
+        // given
+        Event given = event(EventCode.OBJECT_ADDED, TRANSACTION_ID_1, OBJECT_HANDLE);
+
+        // arrange
+        PtpEventWaiters waiters = new PtpEventWaiters();
+        CompletableFuture<Event> objectAdded = waiters.await(EventCode.OBJECT_ADDED, 1, TimeUnit.MINUTES);
+        CompletableFuture<Event> captureComplete = waiters.await(EventCode.CAPTURE_COMPLETE, 1, TimeUnit.MINUTES);
+
+        // act
+        waiters.complete(given);
+
+        // verify
+        assertThat(objectAdded.get(), is(given));
+        assertFalse(captureComplete.isDone());
+        assertThat(waiters.size(), is(1));
+    }
+
+    @Test
+    public void completeByTransactionID() throws Exception {
+        // given
+        Event given = event(EventCode.CAPTURE_COMPLETE, TRANSACTION_ID_2, UINT32.ZERO);
+
+        // arrange
+        PtpEventWaiters waiters = new PtpEventWaiters();
+        CompletableFuture<Event> capture1 = waiters.awaitTransaction(EventCode.CAPTURE_COMPLETE, TRANSACTION_ID_1, 1, TimeUnit.MINUTES);
+        CompletableFuture<Event> capture2 = waiters.awaitTransaction(EventCode.CAPTURE_COMPLETE, TRANSACTION_ID_2, 1, TimeUnit.MINUTES);
+
+        // act
+        waiters.complete(given);
+
+        // verify
+        assertFalse(capture1.isDone());
+        assertThat(capture2.get(), is(given));
+    }
+
+    @Test
+    public void completeByParameter() throws Exception {
+        // given
+        Event given = event(EventCode.OBJECT_INFO_CHANGED, UINT32.ZERO, OBJECT_HANDLE);
+
+        // arrange
+        PtpEventWaiters waiters = new PtpEventWaiters();
+        CompletableFuture<Event> other = waiters.awaitParameter(EventCode.OBJECT_INFO_CHANGED, UINT32.ZERO, 1, TimeUnit.MINUTES);
+        CompletableFuture<Event> changed = waiters.awaitParameter(EventCode.OBJECT_INFO_CHANGED, OBJECT_HANDLE, 1, TimeUnit.MINUTES);
+
+        // act
+        waiters.complete(given);
+
+        // verify
+        assertFalse(other.isDone());
+        assertThat(changed.get(), is(given));
+    }
+
+    @Test
+    public void eventBeforeTransactionWaiter() throws Exception {
+        // given
+        Event given = event(EventCode.CAPTURE_COMPLETE, TRANSACTION_ID_1, UINT32.ZERO);
+
+        // arrange
+        PtpEventWaiters waiters = new PtpEventWaiters();
+        waiters.complete(given);
+
+        // act
+        CompletableFuture<Event> actual = waiters.awaitTransaction(EventCode.CAPTURE_COMPLETE, TRANSACTION_ID_1, 1, TimeUnit.MINUTES);
+
+        // verify
+        assertThat(actual.get(), is(given));
+        assertThat(waiters.size(), is(0));
+    }
+
+    @Test
+    public void timeout() throws Exception {
+        // arrange
+        PtpEventWaiters waiters = new PtpEventWaiters();
+
+        // act
+        CompletableFuture<Event> actual = waiters.await(EventCode.OBJECT_ADDED, 10, TimeUnit.MILLISECONDS);
+
+        // verify
+        assertTrue(cause(actual) instanceof TimeoutException);
+        assertThat(waiters.size(), is(0));
+    }
+
+    @Test
+    public void cancel() {
+        // arrange
+        PtpEventWaiters waiters = new PtpEventWaiters();
+        CompletableFuture<Event> future = waiters.await(EventCode.OBJECT_ADDED, 1, TimeUnit.MINUTES);
+
+        // act
+        future.cancel(false);
+
+        // verify
+        assertThat(waiters.size(), is(0));
+    }
+
+    @Test
+    public void failAll() throws Exception {
+        // given
+        IOException given = new IOException();
+
+        // arrange
+        PtpEventWaiters waiters = new PtpEventWaiters();
+        waiters.complete(event(EventCode.CAPTURE_COMPLETE, TRANSACTION_ID_1, UINT32.ZERO));
+        CompletableFuture<Event> waiting = waiters.await(EventCode.OBJECT_ADDED, 1, TimeUnit.MINUTES);
+
+        // act
+        waiters.failAll(given);
+
+        // verify
+        assertTrue(cause(waiting) == given);
+        assertFalse(waiters.awaitTransaction(EventCode.CAPTURE_COMPLETE, TRANSACTION_ID_1, 1, TimeUnit.MINUTES).isDone());
+    }
+
+    // Closeable
+
+    @Test
+    public void close() throws Exception {
+        // arrange
+        PtpEventWaiters waiters = new PtpEventWaiters();
+        CompletableFuture<Event> waiting = waiters.await(EventCode.OBJECT_ADDED, 1, TimeUnit.MINUTES);
+
+        // act
+        waiters.close();
+
+        // verify
+        assertTrue(cause(waiting) instanceof IOException);
+        assertTrue(cause(waiters.await(EventCode.OBJECT_ADDED, 1, TimeUnit.MINUTES)) instanceof IOException);
+        assertThat(waiters.size(), is(0));
+    }
+}
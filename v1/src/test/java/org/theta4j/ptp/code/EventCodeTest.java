@@ -8,6 +8,7 @@ import org.junit.Test;
 import org.theta4j.ptp.type.UINT16;
 
 import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 
 public class EventCodeTest {
@@ -15,4 +16,21 @@ public class EventCodeTest {
     public void value() {
         assertThat(EventCode.UNDEFINED.value(), is(new UINT16(0x4000)));
     }
+
+    @Test
+    public void find() {
+        assertThat(EventCode.find(0x400D), is(EventCode.CAPTURE_COMPLETE));
+        assertNull(EventCode.find(0x4FFF));
+        assertNull(EventCode.find(-1));
+    }
+
+    @Test
+    public void valueOf() {
+        assertThat(EventCode.valueOf(0x400D), is(EventCode.CAPTURE_COMPLETE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void valueOfUnknownValue() {
+        EventCode.valueOf(0x4FFF);
+    }
 }
@@ -8,6 +8,7 @@ import org.junit.Test;
 import org.theta4j.ptp.type.UINT16;
 
 import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 
 public class ResponseCodeTest {
@@ -15,4 +16,21 @@ public class ResponseCodeTest {
     public void value() {
         assertThat(ResponseCode.UNDEFINED.value(), is(new UINT16(0x2000)));
     }
+
+    @Test
+    public void find() {
+        assertThat(ResponseCode.find(0x2001), is(ResponseCode.OK));
+        assertNull(ResponseCode.find(0x2FFF));
+        assertNull(ResponseCode.find(-1));
+    }
+
+    @Test
+    public void valueOf() {
+        assertThat(ResponseCode.valueOf(0x2001), is(ResponseCode.OK));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void valueOfUnknownValue() {
+        ResponseCode.valueOf(0x2FFF);
+    }
 }
@@ -0,0 +1,222 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j.ptp.data;
+
+import org.junit.Test;
+import org.theta4j.ptp.type.*;
+import org.theta4j.util.ArrayUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
+import static org.junit.Assert.*;
+
+public class DevicePropDescTest {
+    private static final UINT16 DEVICE_PROP_CODE = new UINT16(0x5005);
+    private static final UINT8 GET = new UINT8(0x00);
+    private static final UINT8 GET_SET = new UINT8(0x01);
+
+    private static DevicePropDesc none() {
+        return new DevicePropDesc(DEVICE_PROP_CODE, DataType.UINT16, true, new UINT16(1), new UINT16(2),
+                DevicePropDesc.FormFlag.NONE, null, null, null, Collections.emptyList());
+    }
+
+    private static DevicePropDesc range(long min, long max, long step) {
+        return new DevicePropDesc(DEVICE_PROP_CODE, DataType.UINT32, true, new UINT32(min), new UINT32(min),
+                DevicePropDesc.FormFlag.RANGE, new UINT32(min), new UINT32(max), new UINT32(step), Collections.emptyList());
+    }
+
+    private static DevicePropDesc enumeration(UINT16... values) {
+        return new DevicePropDesc(DEVICE_PROP_CODE, DataType.UINT16, true, values[0], values[0],
+                DevicePropDesc.FormFlag.ENUMERATION, null, null, null, Arrays.asList(values));
+    }
+
+    // Construct with error
+
+    @Test(expected = NullPointerException.class)
+    public void withNullDevicePropCode() {
+        // act
+        new DevicePropDesc(null, DataType.UINT16, true, new UINT16(1), new UINT16(2),
+                DevicePropDesc.FormFlag.NONE, null, null, null, Collections.emptyList());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void withNullDataType() {
+        // act
+        new DevicePropDesc(DEVICE_PROP_CODE, null, true, new UINT16(1), new UINT16(2),
+                DevicePropDesc.FormFlag.NONE, null, null, null, Collections.emptyList());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void withNullFormFlag() {
+        // act
+        new DevicePropDesc(DEVICE_PROP_CODE, DataType.UINT16, true, new UINT16(1), new UINT16(2),
+                null, null, null, null, Collections.emptyList());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void rangeWithNullMinimumValue() {
+        // act
+        new DevicePropDesc(DEVICE_PROP_CODE, DataType.UINT16, true, new UINT16(1), new UINT16(2),
+                DevicePropDesc.FormFlag.RANGE, null, new UINT16(10), new UINT16(1), Collections.emptyList());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void emptyEnumeration() {
+        // act
+        new DevicePropDesc(DEVICE_PROP_CODE, DataType.UINT16, true, new UINT16(1), new UINT16(2),
+                DevicePropDesc.FormFlag.ENUMERATION, null, null, null, Collections.emptyList());
+    }
+
+    // read
+
+    @Test
+    public void readNone() throws IOException {
+        // given
+        byte[] given = ArrayUtils.join(
+                DEVICE_PROP_CODE.bytes(),
+                DataType.STR.value().bytes(),
+                GET.bytes(),
+                STR.toBytes("default"),
+                STR.toBytes("current"),
+                DevicePropDesc.FormFlag.NONE.value().bytes()
+        );
+
+        // expected
+        DevicePropDesc expected = new DevicePropDesc(DEVICE_PROP_CODE, DataType.STR, false, "default", "current",
+                DevicePropDesc.FormFlag.NONE, null, null, null, Collections.emptyList());
+
+        // act
+        DevicePropDesc actual = DevicePropDesc.read(new ByteArrayInputStream(given));
+
+        // verify
+        assertThat(actual, is(expected));
+        assertFalse(actual.isSettable());
+    }
+
+    @Test
+    public void readRange() throws IOException {
+        // given
+        byte[] given = ArrayUtils.join(
+                DEVICE_PROP_CODE.bytes(),
+                DataType.UINT32.value().bytes(),
+                GET_SET.bytes(),
+                new UINT32(5000).bytes(),
+                new UINT32(5000).bytes(),
+                DevicePropDesc.FormFlag.RANGE.value().bytes(),
+                new UINT32(5000).bytes(),
+                new UINT32(3600000).bytes(),
+                new UINT32(1000).bytes()
+        );
+
+        // act
+        DevicePropDesc actual = DevicePropDesc.read(new ByteArrayInputStream(given));
+
+        // verify
+        assertThat(actual, is(range(5000, 3600000, 1000)));
+        assertTrue(actual.isSettable());
+    }
+
+    @Test
+    public void readEnumeration() throws IOException {
+        // given
+        byte[] given = ArrayUtils.join(
+                DEVICE_PROP_CODE.bytes(),
+                DataType.UINT16.value().bytes(),
+                GET_SET.bytes(),
+                new UINT16(2).bytes(),
+                new UINT16(2).bytes(),
+                DevicePropDesc.FormFlag.ENUMERATION.value().bytes(),
+                new UINT16(3).bytes(),
+                new UINT16(2).bytes(),
+                new UINT16(4).bytes(),
+                new UINT16(0x8001).bytes()
+        );
+
+        // act
+        DevicePropDesc actual = DevicePropDesc.read(new ByteArrayInputStream(given));
+
+        // verify
+        assertThat(actual, is(enumeration(new UINT16(2), new UINT16(4), new UINT16(0x8001))));
+        assertThat(actual.getSupportedValues().size(), is(3));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void readUnknownFormFlag() throws IOException {
+        // given
+        byte[] given = ArrayUtils.join(
+                DEVICE_PROP_CODE.bytes(),
+                DataType.UINT16.value().bytes(),
+                GET_SET.bytes(),
+                new UINT16(2).bytes(),
+                new UINT16(2).bytes(),
+                new UINT8(0x03).bytes()
+        );
+
+        // act
+        DevicePropDesc.read(new ByteArrayInputStream(given));
+    }
+
+    // isAllowed
+
+    @Test
+    public void allowedByNone() {
+        // act & verify
+        assertTrue(none().isAllowed(new UINT16(0xFFFF)));
+    }
+
+    @Test
+    public void allowedByRange() {
+        // given
+        DevicePropDesc desc = range(5000, 3600000, 1000);
+
+        // act & verify
+        assertTrue(desc.isAllowed(new UINT32(5000)));
+        assertTrue(desc.isAllowed(new UINT32(6000)));
+        assertTrue(desc.isAllowed(new UINT32(3600000)));
+        assertFalse(desc.isAllowed(new UINT32(4000)));
+        assertFalse(desc.isAllowed(new UINT32(5500)));
+        assertFalse(desc.isAllowed(new UINT32(3601000)));
+        assertFalse(desc.isAllowed("5000"));
+    }
+
+    @Test
+    public void allowedByRangeWithZeroStep() {
+        // given
+        DevicePropDesc desc = range(0, 100, 0);
+
+        // act & verify
+        assertTrue(desc.isAllowed(new UINT32(33)));
+    }
+
+    @Test
+    public void allowedByEnumeration() {
+        // given
+        DevicePropDesc desc = enumeration(new UINT16(2), new UINT16(4));
+
+        // act & verify
+        assertTrue(desc.isAllowed(new UINT16(4)));
+        assertTrue(desc.isAllowed(new UINT32(4)));
+        assertFalse(desc.isAllowed(new UINT16(3)));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void isAllowedWithNull() {
+        // act
+        none().isAllowed(null);
+    }
+
+    // equals
+
+    @Test
+    public void notEquals() {
+        // verify
+        assertThat(range(0, 100, 1), is(not(range(0, 100, 2))));
+    }
+}
@@ -309,6 +309,24 @@ public class ObjectInfoTest {
         assertThat(actual, is(expected));
     }
 
+    // bytes
+
+    @Test
+    public void bytesAndRead() throws IOException {
+        // given
+        ObjectInfo given = new ObjectInfo(STORAGE_ID, OBJECT_FORMAT, PROTECTION_STATUS, OBJECT_COMPRESSED_SIZE,
+                THUMB_FORMAT, THUMB_COMPRESSED_SIZE, THUMB_PIX_WIDTH, THUMB_PIX_HEIGHT,
+                IMAGE_PIX_WIDTH, IMAGE_PIX_HEIGHT, IMAGE_BIT_DEPTH, PARENT_OBJECT,
+                ASSOCIATION_TYPE, ASSOCIATION_DESC, SEQUENCE_NUMBER, FILE_NAME,
+                CAPTURE_DATE, MODIFICATION_DATE, KEYWORDS);
+
+        // act
+        ObjectInfo actual = ObjectInfo.read(new ByteArrayInputStream(given.bytes()));
+
+        // verify
+        assertThat(actual, is(given));
+    }
+
     // hashCode
 
     @Test
@@ -101,4 +101,37 @@ public class AINT16Test {
         // verify
         assertThat(actual, is(expected));
     }
+
+    // readArray
+
+    @Test(expected = EOFException.class)
+    public void readArrayInvalidBytes() throws IOException {
+        // given
+        byte[] given = ArrayUtils.join(
+                new UINT32(2).bytes(),
+                INT16.MIN_VALUE.bytes()
+        );
+
+        // act
+        AINT16.readArray(new ByteArrayInputStream(given));
+    }
+
+    @Test
+    public void readArray() throws IOException {
+        // given
+        byte[] given = ArrayUtils.join(
+                new UINT32(2).bytes(),
+                INT16.MIN_VALUE.bytes(),
+                INT16.MAX_VALUE.bytes()
+        );
+
+        // expected
+        int[] expected = new int[]{Short.MIN_VALUE, Short.MAX_VALUE};
+
+        // act
+        int[] actual = AINT16.readArray(new ByteArrayInputStream(given));
+
+        // verify
+        assertThat(actual, is(expected));
+    }
 }
@@ -101,4 +101,37 @@ public class AINT32Test {
         // verify
         assertThat(actual, is(expected));
     }
+
+    // readArray
+
+    @Test(expected = EOFException.class)
+    public void readArrayInvalidBytes() throws IOException {
+        // given
+        byte[] given = ArrayUtils.join(
+                new UINT32(2).bytes(),
+                INT32.MIN_VALUE.bytes()
+        );
+
+        // act
+        AINT32.readArray(new ByteArrayInputStream(given));
+    }
+
+    @Test
+    public void readArray() throws IOException {
+        // given
+        byte[] given = ArrayUtils.join(
+                new UINT32(2).bytes(),
+                INT32.MIN_VALUE.bytes(),
+                INT32.MAX_VALUE.bytes()
+        );
+
+        // expected
+        int[] expected = new int[]{Integer.MIN_VALUE, Integer.MAX_VALUE};
+
+        // act
+        int[] actual = AINT32.readArray(new ByteArrayInputStream(given));
+
+        // verify
+        assertThat(actual, is(expected));
+    }
 }
@@ -101,4 +101,37 @@ public class AINT64Test {
         // verify
         assertThat(actual, is(expected));
     }
+
+    // readArray
+
+    @Test(expected = EOFException.class)
+    public void readArrayInvalidBytes() throws IOException {
+        // given
+        byte[] given = ArrayUtils.join(
+                new UINT32(2).bytes(),
+                INT64.MIN_VALUE.bytes()
+        );
+
+        // act
+        AINT64.readArray(new ByteArrayInputStream(given));
+    }
+
+    @Test
+    public void readArray() throws IOException {
+        // given
+        byte[] given = ArrayUtils.join(
+                new UINT32(2).bytes(),
+                INT64.MIN_VALUE.bytes(),
+                INT64.MAX_VALUE.bytes()
+        );
+
+        // expected
+        long[] expected = new long[]{Long.MIN_VALUE, Long.MAX_VALUE};
+
+        // act
+        long[] actual = AINT64.readArray(new ByteArrayInputStream(given));
+
+        // verify
+        assertThat(actual, is(expected));
+    }
 }
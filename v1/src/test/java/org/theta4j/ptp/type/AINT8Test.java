@@ -101,4 +101,37 @@ public class AINT8Test {
         // verify
         assertThat(actual, is(expected));
     }
+
+    // readArray
+
+    @Test(expected = EOFException.class)
+    public void readArrayInvalidBytes() throws IOException {
+        // given
+        byte[] given = ArrayUtils.join(
+                new UINT32(2).bytes(),
+                INT8.MIN_VALUE.bytes()
+        );
+
+        // act
+        AINT8.readArray(new ByteArrayInputStream(given));
+    }
+
+    @Test
+    public void readArray() throws IOException {
+        // given
+        byte[] given = ArrayUtils.join(
+                new UINT32(2).bytes(),
+                INT8.MIN_VALUE.bytes(),
+                INT8.MAX_VALUE.bytes()
+        );
+
+        // expected
+        int[] expected = new int[]{-128, 127};
+
+        // act
+        int[] actual = AINT8.readArray(new ByteArrayInputStream(given));
+
+        // verify
+        assertThat(actual, is(expected));
+    }
 }
@@ -101,4 +101,37 @@ public class AUINT16Test {
         // verify
         assertThat(actual, is(expected));
     }
+
+    // readArray
+
+    @Test(expected = EOFException.class)
+    public void readArrayInvalidBytes() throws IOException {
+        // given
+        byte[] given = ArrayUtils.join(
+                new UINT32(2).bytes(),
+                UINT16.ZERO.bytes()
+        );
+
+        // act
+        AUINT16.readArray(new ByteArrayInputStream(given));
+    }
+
+    @Test
+    public void readArray() throws IOException {
+        // given
+        byte[] given = ArrayUtils.join(
+                new UINT32(2).bytes(),
+                UINT16.ZERO.bytes(),
+                UINT16.MAX_VALUE.bytes()
+        );
+
+        // expected
+        int[] expected = new int[]{0, 0xFFFF};
+
+        // act
+        int[] actual = AUINT16.readArray(new ByteArrayInputStream(given));
+
+        // verify
+        assertThat(actual, is(expected));
+    }
 }
@@ -101,4 +101,65 @@ public class AUINT32Test {
         // verify
         assertThat(actual, is(expected));
     }
+
+    // readArray
+
+    @Test(expected = EOFException.class)
+    public void readArrayInvalidBytes() throws IOException {
+        // given
+        byte[] given = ArrayUtils.join(
+                new UINT32(2).bytes(),
+                UINT32.ZERO.bytes()
+        );
+
+        // act
+        AUINT32.readArray(new ByteArrayInputStream(given));
+    }
+
+    @Test(expected = EOFException.class)
+    public void readArrayTruncatedWithLargeLength() throws IOException {
+        // given
+        byte[] given = ArrayUtils.join(
+                new UINT32(Integer.MAX_VALUE / 4).bytes(),
+                UINT32.ZERO.bytes()
+        );
+
+        // act
+        AUINT32.readArray(new ByteArrayInputStream(given));
+    }
+
+    @Test
+    public void readArrayLargerThanInitialCapacity() throws IOException {
+        // given
+        int length = 100_000;
+        byte[] given = new byte[4 + 4 * length];
+        System.arraycopy(new UINT32(length).bytes(), 0, given, 0, 4);
+        System.arraycopy(UINT32.MAX_VALUE.bytes(), 0, given, given.length - 4, 4);
+
+        // act
+        long[] actual = AUINT32.readArray(new ByteArrayInputStream(given));
+
+        // verify
+        assertThat(actual.length, is(length));
+        assertThat(actual[length - 1], is(0xFFFF_FFFFL));
+    }
+
+    @Test
+    public void readArray() throws IOException {
+        // given
+        byte[] given = ArrayUtils.join(
+                new UINT32(2).bytes(),
+                UINT32.ZERO.bytes(),
+                UINT32.MAX_VALUE.bytes()
+        );
+
+        // expected
+        long[] expected = new long[]{0, 0xFFFF_FFFFL};
+
+        // act
+        long[] actual = AUINT32.readArray(new ByteArrayInputStream(given));
+
+        // verify
+        assertThat(actual, is(expected));
+    }
 }
@@ -101,4 +101,37 @@ public class AUINT64Test {
         // verify
         assertThat(actual, is(expected));
     }
+
+    // readArray
+
+    @Test(expected = EOFException.class)
+    public void readArrayInvalidBytes() throws IOException {
+        // given
+        byte[] given = ArrayUtils.join(
+                new UINT32(2).bytes(),
+                UINT64.ZERO.bytes()
+        );
+
+        // act
+        AUINT64.readArray(new ByteArrayInputStream(given));
+    }
+
+    @Test
+    public void readArray() throws IOException {
+        // given
+        byte[] given = ArrayUtils.join(
+                new UINT32(2).bytes(),
+                UINT64.ZERO.bytes(),
+                UINT64.MAX_VALUE.bytes()
+        );
+
+        // expected
+        long[] expected = new long[]{0, -1};
+
+        // act
+        long[] actual = AUINT64.readArray(new ByteArrayInputStream(given));
+
+        // verify
+        assertThat(actual, is(expected));
+    }
 }
@@ -101,4 +101,37 @@ public class AUINT8Test {
         // verify
         assertThat(actual, is(expected));
     }
+
+    // readArray
+
+    @Test(expected = EOFException.class)
+    public void readArrayInvalidBytes() throws IOException {
+        // given
+        byte[] given = ArrayUtils.join(
+                new UINT32(2).bytes(),
+                UINT8.ZERO.bytes()
+        );
+
+        // act
+        AUINT8.readArray(new ByteArrayInputStream(given));
+    }
+
+    @Test
+    public void readArray() throws IOException {
+        // given
+        byte[] given = ArrayUtils.join(
+                new UINT32(2).bytes(),
+                UINT8.ZERO.bytes(),
+                UINT8.MAX_VALUE.bytes()
+        );
+
+        // expected
+        int[] expected = new int[]{0, 0xFF};
+
+        // act
+        int[] actual = AUINT8.readArray(new ByteArrayInputStream(given));
+
+        // verify
+        assertThat(actual, is(expected));
+    }
 }
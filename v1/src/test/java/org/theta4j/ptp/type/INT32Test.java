@@ -169,6 +169,23 @@ public class INT32Test {
         assertThat(actual, is(expected));
     }
 
+    @Test
+    public void readNegativeValue() throws IOException {
+        // given
+        InputStream given = new ByteArrayInputStream(new byte[]{(byte) 0xFE, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF});
+
+        // expected
+        INT32 expected = new INT32(-2);
+
+        // act
+        INT32 actual = INT32.read(given);
+
+        // verify
+        assertThat(actual, is(expected));
+        assertThat(actual.longValue(), is(-2L));
+        assertThat(actual.bigInteger(), is(BigInteger.valueOf(-2)));
+    }
+
     @Test
     public void readMaxValue() throws IOException {
         // given
@@ -103,6 +103,30 @@ public class UINT16Test {
         assertThat(actual.bytes(), is(expectedBytes));
     }
 
+    // valueOf
+
+    @Test
+    public void valueOfCachedValue() {
+        // act
+        UINT16 actual = UINT16.valueOf(0x1001);
+
+        // verify
+        assertThat(actual, is(new UINT16(0x1001)));
+        assertSame(actual, UINT16.valueOf(0x1001));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void valueOfNegativeValue() {
+        // act
+        UINT16.valueOf(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void valueOfTooBigValue() {
+        // act
+        UINT16.valueOf(0x10000);
+    }
+
     // read with error
 
     @Test(expected = NullPointerException.class)
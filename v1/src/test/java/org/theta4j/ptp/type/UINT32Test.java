@@ -103,6 +103,45 @@ public class UINT32Test {
         assertThat(actual.bytes(), is(expectedBytes));
     }
 
+    // valueOf
+
+    @Test
+    public void valueOfCachedValue() {
+        // act
+        UINT32 actual = UINT32.valueOf(0xFFFF);
+
+        // verify
+        assertThat(actual, is(new UINT32(0xFFFF)));
+        assertSame(actual, UINT32.valueOf(0xFFFF));
+    }
+
+    @Test
+    public void valueOfNotCachedValue() {
+        // act
+        UINT32 actual = UINT32.valueOf(0x10000);
+
+        // verify
+        assertThat(actual, is(new UINT32(0x10000)));
+    }
+
+    @Test
+    public void valueOfMaxValue() {
+        // verify
+        assertSame(UINT32.valueOf(0xFFFF_FFFFL), UINT32.MAX_VALUE);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void valueOfNegativeValue() {
+        // act
+        UINT32.valueOf(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void valueOfTooBigValue() {
+        // act
+        UINT32.valueOf(0x1_0000_0000L);
+    }
+
     // read with error
 
     @Test(expected = NullPointerException.class)
@@ -50,6 +50,12 @@ public class UINT64Test {
         new UINT64(MAX_INTEGER_VALUE.add(BigInteger.ONE));
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void constructWithNegativeLong() {
+        // act
+        new UINT64(-1);
+    }
+
     // Construct and Get
 
     @Test
@@ -187,6 +193,37 @@ public class UINT64Test {
         assertThat(V3.compareTo(V3), is(0));
     }
 
+    @Test
+    public void compareLargerThanLongMaxValue() {
+        // given
+        UINT64 large = new UINT64(BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE));
+
+        // verify
+        assertThat(large.compareTo(new UINT64(Long.MAX_VALUE)), is(1));
+        assertThat(new UINT64(Long.MAX_VALUE).compareTo(large), is(-1));
+        assertThat(UINT64.MAX_VALUE.compareTo(large), is(1));
+    }
+
+    @Test
+    public void largerThanLongMaxValue() {
+        // given
+        BigInteger given = BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE);
+
+        // expected
+        byte[] expectedBytes = new byte[]{0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, (byte) 0x80};
+
+        // act
+        UINT64 fromInteger = new UINT64(given);
+        UINT64 fromBytes = new UINT64(expectedBytes);
+
+        // verify
+        assertThat(fromInteger.bytes(), is(expectedBytes));
+        assertThat(fromBytes.bigInteger(), is(given));
+        assertThat(fromBytes, is(fromInteger));
+        assertThat(fromBytes.longValue(), is(Long.MIN_VALUE));
+        assertThat(fromBytes.doubleValue(), is(given.doubleValue()));
+    }
+
     @Test
     public void testHashCode() {
         // verify
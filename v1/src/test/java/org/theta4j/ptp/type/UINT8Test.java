@@ -103,6 +103,30 @@ public class UINT8Test {
         assertThat(actual.bytes(), is(expectedBytes));
     }
 
+    // valueOf
+
+    @Test
+    public void valueOfCachedValue() {
+        // act
+        UINT8 actual = UINT8.valueOf(0xFF);
+
+        // verify
+        assertThat(actual, is(new UINT8(0xFF)));
+        assertSame(actual, UINT8.valueOf(0xFF));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void valueOfNegativeValue() {
+        // act
+        UINT8.valueOf(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void valueOfTooBigValue() {
+        // act
+        UINT8.valueOf(0x100);
+    }
+
     // read with error
 
     @Test(expected = NullPointerException.class)
@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j.ptpip;
+
+import org.junit.Test;
+
+import java.time.Duration;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class BackoffTest {
+    private static final Backoff BACKOFF = new Backoff(6, Duration.ofMillis(500), Duration.ofSeconds(3));
+
+    // Constructor
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveMaxAttempts() {
+        new Backoff(0, Duration.ofMillis(500), Duration.ofSeconds(3));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeInitialDelay() {
+        new Backoff(1, Duration.ofMillis(-1), Duration.ofSeconds(3));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void initialDelayLongerThanMaxDelay() {
+        new Backoff(1, Duration.ofSeconds(4), Duration.ofSeconds(3));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void nullMaxDelay() {
+        new Backoff(1, Duration.ofMillis(500), null);
+    }
+
+    // Delay
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeAttempt() {
+        BACKOFF.delay(-1);
+    }
+
+    @Test
+    public void firstAttempt() {
+        assertThat(BACKOFF.delay(0), is(Duration.ZERO));
+    }
+
+    @Test
+    public void doubled() {
+        assertThat(BACKOFF.delay(1), is(Duration.ofMillis(500)));
+        assertThat(BACKOFF.delay(2), is(Duration.ofMillis(1000)));
+        assertThat(BACKOFF.delay(3), is(Duration.ofMillis(2000)));
+    }
+
+    @Test
+    public void upToMaxDelay() {
+        assertThat(BACKOFF.delay(4), is(Duration.ofSeconds(3)));
+        assertThat(BACKOFF.delay(Integer.MAX_VALUE), is(Duration.ofSeconds(3)));
+    }
+}
@@ -7,9 +7,27 @@ package org.theta4j.ptpip;
 import org.junit.Test;
 import org.junit.experimental.runners.Enclosed;
 import org.junit.runner.RunWith;
+import org.theta4j.ptp.code.OperationCode;
+import org.theta4j.ptp.type.UINT32;
+import org.theta4j.ptpip.packet.InitCommandAckPacket;
+import org.theta4j.ptpip.packet.PtpIpPacket;
 
+import java.io.Closeable;
+import java.io.EOFException;
 import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
 
 @RunWith(Enclosed.class)
 public class PtpIpInitiatorTest {
@@ -42,4 +60,108 @@ public class PtpIpInitiatorTest {
             new PtpIpInitiator(GUID, HOST, 65536);
         }
     }
+
+    public static class SendOperation {
+        private static final int DATA_PHASE_INFO_OFFSET = 8; // Length and Type
+        private static final int OPERATION_CODE_OFFSET = 12;
+
+        @Test(timeout = 30 * 1000)
+        public void withoutDataOut() throws Exception {
+            try (RecordingResponder responder = new RecordingResponder();
+                 PtpIpInitiator initiator = new PtpIpInitiator(GUID, HOST, responder.getPort(), PtpIpTransport.CHANNEL)) {
+                // act
+                initiator.sendOperation(OperationCode.GET_OBJECT_INFO, new UINT32(1));
+
+                // verify
+                ByteBuffer operationRequest = responder.nextCommandPacket();
+                assertThat(operationRequest.getShort(OPERATION_CODE_OFFSET) & 0xFFFF, is(OperationCode.GET_OBJECT_INFO.value().intValue()));
+                assertThat(operationRequest.getInt(DATA_PHASE_INFO_OFFSET), is(1));
+            }
+        }
+
+        @Test(timeout = 30 * 1000)
+        public void withDataOut() throws Exception {
+            try (RecordingResponder responder = new RecordingResponder();
+                 PtpIpInitiator initiator = new PtpIpInitiator(GUID, HOST, responder.getPort(), PtpIpTransport.CHANNEL)) {
+                // act
+                initiator.sendOperationWithData(OperationCode.SEND_OBJECT);
+
+                // verify
+                ByteBuffer operationRequest = responder.nextCommandPacket();
+                assertThat(operationRequest.getShort(OPERATION_CODE_OFFSET) & 0xFFFF, is(OperationCode.SEND_OBJECT.value().intValue()));
+                assertThat(operationRequest.getInt(DATA_PHASE_INFO_OFFSET), is(2));
+            }
+        }
+    }
+
+    // Responder
+
+    /**
+     * PTP-IP responder which establishes the connections and records the packets on the Command Data Connection.
+     */
+    private static final class RecordingResponder implements Closeable {
+        private final ServerSocketChannel server;
+        private final BlockingQueue<ByteBuffer> commandPackets = new LinkedBlockingQueue<>();
+
+        private RecordingResponder() throws IOException {
+            server = ServerSocketChannel.open();
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+
+            Thread thread = new Thread(this::respond, "recording-responder");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private int getPort() throws IOException {
+            return ((InetSocketAddress) server.getLocalAddress()).getPort();
+        }
+
+        private ByteBuffer nextCommandPacket() throws InterruptedException {
+            return commandPackets.poll(10, TimeUnit.SECONDS);
+        }
+
+        private void respond() {
+            try (SocketChannel command = server.accept()) {
+                readPacket(command); // InitCommandRequest
+                command.write(ByteBuffer.wrap(new InitCommandAckPacket(new UINT32(1), UUID.randomUUID(), "responder", ProtocolVersions.REV_1_0).bytes()));
+
+                try (SocketChannel event = server.accept()) {
+                    readPacket(event); // InitEventRequest
+                    ByteBuffer initEventAck = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+                    initEventAck.putInt(8).putInt(PtpIpPacket.Type.INIT_EVENT_ACK.value().intValue()).flip();
+                    event.write(initEventAck);
+
+                    for (; ; ) {
+                        commandPackets.add(readPacket(command));
+                    }
+                }
+            } catch (IOException e) {
+                // Closed
+            }
+        }
+
+        private static ByteBuffer readPacket(SocketChannel channel) throws IOException {
+            ByteBuffer length = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, length);
+
+            ByteBuffer packet = ByteBuffer.allocate(length.getInt(0)).order(ByteOrder.LITTLE_ENDIAN);
+            packet.put(length.array());
+            readFully(channel, packet);
+
+            return packet;
+        }
+
+        private static void readFully(SocketChannel channel, ByteBuffer dst) throws IOException {
+            while (dst.hasRemaining()) {
+                if (channel.read(dst) == -1) {
+                    throw new EOFException();
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            server.close();
+        }
+    }
 }
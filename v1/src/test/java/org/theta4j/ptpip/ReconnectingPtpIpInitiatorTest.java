@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j.ptpip;
+
+import org.junit.Test;
+import org.theta4j.ptp.PtpEventDispatcher;
+import org.theta4j.ptp.code.EventCode;
+import org.theta4j.ptp.data.Event;
+import org.theta4j.ptp.type.UINT32;
+import org.theta4j.ptpip.packet.EventPacket;
+import org.theta4j.ptpip.packet.InitCommandAckPacket;
+import org.theta4j.ptpip.packet.PtpIpPacket;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class ReconnectingPtpIpInitiatorTest {
+    private static final UINT32 TRANSACTION_ID = new UINT32(1);
+
+    @Test(timeout = 30 * 1000)
+    public void completeWaiterWithoutDispatcher() throws Exception {
+        // given: The dispatcher never runs the listeners, as if it dropped the events.
+        PtpEventDispatcher eventDispatcher = new PtpEventDispatcher(task -> {
+        }, 1, PtpEventDispatcher.OverflowPolicy.DROP_NEWEST);
+
+        try (EventResponder responder = new EventResponder();
+             ReconnectingPtpIpInitiator initiator = new ReconnectingPtpIpInitiator(UUID.randomUUID(), "127.0.0.1", responder.getPort(),
+                     PtpIpTransport.CHANNEL, eventDispatcher, 10 * 1000, 10 * 1000, Backoff.DEFAULT)) {
+            // arrange
+            CompletableFuture<Event> waiter = initiator.awaitEventOfTransaction(EventCode.CAPTURE_COMPLETE, TRANSACTION_ID, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+
+            // act
+            responder.send(new EventPacket(EventCode.CAPTURE_COMPLETE.value(), TRANSACTION_ID));
+
+            // verify
+            Event event = waiter.get(10, TimeUnit.SECONDS);
+            assertThat(event.getTransactionID(), is(TRANSACTION_ID));
+        }
+    }
+
+    // Responder
+
+    /**
+     * PTP-IP responder which establishes the connections and sends the given events.
+     */
+    private static final class EventResponder implements Closeable {
+        private final ServerSocketChannel server;
+        private final BlockingQueue<EventPacket> events = new LinkedBlockingQueue<>();
+
+        private EventResponder() throws IOException {
+            server = ServerSocketChannel.open();
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+
+            Thread thread = new Thread(this::respond, "event-responder");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private int getPort() throws IOException {
+            return ((InetSocketAddress) server.getLocalAddress()).getPort();
+        }
+
+        private void send(EventPacket event) {
+            events.add(event);
+        }
+
+        private void respond() {
+            try (SocketChannel command = server.accept()) {
+                readPacket(command); // InitCommandRequest
+                command.write(ByteBuffer.wrap(new InitCommandAckPacket(new UINT32(1), UUID.randomUUID(), "responder", ProtocolVersions.REV_1_0).bytes()));
+
+                try (SocketChannel event = server.accept()) {
+                    readPacket(event); // InitEventRequest
+                    ByteBuffer initEventAck = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+                    initEventAck.putInt(8).putInt(PtpIpPacket.Type.INIT_EVENT_ACK.value().intValue()).flip();
+                    event.write(initEventAck);
+
+                    for (; ; ) {
+                        event.write(ByteBuffer.wrap(events.take().bytes()));
+                    }
+                }
+            } catch (IOException | InterruptedException e) {
+                // Closed
+            }
+        }
+
+        private static void readPacket(SocketChannel channel) throws IOException {
+            ByteBuffer length = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, length);
+
+            readFully(channel, ByteBuffer.allocate(length.getInt(0) - 4));
+        }
+
+        private static void readFully(SocketChannel channel, ByteBuffer dst) throws IOException {
+            while (dst.hasRemaining()) {
+                if (channel.read(dst) == -1) {
+                    throw new EOFException();
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            server.close();
+        }
+    }
+}
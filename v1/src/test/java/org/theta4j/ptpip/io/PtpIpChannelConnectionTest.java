@@ -0,0 +1,507 @@
+/*
+ * Copyright (C) 2015 theta4j project
+ */
+
+package org.theta4j.ptpip.io;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+import org.theta4j.ptp.PtpException;
+import org.theta4j.ptp.code.ResponseCode;
+import org.theta4j.ptp.type.UINT16;
+import org.theta4j.ptp.type.UINT32;
+import org.theta4j.ptp.type.UINT64;
+import org.theta4j.ptpip.packet.*;
+import org.theta4j.util.ArrayUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+@RunWith(Enclosed.class)
+public class PtpIpChannelConnectionTest {
+    private static PtpIpChannelConnection connection(byte[] given, ByteArrayOutputStream dst, int bufferSize) {
+        return new PtpIpChannelConnection(
+                Channels.newChannel(new ByteArrayInputStream(given)),
+                Channels.newChannel(dst),
+                bufferSize);
+    }
+
+    private static PtpIpChannelConnection connection(byte[] given) {
+        return connection(given, new ByteArrayOutputStream(), PtpIpChannelConnection.DEFAULT_BUFFER_SIZE);
+    }
+
+    public static class Construct {
+        @Test(expected = NullPointerException.class)
+        public void withNullChannel() {
+            // act
+            new PtpIpChannelConnection(null);
+        }
+
+        @Test(expected = IllegalArgumentException.class)
+        public void withTooSmallBuffer() {
+            // act
+            connection(new byte[0], new ByteArrayOutputStream(), PtpIpChannelConnection.MIN_BUFFER_SIZE - 1);
+        }
+    }
+
+    public static class CheckNext {
+        @Test
+        public void normal() throws IOException {
+            // given
+            PtpIpPacket given = new EventPacket(UINT16.MAX_VALUE, UINT32.MAX_VALUE);
+
+            // arrange
+            PtpIpChannelConnection connection = connection(given.bytes());
+
+            // act & verify
+            assertThat(connection.nextType(), is(PtpIpPacket.Type.EVENT));
+            assertThat(connection.nextType(), is(PtpIpPacket.Type.EVENT));
+            assertThat(connection.readEventPacket(), is(given));
+        }
+    }
+
+    public static class ReadPacket {
+        @Test
+        public void initCommandAckPacket() throws IOException {
+            // given
+            PtpIpPacket given = new InitCommandAckPacket(UINT32.MAX_VALUE, UUID.randomUUID(), "test", UINT32.MAX_VALUE);
+
+            // act
+            InitCommandAckPacket actual = connection(given.bytes()).readInitCommandAckPacket();
+
+            // verify
+            assertThat(actual, is(given));
+        }
+
+        @Test
+        public void initEventAckPacket() throws IOException {
+            // given
+            PtpIpPacket given = new InitEventAckPacket();
+
+            // act
+            InitEventAckPacket actual = connection(given.bytes()).readInitEventAckPacket();
+
+            // verify
+            assertThat(actual, is(given));
+        }
+
+        @Test
+        public void operationResponsePacket() throws IOException {
+            // given
+            PtpIpPacket given = new OperationResponsePacket(UINT16.MAX_VALUE, UINT32.MAX_VALUE);
+
+            // act
+            OperationResponsePacket actual = connection(given.bytes()).readOperationResponsePacket();
+
+            // verify
+            assertThat(actual, is(given));
+        }
+
+        @Test
+        public void successivePackets() throws IOException {
+            // given
+            EventPacket given1 = new EventPacket(UINT16.MAX_VALUE, new UINT32(1));
+            EventPacket given2 = new EventPacket(UINT16.MAX_VALUE, new UINT32(2));
+
+            // arrange
+            PtpIpChannelConnection connection = connection(ArrayUtils.join(given1.bytes(), given2.bytes()));
+
+            // act & verify
+            assertThat(connection.readEventPacket(), is(given1));
+            assertThat(connection.readEventPacket(), is(given2));
+        }
+
+        @Test(expected = RuntimeException.class)
+        public void withUnexpectedType() throws IOException {
+            // given
+            PtpIpPacket given = new EventPacket(UINT16.MAX_VALUE, UINT32.MAX_VALUE);
+
+            // act
+            connection(given.bytes()).readOperationResponsePacket();
+        }
+    }
+
+    public static class ReadData {
+        @Test(expected = IOException.class)
+        public void butWasOperationResponse() throws IOException {
+            // given
+            PtpIpPacket given = new OperationResponsePacket(ResponseCode.OK.value(), new UINT32(1));
+
+            // act
+            connection(given.bytes()).readData(new ByteArrayOutputStream());
+        }
+
+        @Test(expected = PtpException.class)
+        public void withError() throws IOException {
+            // given
+            PtpIpPacket given = new OperationResponsePacket(ResponseCode.GENERAL_ERROR.value(), new UINT32(1));
+
+            // act
+            connection(given.bytes()).readData(new ByteArrayOutputStream());
+        }
+
+        @Test
+        public void normal() throws IOException {
+            // given
+            UINT32 transactionID = new UINT32(1);
+            byte[] data1 = new byte[]{0x00, 0x01, 0x02, 0x03};
+            byte[] data2 = new byte[]{0x04, 0x05, 0x06, 0x07};
+            byte[] data = ArrayUtils.join(data1, data2);
+
+            // arrange
+            byte[] givenBytes = ArrayUtils.join(
+                    new StartDataPacket(transactionID, new UINT64(data.length)).bytes(),
+                    new DataPacket(transactionID, data1).bytes(),
+                    new EndDataPacket(transactionID, data2).bytes()
+            );
+            ByteArrayOutputStream actual = new ByteArrayOutputStream();
+
+            // act
+            connection(givenBytes).readData(actual);
+
+            // verify
+            assertThat(actual.toByteArray(), is(data));
+        }
+
+        @Test
+        public void largerThanBuffer() throws IOException {
+            // given
+            UINT32 transactionID = new UINT32(1);
+            byte[] data = new byte[PtpIpChannelConnection.MIN_BUFFER_SIZE * 3 + 1];
+            for (int i = 0; i < data.length; i++) {
+                data[i] = (byte) i;
+            }
+
+            // arrange
+            byte[] givenBytes = ArrayUtils.join(
+                    new StartDataPacket(transactionID, new UINT64(data.length)).bytes(),
+                    new EndDataPacket(transactionID, data).bytes(),
+                    new OperationResponsePacket(ResponseCode.OK.value(), transactionID).bytes()
+            );
+            ByteArrayOutputStream actual = new ByteArrayOutputStream();
+            PtpIpChannelConnection connection = connection(givenBytes, new ByteArrayOutputStream(), PtpIpChannelConnection.MIN_BUFFER_SIZE);
+
+            // act
+            connection.readData(actual);
+
+            // verify
+            assertThat(actual.toByteArray(), is(data));
+            assertThat(connection.nextType(), is(PtpIpPacket.Type.OPERATION_RESPONSE));
+        }
+    }
+
+    public static class Cancel {
+        private static byte[] cancelledDataPhase(UINT32 transactionID, byte[] data) {
+            return ArrayUtils.join(
+                    new StartDataPacket(transactionID, new UINT64(data.length * 2)).bytes(),
+                    new DataPacket(transactionID, data).bytes(),
+                    new CancelPacket(transactionID).bytes(),
+                    new OperationResponsePacket(ResponseCode.TRANSACTION_CANCELLED.value(), transactionID).bytes()
+            );
+        }
+
+        @Test
+        public void readData() throws IOException {
+            // given
+            UINT32 transactionID = new UINT32(1);
+            byte[] data = new byte[]{0x00, 0x01, 0x02, 0x03};
+
+            // arrange
+            PtpIpChannelConnection connection = connection(cancelledDataPhase(transactionID, data));
+            ByteArrayOutputStream actual = new ByteArrayOutputStream();
+
+            // act
+            connection.readData(actual);
+
+            // verify
+            assertThat(actual.toByteArray(), is(data));
+            assertThat(connection.nextType(), is(PtpIpPacket.Type.OPERATION_RESPONSE));
+        }
+
+        @Test
+        public void closeData() throws IOException {
+            // given
+            UINT32 transactionID = new UINT32(1);
+            byte[] data = new byte[PtpIpChannelConnection.MIN_BUFFER_SIZE * 3 + 1];
+
+            // arrange
+            byte[] givenBytes = cancelledDataPhase(transactionID, data);
+            PtpIpChannelConnection connection = connection(givenBytes, new ByteArrayOutputStream(), PtpIpChannelConnection.MIN_BUFFER_SIZE);
+            DataPhaseInputStream is = connection.openData();
+
+            // act
+            int first = is.read();
+            is.close();
+
+            // verify
+            assertThat(first, is(0x00));
+            assertThat(is.isCancelled(), is(true));
+            assertThat(connection.readOperationResponsePacket().getResponseCode(), is(ResponseCode.TRANSACTION_CANCELLED.value()));
+        }
+
+        @Test
+        public void write() throws IOException {
+            // given
+            CancelPacket given = new CancelPacket(new UINT32(1));
+
+            // arrange
+            ByteArrayOutputStream actual = new ByteArrayOutputStream();
+
+            // act
+            connection(new byte[0], actual, PtpIpChannelConnection.DEFAULT_BUFFER_SIZE).write(given);
+
+            // verify
+            assertThat(actual.toByteArray(), is(given.bytes()));
+        }
+    }
+
+    public static class OpenData {
+        @Test
+        public void normal() throws IOException {
+            // given
+            UINT32 transactionID = new UINT32(1);
+            byte[] data = new byte[PtpIpChannelConnection.MIN_BUFFER_SIZE * 3 + 1];
+            for (int i = 0; i < data.length; i++) {
+                data[i] = (byte) i;
+            }
+
+            // arrange
+            byte[] givenBytes = ArrayUtils.join(
+                    new StartDataPacket(transactionID, new UINT64(data.length)).bytes(),
+                    new EndDataPacket(transactionID, data).bytes(),
+                    new OperationResponsePacket(ResponseCode.OK.value(), transactionID).bytes()
+            );
+            PtpIpChannelConnection connection = connection(givenBytes, new ByteArrayOutputStream(), PtpIpChannelConnection.MIN_BUFFER_SIZE);
+            ByteArrayOutputStream actual = new ByteArrayOutputStream();
+
+            // act
+            DataPhaseInputStream is = connection.openData();
+            byte[] buffer = new byte[100];
+            for (int size; (size = is.read(buffer)) != -1; ) {
+                actual.write(buffer, 0, size);
+            }
+
+            // verify
+            assertThat(actual.toByteArray(), is(data));
+            assertThat(connection.nextType(), is(PtpIpPacket.Type.OPERATION_RESPONSE));
+        }
+
+        @Test
+        public void close() throws IOException {
+            // given
+            UINT32 transactionID = new UINT32(1);
+            byte[] data = new byte[PtpIpChannelConnection.MIN_BUFFER_SIZE * 3 + 1];
+
+            // arrange
+            byte[] givenBytes = ArrayUtils.join(
+                    new StartDataPacket(transactionID, new UINT64(data.length)).bytes(),
+                    new EndDataPacket(transactionID, data).bytes(),
+                    new OperationResponsePacket(ResponseCode.OK.value(), transactionID).bytes()
+            );
+            PtpIpChannelConnection connection = connection(givenBytes, new ByteArrayOutputStream(), PtpIpChannelConnection.MIN_BUFFER_SIZE);
+
+            // act
+            connection.openData().close();
+
+            // verify
+            assertThat(connection.nextType(), is(PtpIpPacket.Type.OPERATION_RESPONSE));
+        }
+
+        @Test(expected = IOException.class)
+        public void readDataLongerThanTotalLength() throws IOException {
+            // given
+            UINT32 transactionID = new UINT32(1);
+            byte[] data = new byte[]{0x00, 0x01, 0x02, 0x03};
+
+            // arrange
+            byte[] givenBytes = ArrayUtils.join(
+                    new StartDataPacket(transactionID, new UINT64(data.length - 1)).bytes(),
+                    new EndDataPacket(transactionID, data).bytes()
+            );
+
+            // act
+            connection(givenBytes).readData(new ByteArrayOutputStream());
+        }
+    }
+
+    public static class ReadDataToFile {
+        private File file;
+
+        @Before
+        public void setUp() throws IOException {
+            file = File.createTempFile("theta4j", ".tmp");
+        }
+
+        @After
+        public void tearDown() {
+            file.delete();
+        }
+
+        @Test
+        public void normal() throws IOException {
+            // given
+            UINT32 transactionID = new UINT32(1);
+            byte[] prefix = new byte[]{0x0A, 0x0B};
+            byte[] data1 = new byte[PtpIpChannelConnection.MIN_BUFFER_SIZE * 2];
+            byte[] data2 = new byte[PtpIpChannelConnection.MIN_BUFFER_SIZE * 3 + 1];
+            for (int i = 0; i < data2.length; i++) {
+                data2[i] = (byte) i;
+            }
+            byte[] data = ArrayUtils.join(data1, data2);
+
+            // arrange
+            byte[] givenBytes = ArrayUtils.join(
+                    new StartDataPacket(transactionID, new UINT64(data.length)).bytes(),
+                    new DataPacket(transactionID, data1).bytes(),
+                    new EndDataPacket(transactionID, data2).bytes(),
+                    new OperationResponsePacket(ResponseCode.OK.value(), transactionID).bytes()
+            );
+            PtpIpChannelConnection connection = connection(givenBytes, new ByteArrayOutputStream(), PtpIpChannelConnection.MIN_BUFFER_SIZE);
+
+            // act
+            try (FileChannel dst = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                dst.write(ByteBuffer.wrap(prefix));
+                connection.readData(dst);
+
+                // verify
+                assertThat(dst.position(), is((long) (prefix.length + data.length)));
+            }
+
+            // verify
+            assertThat(Files.readAllBytes(file.toPath()), is(ArrayUtils.join(prefix, data)));
+            assertThat(connection.nextType(), is(PtpIpPacket.Type.OPERATION_RESPONSE));
+        }
+
+        @Test(expected = EOFException.class)
+        public void withTruncatedData() throws IOException {
+            // given
+            UINT32 transactionID = new UINT32(1);
+            byte[] data = new byte[PtpIpChannelConnection.MIN_BUFFER_SIZE * 2];
+
+            // arrange
+            byte[] packets = ArrayUtils.join(
+                    new StartDataPacket(transactionID, new UINT64(data.length)).bytes(),
+                    new EndDataPacket(transactionID, data).bytes()
+            );
+            byte[] givenBytes = Arrays.copyOf(packets, packets.length - 1);
+
+            // act
+            try (FileChannel dst = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                connection(givenBytes).readData(dst);
+            }
+        }
+    }
+
+    public static class Write {
+        @Test
+        public void write() throws IOException {
+            // given
+            PtpIpPacket given = new CancelPacket(UINT32.MAX_VALUE);
+
+            // arrange
+            ByteArrayOutputStream actual = new ByteArrayOutputStream();
+
+            // act
+            connection(new byte[0], actual, PtpIpChannelConnection.DEFAULT_BUFFER_SIZE).write(given);
+
+            // verify
+            assertThat(actual.toByteArray(), is(given.bytes()));
+        }
+
+        @Test
+        public void writeData() throws IOException {
+            // given
+            UINT32 transactionID = new UINT32(2);
+            byte[] given = new byte[PtpIpChannelConnection.MIN_BUFFER_SIZE * 2];
+
+            // expected
+            byte[] expected = ArrayUtils.join(
+                    new StartDataPacket(transactionID, new UINT64(given.length)).bytes(),
+                    new EndDataPacket(transactionID, given).bytes()
+            );
+
+            // arrange
+            ByteArrayOutputStream actual = new ByteArrayOutputStream();
+
+            // act
+            connection(new byte[0], actual, PtpIpChannelConnection.MIN_BUFFER_SIZE).writeData(transactionID, given);
+
+            // verify
+            assertThat(actual.toByteArray(), is(expected));
+        }
+
+        @Test
+        public void writeDataFromChannel() throws IOException {
+            // given
+            UINT32 transactionID = new UINT32(2);
+            int chunkSize = PtpIpChannelConnection.MIN_BUFFER_SIZE - 12; // -Length, Type and TransactionID
+            byte[] given = new byte[chunkSize * 2 + 3];
+            for (int i = 0; i < given.length; i++) {
+                given[i] = (byte) i;
+            }
+
+            // expected
+            byte[] expected = ArrayUtils.join(
+                    new StartDataPacket(transactionID, new UINT64(given.length)).bytes(),
+                    new DataPacket(transactionID, Arrays.copyOfRange(given, 0, chunkSize)).bytes(),
+                    new DataPacket(transactionID, Arrays.copyOfRange(given, chunkSize, chunkSize * 2)).bytes(),
+                    new EndDataPacket(transactionID, Arrays.copyOfRange(given, chunkSize * 2, given.length)).bytes()
+            );
+
+            // arrange
+            ByteArrayOutputStream actual = new ByteArrayOutputStream();
+
+            // act
+            connection(new byte[0], actual, PtpIpChannelConnection.MIN_BUFFER_SIZE)
+                    .writeData(transactionID, Channels.newChannel(new ByteArrayInputStream(given)), given.length);
+
+            // verify
+            assertThat(actual.toByteArray(), is(expected));
+        }
+
+        @Test
+        public void writeEmptyDataFromChannel() throws IOException {
+            // given
+            UINT32 transactionID = new UINT32(2);
+
+            // expected
+            byte[] expected = ArrayUtils.join(
+                    new StartDataPacket(transactionID, new UINT64(0)).bytes(),
+                    new EndDataPacket(transactionID, new byte[0]).bytes()
+            );
+
+            // arrange
+            ByteArrayOutputStream actual = new ByteArrayOutputStream();
+
+            // act
+            connection(new byte[0], actual, PtpIpChannelConnection.MIN_BUFFER_SIZE)
+                    .writeData(transactionID, Channels.newChannel(new ByteArrayInputStream(new byte[0])), 0);
+
+            // verify
+            assertThat(actual.toByteArray(), is(expected));
+        }
+
+        @Test(expected = EOFException.class)
+        public void writeDataFromTooShortChannel() throws IOException {
+            // act
+            connection(new byte[0])
+                    .writeData(new UINT32(2), Channels.newChannel(new ByteArrayInputStream(new byte[10])), 11);
+        }
+    }
+}
@@ -16,8 +16,10 @@ import org.theta4j.ptpip.packet.*;
 import org.theta4j.util.ArrayUtils;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.Channels;
 import java.util.UUID;
 
 import static org.hamcrest.core.Is.is;
@@ -40,6 +42,55 @@ public class PtpIpInputStreamTest {
             assertThat(pis.nextType(), is(PtpIpPacket.Type.INIT_COMMAND_REQUEST));
             assertThat(pis.readInitCommandRequestPacket(), is(given));
         }
+
+        @Test(expected = IOException.class)
+        public void tooShortLength() throws IOException {
+            // given
+            byte[] givenBytes = ArrayUtils.join(new UINT32(7).bytes(), PtpIpPacket.Type.EVENT.value().bytes());
+
+            // arrange
+            PtpIpInputStream pis = new PtpIpInputStream(new ByteArrayInputStream(givenBytes));
+
+            // act
+            pis.nextType();
+        }
+
+        @Test
+        public void unexpectedTypeKeepsPacket() throws IOException {
+            // given
+            EventPacket given = new EventPacket(UINT16.MAX_VALUE, UINT32.MAX_VALUE);
+
+            // arrange
+            PtpIpInputStream pis = new PtpIpInputStream(new ByteArrayInputStream(given.bytes()));
+
+            // act
+            try {
+                pis.readOperationResponsePacket();
+            } catch (RuntimeException e) {
+                // expected
+            }
+
+            // verify
+            assertThat(pis.readEventPacket(), is(given));
+        }
+
+        @Test
+        public void consecutivePackets() throws IOException {
+            // given
+            PtpIpPacket given1 = new InitCommandAckPacket(UINT32.MAX_VALUE, UUID.randomUUID(), "a long name of the responder", UINT32.MAX_VALUE);
+            PtpIpPacket given2 = new InitEventAckPacket();
+            PtpIpPacket given3 = new EventPacket(UINT16.MAX_VALUE, UINT32.MAX_VALUE);
+
+            // arrange
+            byte[] givenBytes = ArrayUtils.join(given1.bytes(), given2.bytes(), given3.bytes());
+            PtpIpInputStream pis = new PtpIpInputStream(new ByteArrayInputStream(givenBytes));
+
+            // act & verify
+            assertThat(pis.readInitCommandAckPacket(), is(given1));
+            assertThat(pis.nextType(), is(PtpIpPacket.Type.INIT_EVENT_ACK));
+            assertThat(pis.readInitEventAckPacket(), is(given2));
+            assertThat(pis.readEventPacket(), is(given3));
+        }
     }
 
     public static class ReadPacket {
@@ -322,5 +373,210 @@ public class PtpIpInputStreamTest {
             // verify
             assertThat(actual, is(data));
         }
+
+        @Test
+        public void toChannel() throws IOException {
+            // given
+            UINT32 transactionID = new UINT32(1);
+            byte[] data1 = new byte[10000];
+            byte[] data2 = new byte[20000];
+            for (int i = 0; i < data2.length; i++) {
+                data2[i] = (byte) i;
+            }
+            byte[] data = ArrayUtils.join(data1, data2);
+
+            // arrange
+            byte[] givenBytes = ArrayUtils.join(
+                    new StartDataPacket(transactionID, new UINT64(data.length)).bytes(),
+                    new DataPacket(transactionID, data1).bytes(),
+                    new EndDataPacket(transactionID, data2).bytes(),
+                    new OperationResponsePacket(ResponseCode.OK.value(), transactionID).bytes()
+            );
+            PtpIpInputStream pis = new PtpIpInputStream(new ByteArrayInputStream(givenBytes));
+            ByteArrayOutputStream actual = new ByteArrayOutputStream();
+
+            // act
+            pis.readData(Channels.newChannel(actual));
+
+            // verify
+            assertThat(actual.toByteArray(), is(data));
+            assertThat(pis.nextType(), is(PtpIpPacket.Type.OPERATION_RESPONSE));
+        }
+    }
+
+    public static class OpenData {
+        private static byte[] packets(UINT64 totalLength, byte[]... data) {
+            UINT32 transactionID = new UINT32(1);
+
+            byte[] bytes = new StartDataPacket(transactionID, totalLength).bytes();
+            for (int i = 0; i < data.length - 1; i++) {
+                bytes = ArrayUtils.join(bytes, new DataPacket(transactionID, data[i]).bytes());
+            }
+            bytes = ArrayUtils.join(bytes, new EndDataPacket(transactionID, data[data.length - 1]).bytes());
+
+            return ArrayUtils.join(bytes, new OperationResponsePacket(ResponseCode.OK.value(), transactionID).bytes());
+        }
+
+        private static byte[] readAll(InputStream is) throws IOException {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            byte[] buffer = new byte[3];
+            for (int size; (size = is.read(buffer)) != -1; ) {
+                baos.write(buffer, 0, size);
+            }
+            return baos.toByteArray();
+        }
+
+        @Test
+        public void normal() throws IOException {
+            // given
+            byte[] data1 = new byte[]{0x00, 0x01, 0x02, 0x03};
+            byte[] data2 = new byte[]{0x04, 0x05, 0x06, 0x07, 0x08};
+
+            // arrange
+            byte[] givenBytes = packets(new UINT64(data1.length + data2.length), data1, new byte[0], data2);
+            PtpIpInputStream pis = new PtpIpInputStream(new ByteArrayInputStream(givenBytes));
+
+            // act
+            DataPhaseInputStream actual = pis.openData();
+
+            // verify
+            assertThat(actual.getTotalLength(), is((long) (data1.length + data2.length)));
+            assertThat(readAll(actual), is(ArrayUtils.join(data1, data2)));
+            assertThat(actual.read(), is(-1));
+            assertThat(pis.nextType(), is(PtpIpPacket.Type.OPERATION_RESPONSE));
+        }
+
+        @Test
+        public void withUnknownTotalLength() throws IOException {
+            // given
+            byte[] data = new byte[]{0x00, 0x01, 0x02, 0x03};
+
+            // arrange
+            byte[] givenBytes = packets(UINT64.MAX_VALUE, data);
+            PtpIpInputStream pis = new PtpIpInputStream(new ByteArrayInputStream(givenBytes));
+
+            // act
+            DataPhaseInputStream actual = pis.openData();
+
+            // verify
+            assertThat(actual.getTotalLength(), is(DataPhaseInputStream.UNKNOWN_LENGTH));
+            assertThat(readAll(actual), is(data));
+        }
+
+        @Test
+        public void close() throws IOException {
+            // given
+            byte[] data1 = new byte[]{0x00, 0x01, 0x02, 0x03};
+            byte[] data2 = new byte[]{0x04, 0x05, 0x06, 0x07};
+
+            // arrange
+            byte[] givenBytes = packets(new UINT64(data1.length + data2.length), data1, data2);
+            PtpIpInputStream pis = new PtpIpInputStream(new ByteArrayInputStream(givenBytes));
+            DataPhaseInputStream data = pis.openData();
+
+            // act
+            int first = data.read();
+            data.close();
+
+            // verify
+            assertThat(first, is(0x00));
+            assertThat(pis.nextType(), is(PtpIpPacket.Type.OPERATION_RESPONSE));
+        }
+
+        @Test(expected = IOException.class)
+        public void readAfterClose() throws IOException {
+            // given
+            byte[] data = new byte[]{0x00, 0x01, 0x02, 0x03};
+
+            // arrange
+            PtpIpInputStream pis = new PtpIpInputStream(new ByteArrayInputStream(packets(new UINT64(data.length), data)));
+            DataPhaseInputStream actual = pis.openData();
+            actual.close();
+
+            // act
+            actual.read();
+        }
+
+        @Test
+        public void cancelled() throws IOException {
+            // given
+            UINT32 transactionID = new UINT32(1);
+            byte[] data = new byte[]{0x00, 0x01, 0x02, 0x03};
+
+            // arrange
+            byte[] givenBytes = ArrayUtils.join(
+                    new StartDataPacket(transactionID, new UINT64(data.length * 2)).bytes(),
+                    new DataPacket(transactionID, data).bytes(),
+                    new CancelPacket(transactionID).bytes(),
+                    new OperationResponsePacket(ResponseCode.TRANSACTION_CANCELLED.value(), transactionID).bytes()
+            );
+            PtpIpInputStream pis = new PtpIpInputStream(new ByteArrayInputStream(givenBytes));
+
+            // act
+            DataPhaseInputStream actual = pis.openData();
+
+            // verify
+            assertThat(readAll(actual), is(data));
+            assertThat(actual.isCancelled(), is(true));
+            assertThat(pis.nextType(), is(PtpIpPacket.Type.OPERATION_RESPONSE));
+        }
+
+        @Test
+        public void closeShorterThanTotalLength() throws IOException {
+            // given
+            byte[] data1 = new byte[]{0x00, 0x01, 0x02, 0x03};
+            byte[] data2 = new byte[]{0x04, 0x05, 0x06, 0x07};
+
+            // arrange
+            byte[] givenBytes = packets(new UINT64(data1.length + data2.length + 1), data1, data2);
+            PtpIpInputStream pis = new PtpIpInputStream(new ByteArrayInputStream(givenBytes));
+            DataPhaseInputStream data = pis.openData();
+
+            // act
+            data.close();
+
+            // verify
+            assertThat(pis.nextType(), is(PtpIpPacket.Type.OPERATION_RESPONSE));
+        }
+
+        @Test(expected = IOException.class)
+        public void longerThanTotalLength() throws IOException {
+            // given
+            byte[] data1 = new byte[]{0x00, 0x01, 0x02, 0x03};
+            byte[] data2 = new byte[]{0x04, 0x05, 0x06, 0x07};
+
+            // arrange
+            byte[] givenBytes = packets(new UINT64(data1.length + data2.length - 1), data1, data2);
+            PtpIpInputStream pis = new PtpIpInputStream(new ByteArrayInputStream(givenBytes));
+
+            // act
+            readAll(pis.openData());
+        }
+
+        @Test(expected = IOException.class)
+        public void shorterThanTotalLength() throws IOException {
+            // given
+            byte[] data1 = new byte[]{0x00, 0x01, 0x02, 0x03};
+            byte[] data2 = new byte[]{0x04, 0x05, 0x06, 0x07};
+
+            // arrange
+            byte[] givenBytes = packets(new UINT64(data1.length + data2.length + 1), data1, data2);
+            PtpIpInputStream pis = new PtpIpInputStream(new ByteArrayInputStream(givenBytes));
+
+            // act
+            readAll(pis.openData());
+        }
+
+        @Test(expected = IOException.class)
+        public void readDataLongerThanTotalLength() throws IOException {
+            // given
+            byte[] data = new byte[]{0x00, 0x01, 0x02, 0x03};
+
+            // arrange
+            PtpIpInputStream pis = new PtpIpInputStream(new ByteArrayInputStream(packets(new UINT64(data.length - 1), data)));
+
+            // act
+            pis.readData();
+        }
     }
 }
@@ -10,13 +10,18 @@ import org.junit.Test;
 import org.theta4j.ptp.type.UINT32;
 import org.theta4j.ptp.type.UINT64;
 import org.theta4j.ptpip.packet.CancelPacket;
+import org.theta4j.ptpip.packet.DataPacket;
 import org.theta4j.ptpip.packet.EndDataPacket;
 import org.theta4j.ptpip.packet.PtpIpPacket;
 import org.theta4j.ptpip.packet.StartDataPacket;
 import org.theta4j.util.ArrayUtils;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.Arrays;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
@@ -71,4 +76,61 @@ public class PtpIpOutputStreamTest {
         byte[] actual = baos.toByteArray();
         assertThat(actual, is(expected));
     }
+
+    @Test
+    public void writeDataFromChannel() throws IOException {
+        // given
+        UINT32 transactionID = new UINT32(2);
+        int chunkSize = PtpIpOutputStream.MAX_DATA_CHUNK_SIZE;
+        byte[] given = new byte[chunkSize * 2 + 3];
+        for (int i = 0; i < given.length; i++) {
+            given[i] = (byte) i;
+        }
+
+        // expected
+        byte[] expected = ArrayUtils.join(
+                new StartDataPacket(transactionID, new UINT64(given.length)).bytes(),
+                new DataPacket(transactionID, Arrays.copyOfRange(given, 0, chunkSize)).bytes(),
+                new DataPacket(transactionID, Arrays.copyOfRange(given, chunkSize, chunkSize * 2)).bytes(),
+                new EndDataPacket(transactionID, Arrays.copyOfRange(given, chunkSize * 2, given.length)).bytes()
+        );
+
+        // act
+        pos.writeData(transactionID, Channels.newChannel(new ByteArrayInputStream(given)), given.length);
+
+        // verify
+        byte[] actual = baos.toByteArray();
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void writeEmptyDataFromChannel() throws IOException {
+        // given
+        UINT32 transactionID = new UINT32(2);
+
+        // expected
+        byte[] expected = ArrayUtils.join(
+                new StartDataPacket(transactionID, new UINT64(0)).bytes(),
+                new EndDataPacket(transactionID, new byte[0]).bytes()
+        );
+
+        // act
+        pos.writeData(transactionID, Channels.newChannel(new ByteArrayInputStream(new byte[0])), 0);
+
+        // verify
+        byte[] actual = baos.toByteArray();
+        assertThat(actual, is(expected));
+    }
+
+    @Test(expected = EOFException.class)
+    public void writeDataFromTooShortChannel() throws IOException {
+        // act
+        pos.writeData(new UINT32(2), Channels.newChannel(new ByteArrayInputStream(new byte[10])), 11);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void writeDataWithNegativeLength() throws IOException {
+        // act
+        pos.writeData(new UINT32(2), Channels.newChannel(new ByteArrayInputStream(new byte[0])), -1);
+    }
 }
@@ -12,6 +12,7 @@ import org.theta4j.ptp.type.UINT32;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsNot.not;
@@ -98,6 +99,38 @@ public class CancelPacketTest {
         }
     }
 
+    public static class ReadPayload {
+        @Test(expected = NullPointerException.class)
+        public void nullValue() throws IOException {
+            // act
+            CancelPacket.readPayload(null);
+        }
+
+        @Test(expected = IOException.class)
+        public void invalidLengthPayload() throws IOException {
+            // given
+            ByteBuffer givenPayload = ByteBuffer.wrap(new byte[PAYLOAD.length - 1]);  // expected length - 1
+
+            // act
+            CancelPacket.readPayload(givenPayload);
+        }
+
+        @Test
+        public void normal() throws IOException {
+            // given
+            CancelPacket given = new CancelPacket(TRANSACTION_ID);
+
+            // arrange
+            ByteBuffer givenPayload = ByteBuffer.wrap(given.getPayload());
+
+            // act
+            CancelPacket actual = CancelPacket.readPayload(givenPayload);
+
+            // verify
+            assertThat(actual, is(given));
+        }
+    }
+
     public static class HashCode {
         @Test
         public void ofDifferentTransactionID() {
@@ -14,6 +14,7 @@ import org.theta4j.util.ArrayUtils;
 import java.io.ByteArrayInputStream;
 import java.io.EOFException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsNot.not;
@@ -132,6 +133,38 @@ public class DataPacketTest {
         }
     }
 
+    public static class ReadPayload {
+        @Test(expected = NullPointerException.class)
+        public void nullValue() throws IOException {
+            // act
+            DataPacket.readPayload(null);
+        }
+
+        @Test(expected = IOException.class)
+        public void invalidLengthPayload() throws IOException {
+            // given
+            ByteBuffer givenPayload = ByteBuffer.wrap(new byte[UINT32.SIZE_IN_BYTES - 1]);
+
+            // act
+            DataPacket.readPayload(givenPayload);
+        }
+
+        @Test
+        public void normal() throws IOException {
+            // given
+            DataPacket given = new DataPacket(TRANSACTION_ID, DATA_PAYLOAD);
+
+            // arrange
+            ByteBuffer givenPayload = ByteBuffer.wrap(given.getPayload());
+
+            // act
+            DataPacket actual = DataPacket.readPayload(givenPayload);
+
+            // verify
+            assertThat(actual, is(given));
+        }
+    }
+
     public static class HashCode {
         @Test
         public void ofDifferentTransactionID() {
@@ -14,6 +14,7 @@ import org.theta4j.util.ArrayUtils;
 import java.io.ByteArrayInputStream;
 import java.io.EOFException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsNot.not;
@@ -132,6 +133,38 @@ public class EndDataPacketTest {
         }
     }
 
+    public static class ReadPayload {
+        @Test(expected = NullPointerException.class)
+        public void nullValue() throws IOException {
+            // act
+            EndDataPacket.readPayload(null);
+        }
+
+        @Test(expected = IOException.class)
+        public void invalidLengthPayload() throws IOException {
+            // given
+            ByteBuffer givenPayload = ByteBuffer.wrap(new byte[UINT32.SIZE_IN_BYTES - 1]);
+
+            // act
+            EndDataPacket.readPayload(givenPayload);
+        }
+
+        @Test
+        public void normal() throws IOException {
+            // given
+            EndDataPacket given = new EndDataPacket(TRANSACTION_ID, DATA_PAYLOAD);
+
+            // arrange
+            ByteBuffer givenPayload = ByteBuffer.wrap(given.getPayload());
+
+            // act
+            EndDataPacket actual = EndDataPacket.readPayload(givenPayload);
+
+            // verify
+            assertThat(actual, is(given));
+        }
+    }
+
     public static class HashCode {
         @Test
         public void ofDifferentTransactionID() {
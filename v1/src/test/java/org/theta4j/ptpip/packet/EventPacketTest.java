@@ -15,6 +15,7 @@ import org.theta4j.util.ArrayUtils;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsNot.not;
@@ -143,6 +144,38 @@ public class EventPacketTest {
         }
     }
 
+    public static class ReadPayload {
+        @Test(expected = NullPointerException.class)
+        public void nullValue() throws IOException {
+            // act
+            EventPacket.readPayload(null);
+        }
+
+        @Test(expected = IOException.class)
+        public void invalidLengthPayload() throws IOException {
+            // given
+            ByteBuffer givenPayload = ByteBuffer.wrap(new byte[PAYLOAD.length - 1]);  // expected length - 1
+
+            // act
+            EventPacket.readPayload(givenPayload);
+        }
+
+        @Test
+        public void normal() throws IOException {
+            // given
+            EventPacket given = new EventPacket(EVENT_CODE, TRANSACTION_ID, P1, P2, P3);
+
+            // arrange
+            ByteBuffer givenPayload = ByteBuffer.wrap(given.getPayload());
+
+            // act
+            EventPacket actual = EventPacket.readPayload(givenPayload);
+
+            // verify
+            assertThat(actual, is(given));
+        }
+    }
+
     public static class HashCode {
         @Test
         public void ofDifferentEventCode() {
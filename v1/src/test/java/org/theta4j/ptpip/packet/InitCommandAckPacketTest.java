@@ -15,6 +15,7 @@ import org.theta4j.util.ArrayUtils;
 import java.io.ByteArrayInputStream;
 import java.io.EOFException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.UUID;
 
 import static org.hamcrest.core.Is.is;
@@ -161,6 +162,38 @@ public class InitCommandAckPacketTest {
         }
     }
 
+    public static class ReadPayload {
+        @Test(expected = NullPointerException.class)
+        public void nullValue() throws IOException {
+            // act
+            InitCommandAckPacket.readPayload(null);
+        }
+
+        @Test(expected = IOException.class)
+        public void tooShortPayload() throws IOException {
+            // given
+            ByteBuffer givenPayload = ByteBuffer.wrap(new byte[PAYLOAD.length - 1]);
+
+            // act
+            InitCommandAckPacket.readPayload(givenPayload);
+        }
+
+        @Test
+        public void normal() throws IOException {
+            // given
+            InitCommandAckPacket given = new InitCommandAckPacket(CONNECTION_NUMBER, GUID_, NAME, PROTOCOL_VERSION);
+
+            // arrange
+            ByteBuffer givenPayload = ByteBuffer.wrap(given.getPayload());
+
+            // act
+            InitCommandAckPacket actual = InitCommandAckPacket.readPayload(givenPayload);
+
+            // verify
+            assertThat(actual, is(given));
+        }
+    }
+
     public static class HashCode {
         @Test
         public void ofDifferentConnectionNumber() {
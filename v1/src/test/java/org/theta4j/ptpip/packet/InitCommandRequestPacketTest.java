@@ -15,6 +15,7 @@ import org.theta4j.util.ArrayUtils;
 import java.io.ByteArrayInputStream;
 import java.io.EOFException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.UUID;
 
 import static org.hamcrest.core.Is.is;
@@ -153,6 +154,68 @@ public class InitCommandRequestPacketTest {
         }
     }
 
+    public static class ReadPayload {
+        @Test(expected = NullPointerException.class)
+        public void nullValue() throws IOException {
+            // act
+            InitCommandRequestPacket.readPayload(null);
+        }
+
+        @Test(expected = IOException.class)
+        public void invalidLengthPayload() throws IOException {
+            // given
+            ByteBuffer givenPayload = ByteBuffer.wrap(new byte[PAYLOAD.length - 1]);
+
+            // act
+            InitCommandRequestPacket.readPayload(givenPayload);
+        }
+
+        @Test
+        public void normal() throws IOException {
+            // given
+            InitCommandRequestPacket given = new InitCommandRequestPacket(GUID_, NAME, PROTOCOL_VERSION);
+
+            // arrange
+            ByteBuffer givenPayload = ByteBuffer.wrap(given.getPayload());
+
+            // act
+            InitCommandRequestPacket actual = InitCommandRequestPacket.readPayload(givenPayload);
+
+            // verify
+            assertThat(actual, is(given));
+        }
+    }
+
+    public static class WriteTo {
+        @Test
+        public void normal() {
+            // given
+            InitCommandRequestPacket given = new InitCommandRequestPacket(GUID_, NAME, PROTOCOL_VERSION);
+
+            // expected
+            byte[] expectedPayload = ArrayUtils.join(
+                    GUID.toBytes(GUID_),
+                    PtpIpString.toBytes(NAME),
+                    PROTOCOL_VERSION.bytes()
+            );
+            byte[] expected = ArrayUtils.join(
+                    new UINT32(8 + expectedPayload.length).bytes(),
+                    INIT_COMMAND_REQUEST.value().bytes(),
+                    expectedPayload
+            );
+
+            // arrange
+            ByteBuffer buffer = ByteBuffer.allocate(given.size());
+
+            // act
+            given.writeTo(buffer);
+
+            // verify
+            assertThat(given.size(), is(expected.length));
+            assertThat(buffer.array(), is(expected));
+        }
+    }
+
     public static class HashCode {
         @Test
         public void ofDifferentGUID() {
@@ -14,6 +14,10 @@ import org.theta4j.util.ArrayUtils;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
 
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsNot.not;
@@ -173,6 +177,86 @@ public class OperationRequestPacketTest {
         }
     }
 
+    public static class ReadPayload {
+        @Test(expected = NullPointerException.class)
+        public void nullValue() throws IOException {
+            // act
+            OperationRequestPacket.readPayload(null);
+        }
+
+        @Test(expected = IOException.class)
+        public void invalidLengthPayload() throws IOException {
+            // given
+            ByteBuffer givenPayload = ByteBuffer.wrap(new byte[PAYLOAD.length - 1]);
+
+            // act
+            OperationRequestPacket.readPayload(givenPayload);
+        }
+
+        @Test
+        public void normal() throws IOException {
+            // given
+            OperationRequestPacket given = new OperationRequestPacket(DATA_PHASE_INFO, OPERATION_CODE, TRANSACTION_ID, P1, P2, P3, P4, P5);
+
+            // arrange
+            ByteBuffer givenPayload = ByteBuffer.wrap(given.getPayload());
+
+            // act
+            OperationRequestPacket actual = OperationRequestPacket.readPayload(givenPayload);
+
+            // verify
+            assertThat(actual, is(given));
+        }
+    }
+
+    public static class WriteTo {
+        @Test(expected = NullPointerException.class)
+        public void nullValue() {
+            // act
+            new OperationRequestPacket(DATA_PHASE_INFO, OPERATION_CODE, TRANSACTION_ID, P1, P2, P3, P4, P5).writeTo(null);
+        }
+
+        @Test(expected = BufferOverflowException.class)
+        public void tooSmallBuffer() {
+            // given
+            OperationRequestPacket given = new OperationRequestPacket(DATA_PHASE_INFO, OPERATION_CODE, TRANSACTION_ID, P1, P2, P3, P4, P5);
+
+            // act
+            given.writeTo(ByteBuffer.allocate(given.size() - 1));
+        }
+
+        @Test
+        public void normal() {
+            // given
+            OperationRequestPacket given = new OperationRequestPacket(DATA_PHASE_INFO, OPERATION_CODE, TRANSACTION_ID, P1, P2, P3, P4, P5);
+
+            // expected
+            byte[] expectedPayload = ArrayUtils.join(
+                    DATA_PHASE_INFO.bytes(), OPERATION_CODE.bytes(), TRANSACTION_ID.bytes(),
+                    P1.bytes(), P2.bytes(), P3.bytes(), P4.bytes(), P5.bytes()
+            );
+            byte[] expected = ArrayUtils.join(
+                    new UINT32(8 + expectedPayload.length).bytes(),
+                    OPERATION_REQUEST.value().bytes(),
+                    expectedPayload
+            );
+
+            // arrange
+            ByteBuffer buffer = ByteBuffer.allocate(given.size() + 3).order(ByteOrder.BIG_ENDIAN);
+            buffer.position(3);
+
+            // act
+            given.writeTo(buffer);
+
+            // verify
+            assertThat(given.size(), is(expected.length));
+            assertThat(buffer.position(), is(3 + expected.length));
+            assertThat(buffer.order(), is(ByteOrder.BIG_ENDIAN));
+            assertThat(Arrays.copyOfRange(buffer.array(), 3, buffer.position()), is(expected));
+            assertThat(given.bytes(), is(expected));
+        }
+    }
+
     public static class HashCode {
         @Test
         public void ofDifferentDataPhaseInfo() {
@@ -5,6 +5,9 @@
 package org.theta4j.ptpip.packet;
 
 import org.junit.Test;
+import org.theta4j.ptp.type.UINT32;
+
+import java.nio.ByteBuffer;
 
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
@@ -23,8 +26,13 @@ public class PtpIpPacketTest {
             }
 
             @Override
-            public byte[] getPayload() {
-                return PAYLOAD;
+            int getPayloadSize() {
+                return PAYLOAD.length;
+            }
+
+            @Override
+            void writePayload(ByteBuffer buffer) {
+                buffer.put(PAYLOAD);
             }
         };
 
@@ -37,4 +45,17 @@ public class PtpIpPacketTest {
         // verify
         assertThat(actual, is(expected));
     }
+
+    @Test
+    public void typeValueOf() {
+        // verify
+        assertThat(PtpIpPacket.Type.valueOf(0x000C), is(PtpIpPacket.Type.END_DATA));
+        assertThat(PtpIpPacket.Type.valueOf(UINT32.valueOf(0x000C)), is(PtpIpPacket.Type.END_DATA));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void typeValueOfUnknownValue() {
+        // act
+        PtpIpPacket.Type.valueOf(0xFFFF_FFFF);
+    }
 }